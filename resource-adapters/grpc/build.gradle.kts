@@ -1,15 +1,42 @@
 plugins {
     `java-library`
+    id("com.google.protobuf") version "0.9.5"
 }
 
+val grpcVersion = "1.76.0"
+val protobufVersion = "4.32.1"
+
 dependencies {
     implementation(project(":resource-application"))
     api("com.erval.argos:argos-contracts:0.0.1-SNAPSHOT")
 
+    implementation("io.grpc:grpc-protobuf:$grpcVersion")
+    implementation("io.grpc:grpc-stub:$grpcVersion")
+    compileOnly("org.apache.tomcat:annotations-api:6.0.53")
+
     compileOnly("org.projectlombok:lombok:1.18.42")
     annotationProcessor("org.projectlombok:lombok:1.18.42")
 
     testCompileOnly("org.projectlombok:lombok:1.18.42")
     testAnnotationProcessor("org.projectlombok:lombok:1.18.42")
+    testImplementation("io.grpc:grpc-inprocess:$grpcVersion")
     implementation("org.springframework:spring-context")
 }
+
+protobuf {
+    protoc {
+        artifact = "com.google.protobuf:protoc:$protobufVersion"
+    }
+    plugins {
+        create("grpc") {
+            artifact = "io.grpc:protoc-gen-grpc-java:$grpcVersion"
+        }
+    }
+    generateProtoTasks {
+        all().forEach { task ->
+            task.plugins {
+                create("grpc")
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.erval.argos.resource.adapters.grpc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.resource.adapters.grpc.latest.v1.DeviceMeasurements;
+import com.erval.argos.resource.adapters.grpc.latest.v1.GetLatestMeasurementsRequest;
+import com.erval.argos.resource.adapters.grpc.latest.v1.LatestMeasurement;
+import com.erval.argos.resource.adapters.grpc.latest.v1.LatestMeasurementsServiceGrpc.LatestMeasurementsServiceImplBase;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * gRPC adapter streaming the newest measurements of many devices at once,
+ * backed by {@link MeasurementQueryUseCase}.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>one message per device, in request order, so a message holds at most
+ * {@code MAX_LIMIT} measurements and stays far below the default 4 MB gRPC
+ * message limit</li>
+ * <li>devices are read {@code DEVICES_PER_READ} at a time, and the next group
+ * only once the previous one was sent while the call reported itself ready,
+ * so a slow client does not make the server hold every device's readings</li>
+ * <li>invalid requests are answered with {@code INVALID_ARGUMENT}</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LatestMeasurementsGrpcService extends LatestMeasurementsServiceImplBase {
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 500;
+    private static final int MAX_DEVICES = 1000;
+    private static final int DEVICES_PER_READ = 100;
+
+    private final MeasurementQueryUseCase measurementQuery;
+
+    /**
+     * Streams the newest measurements of every requested device.
+     *
+     * @param request          device ids, optional type and per-device limit
+     * @param responseObserver receives one message per device or an error
+     */
+    @Override
+    public void getLatestMeasurements(GetLatestMeasurementsRequest request,
+            StreamObserver<DeviceMeasurements> responseObserver) {
+        List<List<String>> groups;
+        MeasurementType type;
+        try {
+            if (request.getDeviceIdsCount() == 0) {
+                throw new IllegalArgumentException("At least one device id is required");
+            }
+            if (request.getDeviceIdsCount() > MAX_DEVICES) {
+                throw new IllegalArgumentException("At most " + MAX_DEVICES + " device ids are allowed");
+            }
+            type = parseType(request.getType());
+            groups = groups(request.getDeviceIdsList());
+        } catch (IllegalArgumentException ex) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(ex.getMessage()).asRuntimeException());
+            return;
+        }
+        int limit = request.getLimit() > 0 ? Math.min(request.getLimit(), MAX_LIMIT) : DEFAULT_LIMIT;
+
+        var call = (ServerCallStreamObserver<DeviceMeasurements>) responseObserver;
+        Reply reply = new Reply(call, groups, type, limit);
+        call.setOnCancelHandler(reply::cancel);
+        call.setOnReadyHandler(reply::drain);
+    }
+
+    private static List<List<String>> groups(List<String> deviceIds) {
+        List<String> unique = List.copyOf(new LinkedHashSet<>(deviceIds));
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i < unique.size(); i += DEVICES_PER_READ) {
+            groups.add(unique.subList(i, Math.min(unique.size(), i + DEVICES_PER_READ)));
+        }
+        return groups;
+    }
+
+    private static MeasurementType parseType(String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return MeasurementType.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown measurement type: " + value);
+        }
+    }
+
+    private static DeviceMeasurements toProto(String deviceId, List<Measurement> measurements) {
+        var device = DeviceMeasurements.newBuilder().setDeviceId(deviceId);
+        for (var m : measurements) {
+            device.addMeasurements(LatestMeasurement.newBuilder()
+                    .setId(m.id() == null ? "" : m.id())
+                    .setType(m.type().name())
+                    .setValue(m.value())
+                    .setSequenceNumber(m.sequenceNumber())
+                    .setTimestamp(m.timestamp().toString())
+                    .addAllTags(m.tags() == null ? List.of() : m.tags())
+                    .build());
+        }
+        return device.build();
+    }
+
+    /**
+     * State of one call. gRPC serializes the ready and cancel callbacks of a
+     * call, so groups are never read concurrently.
+     */
+    private final class Reply {
+        private final ServerCallStreamObserver<DeviceMeasurements> call;
+        private final List<List<String>> groups;
+        private final MeasurementType type;
+        private final int limit;
+        private final Deque<DeviceMeasurements> pending = new ArrayDeque<>();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private int nextGroup;
+
+        private Reply(ServerCallStreamObserver<DeviceMeasurements> call, List<List<String>> groups,
+                MeasurementType type, int limit) {
+            this.call = call;
+            this.groups = groups;
+            this.type = type;
+            this.limit = limit;
+        }
+
+        void drain() {
+            try {
+                while (call.isReady() && !finished.get()) {
+                    if (!pending.isEmpty()) {
+                        call.onNext(pending.poll());
+                    } else if (nextGroup < groups.size()) {
+                        measurementQuery.findLatestMeasurements(groups.get(nextGroup++), type, limit)
+                                .forEach((deviceId, measurements) -> pending.add(toProto(deviceId, measurements)));
+                    } else {
+                        if (finish()) {
+                            call.onCompleted();
+                        }
+                        return;
+                    }
+                }
+            } catch (IllegalArgumentException ex) {
+                if (finish()) {
+                    call.onError(Status.INVALID_ARGUMENT.withDescription(ex.getMessage()).asRuntimeException());
+                }
+            } catch (RuntimeException ex) {
+                log.error("Latest measurements lookup failed", ex);
+                if (finish()) {
+                    call.onError(Status.INTERNAL.withDescription(ex.getMessage()).withCause(ex)
+                            .asRuntimeException());
+                }
+            }
+        }
+
+        void cancel() {
+            finish();
+        }
+
+        private boolean finish() {
+            return finished.compareAndSet(false, true);
+        }
+    }
+}
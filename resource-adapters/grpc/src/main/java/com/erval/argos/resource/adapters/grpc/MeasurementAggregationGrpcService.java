@@ -0,0 +1,94 @@
+package com.erval.argos.resource.adapters.grpc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.resource.adapters.grpc.aggregation.v1.AggregateMeasurementsRequest;
+import com.erval.argos.resource.adapters.grpc.aggregation.v1.AggregateMeasurementsResponse;
+import com.erval.argos.resource.adapters.grpc.aggregation.v1.MeasurementAggregationServiceGrpc.MeasurementAggregationServiceImplBase;
+import com.erval.argos.resource.adapters.grpc.aggregation.v1.MeasurementBucket;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * gRPC adapter for time-bucketed measurement statistics backed by
+ * {@link MeasurementAggregationUseCase}.
+ * <p>
+ * Invalid requests are answered with {@code INVALID_ARGUMENT}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MeasurementAggregationGrpcService extends MeasurementAggregationServiceImplBase {
+
+    private final MeasurementAggregationUseCase measurementAggregation;
+
+    /**
+     * Aggregates one device series into fixed-size buckets.
+     *
+     * @param request          series, window and bucket size
+     * @param responseObserver receives the buckets or an error
+     */
+    @Override
+    public void aggregateMeasurements(AggregateMeasurementsRequest request,
+            StreamObserver<AggregateMeasurementsResponse> responseObserver) {
+        try {
+            AggregationQuery query = toQuery(request);
+            var res = AggregateMeasurementsResponse.newBuilder();
+            for (var bucket : measurementAggregation.aggregate(query)) {
+                res.addBuckets(MeasurementBucket.newBuilder()
+                        .setStart(bucket.start().toString())
+                        .setCount(bucket.count())
+                        .setMin(bucket.min())
+                        .setMax(bucket.max())
+                        .setAvg(bucket.avg())
+                        .setFirst(bucket.first())
+                        .setLast(bucket.last())
+                        .build());
+            }
+            responseObserver.onNext(res.build());
+            responseObserver.onCompleted();
+        } catch (IllegalArgumentException ex) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(ex.getMessage()).asRuntimeException());
+        } catch (Exception ex) {
+            log.error("Measurement aggregation failed", ex);
+            responseObserver.onError(Status.INTERNAL.withDescription(ex.getMessage()).withCause(ex)
+                    .asRuntimeException());
+        }
+    }
+
+    private static AggregationQuery toQuery(AggregateMeasurementsRequest request) {
+        MeasurementType type;
+        try {
+            type = MeasurementType.valueOf(request.getType());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown measurement type: " + request.getType());
+        }
+        return new AggregationQuery(
+                request.getDeviceId(),
+                type,
+                parseInstant(request.getFrom()),
+                parseInstant(request.getTo()),
+                Duration.ofSeconds(request.getIntervalSeconds()));
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid timestamp format, expected ISO-8601: " + value);
+        }
+    }
+}
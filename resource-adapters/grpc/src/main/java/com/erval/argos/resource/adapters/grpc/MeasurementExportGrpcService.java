@@ -0,0 +1,163 @@
+package com.erval.argos.resource.adapters.grpc;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.resource.adapters.grpc.export.v1.ExportMeasurementsRequest;
+import com.erval.argos.resource.adapters.grpc.export.v1.ExportedMeasurement;
+import com.erval.argos.resource.adapters.grpc.export.v1.MeasurementExportServiceGrpc.MeasurementExportServiceImplBase;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * gRPC server-streaming adapter exporting measurement ranges backed by
+ * {@link MeasurementQueryUseCase#streamMeasurements}.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>messages are only sent while the transport reports the call as ready,
+ * so a slow client pauses the storage cursor instead of filling memory</li>
+ * <li>the storage cursor is closed on completion, failure or cancellation</li>
+ * <li>invalid requests are answered with {@code INVALID_ARGUMENT}</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MeasurementExportGrpcService extends MeasurementExportServiceImplBase {
+
+    private final MeasurementQueryUseCase measurementQuery;
+
+    /**
+     * Streams all measurements matching the request.
+     *
+     * @param request          optional device, type and time window
+     * @param responseObserver receives the measurements or an error
+     */
+    @Override
+    public void exportMeasurements(ExportMeasurementsRequest request,
+            StreamObserver<ExportedMeasurement> responseObserver) {
+        MeasurementFilter filter;
+        try {
+            filter = toFilter(request);
+        } catch (IllegalArgumentException ex) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(ex.getMessage()).asRuntimeException());
+            return;
+        }
+
+        var call = (ServerCallStreamObserver<ExportedMeasurement>) responseObserver;
+        Stream<Measurement> measurements;
+        try {
+            measurements = measurementQuery.streamMeasurements(filter);
+        } catch (RuntimeException ex) {
+            log.error("Measurement export failed", ex);
+            call.onError(Status.INTERNAL.withDescription(ex.getMessage()).withCause(ex).asRuntimeException());
+            return;
+        }
+        Export export = new Export(call, measurements);
+        call.setOnCancelHandler(export::cancel);
+        call.setOnReadyHandler(export::drain);
+    }
+
+    private static MeasurementFilter toFilter(ExportMeasurementsRequest request) {
+        MeasurementType type = null;
+        if (!request.getType().isBlank()) {
+            try {
+                type = MeasurementType.valueOf(request.getType());
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unknown measurement type: " + request.getType());
+            }
+        }
+        return new MeasurementFilter(
+                request.getDeviceId().isBlank() ? null : request.getDeviceId(),
+                type,
+                parseInstant(request.getFrom()),
+                parseInstant(request.getTo()));
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid timestamp format, expected ISO-8601: " + value);
+        }
+    }
+
+    private static ExportedMeasurement toProto(Measurement m) {
+        return ExportedMeasurement.newBuilder()
+                .setId(m.id() == null ? "" : m.id())
+                .setDeviceId(m.deviceId())
+                .setType(m.type().name())
+                .setValue(m.value())
+                .setSequenceNumber(m.sequenceNumber())
+                .setTimestamp(m.timestamp().toString())
+                .addAllTags(m.tags() == null ? List.of() : m.tags())
+                .build();
+    }
+
+    /**
+     * State of one export call. gRPC serializes the ready and cancel
+     * callbacks of a call, so the iterator is never advanced concurrently.
+     */
+    private static final class Export {
+        private final ServerCallStreamObserver<ExportedMeasurement> call;
+        private final Stream<Measurement> measurements;
+        private final Iterator<Measurement> iterator;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Export(ServerCallStreamObserver<ExportedMeasurement> call, Stream<Measurement> measurements) {
+            this.call = call;
+            this.measurements = measurements;
+            this.iterator = measurements.iterator();
+        }
+
+        void drain() {
+            try {
+                while (call.isReady() && !finished.get()) {
+                    if (!iterator.hasNext()) {
+                        if (finish()) {
+                            call.onCompleted();
+                        }
+                        return;
+                    }
+                    call.onNext(toProto(iterator.next()));
+                }
+            } catch (RuntimeException ex) {
+                log.error("Measurement export failed", ex);
+                if (finish()) {
+                    call.onError(Status.INTERNAL.withDescription(ex.getMessage()).withCause(ex)
+                            .asRuntimeException());
+                }
+            }
+        }
+
+        void cancel() {
+            finish();
+        }
+
+        private boolean finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            measurements.close();
+            return true;
+        }
+    }
+}
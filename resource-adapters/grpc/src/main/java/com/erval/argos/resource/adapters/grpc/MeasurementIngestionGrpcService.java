@@ -0,0 +1,201 @@
+package com.erval.argos.resource.adapters.grpc;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.erval.argos.application.measurement.IngestionRejectedException;
+import com.erval.argos.core.application.BatchItemResult;
+import com.erval.argos.core.application.port.in.commands.MeasurementCommandUseCase;
+import com.erval.argos.core.application.port.in.commands.MeasurementCommandUseCase.CreateMeasurementCommand;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.resource.adapters.grpc.ingestion.v1.IngestMeasurementRequest;
+import com.erval.argos.resource.adapters.grpc.ingestion.v1.IngestMeasurementsSummary;
+import com.erval.argos.resource.adapters.grpc.ingestion.v1.IngestRejection;
+import com.erval.argos.resource.adapters.grpc.ingestion.v1.MeasurementIngestionServiceGrpc.MeasurementIngestionServiceImplBase;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * gRPC adapter for client-streaming measurement ingestion.
+ * <p>
+ * Each call:
+ * <ul>
+ * <li>requests at most {@code batchSize} messages at a time (manual flow
+ * control), so a fast producer is held back by HTTP/2 windows instead of
+ * growing server memory</li>
+ * <li>hands every full batch to
+ * {@link MeasurementCommandUseCase#createMeasurements}</li>
+ * <li>answers with accepted/rejected counts once the client half-closes</li>
+ * <li>when a batch fails, ends with an error whose trailers carry the
+ * summary so far under {@link #SUMMARY_TRAILER}, including the first
+ * message index the client has to resend</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class MeasurementIngestionGrpcService extends MeasurementIngestionServiceImplBase {
+
+    /** Trailer of failed calls holding the summary up to the failure. */
+    public static final Metadata.Key<IngestMeasurementsSummary> SUMMARY_TRAILER =
+            ProtoUtils.keyForProto(IngestMeasurementsSummary.getDefaultInstance());
+
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final MeasurementCommandUseCase measurementCommand;
+    private final int batchSize;
+
+    public MeasurementIngestionGrpcService(MeasurementCommandUseCase measurementCommand,
+            @Value("${argos.resource.grpc.ingestion.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Ingestion batch-size must be positive: " + batchSize);
+        }
+        this.measurementCommand = measurementCommand;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Opens an ingestion stream.
+     *
+     * @param responseObserver receives the summary or an error
+     * @return observer consuming the client's measurement stream
+     */
+    @Override
+    public StreamObserver<IngestMeasurementRequest> ingestMeasurements(
+            StreamObserver<IngestMeasurementsSummary> responseObserver) {
+        var serverObserver = (ServerCallStreamObserver<IngestMeasurementsSummary>) responseObserver;
+        serverObserver.disableAutoRequest();
+        IngestionCall call = new IngestionCall(serverObserver);
+        serverObserver.request(batchSize);
+        return call;
+    }
+
+    private final class IngestionCall implements StreamObserver<IngestMeasurementRequest> {
+
+        private final ServerCallStreamObserver<IngestMeasurementsSummary> responseObserver;
+        private final List<CreateMeasurementCommand> pending = new ArrayList<>(batchSize);
+        private final List<Long> pendingIndexes = new ArrayList<>(batchSize);
+        private final IngestMeasurementsSummary.Builder summary = IngestMeasurementsSummary.newBuilder();
+        private long received;
+        private int outstanding = batchSize;
+        private boolean failed;
+
+        private IngestionCall(ServerCallStreamObserver<IngestMeasurementsSummary> responseObserver) {
+            this.responseObserver = responseObserver;
+        }
+
+        @Override
+        public void onNext(IngestMeasurementRequest request) {
+            if (failed) {
+                return;
+            }
+            long index = received++;
+            outstanding--;
+            try {
+                pending.add(toCommand(request));
+                pendingIndexes.add(index);
+            } catch (IllegalArgumentException ex) {
+                reject(index, ex.getMessage());
+            }
+
+            if (outstanding == 0) {
+                if (!flush()) {
+                    return;
+                }
+                outstanding = batchSize;
+                responseObserver.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.warn("Measurement ingestion stream aborted by client after {} messages", received, t);
+            pending.clear();
+            pendingIndexes.clear();
+        }
+
+        @Override
+        public void onCompleted() {
+            if (failed || !flush()) {
+                return;
+            }
+            responseObserver.onNext(summary.setReceived(received).build());
+            responseObserver.onCompleted();
+        }
+
+        private boolean flush() {
+            if (pending.isEmpty()) {
+                return true;
+            }
+            try {
+                List<BatchItemResult<Measurement>> results = measurementCommand.createMeasurements(pending);
+                for (BatchItemResult<Measurement> result : results) {
+                    if (result.succeeded()) {
+                        summary.setAccepted(summary.getAccepted() + 1);
+                    } else {
+                        reject(pendingIndexes.get(result.index()), result.error());
+                    }
+                }
+                return true;
+            } catch (IngestionRejectedException ex) {
+                fail(Status.RESOURCE_EXHAUSTED.withDescription(ex.getMessage()), pendingIndexes.get(0));
+                return false;
+            } catch (RuntimeException ex) {
+                log.error("Measurement ingestion batch failed", ex);
+                fail(Status.INTERNAL.withDescription(ex.getMessage()).withCause(ex), pendingIndexes.get(0));
+                return false;
+            } finally {
+                pending.clear();
+                pendingIndexes.clear();
+            }
+        }
+
+        private void reject(long index, String reason) {
+            summary.setRejected(summary.getRejected() + 1);
+            if (summary.getRejectionsCount() < MAX_REPORTED_REJECTIONS) {
+                summary.addRejections(IngestRejection.newBuilder()
+                        .setIndex(index)
+                        .setReason(reason == null ? "" : reason)
+                        .build());
+            }
+        }
+
+        private void fail(Status status, long firstUnflushed) {
+            failed = true;
+            Metadata trailers = new Metadata();
+            trailers.put(SUMMARY_TRAILER, summary.setReceived(received)
+                    .setFirstUnflushedIndex(firstUnflushed)
+                    .build());
+            responseObserver.onError(status.asRuntimeException(trailers));
+        }
+    }
+
+    private static CreateMeasurementCommand toCommand(IngestMeasurementRequest request) {
+        if (request.getDeviceId().isBlank()) {
+            throw new IllegalArgumentException("Device id is required");
+        }
+        MeasurementType type;
+        try {
+            type = MeasurementType.valueOf(request.getType());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown measurement type: " + request.getType());
+        }
+        Instant timestamp;
+        try {
+            timestamp = request.getTimestamp().isBlank() ? null : Instant.parse(request.getTimestamp());
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid timestamp format, expected ISO-8601: " + request.getTimestamp());
+        }
+        return new CreateMeasurementCommand(request.getDeviceId(), type, request.getValue(), timestamp);
+    }
+}
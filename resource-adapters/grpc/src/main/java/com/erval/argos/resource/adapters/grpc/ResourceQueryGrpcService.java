@@ -11,8 +11,6 @@ import com.erval.argos.contracts.resource.v1.GetLastMeasurementsRequest;
 import com.erval.argos.contracts.resource.v1.GetLastMeasurementsResponse;
 import com.erval.argos.contracts.resource.v1.Measurement;
 import com.erval.argos.contracts.resource.v1.ResourceQueryServiceGrpc.ResourceQueryServiceImplBase;
-import com.erval.argos.core.application.PageRequest;
-import com.erval.argos.core.application.SortDirection;
 import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase;
 import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase;
 
@@ -84,7 +82,8 @@ public class ResourceQueryGrpcService extends ResourceQueryServiceImplBase {
      * descending.
      * <p>
      * Applies a limit (max 500) and defaults the {@code to} timestamp to now
-     * when omitted.
+     * when omitted. Requests without {@code to} may be answered from the
+     * in-memory latest-measurement cache.
      *
      * @param request          contains device id, optional limit and to timestamp
      * @param responseObserver streams the response or an error
@@ -103,24 +102,13 @@ public class ResourceQueryGrpcService extends ResourceQueryServiceImplBase {
             limit = Math.min(limit, 500);
 
             Instant to = request.getTo().isBlank()
-                    ? Instant.now()
+                    ? null
                     : Instant.parse(request.getTo());
 
-            var filter = new MeasurementQueryUseCase.MeasurementFilter(
-                    deviceId,
-                    null,
-                    null,
-                    to);
-
-            var pageReq = new PageRequest(0,
-                    limit,
-                    "timestamp",
-                    SortDirection.DESC);
-
-            var page = measurementQuery.findMeasurements(filter, pageReq);
+            var latest = measurementQuery.findLatestMeasurements(deviceId, to, limit);
 
             var res = GetLastMeasurementsResponse.newBuilder();
-            for (var m : page.content()) {
+            for (var m : latest) {
                 res.addMeasurements(Measurement.newBuilder()
                         .setId(m.id() == null ? "" : m.id())
                         .setDeviceId(m.deviceId())
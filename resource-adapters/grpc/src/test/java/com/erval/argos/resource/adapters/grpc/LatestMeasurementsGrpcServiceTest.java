@@ -0,0 +1,141 @@
+package com.erval.argos.resource.adapters.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.resource.adapters.grpc.latest.v1.DeviceMeasurements;
+import com.erval.argos.resource.adapters.grpc.latest.v1.GetLatestMeasurementsRequest;
+import com.erval.argos.resource.adapters.grpc.latest.v1.LatestMeasurement;
+import com.erval.argos.resource.adapters.grpc.latest.v1.LatestMeasurementsServiceGrpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+
+class LatestMeasurementsGrpcServiceTest {
+
+    private final RecordingQueries queries = new RecordingQueries();
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new LatestMeasurementsGrpcService(queries))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void streamsOneMessagePerDeviceInRequestOrderReadingHundredDevicesAtATime() {
+        List<String> deviceIds = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            deviceIds.add("d" + i);
+        }
+        deviceIds.add("d0");
+
+        Iterator<DeviceMeasurements> replies = LatestMeasurementsServiceGrpc.newBlockingStub(channel)
+                .getLatestMeasurements(GetLatestMeasurementsRequest.newBuilder()
+                        .addAllDeviceIds(deviceIds)
+                        .setLimit(2)
+                        .build());
+        List<DeviceMeasurements> devices = new ArrayList<>();
+        replies.forEachRemaining(devices::add);
+
+        assertEquals(250, devices.size());
+        assertEquals("d0", devices.get(0).getDeviceId());
+        assertEquals("d249", devices.get(249).getDeviceId());
+        assertEquals(List.of(2.0, 1.0), devices.get(7).getMeasurementsList().stream()
+                .map(LatestMeasurement::getValue)
+                .toList());
+        assertEquals(List.of(100, 100, 50), queries.groupSizes);
+    }
+
+    @Test
+    void rejectsRequestsWithoutDevicesOrWithUnknownType() {
+        var stub = LatestMeasurementsServiceGrpc.newBlockingStub(channel);
+
+        StatusRuntimeException empty = assertThrows(StatusRuntimeException.class,
+                () -> stub.getLatestMeasurements(GetLatestMeasurementsRequest.getDefaultInstance()).hasNext());
+        StatusRuntimeException unknownType = assertThrows(StatusRuntimeException.class,
+                () -> stub.getLatestMeasurements(GetLatestMeasurementsRequest.newBuilder()
+                        .addDeviceIds("d1")
+                        .setType("NOPE")
+                        .build()).hasNext());
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, empty.getStatus().getCode());
+        assertEquals(Status.Code.INVALID_ARGUMENT, unknownType.getStatus().getCode());
+        assertEquals(List.of(), queries.groupSizes);
+    }
+
+    /**
+     * Query use case answering every device with {@code limit} readings,
+     * newest first, and recording the size of each read.
+     */
+    private static class RecordingQueries implements MeasurementQueryUseCase {
+        private final List<Integer> groupSizes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Map<String, List<Measurement>> findLatestMeasurements(Collection<String> deviceIds,
+                MeasurementType type, int limit) {
+            groupSizes.add(deviceIds.size());
+            Map<String, List<Measurement>> latest = new LinkedHashMap<>();
+            for (String deviceId : deviceIds) {
+                List<Measurement> readings = new ArrayList<>();
+                for (int i = limit; i > 0; i--) {
+                    readings.add(new Measurement(deviceId + "-" + i, deviceId, MeasurementType.TEMP, i, i,
+                            Instant.EPOCH.plusSeconds(i), null));
+                }
+                latest.put(deviceId, readings);
+            }
+            return latest;
+        }
+
+        @Override
+        public PageResult<Measurement> findMeasurements(MeasurementFilter filter, PageRequest pageRequest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Measurement> findLatestMeasurements(String deviceId, Instant to, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<Measurement> streamMeasurements(MeasurementFilter filter) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
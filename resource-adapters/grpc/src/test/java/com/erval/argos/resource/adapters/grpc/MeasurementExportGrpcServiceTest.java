@@ -0,0 +1,217 @@
+package com.erval.argos.resource.adapters.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.resource.adapters.grpc.export.v1.ExportMeasurementsRequest;
+import com.erval.argos.resource.adapters.grpc.export.v1.ExportedMeasurement;
+import com.erval.argos.resource.adapters.grpc.export.v1.MeasurementExportServiceGrpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+
+class MeasurementExportGrpcServiceTest {
+
+    private final StreamingQueries queries = new StreamingQueries();
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new MeasurementExportGrpcService(queries))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void streamsEveryMatchingMeasurementAndClosesTheCursor() {
+        queries.size = 250;
+
+        Iterator<ExportedMeasurement> replies = MeasurementExportServiceGrpc.newBlockingStub(channel)
+                .exportMeasurements(ExportMeasurementsRequest.newBuilder()
+                        .setDeviceId("d1")
+                        .setType("TEMP")
+                        .setFrom("2026-01-01T00:00:00Z")
+                        .build());
+        List<ExportedMeasurement> exported = new ArrayList<>();
+        replies.forEachRemaining(exported::add);
+
+        assertEquals(250, exported.size());
+        assertEquals("m0", exported.get(0).getId());
+        assertEquals("m249", exported.get(249).getId());
+        assertEquals(List.of(new MeasurementFilter("d1", MeasurementType.TEMP,
+                Instant.parse("2026-01-01T00:00:00Z"), null)), queries.filters);
+        assertTrue(queries.closed.get());
+    }
+
+    @Test
+    void readsTheCursorOnlyAsFarAsTheClientRequestsAndClosesItOnCancel() throws Exception {
+        queries.size = 1000;
+        CompletableFuture<ClientCallStreamObserver<ExportMeasurementsRequest>> started = new CompletableFuture<>();
+        List<ExportedMeasurement> received = new CopyOnWriteArrayList<>();
+        MeasurementExportServiceGrpc.newStub(channel).exportMeasurements(ExportMeasurementsRequest.getDefaultInstance(),
+                new ClientResponseObserver<ExportMeasurementsRequest, ExportedMeasurement>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<ExportMeasurementsRequest> requestStream) {
+                        requestStream.disableAutoRequestWithInitial(1);
+                        started.complete(requestStream);
+                    }
+
+                    @Override
+                    public void onNext(ExportedMeasurement measurement) {
+                        received.add(measurement);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        // cancelled below
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        // cancelled before the end
+                    }
+                });
+        ClientCallStreamObserver<ExportMeasurementsRequest> call = started.get(5, TimeUnit.SECONDS);
+
+        await(() -> received.size() == 1);
+        assertTrue(queries.pulled.get() <= 2, "pulled " + queries.pulled.get());
+
+        call.request(9);
+        await(() -> received.size() == 10);
+        assertTrue(queries.pulled.get() <= 11, "pulled " + queries.pulled.get());
+        assertFalse(queries.closed.get());
+
+        call.cancel("client gone", null);
+        await(queries.closed::get);
+        assertEquals(10, received.size());
+    }
+
+    @Test
+    void endsTheCallWithInternalWhenTheCursorFailsMidStream() {
+        queries.size = 10;
+        queries.failAt = 3;
+
+        Iterator<ExportedMeasurement> replies = MeasurementExportServiceGrpc.newBlockingStub(channel)
+                .exportMeasurements(ExportMeasurementsRequest.getDefaultInstance());
+        List<ExportedMeasurement> exported = new ArrayList<>();
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class,
+                () -> replies.forEachRemaining(exported::add));
+
+        assertEquals(Status.Code.INTERNAL, ex.getStatus().getCode());
+        assertEquals("cursor lost", ex.getStatus().getDescription());
+        assertEquals(3, exported.size());
+        assertTrue(queries.closed.get());
+    }
+
+    @Test
+    void rejectsInvalidRequestsWithoutOpeningACursor() {
+        var stub = MeasurementExportServiceGrpc.newBlockingStub(channel);
+
+        StatusRuntimeException unknownType = assertThrows(StatusRuntimeException.class,
+                () -> stub.exportMeasurements(ExportMeasurementsRequest.newBuilder().setType("NOPE").build())
+                        .hasNext());
+        StatusRuntimeException badTimestamp = assertThrows(StatusRuntimeException.class,
+                () -> stub.exportMeasurements(ExportMeasurementsRequest.newBuilder().setFrom("yesterday").build())
+                        .hasNext());
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, unknownType.getStatus().getCode());
+        assertEquals(Status.Code.INVALID_ARGUMENT, badTimestamp.getStatus().getCode());
+        assertEquals(List.of(), queries.filters);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Query use case streaming {@code size} readings, counting how many the
+     * service pulled and whether it closed the stream, and failing at
+     * {@code failAt} when set.
+     */
+    private static class StreamingQueries implements MeasurementQueryUseCase {
+        private final List<MeasurementFilter> filters = new CopyOnWriteArrayList<>();
+        private final AtomicInteger pulled = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile int size;
+        private volatile int failAt = -1;
+
+        @Override
+        public Stream<Measurement> streamMeasurements(MeasurementFilter filter) {
+            filters.add(filter);
+            return IntStream.range(0, size)
+                    .peek(i -> {
+                        pulled.incrementAndGet();
+                        if (i == failAt) {
+                            throw new IllegalStateException("cursor lost");
+                        }
+                    })
+                    .mapToObj(i -> new Measurement("m" + i, "d1", MeasurementType.TEMP, i, i,
+                            Instant.EPOCH.plusSeconds(i), null))
+                    .onClose(() -> closed.set(true));
+        }
+
+        @Override
+        public PageResult<Measurement> findMeasurements(MeasurementFilter filter, PageRequest pageRequest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Measurement> findLatestMeasurements(String deviceId, Instant to, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, List<Measurement>> findLatestMeasurements(Collection<String> deviceIds,
+                MeasurementType type, int limit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.erval.argos.resource.adapters.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.application.measurement.IngestionRejectedException;
+import com.erval.argos.core.application.BatchItemResult;
+import com.erval.argos.core.application.port.in.commands.MeasurementCommandUseCase;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.resource.adapters.grpc.ingestion.v1.IngestMeasurementRequest;
+import com.erval.argos.resource.adapters.grpc.ingestion.v1.IngestMeasurementsSummary;
+import com.erval.argos.resource.adapters.grpc.ingestion.v1.MeasurementIngestionServiceGrpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+class MeasurementIngestionGrpcServiceTest {
+
+    private final RecordingCommands commands = new RecordingCommands();
+    private Server server;
+    private ManagedChannel channel;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (channel != null) {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (server != null) {
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void handsFullBatchesToTheUseCaseAndFlushesTheRestOnHalfClose() throws Exception {
+        start(3);
+
+        IngestMeasurementsSummary summary = ingest(List.of(
+                request("d1", "TEMP"), request("d1", "TEMP"), request("d1", "TEMP"),
+                request("d1", "TEMP"), request("d1", "TEMP"), request("d1", "TEMP"),
+                request("d1", "TEMP")));
+
+        assertEquals(List.of(3, 3, 1), commands.batchSizes);
+        assertEquals(7, summary.getReceived());
+        assertEquals(7, summary.getAccepted());
+        assertEquals(0, summary.getRejected());
+    }
+
+    @Test
+    void flushesPartialBatchWhenTheClientHalfCloses() throws Exception {
+        start(500);
+
+        IngestMeasurementsSummary summary = ingest(List.of(request("d1", "TEMP"), request("d2", "CO2")));
+
+        assertEquals(List.of(2), commands.batchSizes);
+        assertEquals(2, summary.getAccepted());
+    }
+
+    @Test
+    void reportsInvalidMessagesAndFailedItemsByStreamIndex() throws Exception {
+        commands.failDevice = "broken";
+        start(2);
+
+        IngestMeasurementsSummary summary = ingest(List.of(
+                request("d1", "TEMP"),
+                request("d1", "NOPE"),
+                request("broken", "TEMP"),
+                request("", "TEMP")));
+
+        assertEquals(4, summary.getReceived());
+        assertEquals(1, summary.getAccepted());
+        assertEquals(3, summary.getRejected());
+        assertEquals(List.of(
+                "1: Unknown measurement type: NOPE",
+                "3: Device id is required",
+                "2: device down"),
+                summary.getRejectionsList().stream()
+                        .map(rejection -> rejection.getIndex() + ": " + rejection.getReason())
+                        .toList());
+    }
+
+    @Test
+    void failsTheCallWithResourceExhaustedWhenIngestionIsRejected() throws Exception {
+        commands.rejectAll = true;
+        start(2);
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> ingest(List.of(request("d1", "TEMP"), request("d1", "TEMP"), request("d1", "TEMP"))));
+
+        StatusRuntimeException status = assertInstanceOf(StatusRuntimeException.class, ex.getCause());
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, status.getStatus().getCode());
+        assertEquals("buffer full", status.getStatus().getDescription());
+        assertEquals(List.of(2), commands.batchSizes);
+    }
+
+    @Test
+    void reportsTheSummaryAndFirstUnflushedIndexInTheErrorTrailers() throws Exception {
+        commands.rejectFromBatch = 1;
+        start(2);
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> ingest(List.of(
+                request("d1", "TEMP"), request("d1", "TEMP"),
+                request("d1", "NOPE"), request("d1", "TEMP"),
+                request("d1", "TEMP"))));
+
+        IngestMeasurementsSummary summary = Status.trailersFromThrowable(ex.getCause())
+                .get(MeasurementIngestionGrpcService.SUMMARY_TRAILER);
+        assertEquals(4, summary.getReceived());
+        assertEquals(2, summary.getAccepted());
+        assertEquals(1, summary.getRejected());
+        assertEquals(3, summary.getFirstUnflushedIndex());
+    }
+
+    @Test
+    void rejectsNonPositiveBatchSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new MeasurementIngestionGrpcService(commands, 0));
+    }
+
+    private void start(int batchSize) throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new MeasurementIngestionGrpcService(commands, batchSize))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    private IngestMeasurementsSummary ingest(List<IngestMeasurementRequest> requests) throws Exception {
+        CompletableFuture<IngestMeasurementsSummary> result = new CompletableFuture<>();
+        StreamObserver<IngestMeasurementRequest> stream = MeasurementIngestionServiceGrpc.newStub(channel)
+                .ingestMeasurements(new StreamObserver<>() {
+                    @Override
+                    public void onNext(IngestMeasurementsSummary summary) {
+                        result.complete(summary);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        // the summary arrives in onNext
+                    }
+                });
+        for (IngestMeasurementRequest request : requests) {
+            stream.onNext(request);
+        }
+        stream.onCompleted();
+        return result.get(5, TimeUnit.SECONDS);
+    }
+
+    private static IngestMeasurementRequest request(String deviceId, String type) {
+        return IngestMeasurementRequest.newBuilder()
+                .setDeviceId(deviceId)
+                .setType(type)
+                .setValue(21.5)
+                .build();
+    }
+
+    /**
+     * Use case recording the batches it receives.
+     */
+    private static class RecordingCommands implements MeasurementCommandUseCase {
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private volatile String failDevice;
+        private volatile boolean rejectAll;
+        private volatile int rejectFromBatch = Integer.MAX_VALUE;
+
+        @Override
+        public Measurement createMeasurement(CreateMeasurementCommand command) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BatchItemResult<Measurement>> createMeasurements(List<CreateMeasurementCommand> commands) {
+            batchSizes.add(commands.size());
+            if (rejectAll || batchSizes.size() > rejectFromBatch) {
+                throw new IngestionRejectedException("buffer full");
+            }
+            List<BatchItemResult<Measurement>> results = new ArrayList<>(commands.size());
+            for (int i = 0; i < commands.size(); i++) {
+                CreateMeasurementCommand cmd = commands.get(i);
+                if (cmd.deviceId().equals(failDevice)) {
+                    results.add(BatchItemResult.failure(i, "device down"));
+                } else {
+                    results.add(BatchItemResult.success(i, new Measurement("m" + i, cmd.deviceId(), cmd.type(),
+                            cmd.value(), 0, cmd.timestamp(), null)));
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public void deleteMeasurement(String id) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
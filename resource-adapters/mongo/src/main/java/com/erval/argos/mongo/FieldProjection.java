@@ -0,0 +1,55 @@
+package com.erval.argos.mongo;
+
+import java.util.Set;
+
+import com.erval.argos.core.application.PageRequest;
+
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Turns the field selection of a {@link PageRequest} into a Mongo projection.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>requests without a selection load whole documents</li>
+ * <li>selected names that are not stored fields, e.g. {@code __typename},
+ * are ignored</li>
+ * <li>{@code _id} and the sort field are always loaded, as cursors are built
+ * from them</li>
+ * </ul>
+ * Domain field names equal the document property names, so the mapping layer
+ * translates them, including {@code id} to {@code _id}.
+ */
+final class FieldProjection {
+
+    static final Set<String> MEASUREMENT_FIELDS = Set.of(
+            "deviceId", "type", "value", "sequenceNumber", "timestamp", "tags");
+    static final Set<String> DEVICE_FIELDS = Set.of(
+            "name", "type", "building", "room", "active", "deleted", "config");
+
+    private FieldProjection() {
+    }
+
+    /**
+     * Restricts the loaded fields to the selection of a page request.
+     *
+     * @param query       query to project
+     * @param pageRequest request carrying the optional field selection
+     * @param stored      projectable fields of the document
+     * @param sortBy      effective sort field
+     * @return the same query
+     */
+    static Query apply(Query query, PageRequest pageRequest, Set<String> stored, String sortBy) {
+        if (pageRequest.selectsAllFields()) {
+            return query;
+        }
+        Field fields = query.fields().include("id", sortBy);
+        for (String field : pageRequest.fields()) {
+            if (stored.contains(field)) {
+                fields.include(field);
+            }
+        }
+        return query;
+    }
+}
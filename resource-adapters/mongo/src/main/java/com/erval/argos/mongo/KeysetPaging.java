@@ -0,0 +1,93 @@
+package com.erval.argos.mongo;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.erval.argos.core.application.PageCursor;
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.SortDirection;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Shared paging logic for the Mongo adapters.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>results are always sorted by the requested field and then {@code _id},
+ * so every position has a unique cursor</li>
+ * <li>keyset requests seek past the cursor with a range predicate instead of
+ * skipping, so the cost does not grow with depth</li>
+ * <li>one extra item is fetched to decide whether a next cursor exists</li>
+ * </ul>
+ */
+final class KeysetPaging {
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * Applies sort, seek/skip and limit for a page request.
+     *
+     * @param query       query carrying the filter criteria
+     * @param pageRequest paging instructions
+     * @param sortBy      effective sort field
+     * @param parser      converts a cursor value back to the stored type
+     * @return the same query, ready to execute
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    static Query apply(Query query, PageRequest pageRequest, String sortBy,
+            BiFunction<String, String, Object> parser) {
+        SortDirection direction = direction(pageRequest);
+        if (pageRequest.isKeyset()) {
+            PageCursor cursor = PageCursor.decodeFor(pageRequest.after(), sortBy, direction);
+            Object value = parser.apply(sortBy, cursor.value());
+            Criteria seek = direction == SortDirection.ASC
+                    ? new Criteria().orOperator(
+                            Criteria.where(sortBy).gt(value),
+                            Criteria.where(sortBy).is(value).and("_id").gt(cursor.id()))
+                    : new Criteria().orOperator(
+                            Criteria.where(sortBy).lt(value),
+                            Criteria.where(sortBy).is(value).and("_id").lt(cursor.id()));
+            query.addCriteria(new Criteria().andOperator(seek));
+        } else {
+            query.skip((long) pageRequest.page() * pageRequest.size());
+        }
+        Sort.Direction sortDirection = direction == SortDirection.ASC ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return query.with(Sort.by(sortDirection, sortBy, "_id")).limit(pageRequest.size() + 1);
+    }
+
+    /**
+     * Trims the extra look-ahead item and builds the next cursor.
+     *
+     * @param fetched     items returned by a query built with {@link #apply}
+     * @param total       total matching items
+     * @param pageRequest paging instructions
+     * @param sortBy      effective sort field
+     * @param sortValue   extracts the string form of an item's sort value
+     * @param id          extracts an item's id
+     * @param <T>         item type
+     * @return page result with {@code nextCursor} set when more items follow
+     */
+    static <T> PageResult<T> toResult(List<T> fetched, PageTotal total, PageRequest pageRequest, String sortBy,
+            BiFunction<T, String, String> sortValue, Function<T, String> id) {
+        boolean hasNext = fetched.size() > pageRequest.size();
+        List<T> content = hasNext ? fetched.subList(0, pageRequest.size()) : fetched;
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.getLast();
+            nextCursor = new PageCursor(sortBy, direction(pageRequest), sortValue.apply(last, sortBy), id.apply(last))
+                    .encode();
+        }
+        return new PageResult<>(List.copyOf(content), total.value(), pageRequest.page(), pageRequest.size(),
+                nextCursor, total.capped());
+    }
+
+    static SortDirection direction(PageRequest pageRequest) {
+        return pageRequest.direction() == SortDirection.ASC ? SortDirection.ASC : SortDirection.DESC;
+    }
+}
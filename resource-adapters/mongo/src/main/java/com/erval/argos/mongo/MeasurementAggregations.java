@@ -0,0 +1,145 @@
+package com.erval.argos.mongo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+
+import org.bson.Document;
+
+/**
+ * Aggregation pipeline stages shared by the measurement adapters.
+ * <p>
+ * The stages expect one document per measurement with {@code timestamp} and
+ * {@code value} fields. They sort by time, so {@code $first}/{@code $last}
+ * pick the earliest and latest value, and group on {@code $dateTrunc} using
+ * the largest calendar unit that divides the interval evenly.
+ */
+final class MeasurementAggregations {
+
+    /** Devices read by one {@link #unionPerDevice} pipeline. */
+    static final int LATEST_DEVICES_PER_PIPELINE = 100;
+
+    private MeasurementAggregations() {
+    }
+
+    /**
+     * Builds the {@code $match} for a series and half-open time window, served
+     * by the device, type and timestamp index.
+     *
+     * @param query aggregation request
+     * @return match stage
+     */
+    static Document seriesMatch(AggregationQuery query) {
+        return new Document("$match", new Document("deviceId", query.deviceId())
+                .append("type", query.type().name())
+                .append("timestamp", new Document("$gte", Date.from(query.from()))
+                        .append("$lt", Date.from(query.to()))));
+    }
+
+    /**
+     * Builds the sort, group and final ordering stages.
+     *
+     * @param interval bucket size, a whole number of seconds
+     * @return pipeline stages
+     * @throws IllegalArgumentException if the interval has a sub-second part
+     */
+    static List<Document> bucketStages(Duration interval) {
+        if (interval.getNano() != 0) {
+            throw new IllegalArgumentException("Interval must be a whole number of seconds");
+        }
+        long seconds = interval.getSeconds();
+        String unit;
+        long binSize;
+        if (seconds % 86_400 == 0) {
+            unit = "day";
+            binSize = seconds / 86_400;
+        } else if (seconds % 3_600 == 0) {
+            unit = "hour";
+            binSize = seconds / 3_600;
+        } else if (seconds % 60 == 0) {
+            unit = "minute";
+            binSize = seconds / 60;
+        } else {
+            unit = "second";
+            binSize = seconds;
+        }
+        Document trunc = new Document("$dateTrunc", new Document("date", "$timestamp")
+                .append("unit", unit)
+                .append("binSize", binSize)
+                .append("timezone", "UTC"));
+        return List.of(
+                new Document("$sort", new Document("timestamp", 1)),
+                new Document("$group", new Document("_id", trunc)
+                        .append("count", new Document("$sum", 1))
+                        .append("min", new Document("$min", "$value"))
+                        .append("max", new Document("$max", "$value"))
+                        .append("avg", new Document("$avg", "$value"))
+                        .append("first", new Document("$first", "$value"))
+                        .append("last", new Document("$last", "$value"))),
+                new Document("$sort", new Document("_id", 1)));
+    }
+
+    /**
+     * Builds one pipeline reading the newest documents of several devices.
+     * The stages of the first device run on the collection and every other
+     * device is appended with {@code $unionWith}. Each device is therefore
+     * read by its own index-bounded sort and limit, costing {@code O(limit)}
+     * however long its history is, where a {@code $group} over all devices
+     * would read every matching document.
+     *
+     * @param collection collection the devices are read from
+     * @param deviceIds  at most {@link #LATEST_DEVICES_PER_PIPELINE} devices
+     * @param perDevice  stages emitting one device's newest documents, newest
+     *                   first
+     * @return pipeline emitting the documents of each device in turn
+     */
+    static List<Document> unionPerDevice(String collection, List<String> deviceIds,
+            Function<String, List<Document>> perDevice) {
+        List<Document> pipeline = new ArrayList<>(perDevice.apply(deviceIds.get(0)));
+        for (String deviceId : deviceIds.subList(1, deviceIds.size())) {
+            pipeline.add(new Document("$unionWith", new Document("coll", collection)
+                    .append("pipeline", perDevice.apply(deviceId))));
+        }
+        return pipeline;
+    }
+
+    /**
+     * Splits device ids into groups for {@link #unionPerDevice}, dropping
+     * duplicates.
+     *
+     * @param deviceIds device identifiers
+     * @return groups of at most {@link #LATEST_DEVICES_PER_PIPELINE} ids
+     */
+    static List<List<String>> devicePipelines(Collection<String> deviceIds) {
+        List<String> unique = List.copyOf(new LinkedHashSet<>(deviceIds));
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i < unique.size(); i += LATEST_DEVICES_PER_PIPELINE) {
+            groups.add(unique.subList(i, Math.min(unique.size(), i + LATEST_DEVICES_PER_PIPELINE)));
+        }
+        return groups;
+    }
+
+    /**
+     * Maps a grouped document to its domain form.
+     *
+     * @param doc output of {@link #bucketStages}
+     * @return bucket summary
+     */
+    static MeasurementBucket toBucket(Document doc) {
+        return new MeasurementBucket(
+                doc.getDate("_id").toInstant(),
+                ((Number) doc.get("count")).longValue(),
+                ((Number) doc.get("min")).doubleValue(),
+                ((Number) doc.get("max")).doubleValue(),
+                ((Number) doc.get("avg")).doubleValue(),
+                ((Number) doc.get("first")).doubleValue(),
+                ((Number) doc.get("last")).doubleValue());
+    }
+}
@@ -0,0 +1,150 @@
+package com.erval.argos.mongo;
+
+import java.util.Locale;
+
+import com.erval.argos.mongo.model.MeasurementBucketDocument;
+import com.erval.argos.mongo.model.MeasurementDocument;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.CollectionOptions.TimeSeriesOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves and prepares the collection measurements are stored in.
+ * <p>
+ * Storage modes ({@code argos.resource.mongo.measurements.storage}):
+ * <ul>
+ * <li>{@code documents} (default): plain {@code measurements} collection with
+ * the indexes declared on {@link MeasurementDocument}</li>
+ * <li>{@code timeseries}: native time-series collection with
+ * {@code timestamp} as timeField, {@code deviceId} as metaField and a
+ * configurable granularity; it gets the same secondary indexes, names and
+ * {@code _id} tiebreak included, as the plain collection</li>
+ * <li>{@code buckets}: one document per device, type and time window, served
+ * by {@link MongoBucketedMeasurementRepositoryAdapter}</li>
+ * </ul>
+ * The time-series collection has its own name because auto-index creation
+ * may create the plain {@code measurements} collection before this component
+ * runs, and an existing collection cannot be converted in place.
+ */
+@Slf4j
+@Component
+public class MeasurementCollectionInitializer {
+
+    static final String STORAGE_DOCUMENTS = "documents";
+    static final String STORAGE_TIMESERIES = "timeseries";
+    static final String STORAGE_BUCKETS = "buckets";
+
+    private final MongoTemplate mongoTemplate;
+    private final String storage;
+    private final String collectionName;
+    private final Granularity granularity;
+
+    public MeasurementCollectionInitializer(
+            MongoTemplate mongoTemplate,
+            @Value("${argos.resource.mongo.measurements.storage:documents}") String storage,
+            @Value("${argos.resource.mongo.measurements.timeseries.collection:measurements_ts}") String timeSeriesCollection,
+            @Value("${argos.resource.mongo.measurements.timeseries.granularity:SECONDS}") Granularity granularity) {
+        this.mongoTemplate = mongoTemplate;
+        this.storage = storage.toLowerCase(Locale.ROOT);
+        this.granularity = granularity;
+        this.collectionName = switch (this.storage) {
+            case STORAGE_DOCUMENTS -> mongoTemplate.getCollectionName(MeasurementDocument.class);
+            case STORAGE_TIMESERIES -> timeSeriesCollection;
+            case STORAGE_BUCKETS -> mongoTemplate.getCollectionName(MeasurementBucketDocument.class);
+            default -> throw new IllegalArgumentException("Unknown measurement storage mode: " + storage);
+        };
+    }
+
+    /**
+     * Creates the time-series collection when that mode is selected and the
+     * collection does not exist yet, then makes sure it has the secondary
+     * indexes declared on {@link MeasurementDocument} and none of the
+     * superseded ones.
+     */
+    @PostConstruct
+    void initialize() {
+        if (!isTimeSeries()) {
+            return;
+        }
+        if (!mongoTemplate.collectionExists(collectionName)) {
+            mongoTemplate.createCollection(collectionName, CollectionOptions.empty()
+                    .timeSeries(TimeSeriesOptions.timeSeries("timestamp")
+                            .metaField("deviceId")
+                            .granularity(granularity)));
+            log.info("Created time-series measurement collection '{}' with granularity {}", collectionName,
+                    granularity);
+        } else if (!isTimeSeriesCollection()) {
+            log.warn("Collection '{}' exists but is not a time-series collection; measurements will be stored "
+                    + "without time-series bucketing", collectionName);
+        }
+
+        SupersededIndexCleaner.drop(mongoTemplate, collectionName, SupersededIndexCleaner.MEASUREMENT_INDEXES);
+        IndexOperations indexOps = mongoTemplate.indexOps(collectionName);
+        indexOps.createIndex(new Index()
+                .on("timestamp", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("measurement_ts_id_idx"));
+        indexOps.createIndex(new Index()
+                .on("deviceId", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("measurement_device_ts_id_idx"));
+        indexOps.createIndex(new Index()
+                .on("deviceId", Sort.Direction.ASC)
+                .on("type", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("measurement_device_type_ts_id_idx"));
+        indexOps.createIndex(new Index()
+                .on("deviceId", Sort.Direction.ASC)
+                .on("sequenceNumber", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("measurement_device_seq_id_idx"));
+    }
+
+    /**
+     * Returns the collection measurements are read from and written to.
+     *
+     * @return collection name for the configured storage mode
+     */
+    public String collectionName() {
+        return collectionName;
+    }
+
+    /**
+     * Indicates whether the time-series storage mode is selected.
+     *
+     * @return {@code true} for time-series storage
+     */
+    public boolean isTimeSeries() {
+        return STORAGE_TIMESERIES.equals(storage);
+    }
+
+    /**
+     * Indicates whether the bucketed storage mode is selected.
+     *
+     * @return {@code true} for bucketed storage
+     */
+    public boolean isBuckets() {
+        return STORAGE_BUCKETS.equals(storage);
+    }
+
+    private boolean isTimeSeriesCollection() {
+        Document info = mongoTemplate.getDb()
+                .listCollections()
+                .filter(new Document("name", collectionName))
+                .first();
+        return info != null && "timeseries".equals(info.getString("type"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.erval.argos.mongo;
+
+import java.time.Instant;
+import java.util.Set;
+
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.domain.measurement.Measurement;
+
+/**
+ * Sort fields supported by the measurement adapters and their cursor value
+ * conversions.
+ */
+final class MeasurementSortFields {
+
+    static final String DEFAULT = "timestamp";
+    static final Set<String> SORTABLE = Set.of("timestamp", "value", "type", "deviceId", "sequenceNumber");
+
+    private MeasurementSortFields() {
+    }
+
+    /**
+     * Resolves the effective sort field of a request.
+     *
+     * @param pageRequest paging instructions
+     * @return requested field when supported, {@code timestamp} otherwise
+     */
+    static String resolve(PageRequest pageRequest) {
+        return pageRequest.sortBy() != null && SORTABLE.contains(pageRequest.sortBy())
+                ? pageRequest.sortBy()
+                : DEFAULT;
+    }
+
+    static String valueOf(Measurement measurement, String field) {
+        return switch (field) {
+            case "timestamp" -> measurement.timestamp().toString();
+            case "value" -> Double.toString(measurement.value());
+            case "type" -> measurement.type().name();
+            case "deviceId" -> measurement.deviceId();
+            case "sequenceNumber" -> Integer.toString(measurement.sequenceNumber());
+            default -> throw new IllegalArgumentException("Unsupported measurement sort field: " + field);
+        };
+    }
+
+    static Object parse(String field, String value) {
+        try {
+            return switch (field) {
+                case "timestamp" -> Instant.parse(value);
+                case "value" -> Double.parseDouble(value);
+                case "sequenceNumber" -> Integer.parseInt(value);
+                case "type", "deviceId" -> value;
+                default -> throw new IllegalArgumentException("Unsupported measurement sort field: " + field);
+            };
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid page cursor", ex);
+        }
+    }
+}
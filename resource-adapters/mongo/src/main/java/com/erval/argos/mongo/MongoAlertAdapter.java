@@ -0,0 +1,71 @@
+package com.erval.argos.mongo;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.erval.argos.core.application.port.out.AlertPublisherPort;
+import com.erval.argos.core.application.port.out.AlertRepositoryPort;
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.mongo.model.AlertDocument;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MongoDB adapter recording raised alerts in the {@code alerts} collection.
+ * <p>
+ * Alerts are append-only; each gets a fresh {@link ObjectId} when it has no
+ * id yet. The newest alert of each rule is read back through
+ * {@code alert_rule_ts_idx}.
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoAlertAdapter implements AlertPublisherPort, AlertRepositoryPort {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void publish(Alert alert) {
+        AlertDocument doc = AlertDocument.fromDomain(alert);
+        if (doc.getId() == null) {
+            doc.setId(new ObjectId().toHexString());
+        }
+        mongoTemplate.insert(doc);
+    }
+
+    /**
+     * Retrieves the newest alert of each rule in one aggregation, sorted like
+     * {@code alert_rule_ts_idx} so the group takes the first entry per rule.
+     *
+     * @param ruleIds rule identifiers
+     * @return newest alert per rule id
+     */
+    @Override
+    public Map<String, Alert> findLatestByRuleIds(Collection<String> ruleIds) {
+        if (ruleIds.isEmpty()) {
+            return Map.of();
+        }
+        String collection = mongoTemplate.getCollectionName(AlertDocument.class);
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("ruleId", new Document("$in", List.copyOf(ruleIds)))),
+                new Document("$sort", new Document("ruleId", 1).append("timestamp", -1)),
+                new Document("$group", new Document("_id", "$ruleId")
+                        .append("latest", new Document("$first", "$$ROOT"))));
+        Map<String, Alert> latest = new HashMap<>();
+        mongoTemplate.getCollection(collection)
+                .aggregate(pipeline)
+                .forEach(doc -> {
+                    Alert alert = mongoTemplate.getConverter()
+                            .read(AlertDocument.class, doc.get("latest", Document.class))
+                            .toDomain();
+                    latest.put(alert.ruleId(), alert);
+                });
+        return latest;
+    }
+}
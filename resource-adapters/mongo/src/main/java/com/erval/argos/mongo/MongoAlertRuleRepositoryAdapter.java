@@ -0,0 +1,57 @@
+package com.erval.argos.mongo;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.erval.argos.core.application.port.out.AlertRuleRepositoryPort;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.mongo.model.AlertRuleDocument;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MongoDB adapter storing alert rules in the {@code alert_rules} collection.
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoAlertRuleRepositoryAdapter implements AlertRuleRepositoryPort {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public AlertRule save(AlertRule rule) {
+        return mongoTemplate.save(AlertRuleDocument.fromDomain(rule)).toDomain();
+    }
+
+    @Override
+    public Optional<AlertRule> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, AlertRuleDocument.class))
+                .map(AlertRuleDocument::toDomain);
+    }
+
+    @Override
+    public List<AlertRule> findByDeviceId(String deviceId) {
+        return find(Criteria.where("deviceId").is(deviceId));
+    }
+
+    @Override
+    public List<AlertRule> findAllActive() {
+        return find(Criteria.where("active").is(true));
+    }
+
+    @Override
+    public void deleteById(String id) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), AlertRuleDocument.class);
+    }
+
+    private List<AlertRule> find(Criteria criteria) {
+        return mongoTemplate.find(Query.query(criteria), AlertRuleDocument.class).stream()
+                .map(AlertRuleDocument::toDomain)
+                .toList();
+    }
+}
@@ -0,0 +1,710 @@
+package com.erval.argos.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.erval.argos.core.application.BatchItemResult;
+import com.erval.argos.core.application.CountMode;
+import com.erval.argos.core.application.PageCursor;
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.SortDirection;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.mongo.model.MeasurementBucketDocument;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * MongoDB adapter storing measurements as time-window buckets.
+ * <p>
+ * Enabled with {@code argos.resource.mongo.measurements.storage=buckets}.
+ * Characteristics:
+ * <ul>
+ * <li>{@link MeasurementBucketDocument}s per device, type and
+ * {@code bucket-span} window (one hour by default), each holding at most
+ * {@code bucket-max-points} points; a full bucket rolls over into a new one
+ * for the same window</li>
+ * <li>writes are unordered bulk upserts appending to parallel arrays with
+ * {@code $push}, matching only a bucket of the window with room for the
+ * whole append</li>
+ * <li>reads match only buckets overlapping the requested window; pages of
+ * one device in timestamp order walk its buckets in window order and stop
+ * once no further bucket can reach the page, other reads unwind the matching
+ * buckets into points</li>
+ * <li>wide aggregations and exports are split by
+ * {@link RangeScatterExecutor} like in the document adapter</li>
+ * <li>lookups by measurement id scan bucket {@code ids} arrays without an
+ * index; they are rare (single deletes) and an index would add one entry per
+ * point again</li>
+ * <li>measurement tags are not stored</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "argos.resource.mongo.measurements.storage", havingValue = "buckets")
+public class MongoBucketedMeasurementRepositoryAdapter implements MeasurementRepositoryPort {
+
+    /**
+     * Largest accepted {@code bucket-max-points}. A point takes about 80
+     * bytes across the four arrays, so a full bucket stays near 4 MB, well
+     * below the 16 MB document limit, and an append rewrites at most that.
+     */
+    static final int MAX_BUCKET_POINTS = 50_000;
+
+    /** Buckets fetched per round trip by bucket walks, which usually stop early. */
+    private static final int WALK_BATCH_SIZE = 8;
+
+    private static final Comparator<Measurement> OLDEST_FIRST = Comparator
+            .comparing(Measurement::timestamp)
+            .thenComparing(Measurement::id);
+
+    private final MongoTemplate mongoTemplate;
+    private final RangeScatterExecutor scatter;
+    private final long spanSeconds;
+    private final int maxPoints;
+    private final int streamBatchSize;
+
+    public MongoBucketedMeasurementRepositoryAdapter(MongoTemplate mongoTemplate, RangeScatterExecutor scatter,
+            @Value("${argos.resource.mongo.measurements.bucket-span:1h}") Duration bucketSpan,
+            @Value("${argos.resource.mongo.measurements.bucket-max-points:1000}") int maxPoints,
+            @Value("${argos.resource.mongo.measurements.stream-batch-size:1000}") int streamBatchSize) {
+        if (bucketSpan.getSeconds() <= 0) {
+            throw new IllegalArgumentException("bucket-span must be at least one second: " + bucketSpan);
+        }
+        if (maxPoints < 1 || maxPoints > MAX_BUCKET_POINTS) {
+            throw new IllegalArgumentException("bucket-max-points must be between 1 and " + MAX_BUCKET_POINTS
+                    + ": " + maxPoints);
+        }
+        if (streamBatchSize <= 0) {
+            throw new IllegalArgumentException("stream-batch-size must be positive: " + streamBatchSize);
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.scatter = scatter;
+        this.spanSeconds = bucketSpan.getSeconds();
+        this.maxPoints = maxPoints;
+        this.streamBatchSize = streamBatchSize;
+        log.info("Measurement buckets span {} and hold up to {} points; series writing more than {} points per "
+                + "second roll over into several buckets per window", bucketSpan, maxPoints,
+                String.format("%.3f", (double) maxPoints / spanSeconds));
+    }
+
+    /**
+     * Saves one measurement by appending it to its bucket.
+     *
+     * @param measurement aggregate to persist
+     * @return saved measurement with its id
+     * @throws IllegalStateException if the bucket write fails
+     */
+    @Override
+    public Measurement save(Measurement measurement) {
+        BatchItemResult<Measurement> result = saveAll(List.of(measurement)).getFirst();
+        if (!result.succeeded()) {
+            throw new IllegalStateException("Failed to save measurement: " + result.error());
+        }
+        return result.value();
+    }
+
+    /**
+     * Appends a batch of measurements with one unordered bulk write containing
+     * one upsert per touched window and {@code bucket-max-points} points.
+     * <p>
+     * Each upsert matches a bucket of its window that still has room for all
+     * of its points, served by {@code bucket_device_type_start_idx}; when none
+     * has, a new bucket is inserted. Concurrent writers may each open a bucket
+     * for the same window, which readers handle like any rolled-over bucket.
+     * A failed upsert fails every measurement it carried.
+     *
+     * @param measurements aggregates to persist
+     * @return one result per measurement, in input order
+     */
+    @Override
+    public List<BatchItemResult<Measurement>> saveAll(List<Measurement> measurements) {
+        if (measurements.isEmpty()) {
+            return List.of();
+        }
+        List<Measurement> withIds = new ArrayList<>(measurements.size());
+        Map<String, List<Integer>> byWindow = new LinkedHashMap<>();
+        for (int i = 0; i < measurements.size(); i++) {
+            Measurement m = measurements.get(i);
+            Measurement stored = m.id() != null ? m
+                    : new Measurement(nextId(), m.deviceId(), m.type(), m.value(), m.sequenceNumber(),
+                            m.timestamp(), m.tags());
+            withIds.add(stored);
+            byWindow.computeIfAbsent(windowKey(stored), k -> new ArrayList<>()).add(i);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, MeasurementBucketDocument.class);
+        List<List<Integer>> operations = new ArrayList<>(byWindow.size());
+        for (List<Integer> window : byWindow.values()) {
+            for (int from = 0; from < window.size(); from += maxPoints) {
+                List<Integer> indexes = window.subList(from, Math.min(window.size(), from + maxPoints));
+                bulk.upsert(withRoom(withIds.get(indexes.getFirst()), indexes.size()), appendUpdate(withIds, indexes));
+                operations.add(indexes);
+            }
+        }
+
+        Map<Integer, String> errors = new HashMap<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError error : ex.getErrors()) {
+                for (int index : operations.get(error.getIndex())) {
+                    errors.put(index, error.getMessage());
+                }
+            }
+        }
+
+        List<BatchItemResult<Measurement>> results = new ArrayList<>(withIds.size());
+        for (int i = 0; i < withIds.size(); i++) {
+            String error = errors.get(i);
+            results.add(error == null
+                    ? BatchItemResult.success(i, withIds.get(i))
+                    : BatchItemResult.failure(i, error));
+        }
+        return results;
+    }
+
+    /**
+     * Generates a new ObjectId in hex form.
+     *
+     * @return new measurement identifier
+     */
+    @Override
+    public String nextId() {
+        return new ObjectId().toHexString();
+    }
+
+    /**
+     * Reads the highest sequence number from the bucket with the largest
+     * {@code maxSequence}, served by {@code bucket_device_seq_idx}.
+     *
+     * @param deviceId device identifier
+     * @return highest stored sequence number, or empty if none exist
+     */
+    @Override
+    public OptionalInt findMaxSequenceNumber(String deviceId) {
+        Query query = new Query(Criteria.where("deviceId").is(deviceId))
+                .with(Sort.by(Sort.Direction.DESC, "maxSequence"))
+                .limit(1);
+        query.fields().include("maxSequence");
+        MeasurementBucketDocument bucket = mongoTemplate.findOne(query, MeasurementBucketDocument.class);
+        return bucket == null ? OptionalInt.empty() : OptionalInt.of(bucket.getMaxSequence());
+    }
+
+    /**
+     * Finds a page of measurements.
+     * <p>
+     * Pages of one device sorted by {@code timestamp} walk the device's
+     * buckets in window order from the cursor's window on, keeping the best
+     * points seen, and stop at the first bucket whose window lies entirely
+     * behind the page. Other pages unwind every matching bucket and sort the
+     * points; cursor requests still seek past the cursor instead of skipping.
+     * The total is counted separately, capped or left out according to the
+     * count mode. The field selection is not applied, as points only carry
+     * scalar fields anyway.
+     *
+     * @param filter      constraints like device id, type, or time interval
+     * @param pageRequest paging and sorting instructions
+     * @return a page of domain measurements
+     */
+    @Override
+    public PageResult<Measurement> findByFilter(MeasurementFilter filter, PageRequest pageRequest) {
+        String sortBy = MeasurementSortFields.resolve(pageRequest);
+        SortDirection direction = KeysetPaging.direction(pageRequest);
+        PageCursor cursor = pageRequest.isKeyset()
+                ? PageCursor.decodeFor(pageRequest.after(), sortBy, direction)
+                : null;
+        boolean oneDevice = filter != null && filter.deviceId() != null && !filter.deviceId().isBlank();
+        List<Measurement> fetched = oneDevice && sortBy.equals(MeasurementSortFields.DEFAULT)
+                ? walkPage(filter, pageRequest, direction, cursor)
+                : unwoundPage(filter, pageRequest, sortBy, direction, cursor);
+        return KeysetPaging.toResult(fetched, total(filter, pageRequest.countMode()), pageRequest, sortBy,
+                MeasurementSortFields::valueOf, Measurement::id);
+    }
+
+    private List<Measurement> walkPage(MeasurementFilter filter, PageRequest pageRequest, SortDirection direction,
+            PageCursor cursor) {
+        boolean ascending = direction == SortDirection.ASC;
+        Instant from = filter.from();
+        Instant to = filter.to();
+        Predicate<Measurement> accept = m -> (from == null || !m.timestamp().isBefore(from))
+                && (to == null || !m.timestamp().isAfter(to));
+        Instant lower = from;
+        Instant upper = to;
+        if (cursor != null) {
+            Instant after = (Instant) MeasurementSortFields.parse(MeasurementSortFields.DEFAULT, cursor.value());
+            String afterId = cursor.id();
+            int sign = ascending ? 1 : -1;
+            accept = accept.and(m -> {
+                int byTime = m.timestamp().compareTo(after);
+                return sign * (byTime != 0 ? byTime : m.id().compareTo(afterId)) > 0;
+            });
+            if (ascending && (lower == null || after.isAfter(lower))) {
+                lower = after;
+            } else if (!ascending && (upper == null || after.isBefore(upper))) {
+                upper = after;
+            }
+        }
+        int skip = cursor != null ? 0 : Math.toIntExact((long) pageRequest.page() * pageRequest.size());
+        List<Measurement> page = walk(bucketMatch(filter.deviceId(), filter.type(), lower, upper), ascending, accept,
+                skip + pageRequest.size() + 1);
+        return page.subList(Math.min(skip, page.size()), page.size());
+    }
+
+    private List<Measurement> unwoundPage(MeasurementFilter filter, PageRequest pageRequest, String sortBy,
+            SortDirection direction, PageCursor cursor) {
+        int order = direction == SortDirection.ASC ? 1 : -1;
+        List<Document> pipeline = pointStages(filter);
+        if (cursor != null) {
+            Object value = MeasurementSortFields.parse(sortBy, cursor.value());
+            String op = order == 1 ? "$gt" : "$lt";
+            pipeline.add(new Document("$match", new Document("$or", List.of(
+                    new Document(sortBy, new Document(op, value)),
+                    new Document(sortBy, value).append("id", new Document(op, cursor.id()))))));
+        }
+        pipeline.add(new Document("$sort", new Document(sortBy, order).append("id", order)));
+        if (cursor == null) {
+            pipeline.add(new Document("$skip", (long) pageRequest.page() * pageRequest.size()));
+        }
+        pipeline.add(new Document("$limit", pageRequest.size() + 1));
+        List<Measurement> fetched = new ArrayList<>();
+        collection().aggregate(pipeline)
+                .allowDiskUse(true)
+                .forEach(point -> fetched.add(toMeasurement(point)));
+        return fetched;
+    }
+
+    private PageTotal total(MeasurementFilter filter, CountMode countMode) {
+        if (countMode == CountMode.NONE) {
+            return PageTotal.UNKNOWN;
+        }
+        List<Document> pipeline = pointStages(filter);
+        if (countMode == CountMode.CAPPED) {
+            pipeline.add(new Document("$limit", PageTotal.CAP + 1));
+        }
+        pipeline.add(new Document("$count", "n"));
+        Document result = collection().aggregate(pipeline).allowDiskUse(true).first();
+        long n = result == null ? 0 : ((Number) result.get("n")).longValue();
+        return n > PageTotal.CAP && countMode == CountMode.CAPPED
+                ? new PageTotal(PageTotal.CAP, true)
+                : new PageTotal(n, false);
+    }
+
+    /**
+     * Aggregates a series by unwinding only the buckets overlapping the window
+     * and regrouping the points into the requested interval.
+     * <p>
+     * Wide windows are split by {@link RangeScatterExecutor} on interval
+     * boundaries; the estimate sums the {@code count} of the window's buckets.
+     *
+     * @param query validated aggregation request
+     * @return non-empty buckets ordered by start time
+     */
+    @Override
+    public List<MeasurementBucket> aggregate(AggregationQuery query) {
+        List<RangeScatterExecutor.Range> ranges = scatter.plan(query.from(), query.to(), false, query.interval(),
+                (probe, cap) -> countPoints(query.deviceId(), query.type(), probe, cap));
+        return scatter.gather(ranges, range -> {
+            List<Document> pipeline = rangeStages(query.deviceId(), query.type(), range);
+            pipeline.addAll(MeasurementAggregations.bucketStages(query.interval()));
+            List<MeasurementBucket> buckets = new ArrayList<>();
+            collection().aggregate(pipeline)
+                    .allowDiskUse(true)
+                    .forEach(doc -> buckets.add(MeasurementAggregations.toBucket(doc)));
+            return buckets;
+        });
+    }
+
+    /**
+     * Estimates the points of a probe range from the {@code count} of the
+     * buckets overlapping it, each weighted by the share of its window the
+     * probe covers, as probes are usually narrower than a bucket. Only start
+     * and count are read, and reading stops once the cap is reached, so the
+     * cost is bounded by the cap rather than by the buckets of the range.
+     */
+    private long countPoints(String deviceId, MeasurementType type, RangeScatterExecutor.Range probe, long cap) {
+        long spanMillis = spanSeconds * 1000;
+        long from = probe.from().toEpochMilli();
+        long to = probe.to().toEpochMilli();
+        double points = 0;
+        try (MongoCursor<Document> buckets = collection()
+                .find(bucketMatch(deviceId, type, probe.from(), probe.to()))
+                .projection(new Document("start", 1).append("count", 1).append("_id", 0))
+                .cursor()) {
+            while (buckets.hasNext() && points < cap) {
+                Document bucket = buckets.next();
+                long start = bucket.getDate("start").getTime();
+                long overlap = Math.min(to, start + spanMillis) - Math.max(from, start);
+                if (overlap > 0) {
+                    points += ((Number) bucket.get("count")).doubleValue() * overlap / spanMillis;
+                }
+            }
+        }
+        return Math.min(cap, Math.round(points));
+    }
+
+    /**
+     * Retrieves a measurement by id by scanning bucket id arrays.
+     *
+     * @param id measurement identifier
+     * @return optional measurement if found
+     */
+    @Override
+    public Optional<Measurement> findById(String id) {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document("ids", id)));
+        pipeline.addAll(unwindPoints());
+        pipeline.add(new Document("$match", new Document("id", id)));
+        pipeline.add(new Document("$limit", 1));
+        return Optional.ofNullable(collection().aggregate(pipeline).first()).map(this::toMeasurement);
+    }
+
+    /**
+     * Retrieves all measurements with paging and sorting.
+     *
+     * @param pageRequest paging and sorting instructions
+     * @return paged measurements
+     */
+    @Override
+    public PageResult<Measurement> findAll(PageRequest pageRequest) {
+        return findByFilter(null, pageRequest);
+    }
+
+    /**
+     * Removes a single point from its bucket, keeping the parallel arrays
+     * aligned in one pipeline update.
+     *
+     * @param id measurement identifier
+     */
+    @Override
+    public void deleteById(String id) {
+        Document idx = new Document("$indexOfArray", List.of("$ids", id));
+        Document removeAt = new Document();
+        for (String field : List.of("ids", "timestamps", "values", "sequenceNumbers")) {
+            removeAt.append(field, new Document("$concatArrays", List.of(
+                    new Document("$slice", List.of("$" + field, "$_idx")),
+                    new Document("$slice", List.of("$" + field, new Document("$add", List.of("$_idx", 1)),
+                            new Document("$size", "$" + field))))));
+        }
+        removeAt.append("count", new Document("$subtract", List.of("$count", 1)));
+
+        collection().updateOne(new Document("ids", id), List.of(
+                new Document("$set", new Document("_idx", idx)),
+                new Document("$set", removeAt),
+                new Document("$unset", "_idx")));
+    }
+
+    /**
+     * Removes all buckets of a device.
+     *
+     * @param deviceId device identifier to delete measurements for
+     */
+    @Override
+    public void deleteByDeviceId(String deviceId) {
+        mongoTemplate.remove(new Query(Criteria.where("deviceId").is(deviceId)), MeasurementBucketDocument.class);
+    }
+
+    /**
+     * Deletes all buckets.
+     */
+    @Override
+    public void deleteAll() {
+        mongoTemplate.remove(new Query(), MeasurementBucketDocument.class);
+    }
+
+    /**
+     * Matches a bucket of the measurement's window that can take
+     * {@code points} more points without exceeding {@code bucket-max-points}.
+     * Its equality fields become the new bucket's fields on insert.
+     */
+    private Query withRoom(Measurement m, int points) {
+        return new Query(Criteria.where("deviceId").is(m.deviceId())
+                .and("type").is(m.type())
+                .and("start").is(bucketStart(m.timestamp()))
+                .and("count").lte(maxPoints - points));
+    }
+
+    private Update appendUpdate(List<Measurement> measurements, List<Integer> indexes) {
+        Measurement first = measurements.get(indexes.getFirst());
+        Instant start = bucketStart(first.timestamp());
+        Object[] ids = new Object[indexes.size()];
+        Object[] timestamps = new Object[indexes.size()];
+        Object[] values = new Object[indexes.size()];
+        Object[] sequences = new Object[indexes.size()];
+        int maxSequence = Integer.MIN_VALUE;
+        for (int i = 0; i < indexes.size(); i++) {
+            Measurement m = measurements.get(indexes.get(i));
+            ids[i] = m.id();
+            timestamps[i] = m.timestamp();
+            values[i] = m.value();
+            sequences[i] = m.sequenceNumber();
+            maxSequence = Math.max(maxSequence, m.sequenceNumber());
+        }
+
+        Update update = new Update()
+                .setOnInsert("end", start.plusSeconds(spanSeconds))
+                .inc("count", indexes.size())
+                .max("maxSequence", maxSequence);
+        update.push("ids").each(ids);
+        update.push("timestamps").each(timestamps);
+        update.push("values").each(values);
+        update.push("sequenceNumbers").each(sequences);
+        return update;
+    }
+
+    private String windowKey(Measurement m) {
+        return m.deviceId() + ":" + m.type().name() + ":" + bucketStart(m.timestamp()).getEpochSecond();
+    }
+
+    /**
+     * Finds the newest measurements of several devices, reading each device
+     * on its own through the scatter executor's virtual threads.
+     * <p>
+     * Per device, non-empty buckets starting at or before {@code to} are read
+     * newest window first from {@code bucket_device_type_start_idx} or
+     * {@code bucket_device_start_idx}, a few per round trip, keeping the
+     * newest {@code limit} points seen. Reading stops at the first bucket
+     * whose window ends at or before the oldest kept point: neither it nor any
+     * older bucket can hold a newer point.
+     *
+     * @param deviceIds device identifiers
+     * @param type      measurement type to match; {@code null} for all types
+     * @param to        inclusive upper timestamp bound
+     * @param limit     maximum number of measurements per device
+     * @return measurements per device ordered by timestamp descending
+     */
+    @Override
+    public Map<String, List<Measurement>> findLatestByDevices(Collection<String> deviceIds, MeasurementType type,
+            Instant to, int limit) {
+        Map<String, List<Measurement>> latest = new HashMap<>();
+        for (List<Measurement> measurements : scatter.gather(List.copyOf(new LinkedHashSet<>(deviceIds)),
+                deviceId -> List.of(latestOf(deviceId, type, to, limit)))) {
+            if (!measurements.isEmpty()) {
+                latest.put(measurements.getFirst().deviceId(), measurements);
+            }
+        }
+        return latest;
+    }
+
+    private List<Measurement> latestOf(String deviceId, MeasurementType type, Instant to, int limit) {
+        return walk(bucketMatch(deviceId, type, null, to), false, m -> !m.timestamp().isAfter(to), limit);
+    }
+
+    private static List<Measurement> points(Document bucket) {
+        String deviceId = bucket.getString("deviceId");
+        MeasurementType type = MeasurementType.valueOf(bucket.getString("type"));
+        List<String> ids = bucket.getList("ids", String.class);
+        List<Date> timestamps = bucket.getList("timestamps", Date.class);
+        List<Number> values = bucket.getList("values", Number.class);
+        List<Number> sequences = bucket.getList("sequenceNumbers", Number.class);
+        List<Measurement> points = new ArrayList<>(timestamps.size());
+        for (int i = 0; i < timestamps.size(); i++) {
+            Number sequence = sequences.get(i);
+            points.add(new Measurement(ids.get(i), deviceId, type, values.get(i).doubleValue(),
+                    sequence == null ? 0 : sequence.intValue(), timestamps.get(i).toInstant(), null));
+        }
+        return points;
+    }
+
+    /**
+     * Streams matching points through aggregation cursors fetching
+     * {@code stream-batch-size} points per round trip.
+     * <p>
+     * Points inside a bucket are stored in arrival order, so each sort runs
+     * in the server and may spill to disk. Wide bounded ranges are split by
+     * {@link RangeScatterExecutor}, which keeps every sort to one sub-range
+     * and concatenates the sub-ranges in timestamp order.
+     *
+     * @param filter constraints like device id, type, or time interval
+     * @return lazily populated stream that must be closed
+     */
+    @Override
+    public Stream<Measurement> stream(MeasurementFilter filter) {
+        String deviceId = filter != null && filter.deviceId() != null && !filter.deviceId().isBlank()
+                ? filter.deviceId()
+                : null;
+        MeasurementType type = filter != null ? filter.type() : null;
+        Instant from = filter != null ? filter.from() : null;
+        Instant to = filter != null ? filter.to() : null;
+        List<RangeScatterExecutor.Range> ranges = scatter.plan(from, to, true, null,
+                (probe, cap) -> countPoints(deviceId, type, probe, cap));
+        return scatter.gatherStream(ranges, streamBatchSize, range -> {
+            List<Document> pipeline = rangeStages(deviceId, type, range);
+            pipeline.add(new Document("$sort", new Document("timestamp", 1).append("id", 1)));
+            MongoCursor<Document> cursor = collection().aggregate(pipeline)
+                    .allowDiskUse(true)
+                    .batchSize(streamBatchSize)
+                    .cursor();
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                    .onClose(cursor::close)
+                    .map(this::toMeasurement);
+        });
+    }
+
+    /**
+     * Builds the stages selecting the buckets that overlap the filter and
+     * unwinding them into the matching individual points.
+     */
+    private static List<Document> pointStages(MeasurementFilter filter) {
+        if (filter == null) {
+            return rangeStages(null, null, new RangeScatterExecutor.Range(null, null, true));
+        }
+        String deviceId = filter.deviceId() != null && !filter.deviceId().isBlank() ? filter.deviceId() : null;
+        return rangeStages(deviceId, filter.type(), new RangeScatterExecutor.Range(filter.from(), filter.to(), true));
+    }
+
+    /**
+     * Builds the stages selecting the buckets that overlap a range and
+     * unwinding them into the points inside it. Device and type are optional,
+     * so the rollup rebuild reads every series this way.
+     */
+    static List<Document> rangeStages(String deviceId, MeasurementType type,
+            RangeScatterExecutor.Range range) {
+        List<Document> stages = new ArrayList<>();
+        stages.add(new Document("$match", bucketMatch(deviceId, type, range.from(), range.to())));
+        stages.addAll(unwindPoints());
+        Document timestamp = new Document();
+        if (range.from() != null) {
+            timestamp.append("$gte", Date.from(range.from()));
+        }
+        if (range.to() != null) {
+            timestamp.append(range.toInclusive() ? "$lte" : "$lt", Date.from(range.to()));
+        }
+        if (!timestamp.isEmpty()) {
+            stages.add(new Document("$match", new Document("timestamp", timestamp)));
+        }
+        return stages;
+    }
+
+    /**
+     * Matches the buckets of a device and type that may hold points between
+     * {@code from} and {@code to}, both inclusive and optional.
+     */
+    private static Document bucketMatch(String deviceId, MeasurementType type, Instant from, Instant to) {
+        Document match = new Document();
+        if (deviceId != null) {
+            match.append("deviceId", deviceId);
+        }
+        if (type != null) {
+            match.append("type", type.name());
+        }
+        if (from != null) {
+            match.append("end", new Document("$gt", Date.from(from)));
+        }
+        if (to != null) {
+            match.append("start", new Document("$lte", Date.from(to)));
+        }
+        return match;
+    }
+
+    /**
+     * Reads buckets in window order, oldest first or newest first, and keeps
+     * the first {@code wanted} accepted points in that order. Buckets of one
+     * window may interleave, but windows do not, so the walk stops at the
+     * first bucket whose window lies entirely behind the kept points. This
+     * relies on every bucket of the collection having the same
+     * {@code bucket-span}.
+     */
+    private List<Measurement> walk(Document match, boolean ascending, Predicate<Measurement> accept, int wanted) {
+        Comparator<Measurement> order = ascending ? OLDEST_FIRST : OLDEST_FIRST.reversed();
+        PriorityQueue<Measurement> best = new PriorityQueue<>(wanted + 1, order.reversed());
+        match.append("count", new Document("$gt", 0));
+        try (MongoCursor<Document> buckets = collection().find(match)
+                .sort(new Document("start", ascending ? 1 : -1))
+                .batchSize(WALK_BATCH_SIZE)
+                .cursor()) {
+            while (buckets.hasNext()) {
+                Document bucket = buckets.next();
+                if (best.size() == wanted && (ascending
+                        ? bucket.getDate("start").toInstant().isAfter(best.peek().timestamp())
+                        : !bucket.getDate("end").toInstant().isAfter(best.peek().timestamp()))) {
+                    break;
+                }
+                for (Measurement m : points(bucket)) {
+                    if (accept.test(m)) {
+                        best.add(m);
+                        if (best.size() > wanted) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+        }
+        List<Measurement> result = new ArrayList<>(best);
+        result.sort(order);
+        return result;
+    }
+
+    private Instant bucketStart(Instant timestamp) {
+        long epoch = timestamp.getEpochSecond();
+        return Instant.ofEpochSecond(Math.floorDiv(epoch, spanSeconds) * spanSeconds);
+    }
+
+    private static List<Document> unwindPoints() {
+        return List.of(
+                new Document("$unwind", new Document("path", "$timestamps").append("includeArrayIndex", "i")),
+                new Document("$project", new Document("_id", 0)
+                        .append("deviceId", 1)
+                        .append("type", 1)
+                        .append("timestamp", "$timestamps")
+                        .append("id", new Document("$arrayElemAt", List.of("$ids", "$i")))
+                        .append("value", new Document("$arrayElemAt", List.of("$values", "$i")))
+                        .append("sequenceNumber", new Document("$arrayElemAt", List.of("$sequenceNumbers", "$i")))));
+    }
+
+    private Measurement toMeasurement(Document point) {
+        Number sequence = point.get("sequenceNumber", Number.class);
+        return new Measurement(
+                point.getString("id"),
+                point.getString("deviceId"),
+                MeasurementType.valueOf(point.getString("type")),
+                point.get("value", Number.class).doubleValue(),
+                sequence == null ? 0 : sequence.intValue(),
+                point.getDate("timestamp").toInstant(),
+                null);
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(MeasurementBucketDocument.class));
+    }
+}
@@ -0,0 +1,294 @@
+package com.erval.argos.mongo;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.erval.argos.core.application.port.out.DeviceChangeFeedPort;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.mongo.model.DeviceDocument;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link DeviceChangeFeedPort} backed by a change stream on the device
+ * collection.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>one stream and one daemon thread serve every subscriber; it is opened
+ * by the first {@link #subscribe}, so later commits are never missed, and
+ * closed with the last subscription</li>
+ * <li>inserts and updates are reported with the current document; soft
+ * deletes and hard deletes are reported as removals</li>
+ * <li>after a failure the stream is resumed from the last seen event; when
+ * that is impossible every listener is asked to resync</li>
+ * <li>a listener that throws is asked to resync before its next event, so
+ * one failing replica neither stalls nor replays the stream for the
+ * others</li>
+ * </ul>
+ * Change streams need a replica set or a sharded cluster. The server is asked
+ * once with {@code hello}; on a standalone server the feed reports itself
+ * unavailable and refuses subscriptions instead of retrying forever.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "argos.resource.device-registry.enabled", havingValue = "true",
+        matchIfMissing = true)
+@RequiredArgsConstructor
+public class MongoDeviceChangeFeedAdapter implements DeviceChangeFeedPort {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+    private static final long POLL_MILLIS = 1000;
+    /** Server codes meaning the resume token can no longer be used. */
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private volatile Boolean available;
+    /** Shared stream, or {@code null} without subscribers; guarded by {@code this}. */
+    private Watcher watcher;
+
+    /**
+     * Checks that the server is a replica set member or a mongos, the
+     * deployments supporting change streams.
+     *
+     * @return {@code false} on a standalone server
+     */
+    @Override
+    public boolean available() {
+        Boolean known = available;
+        if (known == null) {
+            Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            known = hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+            if (!known) {
+                log.warn("MongoDB is a standalone server; device changes made by other nodes are not streamed. "
+                        + "Run it as a replica set, e.g. a single node started with --replSet");
+            }
+            available = known;
+        }
+        return known;
+    }
+
+    /**
+     * Adds a listener to the shared change stream, opening the stream and
+     * starting its daemon thread for the first one.
+     *
+     * @param listener receives device changes
+     * @return handle removing the listener, and stopping the stream with the
+     *         last one
+     * @throws IllegalStateException on a standalone server
+     */
+    @Override
+    public Subscription subscribe(Listener listener) {
+        if (!available()) {
+            throw new IllegalStateException("Device change stream needs a replica set or sharded cluster");
+        }
+        Delivery delivery = new Delivery(listener);
+        synchronized (this) {
+            if (watcher == null) {
+                watcher = new Watcher();
+                Thread thread = new Thread(watcher, "device-change-feed");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            watcher.deliveries.add(delivery);
+        }
+        return () -> unsubscribe(delivery);
+    }
+
+    private synchronized void unsubscribe(Delivery delivery) {
+        if (watcher != null && watcher.deliveries.remove(delivery) && watcher.deliveries.isEmpty()) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Listener of the shared stream, with its own pending resync.
+     */
+    private static final class Delivery {
+        private final Listener listener;
+        private volatile boolean resync;
+
+        private Delivery(Listener listener) {
+            this.listener = listener;
+        }
+    }
+
+    private final class Watcher implements Runnable {
+        private final List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+        private volatile boolean closed;
+        private MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+        private BsonDocument resumeToken;
+        private boolean resync;
+
+        private Watcher() {
+            try {
+                cursor = open();
+            } catch (MongoException ex) {
+                log.warn("Device change stream unavailable, retrying in {}", RETRY_DELAY, ex);
+                resync = true;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                try {
+                    if (cursor == null) {
+                        cursor = open();
+                    }
+                    if (resync) {
+                        resync = false;
+                        deliveries.forEach(delivery -> delivery.resync = true);
+                    }
+                    follow();
+                } catch (RuntimeException ex) {
+                    if (closed) {
+                        break;
+                    }
+                    if (resumeToken == null || isResumeLost(ex)) {
+                        resumeToken = null;
+                        resync = true;
+                    }
+                    log.warn("Device change stream failed, retrying in {}", RETRY_DELAY, ex);
+                    closeCursor();
+                    pause();
+                }
+            }
+            closeCursor();
+        }
+
+        private void follow() {
+            while (!closed) {
+                resyncFailed();
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event == null) {
+                    continue;
+                }
+                dispatch(event);
+                resumeToken = event.getResumeToken();
+                if (resync) {
+                    // The stream was invalidated, e.g. by a collection drop.
+                    resumeToken = null;
+                    closeCursor();
+                    return;
+                }
+            }
+        }
+
+        private void resyncFailed() {
+            for (Delivery delivery : deliveries) {
+                if (delivery.resync) {
+                    delivery.resync = false;
+                    deliver(delivery, Listener::resync);
+                }
+            }
+        }
+
+        private void dispatch(ChangeStreamDocument<Document> event) {
+            switch (event.getOperationType()) {
+                case INSERT, UPDATE, REPLACE -> {
+                    Document full = event.getFullDocument();
+                    if (full == null) {
+                        String id = id(event.getDocumentKey().get("_id"));
+                        deliverAll(listener -> listener.removed(id));
+                        return;
+                    }
+                    DeviceDocument doc = mongoTemplate.getConverter().read(DeviceDocument.class, full);
+                    if (doc.isDeleted()) {
+                        deliverAll(listener -> listener.removed(doc.getId()));
+                    } else {
+                        Device device = doc.toDomain();
+                        deliverAll(listener -> listener.changed(device));
+                    }
+                }
+                case DELETE -> {
+                    String id = id(event.getDocumentKey().get("_id"));
+                    deliverAll(listener -> listener.removed(id));
+                }
+                case DROP, RENAME, DROP_DATABASE, INVALIDATE -> resync = true;
+                default -> {
+                    // other operations do not change device state
+                }
+            }
+        }
+
+        private void deliverAll(Consumer<Listener> action) {
+            for (Delivery delivery : deliveries) {
+                deliver(delivery, action);
+            }
+        }
+
+        private void deliver(Delivery delivery, Consumer<Listener> action) {
+            try {
+                action.accept(delivery.listener);
+            } catch (RuntimeException ex) {
+                log.warn("Device change listener failed, asking it to resync", ex);
+                delivery.resync = true;
+            }
+        }
+
+        private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+            var stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(DeviceDocument.class))
+                    .watch()
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .maxAwaitTime(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (resumeToken != null) {
+                stream = stream.resumeAfter(resumeToken);
+            }
+            return stream.cursor();
+        }
+
+        private void close() {
+            closed = true;
+        }
+
+        private void closeCursor() {
+            if (cursor != null) {
+                try {
+                    cursor.close();
+                } catch (RuntimeException ex) {
+                    log.debug("Closing device change stream failed", ex);
+                }
+                cursor = null;
+            }
+        }
+
+        private void pause() {
+            try {
+                Thread.sleep(RETRY_DELAY.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                closed = true;
+            }
+        }
+    }
+
+    private static boolean isResumeLost(RuntimeException ex) {
+        return ex instanceof MongoCommandException command
+                && (command.getErrorCode() == CHANGE_STREAM_HISTORY_LOST
+                        || command.getErrorCode() == CHANGE_STREAM_FATAL_ERROR);
+    }
+
+    private static String id(BsonValue id) {
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+}
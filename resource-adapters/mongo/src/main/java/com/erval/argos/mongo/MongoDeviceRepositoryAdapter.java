@@ -2,7 +2,6 @@ package com.erval.argos.mongo;
 
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
-import com.erval.argos.core.application.SortDirection;
 import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase;
 import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
 import com.erval.argos.core.domain.device.Device;
@@ -10,16 +9,16 @@ import com.erval.argos.mongo.model.DeviceDocument;
 import com.erval.argos.mongo.repositories.DeviceMongoRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * MongoDB-backed adapter implementing {@link DeviceRepositoryPort}.
@@ -35,8 +34,13 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MongoDeviceRepositoryAdapter implements DeviceRepositoryPort {
 
+    private static final String DEFAULT_SORT = "name";
+    private static final Set<String> SORTABLE_FIELDS = Set.of("name", "building", "room", "type");
+
     private final DeviceMongoRepository repo;
     private final MongoTemplate mongoTemplate;
+    private final QueryShapeValidator queryShapes;
+    private final QueryDiagnostics diagnostics;
 
     /**
      * Deletes a device by id, ignoring missing rows.
@@ -68,25 +72,15 @@ public class MongoDeviceRepositoryAdapter implements DeviceRepositoryPort {
     }
 
     /**
-     * Retrieves all devices using paging and sorting.
+     * Retrieves all devices using paging and sorting, with the same sort
+     * validation as {@link #findByFilter}.
      *
      * @param pageRequest paging and sorting instructions
      * @return paged devices
      */
     @Override
     public PageResult<Device> findAll(PageRequest pageRequest) {
-        Pageable pageable = org.springframework.data.domain.PageRequest.of(
-                pageRequest.page(),
-                pageRequest.size(),
-                pageRequest.direction() == SortDirection.ASC ? Sort.Direction.ASC : Sort.Direction.DESC,
-                pageRequest.sortBy() != null && !pageRequest.sortBy().isBlank() ? pageRequest.sortBy() : "name");
-
-        Page<DeviceDocument> page = repo.findAllByDeletedFalse(pageable);
-        List<Device> content = page.getContent().stream()
-                .map(DeviceDocument::toDomain)
-                .toList();
-
-        return new PageResult<>(content, page.getTotalElements(), page.getNumber(), page.getSize());
+        return findByFilter(null, pageRequest);
     }
 
     /**
@@ -95,8 +89,12 @@ public class MongoDeviceRepositoryAdapter implements DeviceRepositoryPort {
      * <p>
      * When the filter is {@code null}, all devices are considered.
      * <p>
-     * Sort defaults to {@code name} in descending order when a field is not
-     * provided.
+     * Sort defaults to {@code name} when no or an unsupported field is
+     * provided; sorts no index provides for the filter are handled by
+     * {@link QueryShapeValidator}. Requests carrying a cursor seek past it instead of skipping,
+     * see {@link KeysetPaging}. The total follows the request's count mode,
+     * see {@link PageTotal}. Only the selected fields are loaded, see
+     * {@link FieldProjection}.
      *
      * @param filter      constraints such as building or activation status
      * @param pageRequest paging and sorting information from the caller
@@ -119,30 +117,36 @@ public class MongoDeviceRepositoryAdapter implements DeviceRepositoryPort {
             if (filter.active() != null) {
                 query.addCriteria(Criteria.where("active").is(filter.active()));
             }
+            if (filter.hasTagCriteria()) {
+                Criteria tags = Criteria.where("config.tags");
+                if (!filter.anyTags().isEmpty()) {
+                    tags.in(filter.anyTags());
+                }
+                if (!filter.allTags().isEmpty()) {
+                    tags.all(filter.allTags());
+                }
+                query.addCriteria(tags);
+            }
         }
 
-        Sort sort = Sort.by(
-                pageRequest.direction() == SortDirection.ASC
-                        ? Sort.Direction.ASC
-                        : Sort.Direction.DESC,
-                pageRequest.sortBy() != null && !pageRequest.sortBy().isBlank()
-                        ? pageRequest.sortBy()
-                        : "name");
-
-        org.springframework.data.domain.PageRequest pageable = org.springframework.data.domain.PageRequest
-                .of(pageRequest.page(), pageRequest.size(), sort);
-
         query.addCriteria(new Criteria().orOperator(
                 Criteria.where("deleted").is(false),
                 Criteria.where("deleted").exists(false)));
-        long total = mongoTemplate.count(query, DeviceDocument.class);
-        List<DeviceDocument> docs = mongoTemplate.find(query.with(pageable), DeviceDocument.class);
-
-        List<Device> content = docs.stream()
+        String sortBy = pageRequest.sortBy() != null && SORTABLE_FIELDS.contains(pageRequest.sortBy())
+                ? pageRequest.sortBy()
+                : DEFAULT_SORT;
+        sortBy = queryShapes.sortField(DeviceDocument.class, equalityFields(filter), sortBy, DEFAULT_SORT);
+        PageTotal total = PageTotal.count(mongoTemplate, query, DeviceDocument.class,
+                mongoTemplate.getCollectionName(DeviceDocument.class), pageRequest.countMode());
+        KeysetPaging.apply(query, pageRequest, sortBy, (field, value) -> value);
+        FieldProjection.apply(query, pageRequest, FieldProjection.DEVICE_FIELDS, sortBy);
+        List<Device> fetched = diagnostics.find(query, DeviceDocument.class,
+                mongoTemplate.getCollectionName(DeviceDocument.class)).stream()
                 .map(DeviceDocument::toDomain)
                 .toList();
 
-        return new PageResult<>(content, total, pageRequest.page(), pageRequest.size());
+        return KeysetPaging.toResult(fetched, total, pageRequest, sortBy, MongoDeviceRepositoryAdapter::sortValue,
+                Device::id);
     }
 
     /**
@@ -156,6 +160,27 @@ public class MongoDeviceRepositoryAdapter implements DeviceRepositoryPort {
         return repo.findByIdAndDeletedFalse(id).map(DeviceDocument::toDomain);
     }
 
+    /**
+     * Retrieves the non-deleted devices with the given ids using a single
+     * {@code $in} query.
+     *
+     * @param ids device identifiers
+     * @return devices mapped from the stored documents
+     */
+    @Override
+    public List<Device> findAllByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Query query = new Query(Criteria.where("id").in(ids))
+                .addCriteria(new Criteria().orOperator(
+                        Criteria.where("deleted").is(false),
+                        Criteria.where("deleted").exists(false)));
+        return mongoTemplate.find(query, DeviceDocument.class).stream()
+                .map(DeviceDocument::toDomain)
+                .toList();
+    }
+
     /**
      * Persists a device aggregate by mapping it to a Mongo document.
      *
@@ -174,4 +199,38 @@ public class MongoDeviceRepositoryAdapter implements DeviceRepositoryPort {
         return saved.toDomain();
     }
 
+    /**
+     * Fields a device filter pins to a single value. The soft-delete criterion
+     * counts as one: its two point bounds, {@code false} and missing, are
+     * merged in index order.
+     */
+    private static Set<String> equalityFields(DeviceQueryUseCase.DeviceFilter filter) {
+        Set<String> fields = new HashSet<>();
+        fields.add("deleted");
+        if (filter != null) {
+            if (filter.building() != null && !filter.building().isBlank()) {
+                fields.add("building");
+            }
+            if (filter.room() != null && !filter.room().isBlank()) {
+                fields.add("room");
+            }
+            if (filter.type() != null) {
+                fields.add("type");
+            }
+            if (filter.active() != null) {
+                fields.add("active");
+            }
+        }
+        return fields;
+    }
+
+    private static String sortValue(Device device, String field) {
+        return switch (field) {
+            case "name" -> device.name();
+            case "building" -> device.building();
+            case "room" -> device.room();
+            case "type" -> device.type().name();
+            default -> throw new IllegalArgumentException("Unsupported device sort field: " + field);
+        };
+    }
 }
@@ -1,26 +1,43 @@
 package com.erval.argos.mongo;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import com.erval.argos.core.application.BatchItemResult;
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
-import com.erval.argos.core.application.SortDirection;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
 import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
 import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
 import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+import com.erval.argos.core.domain.measurement.MeasurementType;
 import com.erval.argos.mongo.model.MeasurementDocument;
-import com.erval.argos.mongo.repositories.MeasurementMongoRepository;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
-import lombok.RequiredArgsConstructor;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.CountOptions;
 
 /**
  * MongoDB-backed adapter for measurement persistence.
@@ -29,14 +46,37 @@ import lombok.RequiredArgsConstructor;
  * <ul>
  * <li>filtering by device, type, and timestamp ranges</li>
  * <li>paged retrieval with caller-driven sorting</li>
+ * <li>cursor-backed streaming of arbitrarily large ranges</li>
  * <li>conversion between domain aggregates and Mongo documents</li>
  * </ul>
+ * All operations target the collection chosen by
+ * {@link MeasurementCollectionInitializer}, so plain and time-series storage
+ * share the same query semantics. Bucketed storage is served by
+ * {@link MongoBucketedMeasurementRepositoryAdapter} instead.
  */
 @Component
-@RequiredArgsConstructor
+@ConditionalOnExpression("'${argos.resource.mongo.measurements.storage:documents}' != 'buckets'")
 public class MongoMeasurementRepositoryAdapter implements MeasurementRepositoryPort {
-    private final MeasurementMongoRepository repo;
     private final MongoTemplate mongoTemplate;
+    private final MeasurementCollectionInitializer collection;
+    private final RangeScatterExecutor scatter;
+    private final QueryShapeValidator queryShapes;
+    private final QueryDiagnostics diagnostics;
+    private final int streamBatchSize;
+
+    public MongoMeasurementRepositoryAdapter(MongoTemplate mongoTemplate, MeasurementCollectionInitializer collection,
+            RangeScatterExecutor scatter, QueryShapeValidator queryShapes, QueryDiagnostics diagnostics,
+            @Value("${argos.resource.mongo.measurements.stream-batch-size:1000}") int streamBatchSize) {
+        if (streamBatchSize <= 0) {
+            throw new IllegalArgumentException("stream-batch-size must be positive: " + streamBatchSize);
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.collection = collection;
+        this.scatter = scatter;
+        this.queryShapes = queryShapes;
+        this.diagnostics = diagnostics;
+        this.streamBatchSize = streamBatchSize;
+    }
 
     /**
      * Removes all measurements belonging to a device.
@@ -46,15 +86,21 @@ public class MongoMeasurementRepositoryAdapter implements MeasurementRepositoryP
     @Override
     public void deleteByDeviceId(String deviceId) {
         Query query = new Query(Criteria.where("deviceId").is(deviceId));
-        mongoTemplate.remove(query, MeasurementDocument.class);
+        mongoTemplate.remove(query, MeasurementDocument.class, collection.collectionName());
     }
 
     /**
      * Executes a paginated search applying filter criteria and sorting
      * instructions.
      * <p>
-     * Defaults to sorting by {@code timestamp} when the caller provides no sort
-     * field.
+     * Defaults to sorting by {@code timestamp} when the caller provides no or an
+     * unsupported sort field. In documents mode, sorts no index provides for
+     * the filter are handled by {@link QueryShapeValidator}; time-series
+     * collections always unpack buckets before sorting, so they are not
+     * checked. Requests carrying a cursor seek past it instead of skipping,
+     * see {@link KeysetPaging}. The total follows the request's count mode,
+     * see {@link PageTotal}. Only the selected fields are loaded, see
+     * {@link FieldProjection}.
      *
      * @param filter      constraints like device id, type, or time interval
      * @param pageRequest paging and sorting instructions
@@ -62,6 +108,122 @@ public class MongoMeasurementRepositoryAdapter implements MeasurementRepositoryP
      */
     @Override
     public PageResult<Measurement> findByFilter(MeasurementFilter filter, PageRequest pageRequest) {
+        Query query = filterQuery(filter);
+        String sortBy = MeasurementSortFields.resolve(pageRequest);
+        if (!collection.isTimeSeries()) {
+            sortBy = queryShapes.sortField(MeasurementDocument.class, equalityFields(filter), sortBy,
+                    MeasurementSortFields.DEFAULT);
+        }
+        PageTotal total = PageTotal.count(mongoTemplate, query, MeasurementDocument.class,
+                collection.collectionName(), pageRequest.countMode());
+        KeysetPaging.apply(query, pageRequest, sortBy, MeasurementSortFields::parse);
+        FieldProjection.apply(query, pageRequest, FieldProjection.MEASUREMENT_FIELDS, sortBy);
+        List<Measurement> fetched = diagnostics.find(query, MeasurementDocument.class, collection.collectionName())
+                .stream()
+                .map(MeasurementDocument::toDomain)
+                .toList();
+
+        return KeysetPaging.toResult(fetched, total, pageRequest, sortBy, MeasurementSortFields::valueOf,
+                Measurement::id);
+    }
+
+    /**
+     * Finds the newest measurements of several devices with one aggregation
+     * per {@link MeasurementAggregations#LATEST_DEVICES_PER_PIPELINE} devices.
+     * Each device is read by a {@code $match}, {@code $sort} and
+     * {@code $limit} served by {@code measurement_device_ts_id_idx} or
+     * {@code measurement_device_type_ts_id_idx}, so only {@code limit}
+     * index entries are examined per device.
+     *
+     * @param deviceIds device identifiers
+     * @param type      measurement type to match; {@code null} for all types
+     * @param to        inclusive upper timestamp bound
+     * @param limit     maximum number of measurements per device
+     * @return measurements per device ordered by timestamp descending
+     */
+    @Override
+    public Map<String, List<Measurement>> findLatestByDevices(Collection<String> deviceIds, MeasurementType type,
+            Instant to, int limit) {
+        Date upper = Date.from(to);
+        Map<String, List<Measurement>> latest = new HashMap<>();
+        for (List<String> group : MeasurementAggregations.devicePipelines(deviceIds)) {
+            List<Document> pipeline = MeasurementAggregations.unionPerDevice(collection.collectionName(), group,
+                    deviceId -> {
+                        Document match = new Document("deviceId", deviceId)
+                                .append("timestamp", new Document("$lte", upper));
+                        if (type != null) {
+                            match.append("type", type.name());
+                        }
+                        return List.of(
+                                new Document("$match", match),
+                                new Document("$sort", new Document("timestamp", -1).append("_id", -1)),
+                                new Document("$limit", limit));
+                    });
+            mongoTemplate.getCollection(collection.collectionName())
+                    .aggregate(pipeline)
+                    .forEach(doc -> {
+                        Measurement m = mongoTemplate.getConverter().read(MeasurementDocument.class, doc).toDomain();
+                        latest.computeIfAbsent(m.deviceId(), k -> new ArrayList<>()).add(m);
+                    });
+        }
+        return latest;
+    }
+
+    /**
+     * Streams matching measurements through a server-side cursor fetching
+     * {@code stream-batch-size} documents per round trip, so memory use does
+     * not depend on the size of the range.
+     * <p>
+     * Wide bounded ranges are split by {@link RangeScatterExecutor}; the
+     * sub-ranges are read concurrently and concatenated in timestamp order.
+     *
+     * @param filter constraints like device id, type, or time interval
+     * @return lazily populated stream that must be closed
+     */
+    @Override
+    public Stream<Measurement> stream(MeasurementFilter filter) {
+        Instant from = filter != null ? filter.from() : null;
+        Instant to = filter != null ? filter.to() : null;
+        List<RangeScatterExecutor.Range> ranges = scatter.plan(from, to, true, null,
+                (probe, cap) -> countCapped(rangeQuery(filter, probe), cap));
+        return scatter.gatherStream(ranges, streamBatchSize, range -> {
+            Query query = rangeQuery(filter, range)
+                    .with(Sort.by(Sort.Direction.ASC, "timestamp", "_id"))
+                    .cursorBatchSize(streamBatchSize);
+            return mongoTemplate.stream(query, MeasurementDocument.class, collection.collectionName())
+                    .map(MeasurementDocument::toDomain);
+        });
+    }
+
+    private long countCapped(Query query, long cap) {
+        return mongoTemplate.count(Query.of(query).limit((int) Math.min(cap, Integer.MAX_VALUE)),
+                MeasurementDocument.class, collection.collectionName());
+    }
+
+    private static Query rangeQuery(MeasurementFilter filter, RangeScatterExecutor.Range range) {
+        if (range.from() == null || range.to() == null) {
+            return filterQuery(filter);
+        }
+        Query query = filterQuery(new MeasurementFilter(filter.deviceId(), filter.type(), null, null));
+        Criteria ts = Criteria.where("timestamp").gte(range.from());
+        query.addCriteria(range.toInclusive() ? ts.lte(range.to()) : ts.lt(range.to()));
+        return query;
+    }
+
+    private static Set<String> equalityFields(MeasurementFilter filter) {
+        Set<String> fields = new HashSet<>();
+        if (filter != null) {
+            if (filter.deviceId() != null && !filter.deviceId().isBlank()) {
+                fields.add("deviceId");
+            }
+            if (filter.type() != null) {
+                fields.add("type");
+            }
+        }
+        return fields;
+    }
+
+    private static Query filterQuery(MeasurementFilter filter) {
         Query query = new Query();
 
         if (filter != null) {
@@ -82,30 +244,7 @@ public class MongoMeasurementRepositoryAdapter implements MeasurementRepositoryP
                 query.addCriteria(ts);
             }
         }
-
-        Sort sort = Sort.by(
-                pageRequest.direction() == SortDirection.ASC
-                        ? Sort.Direction.ASC
-                        : Sort.Direction.DESC,
-                pageRequest.sortBy() != null && !pageRequest.sortBy().isBlank()
-                        ? pageRequest.sortBy()
-                        : "timestamp");
-
-        org.springframework.data.domain.PageRequest pageable = org.springframework.data.domain.PageRequest
-                .of(pageRequest.page(), pageRequest.size(), sort);
-
-        long total = mongoTemplate.count(query, MeasurementDocument.class);
-        List<MeasurementDocument> docs = mongoTemplate.find(query.with(pageable), MeasurementDocument.class);
-
-        List<Measurement> content = docs.stream()
-                .map(MeasurementDocument::toDomain)
-                .toList();
-
-        return new PageResult<>(
-                content,
-                total,
-                pageRequest.page(),
-                pageRequest.size());
+        return query;
     }
 
     /**
@@ -116,10 +255,120 @@ public class MongoMeasurementRepositoryAdapter implements MeasurementRepositoryP
      */
     @Override
     public Measurement save(Measurement measurement) {
-        MeasurementDocument saved = repo.save(MeasurementDocument.fromDomain(measurement));
+        MeasurementDocument saved = mongoTemplate.save(MeasurementDocument.fromDomain(measurement),
+                collection.collectionName());
         return saved.toDomain();
     }
 
+    /**
+     * Saves a batch of measurements with a single unordered bulk insert.
+     * <p>
+     * Ids are assigned client-side so the stored documents can be reported back
+     * without a re-read. Write errors are mapped to the failing input index;
+     * the remaining documents of the batch are still inserted.
+     *
+     * @param measurements aggregates to persist
+     * @return one result per measurement, in input order
+     */
+    @Override
+    public List<BatchItemResult<Measurement>> saveAll(List<Measurement> measurements) {
+        if (measurements.isEmpty()) {
+            return List.of();
+        }
+        List<MeasurementDocument> docs = new ArrayList<>(measurements.size());
+        for (Measurement m : measurements) {
+            MeasurementDocument doc = MeasurementDocument.fromDomain(m);
+            if (doc.getId() == null) {
+                doc.setId(nextId());
+            }
+            docs.add(doc);
+        }
+
+        Map<Integer, String> errors = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, MeasurementDocument.class, collection.collectionName())
+                    .insert(docs)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError error : ex.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+        }
+
+        List<BatchItemResult<Measurement>> results = new ArrayList<>(docs.size());
+        for (int i = 0; i < docs.size(); i++) {
+            String error = errors.get(i);
+            results.add(error == null
+                    ? BatchItemResult.success(i, docs.get(i).toDomain())
+                    : BatchItemResult.failure(i, error));
+        }
+        return results;
+    }
+
+    /**
+     * Generates a new ObjectId in hex form, matching ids assigned by the driver.
+     *
+     * @return new measurement identifier
+     */
+    @Override
+    public String nextId() {
+        return new ObjectId().toHexString();
+    }
+
+    /**
+     * Looks up the highest sequence number of a device with a single indexed
+     * read of {@code measurement_device_seq_id_idx}.
+     *
+     * @param deviceId device identifier
+     * @return highest stored sequence number, or empty if none exist
+     */
+    @Override
+    public OptionalInt findMaxSequenceNumber(String deviceId) {
+        Query query = new Query(Criteria.where("deviceId").is(deviceId))
+                .with(Sort.by(Sort.Direction.DESC, "sequenceNumber"))
+                .limit(1);
+        query.fields().include("sequenceNumber");
+        MeasurementDocument doc = mongoTemplate.findOne(query, MeasurementDocument.class, collection.collectionName());
+        return doc == null ? OptionalInt.empty() : OptionalInt.of(doc.getSequenceNumber());
+    }
+
+    /**
+     * Aggregates a series with a single pipeline: an indexed {@code $match} on
+     * device, type and window, then {@code $dateTrunc} buckets.
+     * <p>
+     * Wide windows are split by {@link RangeScatterExecutor} on bucket
+     * boundaries, so each bucket is still computed by exactly one pipeline.
+     *
+     * @param query validated aggregation request
+     * @return non-empty buckets ordered by start time
+     */
+    @Override
+    public List<MeasurementBucket> aggregate(AggregationQuery query) {
+        List<RangeScatterExecutor.Range> ranges = scatter.plan(query.from(), query.to(), false, query.interval(),
+                (probe, cap) -> countCapped(new AggregationQuery(query.deviceId(), query.type(), probe.from(),
+                        probe.to(), query.interval()), cap));
+        return scatter.gather(ranges, range -> aggregateRange(new AggregationQuery(query.deviceId(), query.type(),
+                range.from(), range.to(), query.interval())));
+    }
+
+    private long countCapped(AggregationQuery query, long cap) {
+        Document match = MeasurementAggregations.seriesMatch(query).get("$match", Document.class);
+        return mongoTemplate.getCollection(collection.collectionName())
+                .countDocuments(match, new CountOptions().limit((int) Math.min(cap, Integer.MAX_VALUE)));
+    }
+
+    private List<MeasurementBucket> aggregateRange(AggregationQuery query) {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(MeasurementAggregations.seriesMatch(query));
+        pipeline.addAll(MeasurementAggregations.bucketStages(query.interval()));
+        List<MeasurementBucket> buckets = new ArrayList<>();
+        mongoTemplate.getCollection(collection.collectionName())
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .forEach(doc -> buckets.add(MeasurementAggregations.toBucket(doc)));
+        return buckets;
+    }
+
     @Override
     /**
      * Deletes a measurement by its id.
@@ -127,7 +376,8 @@ public class MongoMeasurementRepositoryAdapter implements MeasurementRepositoryP
      * @param id measurement identifier
      */
     public void deleteById(String id) {
-        repo.deleteById(id);
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(id)), MeasurementDocument.class,
+                collection.collectionName());
     }
 
     /**
@@ -138,22 +388,7 @@ public class MongoMeasurementRepositoryAdapter implements MeasurementRepositoryP
      */
     @Override
     public PageResult<Measurement> findAll(PageRequest pageRequest) {
-        Pageable pageable = org.springframework.data.domain.PageRequest.of(
-                pageRequest.page(),
-                pageRequest.size(),
-                pageRequest.direction() == SortDirection.ASC ? Sort.Direction.ASC : Sort.Direction.DESC,
-                pageRequest.sortBy() != null && !pageRequest.sortBy().isBlank() ? pageRequest.sortBy() : "timestamp");
-
-        Page<MeasurementDocument> page = repo.findAll(pageable);
-        List<Measurement> content = page.getContent().stream()
-                .map(MeasurementDocument::toDomain)
-                .toList();
-
-        return new PageResult<>(
-                content,
-                page.getTotalElements(),
-                page.getNumber(),
-                page.getSize());
+        return findByFilter(null, pageRequest);
     }
 
     @Override
@@ -164,7 +399,8 @@ public class MongoMeasurementRepositoryAdapter implements MeasurementRepositoryP
      * @return optional measurement if found
      */
     public Optional<Measurement> findById(String id) {
-        return repo.findById(id).map(MeasurementDocument::toDomain);
+        return Optional.ofNullable(mongoTemplate.findById(id, MeasurementDocument.class, collection.collectionName()))
+                .map(MeasurementDocument::toDomain);
     }
 
     /**
@@ -172,7 +408,7 @@ public class MongoMeasurementRepositoryAdapter implements MeasurementRepositoryP
      */
     @Override
     public void deleteAll() {
-        repo.deleteAll();
+        mongoTemplate.remove(new Query(), MeasurementDocument.class, collection.collectionName());
     }
 
 }
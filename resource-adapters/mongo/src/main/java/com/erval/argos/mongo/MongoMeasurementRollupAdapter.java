@@ -0,0 +1,236 @@
+package com.erval.argos.mongo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.erval.argos.core.application.port.out.MeasurementRollupPort;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.core.domain.measurement.RollupBucket;
+import com.erval.argos.core.domain.measurement.RollupResolution;
+import com.erval.argos.mongo.model.MeasurementRollupDocument;
+
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MongoDB adapter maintaining measurement rollups.
+ * <p>
+ * Layout and write path:
+ * <ul>
+ * <li>all resolutions share {@code measurement_rollups}, keyed by
+ * {@code resolution} next to the series and bucket start</li>
+ * <li>a batch is first combined in memory per bucket, then written with a
+ * single unordered bulk of upserts covering every resolution</li>
+ * <li>updates only use {@code $inc}, {@code $min} and {@code $max}, so
+ * concurrent writers never overwrite each other</li>
+ * </ul>
+ * Rollups only grow: deleting measurements does not rewind them. A rebuild
+ * recomputes whole buckets from the stored measurements with one
+ * {@code $group} and {@code $merge} per resolution, replacing buckets that
+ * still hold measurements; buckets whose measurements were all deleted are
+ * kept. Opt-in with {@code argos.resource.rollups.enabled=true}, since every
+ * write then also pays for the bulk.
+ */
+@Component
+@ConditionalOnProperty(name = "argos.resource.rollups.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class MongoMeasurementRollupAdapter implements MeasurementRollupPort {
+
+    static final String COLLECTION = "measurement_rollups";
+
+    private final MongoTemplate mongoTemplate;
+    private final MeasurementCollectionInitializer collection;
+
+    /**
+     * Creates the series/resolution/start index on the rollup collection.
+     */
+    @PostConstruct
+    void ensureIndexes() {
+        mongoTemplate.indexOps(COLLECTION).createIndex(new Index()
+                .on("deviceId", Sort.Direction.ASC)
+                .on("type", Sort.Direction.ASC)
+                .on("resolution", Sort.Direction.ASC)
+                .on("start", Sort.Direction.ASC)
+                .named("rollup_device_type_resolution_start_idx"));
+    }
+
+    /**
+     * Adds measurements to the rollups of every resolution with one bulk
+     * write.
+     *
+     * @param measurements measurements that were persisted successfully
+     */
+    @Override
+    public void apply(List<Measurement> measurements) {
+        if (measurements.isEmpty()) {
+            return;
+        }
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        for (RollupResolution resolution : RollupResolution.values()) {
+            for (Measurement m : measurements) {
+                Instant start = resolution.truncate(m.timestamp());
+                deltas.computeIfAbsent(
+                        MeasurementRollupDocument.rollupId(m.deviceId(), m.type(), resolution, start),
+                        id -> new Delta(m.deviceId(), m.type(), resolution, start))
+                        .add(m.value());
+            }
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, MeasurementRollupDocument.class,
+                COLLECTION);
+        deltas.forEach((id, delta) -> bulk.upsert(new Query(Criteria.where("_id").is(id)), delta.toUpdate()));
+        bulk.execute();
+    }
+
+    /**
+     * Recomputes the buckets of one resolution overlapping a window, for all
+     * series, from the measurement collection of the configured storage mode.
+     * The measurements are read through the timestamp index, or the bucket
+     * windows in bucketed mode, grouped per series and bucket and merged into
+     * {@code measurement_rollups} by their deterministic id.
+     *
+     * @param from       inclusive window start
+     * @param to         exclusive window end
+     * @param resolution rollup resolution to rebuild
+     */
+    @Override
+    public void rebuild(Instant from, Instant to, RollupResolution resolution) {
+        Instant start = resolution.truncate(from);
+        Instant end = resolution.truncate(to);
+        if (end.isBefore(to)) {
+            end = end.plus(resolution.size());
+        }
+        List<Document> pipeline = new ArrayList<>();
+        if (collection.isBuckets()) {
+            pipeline.addAll(MongoBucketedMeasurementRepositoryAdapter.rangeStages(null, null,
+                    new RangeScatterExecutor.Range(start, end, false)));
+        } else {
+            pipeline.add(new Document("$match", new Document("timestamp",
+                    new Document("$gte", Date.from(start)).append("$lt", Date.from(end)))));
+        }
+        Document bucketStart = new Document("$dateTrunc", new Document("date", "$timestamp")
+                .append("unit", unit(resolution))
+                .append("timezone", "UTC"));
+        pipeline.add(new Document("$group", new Document("_id", new Document("deviceId", "$deviceId")
+                .append("type", "$type")
+                .append("start", bucketStart))
+                .append("count", new Document("$sum", 1L))
+                .append("sum", new Document("$sum", "$value"))
+                .append("sumSquares", new Document("$sum", new Document("$multiply", List.of("$value", "$value"))))
+                .append("min", new Document("$min", "$value"))
+                .append("max", new Document("$max", "$value"))));
+        Document epochSeconds = new Document("$toString", new Document("$toLong",
+                new Document("$divide", List.of(new Document("$toLong", "$_id.start"), 1000))));
+        pipeline.add(new Document("$project", new Document("_id", new Document("$concat", List.of(
+                "$_id.deviceId", ":", "$_id.type", ":", resolution.name(), ":", epochSeconds)))
+                .append("deviceId", "$_id.deviceId")
+                .append("type", "$_id.type")
+                .append("resolution", new Document("$literal", resolution.name()))
+                .append("start", "$_id.start")
+                .append("count", 1)
+                .append("sum", 1)
+                .append("sumSquares", 1)
+                .append("min", 1)
+                .append("max", 1)));
+        pipeline.add(new Document("$merge", new Document("into", COLLECTION)
+                .append("on", "_id")
+                .append("whenMatched", "replace")
+                .append("whenNotMatched", "insert")));
+        mongoTemplate.getCollection(collection.collectionName())
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .toCollection();
+    }
+
+    private static String unit(RollupResolution resolution) {
+        return switch (resolution) {
+            case MINUTE -> "minute";
+            case HOUR -> "hour";
+            case DAY -> "day";
+        };
+    }
+
+    /**
+     * Reads rollup buckets of one series using
+     * {@code rollup_device_type_resolution_start_idx}.
+     *
+     * @param deviceId   device identifier
+     * @param type       measurement type
+     * @param from       inclusive window start
+     * @param to         exclusive window end
+     * @param resolution rollup resolution to read
+     * @return buckets ordered by start time
+     */
+    @Override
+    public List<RollupBucket> find(String deviceId, MeasurementType type, Instant from, Instant to,
+            RollupResolution resolution) {
+        Query query = new Query(Criteria.where("deviceId").is(deviceId)
+                .and("type").is(type)
+                .and("resolution").is(resolution)
+                .and("start").gte(resolution.truncate(from)).lt(to))
+                .with(Sort.by(Sort.Direction.ASC, "start"));
+        return mongoTemplate.find(query, MeasurementRollupDocument.class, COLLECTION).stream()
+                .map(MeasurementRollupDocument::toDomain)
+                .toList();
+    }
+
+    /**
+     * Statistics of the measurements of one batch falling into one bucket.
+     */
+    private static final class Delta {
+        private final String deviceId;
+        private final MeasurementType type;
+        private final RollupResolution resolution;
+        private final Instant start;
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sumSquares;
+
+        private Delta(String deviceId, MeasurementType type, RollupResolution resolution, Instant start) {
+            this.deviceId = deviceId;
+            this.type = type;
+            this.resolution = resolution;
+            this.start = start;
+        }
+
+        private void add(double value) {
+            count++;
+            sum += value;
+            sumSquares += value * value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        private Update toUpdate() {
+            return new Update()
+                    .setOnInsert("deviceId", deviceId)
+                    .setOnInsert("type", type)
+                    .setOnInsert("resolution", resolution)
+                    .setOnInsert("start", start)
+                    .inc("count", count)
+                    .inc("sum", sum)
+                    .inc("sumSquares", sumSquares)
+                    .min("min", min)
+                    .max("max", max);
+        }
+    }
+}
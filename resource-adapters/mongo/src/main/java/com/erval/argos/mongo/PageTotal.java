@@ -0,0 +1,56 @@
+package com.erval.argos.mongo;
+
+import com.erval.argos.core.application.CountMode;
+import com.erval.argos.core.application.PageResult;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Total of a paged query, computed according to its {@link CountMode}.
+ * <p>
+ * Strategy:
+ * <ul>
+ * <li>{@link CountMode#NONE} runs no count at all</li>
+ * <li>queries without criteria use {@code estimatedDocumentCount}, which reads
+ * collection metadata instead of scanning</li>
+ * <li>{@link CountMode#CAPPED} counts at most {@link #CAP} + 1 matches</li>
+ * </ul>
+ *
+ * @param value  number of matches, a lower bound when capped, or
+ *               {@link PageResult#UNKNOWN_TOTAL}
+ * @param capped whether counting stopped at the cap
+ */
+record PageTotal(long value, boolean capped) {
+
+    static final long CAP = 10_000;
+
+    static final PageTotal UNKNOWN = new PageTotal(PageResult.UNKNOWN_TOTAL, false);
+
+    /**
+     * Counts the matches of a filter query. Must be called before paging is
+     * applied to the query.
+     *
+     * @param mongoTemplate template to count with
+     * @param filter        query carrying only filter criteria
+     * @param type          mapped document type
+     * @param collection    collection to count in
+     * @param mode          requested count mode
+     * @return computed total
+     */
+    static PageTotal count(MongoTemplate mongoTemplate, Query filter, Class<?> type, String collection,
+            CountMode mode) {
+        if (mode == CountMode.NONE) {
+            return UNKNOWN;
+        }
+        if (filter.getQueryObject().isEmpty()) {
+            return new PageTotal(mongoTemplate.estimatedCount(collection), false);
+        }
+        if (mode == CountMode.CAPPED) {
+            Query capped = Query.of(filter).limit((int) CAP + 1);
+            long n = mongoTemplate.count(capped, type, collection);
+            return n > CAP ? new PageTotal(CAP, true) : new PageTotal(n, false);
+        }
+        return new PageTotal(mongoTemplate.count(filter, type, collection), false);
+    }
+}
@@ -0,0 +1,244 @@
+package com.erval.argos.mongo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.FindIterable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs paged finds and, when diagnostics are enabled, explains the slow ones.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>disabled (default): a plain {@link MongoTemplate#find} without timing</li>
+ * <li>enabled: finds slower than {@code slow-query-threshold} are explained
+ * with {@code executionStats} on a virtual thread, after the result was
+ * returned, and logged with keys and documents examined, the index used and
+ * whether the server sorted in memory</li>
+ * <li>each query shape, i.e. collection, filter with its values left out and
+ * sort, is explained at most once per {@code explain-interval}; further slow
+ * runs of the shape are only counted in the next warning</li>
+ * </ul>
+ * Explaining re-runs the query, so diagnostics are meant to be switched on
+ * while investigating, not permanently. The per-shape limit keeps them from
+ * doubling the load of a database that is already slow for every query.
+ */
+@Slf4j
+@Component
+public class QueryDiagnostics {
+
+    /** Shapes tracked before the table is reset; code issues far fewer. */
+    private static final int MAX_SHAPES = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration slowQueryThreshold;
+    private final long explainIntervalNanos;
+    /** Per query shape, when it was last explained and the slow runs since. */
+    private final Map<String, ShapeState> shapes = new ConcurrentHashMap<>();
+
+    public QueryDiagnostics(MongoTemplate mongoTemplate,
+            @Value("${argos.resource.mongo.diagnostics.enabled:false}") boolean enabled,
+            @Value("${argos.resource.mongo.diagnostics.slow-query-threshold:500ms}") Duration slowQueryThreshold,
+            @Value("${argos.resource.mongo.diagnostics.explain-interval:1m}") Duration explainInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.explainIntervalNanos = explainInterval.toNanos();
+    }
+
+    /**
+     * Finds documents, explaining the query afterwards when it was slow.
+     *
+     * @param query      query with criteria, sort, skip and limit applied
+     * @param type       mapped document type
+     * @param collection collection to query
+     * @param <T>        document type
+     * @return matching documents
+     */
+    <T> List<T> find(Query query, Class<T> type, String collection) {
+        if (!enabled) {
+            return mongoTemplate.find(query, type, collection);
+        }
+        long start = System.nanoTime();
+        List<T> result = mongoTemplate.find(query, type, collection);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        if (elapsed.compareTo(slowQueryThreshold) >= 0) {
+            long slowRuns = claimExplain(shape(collection, query), System.nanoTime());
+            if (slowRuns > 0) {
+                Query copy = Query.of(query);
+                Thread.ofVirtual().name("query-explain")
+                        .start(() -> record(copy, type, collection, elapsed, slowRuns));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts a slow run of a query shape and decides whether to explain it.
+     *
+     * @param shape    query shape, see {@link #shape}
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return slow runs of the shape since its last explain, this one
+     *         included, when it is due for an explain; {@code 0} otherwise
+     */
+    long claimExplain(String shape, long nowNanos) {
+        if (shapes.size() > MAX_SHAPES && !shapes.containsKey(shape)) {
+            shapes.clear();
+        }
+        ShapeState state = shapes.computeIfAbsent(shape, key -> new ShapeState(nowNanos - explainIntervalNanos));
+        synchronized (state) {
+            state.slowRuns++;
+            if (nowNanos - state.lastExplainNanos < explainIntervalNanos) {
+                return 0;
+            }
+            state.lastExplainNanos = nowNanos;
+            long slowRuns = state.slowRuns;
+            state.slowRuns = 0;
+            return slowRuns;
+        }
+    }
+
+    /**
+     * Describes a query by collection, filter structure and sort, leaving out
+     * the filter values, so runs differing only in their arguments share a
+     * shape.
+     *
+     * @param collection collection queried
+     * @param query      query to describe
+     * @return query shape
+     */
+    static String shape(String collection, Query query) {
+        return collection + " " + shape(query.getQueryObject()) + " " + query.getSortObject().toJson();
+    }
+
+    private static String shape(Object value) {
+        if (value instanceof Document doc) {
+            StringBuilder fields = new StringBuilder("{");
+            doc.forEach((key, nested) -> fields.append(fields.length() > 1 ? "," : "").append(key).append(':')
+                    .append(shape(nested)));
+            return fields.append('}').toString();
+        }
+        if (value instanceof List<?> list) {
+            Set<String> items = new LinkedHashSet<>();
+            list.forEach(item -> items.add(shape(item)));
+            return items.toString();
+        }
+        return "?";
+    }
+
+    /**
+     * Explains a query with {@code executionStats} verbosity.
+     *
+     * @param query      query with criteria, sort, skip and limit applied
+     * @param type       mapped document type, used to map field names
+     * @param collection collection to query
+     * @return summary of the winning plan
+     */
+    QueryPlanStats explain(Query query, Class<?> type, String collection) {
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getPersistentEntity(type);
+        FindIterable<Document> find = mongoTemplate.getCollection(collection)
+                .find(mapper.getMappedObject(query.getQueryObject(), entity))
+                .sort(mapper.getMappedSort(query.getSortObject(), entity))
+                .skip((int) query.getSkip());
+        if (query.isLimited()) {
+            find = find.limit(query.getLimit());
+        }
+        Document explain = find.explain(ExplainVerbosity.EXECUTION_STATS);
+        Document stats = explain.get("executionStats", new Document());
+        List<String> stages = new ArrayList<>();
+        List<String> indexNames = new ArrayList<>();
+        collectStages(explain.get("queryPlanner"), stages, indexNames);
+        return new QueryPlanStats(
+                number(stats.get("totalKeysExamined")),
+                number(stats.get("totalDocsExamined")),
+                number(stats.get("nReturned")),
+                stages.contains("SORT"),
+                List.copyOf(indexNames));
+    }
+
+    private void record(Query query, Class<?> type, String collection, Duration elapsed, long slowRuns) {
+        try {
+            QueryPlanStats plan = explain(query, type, collection);
+            log.warn("Slow query on '{}' took {} ms ({} slow runs of this shape since the last explain): "
+                    + "filter={}, sort={}, keysExamined={}, docsExamined={}, returned={}, inMemorySort={}, "
+                    + "indexes={}",
+                    collection, elapsed.toMillis(), slowRuns, query.getQueryObject().toJson(),
+                    query.getSortObject().toJson(), plan.keysExamined(), plan.docsExamined(), plan.returned(),
+                    plan.inMemorySort(), plan.indexNames());
+        } catch (RuntimeException ex) {
+            log.debug("Explaining slow query on '{}' failed", collection, ex);
+        }
+    }
+
+    /**
+     * Walks an explain plan tree, collecting stage names and scanned indexes.
+     * Handles both classic ({@code inputStage}) and slot-based
+     * ({@code queryPlan}) plan layouts by visiting every nested document.
+     */
+    private static void collectStages(Object node, List<String> stages, List<String> indexNames) {
+        if (node instanceof Document doc) {
+            if (doc.get("stage") instanceof String stage) {
+                stages.add(stage);
+                if (doc.get("indexName") instanceof String indexName) {
+                    indexNames.add(indexName);
+                }
+            }
+            doc.forEach((key, value) -> {
+                if (!"rejectedPlans".equals(key)) {
+                    collectStages(value, stages, indexNames);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> collectStages(item, stages, indexNames));
+        }
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number n ? n.longValue() : 0;
+    }
+
+    /**
+     * Explain bookkeeping of one query shape, guarded by its own monitor.
+     */
+    private static final class ShapeState {
+        private long lastExplainNanos;
+        private long slowRuns;
+
+        private ShapeState(long lastExplainNanos) {
+            this.lastExplainNanos = lastExplainNanos;
+        }
+    }
+
+    /**
+     * Summary of an explained query.
+     *
+     * @param keysExamined index keys scanned
+     * @param docsExamined documents fetched
+     * @param returned     documents returned
+     * @param inMemorySort whether the winning plan has a blocking
+     *                     {@code SORT} stage
+     * @param indexNames   indexes scanned by the winning plan
+     */
+    record QueryPlanStats(long keysExamined, long docsExamined, long returned, boolean inMemorySort,
+            List<String> indexNames) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.erval.argos.mongo;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks paged queries against the indexes declared on their document class,
+ * so that no query needs a blocking in-memory sort.
+ * <p>
+ * Paged queries sort by the requested field and then {@code _id}. An index
+ * provides that order for a filter when, after skipping keys the filter pins
+ * to a single value, its next keys are the sort field and {@code _id} with the
+ * same direction. Declared indexes are read from {@link CompoundIndex},
+ * {@link Indexed} and {@link Id} annotations.
+ * <p>
+ * Modes ({@code argos.resource.mongo.query-validation}):
+ * <ul>
+ * <li>{@code off} (default): sorts are used as requested</li>
+ * <li>{@code reject}: an unindexed sort fails with
+ * {@link IllegalArgumentException}</li>
+ * <li>{@code rewrite}: an unindexed sort falls back to the adapter's default
+ * sort field when that one is indexed; the page is then ordered differently
+ * from what the client asked for, which is logged at info level</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class QueryShapeValidator {
+
+    static final String MODE_REWRITE = "rewrite";
+    static final String MODE_REJECT = "reject";
+    static final String MODE_OFF = "off";
+
+    private final String mode;
+    private final Map<Class<?>, List<List<IndexKey>>> indexes = new ConcurrentHashMap<>();
+
+    public QueryShapeValidator(@Value("${argos.resource.mongo.query-validation:off}") String mode) {
+        this.mode = mode.toLowerCase(Locale.ROOT);
+        if (!Set.of(MODE_REWRITE, MODE_REJECT, MODE_OFF).contains(this.mode)) {
+            throw new IllegalArgumentException("Unknown query validation mode: " + mode);
+        }
+    }
+
+    /**
+     * Resolves the sort field to run a paged query with.
+     *
+     * @param document       mapped document class declaring the indexes
+     * @param equalityFields fields the filter pins to a single value
+     * @param sortBy         requested sort field, already known to be
+     *                       supported by the adapter
+     * @param fallback       the adapter's default sort field
+     * @return sort field to use
+     * @throws IllegalArgumentException in {@code reject} mode when no index
+     *                                  provides the requested order
+     */
+    String sortField(Class<?> document, Set<String> equalityFields, String sortBy, String fallback) {
+        if (MODE_OFF.equals(mode) || isIndexed(document, equalityFields, sortBy)) {
+            return sortBy;
+        }
+        if (MODE_REJECT.equals(mode)) {
+            throw new IllegalArgumentException("Sorting by '" + sortBy + "' is not supported with filters on "
+                    + equalityFields + "; no index provides that order");
+        }
+        if (isIndexed(document, equalityFields, fallback)) {
+            log.info("Rewriting unindexed sort '{}' to '{}' for filters on {}", sortBy, fallback, equalityFields);
+            return fallback;
+        }
+        return sortBy;
+    }
+
+    /**
+     * Indicates whether a declared index returns matches of a filter already
+     * ordered by a field and then {@code _id}.
+     *
+     * @param document       mapped document class declaring the indexes
+     * @param equalityFields fields the filter pins to a single value
+     * @param sortBy         sort field
+     * @return {@code true} when no in-memory sort is needed
+     */
+    boolean isIndexed(Class<?> document, Set<String> equalityFields, String sortBy) {
+        for (List<IndexKey> index : indexes.computeIfAbsent(document, QueryShapeValidator::declaredIndexes)) {
+            if (providesOrder(index, equalityFields, sortBy)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean providesOrder(List<IndexKey> index, Set<String> equalityFields, String sortBy) {
+        Integer sortDirection = null;
+        for (IndexKey key : index) {
+            if (sortDirection == null && key.field().equals(sortBy)) {
+                if ("_id".equals(sortBy)) {
+                    return true;
+                }
+                sortDirection = key.direction();
+            } else if (sortDirection != null && key.field().equals("_id")) {
+                return key.direction() == sortDirection;
+            } else if (!equalityFields.contains(key.field())) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static List<List<IndexKey>> declaredIndexes(Class<?> document) {
+        List<List<IndexKey>> declared = new ArrayList<>();
+        declared.add(List.of(new IndexKey("_id", 1)));
+        List<CompoundIndex> compounds = new ArrayList<>();
+        CompoundIndexes container = document.getAnnotation(CompoundIndexes.class);
+        if (container != null) {
+            compounds.addAll(List.of(container.value()));
+        }
+        CompoundIndex single = document.getAnnotation(CompoundIndex.class);
+        if (single != null) {
+            compounds.add(single);
+        }
+        for (CompoundIndex compound : compounds) {
+            List<IndexKey> keys = new ArrayList<>();
+            Document.parse(compound.def()).forEach((field, direction) ->
+                    keys.add(new IndexKey(field, ((Number) direction).intValue() < 0 ? -1 : 1)));
+            declared.add(List.copyOf(keys));
+        }
+        for (Field field : document.getDeclaredFields()) {
+            Indexed indexed = field.getAnnotation(Indexed.class);
+            if (indexed != null && !field.isAnnotationPresent(Id.class)) {
+                int direction = indexed.direction() == IndexDirection.DESCENDING ? -1 : 1;
+                declared.add(List.of(new IndexKey(field.getName(), direction)));
+            }
+        }
+        return List.copyOf(declared);
+    }
+
+    /**
+     * Key of a declared index.
+     *
+     * @param field     stored field name
+     * @param direction {@code 1} for ascending, {@code -1} for descending
+     */
+    private record IndexKey(String field, int direction) {
+    }
+}
@@ -0,0 +1,344 @@
+package com.erval.argos.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Splits wide time windows into sub-ranges that are read concurrently on
+ * virtual threads and merged back in time order.
+ * <p>
+ * Planning is cost-based:
+ * <ul>
+ * <li>matches are estimated from {@value #PROBES} probes spread over the
+ * window, together as wide as the finest possible range and each counted up
+ * to a quarter of {@code min-split-documents}. Saturated probes already
+ * justify the finest split, so a larger count could not change the plan;
+ * the estimate reads at most {@code min-split-documents} index keys, where
+ * counting the whole window up to {@code max-splits * min-split-documents}
+ * read sixteen times as many</li>
+ * <li>a window is split into at most one range per
+ * {@code min-split-documents} estimated matches, at most
+ * {@code max-splits} ranges, and no range narrower than
+ * {@code min-split-span}</li>
+ * <li>small windows, open-ended windows and a {@code max-concurrency} below 2
+ * run as one range, exactly as without this executor</li>
+ * </ul>
+ * Sub-ranges are disjoint and ordered, so concatenating their individually
+ * sorted results yields the order of a single query. At most
+ * {@code max-concurrency} sub-ranges of one query run at the same time.
+ */
+@Component
+public class RangeScatterExecutor {
+
+    /** Origin of {@code $dateTrunc} bins, used to align range boundaries. */
+    static final Instant BIN_ORIGIN = Instant.parse("2000-01-01T00:00:00Z");
+
+    /** Number of probes sampled to estimate the matches of a window. */
+    static final int PROBES = 4;
+
+    private static final Object END = new Object();
+
+    private final int maxConcurrency;
+    private final int maxSplits;
+    private final long minSplitDocuments;
+    private final Duration minSplitSpan;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RangeScatterExecutor(
+            @Value("${argos.resource.mongo.measurements.scatter.max-concurrency:4}") int maxConcurrency,
+            @Value("${argos.resource.mongo.measurements.scatter.max-splits:16}") int maxSplits,
+            @Value("${argos.resource.mongo.measurements.scatter.min-split-documents:50000}") long minSplitDocuments,
+            @Value("${argos.resource.mongo.measurements.scatter.min-split-span:1h}") Duration minSplitSpan) {
+        if (maxSplits < 1 || minSplitDocuments < 1 || minSplitSpan.getSeconds() < 1) {
+            throw new IllegalArgumentException("Scatter max-splits, min-split-documents and min-split-span must be positive");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxSplits = maxSplits;
+        this.minSplitDocuments = minSplitDocuments;
+        this.minSplitSpan = minSplitSpan;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Plans the sub-ranges of a window.
+     *
+     * @param from        inclusive window start; {@code null} for open
+     * @param to          window end; {@code null} for open
+     * @param toInclusive whether {@code to} itself belongs to the window
+     * @param alignment   when set, inner boundaries are multiples of it from
+     *                    {@link #BIN_ORIGIN}, so no aggregation bin is split
+     * @param counter     counts the matches of a probe range
+     * @return ordered, disjoint ranges covering the window
+     */
+    List<Range> plan(Instant from, Instant to, boolean toInclusive, Duration alignment, RangeCounter counter) {
+        List<Range> whole = List.of(new Range(from, to, toInclusive));
+        if (maxConcurrency < 2 || maxSplits < 2 || from == null || to == null || !from.isBefore(to)) {
+            return whole;
+        }
+        long span = Duration.between(from, to).getSeconds();
+        long step = Math.max(minSplitSpan.getSeconds(), alignment != null ? alignment.getSeconds() : 1);
+        long bySpan = Math.min(maxSplits, span / step);
+        if (bySpan < 2) {
+            return whole;
+        }
+        long estimate = estimate(from, to, bySpan, counter);
+        long splits = Math.min(bySpan, estimate / minSplitDocuments);
+        if (splits < 2) {
+            return whole;
+        }
+
+        long width = (span + splits - 1) / splits;
+        List<Range> ranges = new ArrayList<>();
+        Instant start = from;
+        for (long i = 1; i < splits; i++) {
+            Instant boundary = align(from.plusSeconds(i * width), alignment);
+            if (boundary.isAfter(start) && boundary.isBefore(to)) {
+                ranges.add(new Range(start, boundary, false));
+                start = boundary;
+            }
+        }
+        ranges.add(new Range(start, to, toInclusive));
+        return ranges;
+    }
+
+    /**
+     * Extrapolates the matches of a window from probes in the middle of
+     * {@link #PROBES} equal slices, together {@code 1 / ranges} of the window
+     * wide.
+     */
+    private long estimate(Instant from, Instant to, long ranges, RangeCounter counter) {
+        long spanMillis = Duration.between(from, to).toMillis();
+        long probeMillis = Math.max(1, spanMillis / (ranges * PROBES));
+        long cap = (minSplitDocuments + PROBES - 1) / PROBES;
+        long sampled = 0;
+        for (int i = 0; i < PROBES; i++) {
+            Instant start = from.plusMillis(spanMillis * (2L * i + 1) / (2L * PROBES) - probeMillis / 2);
+            sampled += counter.count(new Range(start, start.plusMillis(probeMillis), false), cap);
+        }
+        return sampled * spanMillis / (PROBES * probeMillis);
+    }
+
+    /**
+     * Runs a task per part concurrently and concatenates the results in part
+     * order. Parts are usually ranges from {@link #plan}, but any independent
+     * reads work, such as one per device.
+     *
+     * @param parts parts to read
+     * @param task  reads one part, returning its items in order
+     * @param <P>   part type
+     * @param <T>   item type
+     * @return items of all parts
+     */
+    <P, T> List<T> gather(List<P> parts, Function<P, List<T>> task) {
+        if (parts.size() == 1) {
+            return task.apply(parts.get(0));
+        }
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        List<Future<List<T>>> results = new ArrayList<>(parts.size());
+        for (P part : parts) {
+            results.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return task.apply(part);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        List<T> merged = new ArrayList<>();
+        try {
+            for (Future<List<T>> result : results) {
+                merged.addAll(await(result));
+            }
+        } finally {
+            results.forEach(result -> result.cancel(true));
+        }
+        return merged;
+    }
+
+    /**
+     * Streams the ranges concurrently, buffering at most {@code prefetch}
+     * items per running range, and concatenates them in range order.
+     *
+     * @param ranges   ranges from {@link #plan}
+     * @param prefetch items buffered per range ahead of the consumer
+     * @param task     opens the ordered stream of one range
+     * @param <T>      item type
+     * @return lazily populated stream that must be closed
+     */
+    <T> Stream<T> gatherStream(List<Range> ranges, int prefetch, Function<Range, Stream<T>> task) {
+        if (ranges.size() == 1) {
+            return task.apply(ranges.get(0));
+        }
+        OrderedMerge<T> merge = new OrderedMerge<>(ranges, prefetch, task);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merge, Spliterator.ORDERED), false)
+                .onClose(merge::close);
+    }
+
+    private static Instant align(Instant instant, Duration alignment) {
+        if (alignment == null) {
+            return instant;
+        }
+        long step = alignment.getSeconds();
+        long offset = Duration.between(BIN_ORIGIN, instant).getSeconds();
+        return BIN_ORIGIN.plusSeconds(Math.floorDiv(offset, step) * step);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a sub-range");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Sub-range query failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Counts the matches of a range, stopping at a cap.
+     */
+    @FunctionalInterface
+    interface RangeCounter {
+
+        /**
+         * Counts matches.
+         *
+         * @param range bounded range to count
+         * @param cap   count at which to stop
+         * @return matches, at most {@code cap}
+         */
+        long count(Range range, long cap);
+    }
+
+    /**
+     * Part of a planned window.
+     *
+     * @param from        inclusive start; {@code null} for open
+     * @param to          end; {@code null} for open
+     * @param toInclusive whether {@code to} itself belongs to the range
+     */
+    record Range(Instant from, Instant to, boolean toInclusive) {
+    }
+
+    /**
+     * Iterator over the ranges in order. Keeps up to {@code maxConcurrency}
+     * producers running ahead, each feeding a bounded queue.
+     */
+    private final class OrderedMerge<T> implements Iterator<T>, AutoCloseable {
+        private final List<Range> ranges;
+        private final int prefetch;
+        private final Function<Range, Stream<T>> task;
+        private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+        private final List<Future<?>> producers = new ArrayList<>();
+        private int current;
+        private Object next;
+
+        private OrderedMerge(List<Range> ranges, int prefetch, Function<Range, Stream<T>> task) {
+            this.ranges = ranges;
+            this.prefetch = prefetch;
+            this.task = task;
+            while (producers.size() < Math.min(maxConcurrency, ranges.size())) {
+                startNext();
+            }
+        }
+
+        private void startNext() {
+            BlockingQueue<Object> queue = new ArrayBlockingQueue<>(prefetch);
+            Range range = ranges.get(queues.size());
+            queues.add(queue);
+            producers.add(executor.submit(() -> {
+                Object last;
+                try (Stream<T> items = task.apply(range)) {
+                    Iterator<T> it = items.iterator();
+                    while (it.hasNext()) {
+                        queue.put(it.next());
+                    }
+                    last = END;
+                } catch (RuntimeException ex) {
+                    last = new Failure(ex);
+                }
+                queue.put(last);
+                return null;
+            }));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && current < ranges.size()) {
+                Object item;
+                try {
+                    item = queues.get(current).take();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new CancellationException("Interrupted while reading a sub-range");
+                }
+                if (item == END) {
+                    current++;
+                    if (queues.size() < ranges.size()) {
+                        startNext();
+                    }
+                } else if (item instanceof Failure failure) {
+                    close();
+                    throw failure.cause();
+                } else {
+                    next = item;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T item = (T) next;
+            next = null;
+            return item;
+        }
+
+        @Override
+        public void close() {
+            producers.forEach(producer -> producer.cancel(true));
+            current = ranges.size();
+        }
+    }
+
+    /**
+     * Error raised by a producer, handed to the consumer through its queue.
+     */
+    private record Failure(RuntimeException cause) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.erval.argos.mongo;
+
+import java.util.List;
+
+import com.erval.argos.mongo.model.DeviceDocument;
+import com.erval.argos.mongo.model.MeasurementDocument;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drops indexes replaced by renamed declarations on the document classes.
+ * <p>
+ * Auto-index creation only adds indexes, so after a rename the old index
+ * would stay and be maintained on every write next to its replacement.
+ * Superseded indexes:
+ * <ul>
+ * <li>measurements: {@code timestamp}, {@code measurement_device_ts_idx},
+ * {@code measurement_device_type_ts_idx} and
+ * {@code measurement_device_seq_idx}, now the {@code *_id_idx} indexes ending
+ * in {@code _id}</li>
+ * <li>devices: {@code device_deleted_name_idx}, now
+ * {@code device_name_sort_idx}</li>
+ * </ul>
+ * {@link MeasurementCollectionInitializer} applies the measurement list to the
+ * time-series collection as well.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SupersededIndexCleaner {
+
+    static final List<String> MEASUREMENT_INDEXES = List.of(
+            "timestamp",
+            "measurement_device_ts_idx",
+            "measurement_device_type_ts_idx",
+            "measurement_device_seq_idx");
+
+    static final List<String> DEVICE_INDEXES = List.of("device_deleted_name_idx");
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Drops the superseded indexes that still exist.
+     */
+    @PostConstruct
+    void dropSuperseded() {
+        drop(mongoTemplate, mongoTemplate.getCollectionName(MeasurementDocument.class), MEASUREMENT_INDEXES);
+        drop(mongoTemplate, mongoTemplate.getCollectionName(DeviceDocument.class), DEVICE_INDEXES);
+    }
+
+    /**
+     * Drops the named indexes of a collection, skipping missing ones.
+     *
+     * @param mongoTemplate template used to reach the collection
+     * @param collection    collection name
+     * @param names         index names to drop
+     */
+    static void drop(MongoTemplate mongoTemplate, String collection, List<String> names) {
+        if (!mongoTemplate.collectionExists(collection)) {
+            return;
+        }
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+        for (IndexInfo index : indexOps.getIndexInfo()) {
+            if (names.contains(index.getName())) {
+                indexOps.dropIndex(index.getName());
+                log.info("Dropped superseded index '{}' on '{}'", index.getName(), collection);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.erval.argos.mongo.model;
+
+import java.time.Instant;
+
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.core.domain.alert.AlertState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * MongoDB representation of a raised {@link Alert}.
+ * <p>
+ * Indexed for the latest alerts of a device and of a rule. Only rule state
+ * transitions and reminders are stored, see {@link AlertState}.
+ */
+@Document("alerts")
+@CompoundIndexes({
+    @CompoundIndex(name = "alert_device_ts_idx", def = "{'deviceId': 1, 'timestamp': -1}"),
+    @CompoundIndex(name = "alert_rule_ts_idx", def = "{'ruleId': 1, 'timestamp': -1}")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class AlertDocument {
+
+    @Id
+    private String id;
+
+    private String ruleId;
+    private String deviceId;
+    private String description;
+    private Instant timestamp;
+    private AlertState state;
+
+    /**
+     * Creates a document from a domain alert.
+     *
+     * @param alert domain alert
+     * @return mongo document ready for persistence
+     */
+    public static AlertDocument fromDomain(Alert alert) {
+        return new AlertDocument(alert.id(), alert.ruleId(), alert.deviceId(), alert.description(),
+                alert.timestamp(), alert.state());
+    }
+
+    /**
+     * Maps the stored document back to the domain model.
+     *
+     * @return a new {@link Alert} populated from document fields
+     */
+    public Alert toDomain() {
+        return new Alert(id, ruleId, deviceId, description, timestamp,
+                state != null ? state : AlertState.FIRING);
+    }
+}
@@ -0,0 +1,89 @@
+package com.erval.argos.mongo.model;
+
+import java.time.Duration;
+
+import com.erval.argos.core.domain.alert.AlertPolicy;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.core.domain.alert.AlertWindow;
+import com.erval.argos.core.domain.alert.Comparison;
+import com.erval.argos.core.domain.alert.WindowAggregate;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * MongoDB representation of an {@link AlertRule}.
+ * <p>
+ * Indexed by {@code deviceId} and {@code active}, serving both per-device
+ * listings and the engine's load of all active rules. The optional window is
+ * flattened into {@code windowAggregate} and {@code windowMillis}, the
+ * optional policy into {@code hysteresis}, {@code minDurationMillis} and
+ * {@code renotifyIntervalMillis}.
+ */
+@Document("alert_rules")
+@CompoundIndex(name = "alert_rule_device_active_idx", def = "{'deviceId': 1, 'active': 1}")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class AlertRuleDocument {
+
+    @Id
+    private String id;
+
+    private String deviceId;
+    private MeasurementType type;
+    private double threshold;
+    private Comparison comparison;
+    private boolean active;
+    private WindowAggregate windowAggregate;
+    private Long windowMillis;
+    private Double hysteresis;
+    private Long minDurationMillis;
+    private Long renotifyIntervalMillis;
+
+    /**
+     * Creates a document from a domain rule.
+     *
+     * @param rule domain rule
+     * @return mongo document ready for persistence
+     */
+    public static AlertRuleDocument fromDomain(AlertRule rule) {
+        AlertWindow window = rule.window();
+        AlertPolicy policy = rule.policy();
+        return new AlertRuleDocument(rule.id(), rule.deviceId(), rule.type(), rule.threshold(),
+                rule.comparison(), rule.active(),
+                window != null ? window.aggregate() : null,
+                window != null ? window.length().toMillis() : null,
+                policy != null ? policy.hysteresis() : null,
+                policy != null ? millis(policy.minDuration()) : null,
+                policy != null ? millis(policy.renotifyInterval()) : null);
+    }
+
+    /**
+     * Maps the stored document back to the domain model.
+     *
+     * @return a new {@link AlertRule} populated from document fields
+     */
+    public AlertRule toDomain() {
+        AlertWindow window = windowAggregate != null && windowMillis != null
+                ? new AlertWindow(windowAggregate, Duration.ofMillis(windowMillis))
+                : null;
+        AlertPolicy policy = hysteresis != null || minDurationMillis != null || renotifyIntervalMillis != null
+                ? new AlertPolicy(hysteresis != null ? hysteresis : 0, duration(minDurationMillis),
+                        duration(renotifyIntervalMillis))
+                : null;
+        return new AlertRule(id, deviceId, type, threshold, comparison, active, window, policy);
+    }
+
+    private static Long millis(Duration duration) {
+        return duration != null ? duration.toMillis() : null;
+    }
+
+    private static Duration duration(Long millis) {
+        return millis != null ? Duration.ofMillis(millis) : null;
+    }
+}
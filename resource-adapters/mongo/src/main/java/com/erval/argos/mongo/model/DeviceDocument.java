@@ -22,12 +22,19 @@ import org.springframework.data.mongodb.core.mapping.Document;
  * <ul>
  * <li>{@code name}: unique business key</li>
  * <li>{@code building}: common filter field</li>
+ * <li>{@code config.tags}: multikey index for tag filters</li>
+ * <li>{@code deleted} + each sort field + {@code _id}: page ordering without
+ * an in-memory sort, see {@code QueryShapeValidator}</li>
  * </ul>
  */
 @Document("devices")
 @CompoundIndexes({
-    @CompoundIndex(name = "device_deleted_name_idx", def = "{'deleted': 1, 'name': 1}"),
-    @CompoundIndex(name = "device_filter_idx", def = "{'deleted': 1, 'building': 1, 'room': 1, 'type': 1, 'active': 1}")
+    @CompoundIndex(name = "device_name_sort_idx", def = "{'deleted': 1, 'name': 1, '_id': 1}"),
+    @CompoundIndex(name = "device_building_sort_idx", def = "{'deleted': 1, 'building': 1, '_id': 1}"),
+    @CompoundIndex(name = "device_room_sort_idx", def = "{'deleted': 1, 'room': 1, '_id': 1}"),
+    @CompoundIndex(name = "device_type_sort_idx", def = "{'deleted': 1, 'type': 1, '_id': 1}"),
+    @CompoundIndex(name = "device_filter_idx", def = "{'deleted': 1, 'building': 1, 'room': 1, 'type': 1, 'active': 1}"),
+    @CompoundIndex(name = "device_tags_idx", def = "{'config.tags': 1, 'deleted': 1}")
 })
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,61 @@
+package com.erval.argos.mongo.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * MongoDB bucket holding measurements of one device and type within a fixed
+ * time window.
+ * <p>
+ * Layout:
+ * <ul>
+ * <li>{@code count} caps the bucket: writers upsert into a bucket of the
+ * window whose count leaves room for their points, so a full bucket rolls
+ * over into a new one with a generated {@code id}</li>
+ * <li>{@code ids}, {@code timestamps}, {@code values} and
+ * {@code sequenceNumbers} are parallel arrays appended with {@code $push}</li>
+ * <li>{@code start}/{@code end} bound the window and drive range pruning</li>
+ * </ul>
+ * Indexed fields:
+ * <ul>
+ * <li>{@code deviceId} + {@code type} + {@code start}: range scans and
+ * finding the open bucket of a window</li>
+ * <li>{@code deviceId} + {@code maxSequence}: sequence counter seeding</li>
+ * </ul>
+ */
+@Data
+@Document("measurement_buckets")
+@CompoundIndexes({
+    @CompoundIndex(name = "bucket_device_type_start_idx", def = "{'deviceId': 1, 'type': 1, 'start': -1}"),
+    @CompoundIndex(name = "bucket_device_start_idx", def = "{'deviceId': 1, 'start': -1}"),
+    @CompoundIndex(name = "bucket_device_seq_idx", def = "{'deviceId': 1, 'maxSequence': -1}")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeasurementBucketDocument {
+
+    @Id
+    private String id;
+
+    private String deviceId;
+    private MeasurementType type;
+    private Instant start;
+    private Instant end;
+    private int count;
+    private int maxSequence;
+
+    private List<String> ids;
+    private List<Instant> timestamps;
+    private List<Double> values;
+    private List<Integer> sequenceNumbers;
+}
@@ -24,6 +24,8 @@ import org.springframework.data.mongodb.core.mapping.DocumentReference;
  * <ul>
  *   <li>{@code deviceId}: frequent lookup and projection target</li>
  *   <li>{@code timestamp}: common sort/filter field</li>
+ *   <li>{@code deviceId} + {@code sequenceNumber}: seeds per-device sequence counters</li>
+ *   <li>sort indexes end with {@code _id}, the page tiebreak, so pages need no in-memory sort</li>
  * </ul>
  * Related documents:
  * <ul>
@@ -33,8 +35,11 @@ import org.springframework.data.mongodb.core.mapping.DocumentReference;
 @Data
 @Document("measurements")
 @CompoundIndexes({
-    @CompoundIndex(name = "measurement_device_ts_idx", def = "{'deviceId': 1, 'timestamp': -1}"),
-    @CompoundIndex(name = "measurement_device_type_ts_idx", def = "{'deviceId': 1, 'type': 1, 'timestamp': -1}")
+    @CompoundIndex(name = "measurement_ts_id_idx", def = "{'timestamp': -1, '_id': -1}"),
+    @CompoundIndex(name = "measurement_device_ts_id_idx", def = "{'deviceId': 1, 'timestamp': -1, '_id': -1}"),
+    @CompoundIndex(name = "measurement_device_type_ts_id_idx",
+            def = "{'deviceId': 1, 'type': 1, 'timestamp': -1, '_id': -1}"),
+    @CompoundIndex(name = "measurement_device_seq_id_idx", def = "{'deviceId': 1, 'sequenceNumber': -1, '_id': -1}")
 })
 @NoArgsConstructor
 @AllArgsConstructor
@@ -48,7 +53,6 @@ public class MeasurementDocument {
     private MeasurementType type;
     private double value;
     private int sequenceNumber;
-    @Indexed
     private Instant timestamp;
 
     @DocumentReference(lookup = "{ '_id' : ?#{#self.deviceId} }", lazy = true)
@@ -0,0 +1,63 @@
+package com.erval.argos.mongo.model;
+
+import java.time.Instant;
+
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.core.domain.measurement.RollupBucket;
+import com.erval.argos.core.domain.measurement.RollupResolution;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+/**
+ * MongoDB rollup bucket of one device series at one resolution.
+ * <p>
+ * All resolutions share one collection, told apart by {@code resolution}. The
+ * {@code id} is derived from device, type, resolution and bucket start, so
+ * writers can upsert with {@code $inc}/{@code $min}/{@code $max} without a
+ * prior read.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeasurementRollupDocument {
+
+    @Id
+    private String id;
+
+    private String deviceId;
+    private MeasurementType type;
+    private RollupResolution resolution;
+    private Instant start;
+    private long count;
+    private double sum;
+    private double min;
+    private double max;
+    private double sumSquares;
+
+    /**
+     * Builds the deterministic rollup id for a series, resolution and bucket
+     * start.
+     *
+     * @param deviceId   device identifier
+     * @param type       measurement type
+     * @param resolution rollup resolution
+     * @param start      inclusive bucket start
+     * @return rollup identifier
+     */
+    public static String rollupId(String deviceId, MeasurementType type, RollupResolution resolution,
+            Instant start) {
+        return deviceId + ":" + type.name() + ":" + resolution.name() + ":" + start.getEpochSecond();
+    }
+
+    /**
+     * Converts this document into its domain form.
+     *
+     * @return rollup bucket
+     */
+    public RollupBucket toDomain() {
+        return new RollupBucket(start, count, sum, min, max, sumSquares);
+    }
+}
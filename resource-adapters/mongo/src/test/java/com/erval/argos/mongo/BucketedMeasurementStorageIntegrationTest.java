@@ -0,0 +1,245 @@
+package com.erval.argos.mongo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.SortDirection;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.mongo.model.MeasurementBucketDocument;
+
+/**
+ * Integration tests for the opt-in bucketed measurement storage mode.
+ */
+@SpringBootTest(
+    classes = BucketedMeasurementStorageIntegrationTest.TestApp.class,
+    properties = {
+        "argos.resource.mongo.measurements.storage=buckets",
+        "argos.resource.mongo.measurements.bucket-max-points=3"
+    })
+@Testcontainers
+class BucketedMeasurementStorageIntegrationTest {
+
+    @Container
+    static final MongoDBContainer mongo = new MongoDBContainer("mongo:6.0.5");
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private MeasurementRepositoryPort measurementAdapter;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void cleanup() {
+        measurementAdapter.deleteAll();
+    }
+
+    @Test
+    void usesBucketedAdapter() {
+        assertThat(measurementAdapter).isInstanceOf(MongoBucketedMeasurementRepositoryAdapter.class);
+    }
+
+    @Test
+    void groupsMeasurementsIntoHourlyBuckets() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        measurementAdapter.saveAll(List.of(
+            new Measurement(null, "d1", MeasurementType.TEMP, 1.0, 1, hour.plusSeconds(60), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 2.0, 2, hour.plusSeconds(120), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 3.0, 3, hour.plusSeconds(3600), List.of())
+        ));
+        measurementAdapter.save(
+            new Measurement(null, "d1", MeasurementType.TEMP, 4.0, 4, hour.plusSeconds(180), List.of()));
+
+        List<MeasurementBucketDocument> buckets = mongoTemplate.findAll(MeasurementBucketDocument.class);
+        assertThat(buckets).hasSize(2);
+        MeasurementBucketDocument first = mongoTemplate.findOne(
+            new Query(Criteria.where("deviceId").is("d1").and("start").is(hour)), MeasurementBucketDocument.class);
+        assertThat(first).isNotNull();
+        assertThat(first.getCount()).isEqualTo(3);
+        assertThat(first.getValues()).containsExactly(1.0, 2.0, 4.0);
+        assertThat(first.getMaxSequence()).isEqualTo(4);
+        assertThat(measurementAdapter.findMaxSequenceNumber("d1")).hasValue(4);
+    }
+
+    @Test
+    void rollsFullBucketsOverWithinTheirWindow() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        List<Measurement> batch = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            batch.add(new Measurement(null, "d1", MeasurementType.TEMP, i, i, hour.plusSeconds(10L * i), List.of()));
+        }
+        measurementAdapter.saveAll(batch);
+        measurementAdapter.save(
+            new Measurement(null, "d1", MeasurementType.TEMP, 0.5, 6, hour.plusSeconds(5), List.of()));
+        measurementAdapter.save(
+            new Measurement(null, "d1", MeasurementType.TEMP, 0.1, 7, hour.plusSeconds(1), List.of()));
+
+        List<MeasurementBucketDocument> buckets = mongoTemplate.findAll(MeasurementBucketDocument.class);
+        assertThat(buckets).extracting(MeasurementBucketDocument::getStart).containsOnly(hour);
+        assertThat(buckets).extracting(MeasurementBucketDocument::getCount).containsExactlyInAnyOrder(3, 3, 1);
+
+        var latest = measurementAdapter.findLatestByDevices(List.of("d1"), null, hour.plusSeconds(3600), 3);
+        assertThat(latest.get("d1")).extracting(Measurement::value).containsExactly(5.0, 4.0, 3.0);
+        var oldest = measurementAdapter.findByFilter(new MeasurementFilter("d1", MeasurementType.TEMP, null, null),
+            new PageRequest(0, 2, "timestamp", SortDirection.ASC));
+        assertThat(oldest.totalElements()).isEqualTo(7);
+        assertThat(oldest.content()).extracting(Measurement::value).containsExactly(0.1, 0.5);
+    }
+
+    @Test
+    void filtersAndPagesIndividualMeasurements() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        measurementAdapter.saveAll(List.of(
+            new Measurement(null, "d1", MeasurementType.TEMP, 1.0, 1, hour.plusSeconds(10), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 2.0, 2, hour.plusSeconds(20), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 3.0, 3, hour.plusSeconds(30), List.of()),
+            new Measurement(null, "d1", MeasurementType.HUMIDITY, 9.0, 4, hour.plusSeconds(20), List.of()),
+            new Measurement(null, "d2", MeasurementType.TEMP, 5.0, 1, hour.plusSeconds(20), List.of())
+        ));
+
+        MeasurementFilter filter = new MeasurementFilter("d1", MeasurementType.TEMP, hour.plusSeconds(15), null);
+        PageResult<Measurement> page = measurementAdapter.findByFilter(filter,
+            new PageRequest(0, 1, "timestamp", SortDirection.DESC));
+
+        assertThat(page.totalElements()).isEqualTo(2);
+        assertThat(page.content()).singleElement().satisfies(m -> {
+            assertThat(m.value()).isEqualTo(3.0);
+            assertThat(m.sequenceNumber()).isEqualTo(3);
+            assertThat(m.timestamp()).isEqualTo(hour.plusSeconds(30));
+            assertThat(m.id()).isNotNull();
+        });
+    }
+
+    @Test
+    void pagesOneDeviceWithCursorsAcrossWindowsAndRolledOverBuckets() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        List<Measurement> history = new ArrayList<>();
+        for (int i = 5; i >= 1; i--) {
+            history.add(new Measurement(null, "d1", MeasurementType.TEMP, i, i, hour.plusSeconds(10L * i), List.of()));
+        }
+        history.add(new Measurement(null, "d1", MeasurementType.TEMP, 6.0, 6, hour.plusSeconds(3610), List.of()));
+        history.add(new Measurement(null, "d1", MeasurementType.TEMP, 7.0, 7, hour.plusSeconds(3620), List.of()));
+        measurementAdapter.saveAll(history);
+        MeasurementFilter filter = new MeasurementFilter("d1", MeasurementType.TEMP, hour.plusSeconds(20), null);
+
+        assertThat(allPages(filter, SortDirection.ASC)).containsExactly(2.0, 3.0, 4.0, 5.0, 6.0, 7.0);
+        assertThat(allPages(filter, SortDirection.DESC)).containsExactly(7.0, 6.0, 5.0, 4.0, 3.0, 2.0);
+        PageResult<Measurement> second = measurementAdapter.findByFilter(filter,
+            new PageRequest(1, 2, "timestamp", SortDirection.DESC));
+        assertThat(second.totalElements()).isEqualTo(6);
+        assertThat(second.content()).extracting(Measurement::value).containsExactly(5.0, 4.0);
+    }
+
+    private List<Double> allPages(MeasurementFilter filter, SortDirection direction) {
+        List<Double> values = new ArrayList<>();
+        String after = null;
+        do {
+            PageResult<Measurement> page = measurementAdapter.findByFilter(filter,
+                new PageRequest(0, 2, "timestamp", direction, after));
+            page.content().forEach(m -> values.add(m.value()));
+            after = page.nextCursor();
+        } while (after != null);
+        return values;
+    }
+
+    @Test
+    void streamsPointsAcrossBucketsInTimestampOrder() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        measurementAdapter.saveAll(List.of(
+            new Measurement(null, "d1", MeasurementType.TEMP, 3.0, 3, hour.plusSeconds(3700), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 2.0, 2, hour.plusSeconds(20), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 1.0, 1, hour.plusSeconds(10), List.of()),
+            new Measurement(null, "d2", MeasurementType.TEMP, 9.0, 1, hour.plusSeconds(15), List.of())
+        ));
+
+        try (var stream = measurementAdapter.stream(new MeasurementFilter("d1", MeasurementType.TEMP, null, null))) {
+            assertThat(stream.map(Measurement::value).toList()).containsExactly(1.0, 2.0, 3.0);
+        }
+    }
+
+    @Test
+    void findsLatestPointsOfSeveralDevicesAcrossBuckets() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        measurementAdapter.saveAll(List.of(
+            new Measurement(null, "d1", MeasurementType.TEMP, 1.0, 1, hour.plusSeconds(10), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 2.0, 2, hour.plusSeconds(20), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 3.0, 3, hour.plusSeconds(3700), List.of()),
+            new Measurement(null, "d2", MeasurementType.TEMP, 9.0, 1, hour.plusSeconds(15), List.of()),
+            new Measurement(null, "d2", MeasurementType.CO2, 400.0, 2, hour.plusSeconds(16), List.of())
+        ));
+
+        var latest = measurementAdapter.findLatestByDevices(List.of("d1", "d2"), MeasurementType.TEMP,
+            hour.plusSeconds(3600), 2);
+
+        assertThat(latest.get("d1")).extracting(Measurement::value).containsExactly(2.0, 1.0);
+        assertThat(latest.get("d2")).extracting(Measurement::value).containsExactly(9.0);
+    }
+
+    @Test
+    void findsLatestPointsWhenOnlyNewestBucketsAreNeeded() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        List<Measurement> history = new ArrayList<>();
+        for (int h = 0; h < 5; h++) {
+            history.add(new Measurement(null, "d1", MeasurementType.TEMP, h, 2 * h + 1,
+                hour.plusSeconds(h * 3600L + 10), List.of()));
+            history.add(new Measurement(null, "d1", MeasurementType.TEMP, h + 0.5, 2 * h + 2,
+                hour.plusSeconds(h * 3600L + 20), List.of()));
+        }
+        measurementAdapter.saveAll(history);
+
+        var latest = measurementAdapter.findLatestByDevices(List.of("d1"), MeasurementType.TEMP,
+            hour.plusSeconds(4 * 3600L + 15), 3);
+
+        assertThat(latest.get("d1")).extracting(Measurement::value).containsExactly(4.0, 3.5, 3.0);
+    }
+
+    @Test
+    void findsAndDeletesSingleMeasurementById() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        List<Measurement> saved = measurementAdapter.saveAll(List.of(
+            new Measurement(null, "d1", MeasurementType.TEMP, 1.0, 1, hour.plusSeconds(10), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 2.0, 2, hour.plusSeconds(20), List.of())
+        )).stream().map(r -> r.value()).toList();
+
+        String id = saved.getFirst().id();
+        assertThat(measurementAdapter.findById(id)).get().extracting(Measurement::value).isEqualTo(1.0);
+
+        measurementAdapter.deleteById(id);
+
+        assertThat(measurementAdapter.findById(id)).isEmpty();
+        MeasurementBucketDocument bucket = mongoTemplate.findAll(MeasurementBucketDocument.class).getFirst();
+        assertThat(bucket.getCount()).isEqualTo(1);
+        assertThat(bucket.getIds()).containsExactly(saved.get(1).id());
+        assertThat(bucket.getValues()).containsExactly(2.0);
+    }
+
+    @SpringBootApplication(scanBasePackages = "com.erval.argos.mongo")
+    static class TestApp {
+    }
+}
@@ -143,7 +143,9 @@ class BusinessScenarioIntegrationTest {
     }
 
     @TestConfiguration
-    @Import({ MongoDeviceRepositoryAdapter.class, MongoMeasurementRepositoryAdapter.class })
+    @Import({ MongoDeviceRepositoryAdapter.class, MongoMeasurementRepositoryAdapter.class,
+            MeasurementCollectionInitializer.class, RangeScatterExecutor.class,
+            QueryShapeValidator.class, QueryDiagnostics.class })
     static class Config {
         @Bean
         DeviceService deviceService(DeviceRepositoryPort deviceRepo) {
@@ -0,0 +1,150 @@
+package com.erval.argos.mongo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.erval.argos.core.application.port.out.MeasurementRollupPort;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.core.domain.measurement.RollupBucket;
+import com.erval.argos.core.domain.measurement.RollupResolution;
+
+/**
+ * Integration tests for incrementally maintained measurement rollups.
+ */
+@SpringBootTest(classes = MeasurementRollupIntegrationTest.TestApp.class,
+    properties = "argos.resource.rollups.enabled=true")
+@Testcontainers
+class MeasurementRollupIntegrationTest {
+
+    @Container
+    static final MongoDBContainer mongo = new MongoDBContainer("mongo:6.0.5");
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private MeasurementRollupPort rollups;
+
+    @Autowired
+    private MongoMeasurementRepositoryAdapter measurements;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void cleanup() {
+        mongoTemplate.remove(new Query(), MongoMeasurementRollupAdapter.COLLECTION);
+        measurements.deleteAll();
+    }
+
+    @Test
+    void mergesBatchesIntoEveryResolution() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        rollups.apply(List.of(
+            measurement(1.0, hour.plusSeconds(10)),
+            measurement(3.0, hour.plusSeconds(20)),
+            measurement(5.0, hour.plusSeconds(90))));
+        rollups.apply(List.of(measurement(7.0, hour.plusSeconds(3700))));
+
+        List<RollupBucket> minutes = rollups.find("d1", MeasurementType.TEMP, hour, hour.plusSeconds(7200),
+            RollupResolution.MINUTE);
+        assertThat(minutes).extracting(RollupBucket::start)
+            .containsExactly(hour, hour.plusSeconds(60), hour.plusSeconds(3660));
+        assertThat(minutes.get(0).count()).isEqualTo(2);
+        assertThat(minutes.get(0).min()).isEqualTo(1.0);
+        assertThat(minutes.get(0).max()).isEqualTo(3.0);
+        assertThat(minutes.get(0).avg()).isEqualTo(2.0);
+
+        List<RollupBucket> hours = rollups.find("d1", MeasurementType.TEMP, hour, hour.plusSeconds(7200),
+            RollupResolution.HOUR);
+        assertThat(hours).extracting(RollupBucket::count).containsExactly(3L, 1L);
+        assertThat(hours.get(0).sum()).isEqualTo(9.0);
+        assertThat(hours.get(0).sumSquares()).isEqualTo(35.0);
+
+        List<RollupBucket> days = rollups.find("d1", MeasurementType.TEMP, hour, hour.plusSeconds(7200),
+            RollupResolution.DAY);
+        assertThat(days).singleElement().satisfies(day -> {
+            assertThat(day.start()).isEqualTo(Instant.parse("2026-01-01T00:00:00Z"));
+            assertThat(day.count()).isEqualTo(4);
+            assertThat(day.min()).isEqualTo(1.0);
+            assertThat(day.max()).isEqualTo(7.0);
+        });
+    }
+
+    @Test
+    void keepsSeriesApart() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        rollups.apply(List.of(
+            measurement(1.0, hour),
+            new Measurement("m2", "d1", MeasurementType.HUMIDITY, 50.0, 2, hour, List.of()),
+            new Measurement("m3", "d2", MeasurementType.TEMP, 9.0, 1, hour, List.of())));
+
+        assertThat(rollups.find("d1", MeasurementType.TEMP, hour, hour.plusSeconds(60), RollupResolution.MINUTE))
+            .singleElement()
+            .extracting(RollupBucket::sum)
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void rebuildsWholeBucketsFromStoredMeasurements() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        measurements.saveAll(List.of(
+            measurement(1.0, hour.plusSeconds(10)),
+            measurement(3.0, hour.plusSeconds(20)),
+            measurement(5.0, hour.plusSeconds(90)),
+            new Measurement(null, "d2", MeasurementType.TEMP, 9.0, 1, hour.plusSeconds(30), List.of())));
+        rollups.apply(List.of(measurement(1.0, hour.plusSeconds(10))));
+
+        rollups.rebuild(hour.plusSeconds(15), hour.plusSeconds(16), RollupResolution.MINUTE);
+        rollups.rebuild(hour, hour.plusSeconds(3600), RollupResolution.HOUR);
+
+        List<RollupBucket> minutes = rollups.find("d1", MeasurementType.TEMP, hour, hour.plusSeconds(3600),
+            RollupResolution.MINUTE);
+        assertThat(minutes).singleElement().satisfies(minute -> {
+            assertThat(minute.start()).isEqualTo(hour);
+            assertThat(minute.count()).isEqualTo(2);
+            assertThat(minute.sumSquares()).isEqualTo(10.0);
+        });
+        assertThat(rollups.find("d1", MeasurementType.TEMP, hour, hour.plusSeconds(3600), RollupResolution.HOUR))
+            .singleElement()
+            .satisfies(bucket -> {
+                assertThat(bucket.count()).isEqualTo(3);
+                assertThat(bucket.min()).isEqualTo(1.0);
+                assertThat(bucket.max()).isEqualTo(5.0);
+            });
+        assertThat(rollups.find("d2", MeasurementType.TEMP, hour, hour.plusSeconds(3600), RollupResolution.HOUR))
+            .extracting(RollupBucket::sum)
+            .containsExactly(9.0);
+
+        rollups.apply(List.of(measurement(7.0, hour.plusSeconds(20))));
+        assertThat(rollups.find("d1", MeasurementType.TEMP, hour, hour.plusSeconds(60), RollupResolution.MINUTE))
+            .extracting(RollupBucket::count)
+            .containsExactly(3L);
+    }
+
+    private static Measurement measurement(double value, Instant timestamp) {
+        return new Measurement(null, "d1", MeasurementType.TEMP, value, 1, timestamp, List.of());
+    }
+
+    @SpringBootApplication(scanBasePackages = "com.erval.argos.mongo")
+    static class TestApp {
+    }
+}
@@ -2,8 +2,12 @@ package com.erval.argos.mongo;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,21 +15,42 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import com.erval.argos.core.application.BatchItemResult;
+import com.erval.argos.core.application.CountMode;
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
 import com.erval.argos.core.application.SortDirection;
 import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase.DeviceFilter;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
 import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.application.port.out.DeviceChangeFeedPort;
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.core.domain.alert.AlertPolicy;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.core.domain.alert.AlertState;
+import com.erval.argos.core.domain.alert.AlertWindow;
+import com.erval.argos.core.domain.alert.Comparison;
+import com.erval.argos.core.domain.alert.WindowAggregate;
 import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceConfig;
 import com.erval.argos.core.domain.device.DeviceType;
 import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
 import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.mongo.model.AlertDocument;
+import com.erval.argos.mongo.model.AlertRuleDocument;
 import com.erval.argos.mongo.model.DeviceDocument;
 import com.erval.argos.mongo.model.MeasurementDocument;
 import com.erval.argos.mongo.repositories.DeviceMongoRepository;
@@ -34,7 +59,8 @@ import com.erval.argos.mongo.repositories.MeasurementMongoRepository;
 /**
  * Integration tests for Mongo adapters covering CRUD on device and measurement collections.
  */
-@SpringBootTest(classes = MongoRepositoryAdapterIntegrationTest.TestApp.class)
+@SpringBootTest(classes = MongoRepositoryAdapterIntegrationTest.TestApp.class,
+    properties = "argos.resource.mongo.query-validation=rewrite")
 @Testcontainers
 class MongoRepositoryAdapterIntegrationTest {
 
@@ -52,6 +78,27 @@ class MongoRepositoryAdapterIntegrationTest {
     @Autowired
     private MongoMeasurementRepositoryAdapter measurementAdapter;
 
+    @Autowired
+    private MongoDeviceChangeFeedAdapter deviceChangeFeed;
+
+    @Autowired
+    private QueryShapeValidator queryShapes;
+
+    @Autowired
+    private QueryDiagnostics diagnostics;
+
+    @Autowired
+    private MongoAlertRuleRepositoryAdapter alertRuleAdapter;
+
+    @Autowired
+    private MongoAlertAdapter alertAdapter;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SupersededIndexCleaner indexCleaner;
+
     @Autowired
     private DeviceMongoRepository deviceRepo;
 
@@ -68,6 +115,8 @@ class MongoRepositoryAdapterIntegrationTest {
     void cleanup() {
         measurementRepo.deleteAll();
         deviceRepo.deleteAll();
+        mongoTemplate.remove(new Query(), AlertRuleDocument.class);
+        mongoTemplate.remove(new Query(), AlertDocument.class);
     }
 
     @Test
@@ -81,6 +130,101 @@ class MongoRepositoryAdapterIntegrationTest {
             .isEqualTo("Sensor A");
     }
 
+    @Test
+    void findsSeveralDevicesByIdSkippingDeletedOnes() {
+        deviceRepo.saveAll(List.of(
+            deviceDoc("d1", "A", true),
+            deviceDoc("d2", "B", true),
+            deviceDoc("d3", "A", true)
+        ));
+        deviceAdapter.deleteById("d3");
+
+        assertThat(deviceAdapter.findAllByIds(List.of("d1", "d2", "d3", "missing")))
+            .extracting(Device::id)
+            .containsExactlyInAnyOrder("d1", "d2");
+    }
+
+    @Test
+    void reportsDeviceChangesThroughChangeStream() throws InterruptedException {
+        List<String> events = new CopyOnWriteArrayList<>();
+        DeviceChangeFeedPort.Listener listener = new DeviceChangeFeedPort.Listener() {
+            @Override
+            public void changed(Device device) {
+                events.add("changed:" + device.id() + ":" + device.building());
+            }
+
+            @Override
+            public void removed(String id) {
+                events.add("removed:" + id);
+            }
+
+            @Override
+            public void resync() {
+                events.add("resync");
+            }
+        };
+
+        assertThat(deviceChangeFeed.available()).isTrue();
+        try (DeviceChangeFeedPort.Subscription ignored = deviceChangeFeed.subscribe(listener)) {
+            deviceAdapter.save(new Device("d1", "Sensor A", DeviceType.TEMP, "A", "101", true, false, null));
+            deviceAdapter.save(new Device("d1", "Sensor A", DeviceType.TEMP, "B", "101", true, false, null));
+            deviceAdapter.deleteById("d1");
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (events.size() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        }
+
+        assertThat(events).containsExactly("changed:d1:A", "changed:d1:B", "removed:d1");
+    }
+
+    @Test
+    void sharesOneChangeStreamAndResyncsOnlyAFailingListener() throws InterruptedException {
+        List<String> healthy = new CopyOnWriteArrayList<>();
+        List<String> failing = new CopyOnWriteArrayList<>();
+
+        try (DeviceChangeFeedPort.Subscription first = deviceChangeFeed.subscribe(recorder(healthy, false));
+                DeviceChangeFeedPort.Subscription second = deviceChangeFeed.subscribe(recorder(failing, true))) {
+            deviceAdapter.save(new Device("d1", "Sensor A", DeviceType.TEMP, "A", "101", true, false, null));
+            deviceAdapter.save(new Device("d2", "Sensor B", DeviceType.TEMP, "A", "102", true, false, null));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while ((healthy.size() < 2 || failing.size() < 3) && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        }
+
+        assertThat(healthy).containsExactly("changed:d1", "changed:d2");
+        assertThat(failing).containsExactly("changed:d1", "resync", "changed:d2");
+    }
+
+    /**
+     * Listener recording events; when {@code failFirst} is set its first
+     * change throws after being recorded.
+     */
+    private static DeviceChangeFeedPort.Listener recorder(List<String> events, boolean failFirst) {
+        return new DeviceChangeFeedPort.Listener() {
+            @Override
+            public void changed(Device device) {
+                events.add("changed:" + device.id());
+                if (failFirst && events.size() == 1) {
+                    throw new IllegalStateException("replica down");
+                }
+            }
+
+            @Override
+            public void removed(String id) {
+                events.add("removed:" + id);
+            }
+
+            @Override
+            public void resync() {
+                events.add("resync");
+            }
+        };
+    }
+
     @Test
     void filtersDevicesByBuildingAndActive() {
         deviceRepo.saveAll(List.of(
@@ -98,6 +242,25 @@ class MongoRepositoryAdapterIntegrationTest {
         assertThat(page.content().getFirst().id()).isEqualTo("d1");
     }
 
+    @Test
+    void filtersDevicesByAnyAndAllTags() {
+        deviceAdapter.save(taggedDevice("d1", "Sensor A", "floor-1", "hvac"));
+        deviceAdapter.save(taggedDevice("d2", "Sensor B", "floor-1"));
+        deviceAdapter.save(taggedDevice("d3", "Sensor C", "floor-2", "hvac"));
+        PageRequest request = new PageRequest(0, 10, "name", SortDirection.ASC);
+
+        PageResult<Device> allOf = deviceAdapter.findByFilter(
+            new DeviceFilter(null, null, null, null, null, Set.of("floor-1", "hvac")), request);
+        PageResult<Device> anyOf = deviceAdapter.findByFilter(
+            new DeviceFilter(null, null, null, null, Set.of("floor-2", "missing"), null), request);
+        PageResult<Device> both = deviceAdapter.findByFilter(
+            new DeviceFilter(null, null, null, null, Set.of("floor-1", "floor-2"), Set.of("hvac")), request);
+
+        assertThat(allOf.content()).extracting(Device::id).containsExactly("d1");
+        assertThat(anyOf.content()).extracting(Device::id).containsExactly("d3");
+        assertThat(both.content()).extracting(Device::id).containsExactly("d1", "d3");
+    }
+
     @Test
     void paginatesDevicesWithDefaultSort() {
         deviceRepo.saveAll(List.of(
@@ -141,6 +304,36 @@ class MongoRepositoryAdapterIntegrationTest {
         assertThat(measurementAdapter.findById(saved.id())).isPresent();
     }
 
+    @Test
+    void savesMeasurementBatchAndReportsFailedItems() {
+        measurementAdapter.save(measurement(Instant.now()));
+        Instant now = Instant.now();
+
+        List<BatchItemResult<Measurement>> results = measurementAdapter.saveAll(List.of(
+            new Measurement(null, "d1", MeasurementType.TEMP, 1.0, 0, now, List.of()),
+            measurement(now),
+            new Measurement(null, "d1", MeasurementType.TEMP, 3.0, 0, now, List.of())
+        ));
+
+        assertThat(results).extracting(BatchItemResult::succeeded).containsExactly(true, false, true);
+        assertThat(results.getFirst().value().id()).isNotNull();
+        assertThat(measurementAdapter.findById(results.getLast().value().id())).isPresent();
+        assertThat(measurementRepo.count()).isEqualTo(3);
+    }
+
+    @Test
+    void findsMaxSequenceNumberPerDevice() {
+        Instant now = Instant.now();
+        measurementRepo.saveAll(List.of(
+            new MeasurementDocument("m1", "d1", MeasurementType.TEMP, 1.0, 7, now, null, List.of()),
+            new MeasurementDocument("m2", "d1", MeasurementType.TEMP, 1.0, 3, now.plusSeconds(5), null, List.of()),
+            new MeasurementDocument("m3", "d2", MeasurementType.TEMP, 1.0, 99, now, null, List.of())
+        ));
+
+        assertThat(measurementAdapter.findMaxSequenceNumber("d1")).hasValue(7);
+        assertThat(measurementAdapter.findMaxSequenceNumber("missing")).isEmpty();
+    }
+
     @Test
     void filtersMeasurementsByDeviceAndType() {
         Instant now = Instant.now();
@@ -198,6 +391,231 @@ class MongoRepositoryAdapterIntegrationTest {
         assertThat(page.content().getFirst().id()).isEqualTo("m2");
     }
 
+    @Test
+    void pagesMeasurementsWithCursorIncludingTimestampTies() {
+        Instant ts = Instant.parse("2026-01-01T00:00:00Z");
+        measurementRepo.saveAll(List.of(
+            measurementDoc("m1", "d1", MeasurementType.TEMP, ts),
+            measurementDoc("m2", "d1", MeasurementType.TEMP, ts),
+            measurementDoc("m3", "d1", MeasurementType.TEMP, ts.plusSeconds(1)),
+            measurementDoc("m4", "d2", MeasurementType.TEMP, ts.plusSeconds(2))
+        ));
+        MeasurementFilter filter = new MeasurementFilter("d1", null, null, null);
+
+        PageResult<Measurement> first = measurementAdapter.findByFilter(filter,
+            new PageRequest(0, 2, "timestamp", SortDirection.DESC));
+        PageResult<Measurement> second = measurementAdapter.findByFilter(filter,
+            new PageRequest(0, 2, "timestamp", SortDirection.DESC, first.nextCursor()));
+
+        assertThat(first.content()).extracting(Measurement::id).containsExactly("m3", "m2");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.content()).extracting(Measurement::id).containsExactly("m1");
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.totalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void pagesDevicesWithCursor() {
+        deviceRepo.saveAll(List.of(
+            deviceDoc("d1", "A", true, "C-name"),
+            deviceDoc("d2", "A", true, "A-name"),
+            deviceDoc("d3", "A", true, "B-name")
+        ));
+
+        PageResult<Device> first = deviceAdapter.findByFilter(null, new PageRequest(0, 2, "name", SortDirection.ASC));
+        PageResult<Device> second = deviceAdapter.findByFilter(null,
+            new PageRequest(0, 2, "name", SortDirection.ASC, first.nextCursor()));
+
+        assertThat(first.content()).extracting(Device::name).containsExactly("A-name", "B-name");
+        assertThat(second.content()).extracting(Device::name).containsExactly("C-name");
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void dropsIndexesReplacedByRenamedDeclarations() {
+        mongoTemplate.indexOps(MeasurementDocument.class).createIndex(new Index()
+            .on("deviceId", Sort.Direction.ASC)
+            .on("timestamp", Sort.Direction.DESC)
+            .named("measurement_device_ts_idx"));
+        mongoTemplate.indexOps(DeviceDocument.class).createIndex(new Index()
+            .on("deleted", Sort.Direction.ASC)
+            .on("name", Sort.Direction.ASC)
+            .named("device_deleted_name_idx"));
+
+        indexCleaner.dropSuperseded();
+
+        assertThat(mongoTemplate.indexOps(MeasurementDocument.class).getIndexInfo())
+            .extracting(IndexInfo::getName)
+            .doesNotContain("measurement_device_ts_idx")
+            .contains("measurement_device_ts_id_idx");
+        assertThat(mongoTemplate.indexOps(DeviceDocument.class).getIndexInfo())
+            .extracting(IndexInfo::getName)
+            .doesNotContain("device_deleted_name_idx")
+            .contains("device_name_sort_idx");
+    }
+
+    @Test
+    void rewritesUnindexedMeasurementSortToTimestamp() {
+        Instant ts = Instant.parse("2026-01-01T00:00:00Z");
+        measurementRepo.saveAll(List.of(
+            new MeasurementDocument("m1", "d1", MeasurementType.TEMP, 9.0, 1, ts, null, List.of()),
+            new MeasurementDocument("m2", "d1", MeasurementType.TEMP, 1.0, 2, ts.plusSeconds(1), null, List.of())
+        ));
+
+        PageResult<Measurement> page = measurementAdapter.findByFilter(new MeasurementFilter("d1", null, null, null),
+            new PageRequest(0, 10, "value", SortDirection.ASC));
+
+        assertThat(page.content()).extracting(Measurement::id).containsExactly("m1", "m2");
+        assertThat(queryShapes.isIndexed(MeasurementDocument.class, Set.of("deviceId"), "sequenceNumber")).isTrue();
+        assertThat(queryShapes.isIndexed(MeasurementDocument.class, Set.of(), "sequenceNumber")).isFalse();
+    }
+
+    @Test
+    void explainsDeviceSortsAsIndexScansWithoutInMemorySort() {
+        deviceRepo.saveAll(List.of(
+            deviceDoc("d1", "A", true, "C-name"),
+            deviceDoc("d2", "B", true, "A-name")
+        ));
+        Query query = new Query(Criteria.where("deleted").is(false))
+            .with(Sort.by(Sort.Direction.ASC, "room", "_id"))
+            .limit(2);
+
+        QueryDiagnostics.QueryPlanStats plan = diagnostics.explain(query, DeviceDocument.class, "devices");
+
+        assertThat(plan.inMemorySort()).isFalse();
+        assertThat(plan.indexNames()).contains("device_room_sort_idx");
+        assertThat(plan.returned()).isEqualTo(2);
+        assertThat(queryShapes.isIndexed(DeviceDocument.class, Set.of("deleted", "building"), "room")).isTrue();
+    }
+
+    @Test
+    void explainsEachQueryShapeAtMostOncePerInterval() {
+        QueryDiagnostics limited = new QueryDiagnostics(mongoTemplate, true, Duration.ZERO, Duration.ofMinutes(1));
+        String d1 = QueryDiagnostics.shape("measurements", new Query(Criteria.where("deviceId").in("d1", "d2"))
+            .with(Sort.by(Sort.Direction.DESC, "timestamp")));
+        String d3 = QueryDiagnostics.shape("measurements", new Query(Criteria.where("deviceId").in("d3"))
+            .with(Sort.by(Sort.Direction.DESC, "timestamp")));
+        String ascending = QueryDiagnostics.shape("measurements", new Query(Criteria.where("deviceId").in("d1"))
+            .with(Sort.by(Sort.Direction.ASC, "timestamp")));
+        long minute = Duration.ofMinutes(1).toNanos();
+
+        assertThat(d3).isEqualTo(d1);
+        assertThat(ascending).isNotEqualTo(d1);
+        assertThat(limited.claimExplain(d1, 0)).isEqualTo(1);
+        assertThat(limited.claimExplain(d3, minute / 2)).isZero();
+        assertThat(limited.claimExplain(ascending, minute / 2)).isEqualTo(1);
+        assertThat(limited.claimExplain(d1, minute - 1)).isZero();
+        assertThat(limited.claimExplain(d1, minute)).isEqualTo(3);
+    }
+
+    @Test
+    void skipsOrCapsMeasurementTotalOnRequest() {
+        measurementRepo.saveAll(List.of(
+            measurementDoc("m1", "d1", MeasurementType.TEMP, Instant.now()),
+            measurementDoc("m2", "d1", MeasurementType.TEMP, Instant.now())
+        ));
+        MeasurementFilter filter = new MeasurementFilter("d1", null, null, null);
+
+        PageResult<Measurement> uncounted = measurementAdapter.findByFilter(filter,
+            new PageRequest(0, 1, "timestamp", SortDirection.ASC, null, CountMode.NONE));
+        PageResult<Measurement> capped = measurementAdapter.findByFilter(filter,
+            new PageRequest(0, 1, "timestamp", SortDirection.ASC, null, CountMode.CAPPED));
+
+        assertThat(uncounted.content()).hasSize(1);
+        assertThat(uncounted.hasTotal()).isFalse();
+        assertThat(capped.totalElements()).isEqualTo(2);
+        assertThat(capped.totalCapped()).isFalse();
+    }
+
+    @Test
+    void loadsOnlySelectedMeasurementFields() {
+        measurementRepo.saveAll(List.of(
+            new MeasurementDocument("m1", "d1", MeasurementType.TEMP, 2.5, 7, Instant.now(), null, List.of("x"))
+        ));
+
+        PageResult<Measurement> page = measurementAdapter.findByFilter(null,
+            new PageRequest(0, 10, "timestamp", SortDirection.ASC).withFields(Set.of("value", "__typename")));
+
+        assertThat(page.content()).singleElement().satisfies(m -> {
+            assertThat(m.id()).isEqualTo("m1");
+            assertThat(m.value()).isEqualTo(2.5);
+            assertThat(m.timestamp()).isNotNull();
+            assertThat(m.deviceId()).isNull();
+            assertThat(m.tags()).isNull();
+        });
+    }
+
+    @Test
+    void streamsMatchingMeasurementsInTimestampOrder() {
+        Instant t = Instant.parse("2026-01-01T10:00:00Z");
+        measurementRepo.saveAll(List.of(
+            measurementDoc("m2", "d1", MeasurementType.TEMP, t.plusSeconds(20)),
+            measurementDoc("m1", "d1", MeasurementType.TEMP, t.plusSeconds(10)),
+            measurementDoc("m3", "d1", MeasurementType.TEMP, t.plusSeconds(30)),
+            measurementDoc("m4", "d2", MeasurementType.TEMP, t.plusSeconds(15))
+        ));
+
+        try (var stream = measurementAdapter.stream(new MeasurementFilter("d1", null, t.plusSeconds(10), null))) {
+            assertThat(stream.map(Measurement::id).toList()).containsExactly("m1", "m2", "m3");
+        }
+    }
+
+    @Test
+    void findsLatestMeasurementsOfSeveralDevicesInOneQuery() {
+        Instant t = Instant.parse("2026-01-01T10:00:00Z");
+        measurementRepo.saveAll(List.of(
+            measurementDoc("a1", "d1", MeasurementType.TEMP, t.plusSeconds(10)),
+            measurementDoc("a2", "d1", MeasurementType.TEMP, t.plusSeconds(20)),
+            measurementDoc("a3", "d1", MeasurementType.HUMIDITY, t.plusSeconds(30)),
+            measurementDoc("b1", "d2", MeasurementType.TEMP, t.plusSeconds(15)),
+            measurementDoc("c1", "d3", MeasurementType.TEMP, t.plusSeconds(15))
+        ));
+
+        var latest = measurementAdapter.findLatestByDevices(List.of("d1", "d2"), MeasurementType.TEMP,
+            t.plusSeconds(60), 2);
+
+        assertThat(latest).containsOnlyKeys("d1", "d2");
+        assertThat(latest.get("d1")).extracting(Measurement::id).containsExactly("a2", "a1");
+        assertThat(latest.get("d2")).extracting(Measurement::id).containsExactly("b1");
+    }
+
+    @Test
+    void findsLatestMeasurementsOfMoreDevicesThanOnePipelineReads() {
+        Instant t = Instant.parse("2026-01-01T10:00:00Z");
+        List<MeasurementDocument> docs = new ArrayList<>();
+        List<String> deviceIds = new ArrayList<>();
+        for (int d = 0; d < MeasurementAggregations.LATEST_DEVICES_PER_PIPELINE + 20; d++) {
+            deviceIds.add("d" + d);
+            for (int i = 0; i < 3; i++) {
+                docs.add(measurementDoc("m" + d + "-" + i, "d" + d, MeasurementType.TEMP, t.plusSeconds(i)));
+            }
+        }
+        measurementRepo.saveAll(docs);
+
+        var latest = measurementAdapter.findLatestByDevices(deviceIds, null, t.plusSeconds(60), 2);
+
+        assertThat(latest).hasSize(deviceIds.size());
+        assertThat(latest.get("d119")).extracting(Measurement::id).containsExactly("m119-2", "m119-1");
+    }
+
+    @Test
+    void aggregatesMeasurementsIntoTimeBuckets() {
+        Instant hour = Instant.parse("2026-01-01T10:00:00Z");
+        measurementAdapter.saveAll(List.of(
+            new Measurement(null, "d1", MeasurementType.TEMP, 3.0, 1, hour.plusSeconds(10), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 1.0, 2, hour.plusSeconds(20), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 5.0, 3, hour.plusSeconds(70), List.of()),
+            new Measurement(null, "d1", MeasurementType.HUMIDITY, 9.0, 4, hour.plusSeconds(10), List.of())
+        ));
+
+        List<MeasurementBucket> buckets = measurementAdapter.aggregate(new AggregationQuery(
+            "d1", MeasurementType.TEMP, hour, hour.plusSeconds(3600), Duration.ofMinutes(1)));
+
+        assertThat(buckets).containsExactly(
+            new MeasurementBucket(hour, 2, 1.0, 3.0, 2.0, 3.0, 1.0),
+            new MeasurementBucket(hour.plusSeconds(60), 1, 5.0, 5.0, 5.0, 5.0, 5.0));
+    }
+
     @Test
     void deletesMeasurementById() {
         measurementAdapter.save(measurement(Instant.now()));
@@ -207,6 +625,39 @@ class MongoRepositoryAdapterIntegrationTest {
         assertThat(measurementAdapter.findById("m1")).isEmpty();
     }
 
+    @Test
+    void storesAlertRulesAndRecordsAlerts() {
+        AlertRule rule = alertRuleAdapter.save(
+            new AlertRule("r1", "d1", MeasurementType.CO2, 1000, Comparison.GREATER_THAN, true));
+        alertRuleAdapter.save(new AlertRule("r2", "d1", MeasurementType.TEMP, 5, Comparison.LESS_THAN, false));
+        alertRuleAdapter.save(new AlertRule("r3", "d2", MeasurementType.TEMP, 30, Comparison.GREATER_OR_EQUAL, true));
+        AlertRule windowed = alertRuleAdapter.save(new AlertRule("r4", "d3", MeasurementType.CO2, 1000,
+            Comparison.GREATER_THAN, false, new AlertWindow(WindowAggregate.AVG, Duration.ofMinutes(5)),
+            new AlertPolicy(50, Duration.ofMinutes(1), Duration.ofHours(1))));
+
+        alertAdapter.publish(new Alert(null, "r1", "d1", "CO2 1200.0 > 1000.0", Instant.parse("2026-01-01T10:00:00Z")));
+        alertAdapter.publish(new Alert(null, "r1", "d1", "CO2 900.0 no longer > 1000.0",
+            Instant.parse("2026-01-01T10:05:00Z"), AlertState.RESOLVED));
+        alertRuleAdapter.deleteById("r3");
+
+        assertThat(alertRuleAdapter.findById("r1")).contains(rule);
+        assertThat(alertRuleAdapter.findByDeviceId("d1")).extracting(AlertRule::id).containsExactlyInAnyOrder("r1", "r2");
+        assertThat(alertRuleAdapter.findAllActive()).containsExactly(rule);
+        assertThat(alertRuleAdapter.findById("r4")).contains(windowed);
+        List<AlertDocument> alerts = mongoTemplate.findAll(AlertDocument.class);
+        assertThat(alerts).hasSize(2);
+        assertThat(alerts.get(0).getId()).isNotNull();
+        assertThat(alerts.get(0).toDomain().ruleId()).isEqualTo("r1");
+        assertThat(alerts).extracting(doc -> doc.toDomain().state())
+            .containsExactlyInAnyOrder(AlertState.FIRING, AlertState.RESOLVED);
+        assertThat(alertAdapter.findLatestByRuleIds(List.of("r1", "r2")))
+            .containsOnlyKeys("r1")
+            .extractingByKey("r1")
+            .extracting(Alert::state)
+            .isEqualTo(AlertState.RESOLVED);
+    }
+
+
     private DeviceDocument deviceDoc(String id, String building, boolean active) {
         return deviceDoc(id, building, active, "Device-" + id);
     }
@@ -237,6 +688,11 @@ class MongoRepositoryAdapterIntegrationTest {
         );
     }
 
+    private Device taggedDevice(String id, String name, String... tags) {
+        return new Device(id, name, DeviceType.TEMP, "A", "101", true, false,
+            new DeviceConfig(null, null, null, List.of(tags)));
+    }
+
     private Measurement measurement(Instant ts) {
         return new Measurement("m1", "d1", MeasurementType.TEMP, 1.0, 1, ts, List.of());
     }
@@ -0,0 +1,120 @@
+package com.erval.argos.mongo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+/**
+ * Integration tests for splitting wide windows into concurrent sub-ranges.
+ */
+@SpringBootTest(
+    classes = RangeScatterIntegrationTest.TestApp.class,
+    properties = {
+        "argos.resource.mongo.measurements.scatter.max-concurrency=2",
+        "argos.resource.mongo.measurements.scatter.max-splits=4",
+        "argos.resource.mongo.measurements.scatter.min-split-documents=2",
+        "argos.resource.mongo.measurements.scatter.min-split-span=1m",
+        "argos.resource.mongo.measurements.stream-batch-size=2"
+    })
+@Testcontainers
+class RangeScatterIntegrationTest {
+
+    private static final Instant HOUR = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Container
+    static final MongoDBContainer mongo = new MongoDBContainer("mongo:6.0.5");
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private MongoMeasurementRepositoryAdapter measurementAdapter;
+
+    @Autowired
+    private RangeScatterExecutor scatter;
+
+    @AfterEach
+    void cleanup() {
+        measurementAdapter.deleteAll();
+    }
+
+    @Test
+    void plansAlignedSubRangesFromCappedProbes() {
+        List<RangeScatterExecutor.Range> probes = new ArrayList<>();
+        List<RangeScatterExecutor.Range> ranges = scatter.plan(HOUR.plusSeconds(30), HOUR.plusSeconds(3600), false,
+            Duration.ofMinutes(10), (probe, cap) -> {
+                probes.add(probe);
+                return cap;
+            });
+
+        assertThat(ranges).hasSize(4);
+        assertThat(ranges.get(0).from()).isEqualTo(HOUR.plusSeconds(30));
+        assertThat(ranges.get(1).from()).isEqualTo(HOUR.plusSeconds(600));
+        assertThat(ranges.get(3).to()).isEqualTo(HOUR.plusSeconds(3600));
+        assertThat(probes).hasSize(RangeScatterExecutor.PROBES)
+            .allSatisfy(probe -> assertThat(probe.from()).isAfter(HOUR.plusSeconds(30)))
+            .allSatisfy(probe -> assertThat(probe.to()).isBefore(HOUR.plusSeconds(3600)));
+        assertThat(scatter.plan(HOUR, HOUR.plusSeconds(3600), false, null, (probe, cap) -> 0)).hasSize(1);
+    }
+
+    @Test
+    void aggregatesSplitWindowLikeSingleQuery() {
+        saveSeries();
+
+        List<MeasurementBucket> buckets = measurementAdapter.aggregate(new AggregationQuery(
+            "d1", MeasurementType.TEMP, HOUR, HOUR.plusSeconds(3600), Duration.ofMinutes(10)));
+
+        assertThat(buckets).extracting(MeasurementBucket::start).containsExactly(
+            HOUR, HOUR.plusSeconds(600), HOUR.plusSeconds(1200), HOUR.plusSeconds(1800),
+            HOUR.plusSeconds(2400), HOUR.plusSeconds(3000));
+        assertThat(buckets).extracting(MeasurementBucket::count).containsOnly(2L);
+        assertThat(buckets.get(0)).isEqualTo(new MeasurementBucket(HOUR, 2, 0.0, 1.0, 0.5, 0.0, 1.0));
+    }
+
+    @Test
+    void streamsSplitRangeInTimestampOrderIncludingUpperBound() {
+        List<Measurement> saved = saveSeries();
+
+        try (var stream = measurementAdapter.stream(new MeasurementFilter("d1", MeasurementType.TEMP,
+                HOUR, saved.get(saved.size() - 1).timestamp()))) {
+            assertThat(stream.map(Measurement::timestamp).toList())
+                .containsExactlyElementsOf(saved.stream().map(Measurement::timestamp).toList());
+        }
+    }
+
+    private List<Measurement> saveSeries() {
+        List<Measurement> series = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            series.add(new Measurement(null, "d1", MeasurementType.TEMP, i, i + 1,
+                HOUR.plusSeconds(i * 300L), List.of()));
+        }
+        measurementAdapter.saveAll(series);
+        return series;
+    }
+
+    @SpringBootApplication(scanBasePackages = "com.erval.argos.mongo")
+    static class TestApp {
+    }
+}
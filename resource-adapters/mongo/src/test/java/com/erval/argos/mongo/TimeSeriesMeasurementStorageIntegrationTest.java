@@ -0,0 +1,103 @@
+package com.erval.argos.mongo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.SortDirection;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+/**
+ * Integration tests for the opt-in time-series measurement storage mode.
+ */
+@SpringBootTest(
+    classes = TimeSeriesMeasurementStorageIntegrationTest.TestApp.class,
+    properties = {
+        "argos.resource.mongo.measurements.storage=timeseries",
+        "argos.resource.mongo.measurements.timeseries.collection=measurements_ts_test"
+    })
+@Testcontainers
+class TimeSeriesMeasurementStorageIntegrationTest {
+
+    @Container
+    static final MongoDBContainer mongo = new MongoDBContainer("mongo:6.0.5");
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private MongoMeasurementRepositoryAdapter measurementAdapter;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void cleanup() {
+        measurementAdapter.deleteAll();
+    }
+
+    @Test
+    void createsTimeSeriesCollection() {
+        Document info = mongoTemplate.getDb()
+            .listCollections()
+            .filter(new Document("name", "measurements_ts_test"))
+            .first();
+
+        assertThat(info).isNotNull();
+        assertThat(info.getString("type")).isEqualTo("timeseries");
+    }
+
+    @Test
+    void createsSameSecondaryIndexesAsDocumentStorage() {
+        assertThat(mongoTemplate.indexOps("measurements_ts_test").getIndexInfo())
+            .extracting(IndexInfo::getName)
+            .contains("measurement_ts_id_idx", "measurement_device_ts_id_idx",
+                "measurement_device_type_ts_id_idx", "measurement_device_seq_id_idx")
+            .doesNotContain("measurement_device_ts_idx", "measurement_device_type_ts_idx",
+                "measurement_device_seq_idx");
+    }
+
+    @Test
+    void filtersMeasurementsWithUnchangedSemantics() {
+        Instant now = Instant.now();
+        measurementAdapter.saveAll(List.of(
+            new Measurement(null, "d1", MeasurementType.TEMP, 1.0, 1, now.minusSeconds(3600), List.of()),
+            new Measurement(null, "d1", MeasurementType.TEMP, 2.0, 2, now, List.of()),
+            new Measurement(null, "d1", MeasurementType.HUMIDITY, 3.0, 3, now, List.of()),
+            new Measurement(null, "d2", MeasurementType.TEMP, 4.0, 1, now, List.of())
+        ));
+
+        MeasurementFilter filter = new MeasurementFilter("d1", MeasurementType.TEMP, now.minusSeconds(10), null);
+        PageResult<Measurement> page = measurementAdapter.findByFilter(filter,
+            new PageRequest(0, 10, "timestamp", SortDirection.DESC));
+
+        assertThat(page.content()).extracting(Measurement::value).containsExactly(2.0);
+        assertThat(page.totalElements()).isEqualTo(1);
+        assertThat(measurementAdapter.findMaxSequenceNumber("d1")).hasValue(3);
+    }
+
+    @SpringBootApplication(scanBasePackages = "com.erval.argos.mongo")
+    static class TestApp {
+    }
+}
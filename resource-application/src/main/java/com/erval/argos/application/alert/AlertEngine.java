@@ -0,0 +1,740 @@
+package com.erval.argos.application.alert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.application.port.out.AlertPublisherPort;
+import com.erval.argos.core.application.port.out.AlertRepositoryPort;
+import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.core.domain.alert.AlertPolicy;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.core.domain.alert.AlertState;
+import com.erval.argos.core.domain.alert.AlertWindow;
+import com.erval.argos.core.domain.alert.Comparison;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+/**
+ * Evaluates active {@link AlertRule}s against measurements as they are
+ * ingested.
+ * <p>
+ * Layout:
+ * <ul>
+ * <li>rules are indexed by device in a {@link ConcurrentHashMap} whose
+ * values are immutable and replaced as a whole on every change, so
+ * evaluation never takes a lock</li>
+ * <li>each device entry holds one slot per {@link MeasurementType}; each
+ * slot keeps the thresholds of every {@link Comparison} in a sorted
+ * primitive array</li>
+ * <li>a value triggers a contiguous range of each array, found by binary
+ * search, so evaluation costs {@code O(log n)} in the rules of the series
+ * plus the triggered rules</li>
+ * </ul>
+ * Windowed rules keep a {@link SlidingWindow} per rule, updated with each
+ * measurement of their series in {@code O(1)} amortized time. Window state
+ * survives rule reloads and is rebuilt from recent measurements when a rule
+ * is first indexed, e.g. after a restart. That warm-up reads the store after
+ * the engine lock is released; until it completes the tracker is warming and
+ * its window is not evaluated.
+ * <p>
+ * Every rule has an {@link AlertTracker} applying its {@link AlertPolicy}:
+ * an {@link Alert} is published only when the rule fires, reminds or
+ * resolves, not for every reading meeting the condition. Trackers that are
+ * firing or pending are kept in a small per-series set, so readings outside
+ * the triggered range still reach them; idle trackers are only visited when
+ * their rule triggers. State
+ * survives rule reloads; removing a firing rule drops it without a
+ * resolution. A new tracker, e.g. after a restart, resumes firing when the
+ * newest stored {@link Alert} of its rule is still firing, so the restart
+ * neither fires the rule again nor loses its resolution.
+ * <p>
+ * State lives in the memory of each node and follows the readings that node
+ * evaluates. With several nodes, the measurements of a device must be
+ * ingested through one node at a time, e.g. by routing on the device id,
+ * as sequence numbering already requires; the stored alerts hand the state
+ * over when a device moves to another node.
+ * <p>
+ * Devices' own {@link DeviceThresholds} bounds are checked first, with one
+ * tracker per device under {@link AlertPolicy#DEFAULT}, raising alerts with
+ * rule id {@link DeviceThresholds#RULE_ID}.
+ * <p>
+ * Measurements without rules are rejected after one map lookup and one array
+ * read, without allocating. Only transitions allocate, to build the
+ * {@link Alert} handed to the {@link AlertPublisherPort}.
+ * <p>
+ * Changes are serialized on the engine; reads see each device either before
+ * or after a change. Reloads are incremental: only devices whose rules were
+ * added, changed or removed are rebuilt.
+ */
+public final class AlertEngine implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertEngine.class);
+    private static final int TYPES = MeasurementType.values().length;
+
+    private final AlertPublisherPort publisher;
+    private final DeviceThresholds thresholds;
+    private final MeasurementRepositoryPort history;
+    private final AlertRepositoryPort alertRepo;
+    private final ConcurrentHashMap<String, DeviceRules> byDevice = new ConcurrentHashMap<>();
+    /** Source of truth for rebuilding device entries; guarded by {@code this}. */
+    private final Map<String, Map<String, AlertRule>> rulesByDevice = new HashMap<>();
+    private final Map<String, String> deviceByRule = new HashMap<>();
+    private final Map<String, AlertTracker> trackersByRule = new HashMap<>();
+    /** Trackers created since the last change that still need their stored state and history. */
+    private final List<AlertTracker> created = new ArrayList<>();
+    private final ConcurrentHashMap<String, AlertTracker> boundTrackers = new ConcurrentHashMap<>();
+    private final LongAdder raised = new LongAdder();
+    private ScheduledExecutorService refresher;
+
+    /**
+     * Creates an engine without rules.
+     *
+     * @param publisher receives raised alerts
+     */
+    public AlertEngine(AlertPublisherPort publisher) {
+        this(publisher, DeviceThresholds.disabled());
+    }
+
+    /**
+     * Creates an engine without rules that also checks device bounds.
+     *
+     * @param publisher  receives raised alerts
+     * @param thresholds bounds of devices alerting on thresholds
+     */
+    public AlertEngine(AlertPublisherPort publisher, DeviceThresholds thresholds) {
+        this(publisher, thresholds, null);
+    }
+
+    /**
+     * Creates an engine without rules that checks device bounds and rebuilds
+     * the windows of new windowed rules from stored measurements.
+     *
+     * @param publisher  receives raised alerts
+     * @param thresholds bounds of devices alerting on thresholds
+     * @param history    source of recent measurements; {@code null} starts
+     *                   windows empty
+     */
+    public AlertEngine(AlertPublisherPort publisher, DeviceThresholds thresholds,
+            MeasurementRepositoryPort history) {
+        this(publisher, thresholds, history, AlertRepositoryPort.none());
+    }
+
+    /**
+     * Creates an engine without rules that checks device bounds, rebuilds the
+     * windows of new windowed rules and resumes the state of new rules from
+     * their stored alerts.
+     *
+     * @param publisher  receives raised alerts
+     * @param thresholds bounds of devices alerting on thresholds
+     * @param history    source of recent measurements; {@code null} starts
+     *                   windows empty
+     * @param alertRepo  source of the alerts raised before
+     */
+    public AlertEngine(AlertPublisherPort publisher, DeviceThresholds thresholds,
+            MeasurementRepositoryPort history, AlertRepositoryPort alertRepo) {
+        this.publisher = publisher;
+        this.thresholds = thresholds;
+        this.history = history;
+        this.alertRepo = alertRepo;
+    }
+
+    /**
+     * Returns an engine that never holds rules.
+     *
+     * @return engine raising no alerts
+     */
+    public static AlertEngine disabled() {
+        return new AlertEngine(AlertPublisherPort.none());
+    }
+
+    /**
+     * Loads the rules from a source now and then again after every
+     * {@code interval} on a daemon thread, picking up changes made through
+     * other nodes.
+     *
+     * @param source   supplies all active rules
+     * @param interval delay between reloads; zero or negative loads once
+     * @return this engine
+     */
+    public AlertEngine start(Supplier<? extends Collection<AlertRule>> source, Duration interval) {
+        replaceAll(source.get());
+        schedule(source, interval);
+        return this;
+    }
+
+    private synchronized void schedule(Supplier<? extends Collection<AlertRule>> source, Duration interval) {
+        if (refresher == null && !interval.isZero() && !interval.isNegative()) {
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "alert-rule-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = interval.toMillis();
+            refresher.scheduleWithFixedDelay(() -> {
+                try {
+                    replaceAll(source.get());
+                } catch (RuntimeException ex) {
+                    log.warn("Reloading alert rules failed", ex);
+                }
+            }, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops periodic reloading.
+     */
+    @Override
+    public synchronized void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    /**
+     * Replaces all rules, rebuilding only the devices whose rules differ from
+     * the indexed ones.
+     *
+     * @param rules new rule set; inactive rules are ignored
+     */
+    public void replaceAll(Collection<AlertRule> rules) {
+        warmUp(reindex(rules));
+    }
+
+    private synchronized List<AlertTracker> reindex(Collection<AlertRule> rules) {
+        Map<String, AlertRule> incoming = new LinkedHashMap<>();
+        for (AlertRule rule : rules) {
+            if (isEnforced(rule)) {
+                incoming.put(rule.id(), rule);
+            }
+        }
+        Set<String> changed = new HashSet<>();
+        for (String ruleId : List.copyOf(deviceByRule.keySet())) {
+            if (!incoming.containsKey(ruleId)) {
+                changed.add(drop(ruleId));
+                retire(ruleId);
+            }
+        }
+        for (AlertRule rule : incoming.values()) {
+            String deviceId = deviceByRule.get(rule.id());
+            if (deviceId != null && rule.equals(rulesByDevice.get(deviceId).get(rule.id()))) {
+                continue;
+            }
+            if (deviceId != null) {
+                changed.add(drop(rule.id()));
+            }
+            index(rule);
+            changed.add(rule.deviceId());
+        }
+        changed.forEach(this::rebuild);
+        return takeCreated();
+    }
+
+    /**
+     * Adds or replaces a rule. An inactive rule is removed.
+     *
+     * @param rule rule to index
+     */
+    public void put(AlertRule rule) {
+        warmUp(reindex(rule));
+    }
+
+    private synchronized List<AlertTracker> reindex(AlertRule rule) {
+        unindex(rule.id());
+        if (isEnforced(rule)) {
+            index(rule);
+            rebuild(rule.deviceId());
+        } else {
+            retire(rule.id());
+        }
+        return takeCreated();
+    }
+
+    /**
+     * Removes a rule. No-op if unknown.
+     *
+     * @param ruleId rule identifier
+     */
+    public synchronized void remove(String ruleId) {
+        unindex(ruleId);
+        retire(ruleId);
+    }
+
+    /**
+     * Returns the number of indexed rules.
+     *
+     * @return active rule count
+     */
+    public synchronized int size() {
+        return deviceByRule.size();
+    }
+
+    /**
+     * Returns the current state of a rule.
+     *
+     * @param ruleId rule identifier
+     * @return state, {@code OK} for unknown rules
+     */
+    public synchronized AlertState state(String ruleId) {
+        AlertTracker tracker = trackersByRule.get(ruleId);
+        return tracker != null ? tracker.state() : AlertState.OK;
+    }
+
+    /**
+     * Returns the number of alerts published since creation: transitions and
+     * reminders.
+     *
+     * @return raised alert count
+     */
+    public long raisedCount() {
+        return raised.sum();
+    }
+
+    /**
+     * Evaluates stored measurements, publishing an alert per rule transition.
+     *
+     * @param measurements measurements that were persisted successfully
+     */
+    public void evaluate(List<Measurement> measurements) {
+        if (byDevice.isEmpty() && thresholds.size() == 0 && boundTrackers.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < measurements.size(); i++) {
+            evaluate(measurements.get(i));
+        }
+    }
+
+    /**
+     * Evaluates one stored measurement, publishing an alert per rule
+     * transition.
+     *
+     * @param measurement measurement that was persisted successfully
+     */
+    public void evaluate(Measurement measurement) {
+        if (measurement.deviceId() == null || measurement.type() == null) {
+            return;
+        }
+        long timestamp = measurement.timestamp() != null
+                ? measurement.timestamp().toEpochMilli()
+                : System.currentTimeMillis();
+        int bounds = thresholds.check(measurement);
+        if (bounds == DeviceThresholds.BELOW || bounds == DeviceThresholds.ABOVE
+                || (bounds != DeviceThresholds.OTHER_TYPE && !boundTrackers.isEmpty())) {
+            observeBounds(bounds, measurement, timestamp);
+        }
+        DeviceRules device = byDevice.get(measurement.deviceId());
+        if (device == null) {
+            return;
+        }
+        SeriesRules series = device.byType[measurement.type().ordinal()];
+        if (series == null || Double.isNaN(measurement.value())) {
+            return;
+        }
+        series.evaluate(measurement, timestamp, this);
+    }
+
+    private void observeBounds(int bounds, Measurement measurement, long timestamp) {
+        String deviceId = measurement.deviceId();
+        if (bounds == DeviceThresholds.NO_BOUNDS) {
+            boundTrackers.remove(deviceId);
+            return;
+        }
+        if (bounds == DeviceThresholds.WITHIN) {
+            AlertTracker tracker = boundTrackers.get(deviceId);
+            if (tracker == null) {
+                return;
+            }
+            if (tracker.observe(false, true, timestamp, 0, 0) == AlertTracker.Transition.RESOLVED) {
+                publish(new Alert(null, DeviceThresholds.RULE_ID, deviceId, measurement.type() + " "
+                        + measurement.value() + " back within bounds", measurement.timestamp(),
+                        AlertState.RESOLVED));
+            }
+            boundTrackers.computeIfPresent(deviceId, (id, current) -> current.engaged() ? current : null);
+            return;
+        }
+        AlertTracker tracker = boundTrackers.computeIfAbsent(deviceId, id -> new AlertTracker(null, null));
+        if (tracker.observe(true, false, timestamp, 0, 0) == AlertTracker.Transition.FIRED) {
+            String violation = thresholds.violation(measurement);
+            if (violation != null) {
+                publish(new Alert(null, DeviceThresholds.RULE_ID, deviceId, violation, measurement.timestamp()));
+            }
+        }
+    }
+
+    /**
+     * Advances a rule's tracker with a value, publishing its transition.
+     *
+     * @param tracker     tracker of the rule
+     * @param value       measured value, or the window aggregate
+     * @param measurement measurement being evaluated
+     * @param timestamp   epoch millis of the measurement
+     */
+    private void observe(AlertTracker tracker, double value, Measurement measurement, long timestamp) {
+        AlertRule rule = tracker.rule();
+        AlertPolicy policy = rule.policy() != null ? rule.policy() : AlertPolicy.DEFAULT;
+        Comparison comparison = rule.comparison();
+        boolean breach = comparison.matches(value, rule.threshold());
+        boolean clear = !breach
+                && !comparison.matches(value, comparison.relaxed(rule.threshold(), policy.hysteresis()));
+        AlertTracker.Transition transition = tracker.observe(breach, clear, timestamp,
+                millis(policy.minDuration()), millis(policy.renotifyInterval()));
+        if (transition == AlertTracker.Transition.NONE) {
+            return;
+        }
+        boolean resolved = transition == AlertTracker.Transition.RESOLVED;
+        publish(new Alert(null, rule.id(), measurement.deviceId(), describe(rule, value, measurement, resolved),
+                measurement.timestamp(), resolved ? AlertState.RESOLVED : AlertState.FIRING));
+    }
+
+    private void publish(Alert alert) {
+        raised.increment();
+        try {
+            publisher.publish(alert);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to publish alert of rule {}", alert.ruleId(), ex);
+        }
+    }
+
+    private static String describe(AlertRule rule, double value, Measurement measurement, boolean resolved) {
+        StringBuilder description = new StringBuilder().append(measurement.type());
+        AlertWindow window = rule.window();
+        if (window != null) {
+            description.append(' ').append(window.aggregate()).append(" over ").append(window.length());
+        }
+        description.append(' ').append(value).append(resolved ? " no longer " : " ")
+                .append(rule.comparison().symbol()).append(' ').append(rule.threshold());
+        return description.toString();
+    }
+
+    private static long millis(Duration duration) {
+        return duration != null ? duration.toMillis() : 0;
+    }
+
+    private static boolean isEnforced(AlertRule rule) {
+        return rule.active() && rule.id() != null && rule.deviceId() != null && rule.type() != null
+                && rule.comparison() != null && !Double.isNaN(rule.threshold())
+                && (rule.window() == null || isValid(rule.window()));
+    }
+
+    private static boolean isValid(AlertWindow window) {
+        return window.aggregate() != null && window.length() != null && !window.length().isZero()
+                && !window.length().isNegative();
+    }
+
+    /**
+     * Returns the tracker of a rule, reusing the current one unless the rule
+     * now watches another series or window.
+     */
+    private AlertTracker tracker(AlertRule rule) {
+        AlertTracker current = trackersByRule.get(rule.id());
+        if (current != null && current.rule().deviceId().equals(rule.deviceId())
+                && current.rule().type() == rule.type() && Objects.equals(current.rule().window(), rule.window())) {
+            current.update(rule);
+            return current;
+        }
+        if (current != null) {
+            current.retire();
+        }
+        AlertTracker tracker = rule.window() == null
+                ? new AlertTracker(rule, null)
+                : new AlertTracker(rule, new SlidingWindow(rule.window()), history != null);
+        trackersByRule.put(rule.id(), tracker);
+        created.add(tracker);
+        return tracker;
+    }
+
+    private List<AlertTracker> takeCreated() {
+        if (created.isEmpty()) {
+            return List.of();
+        }
+        List<AlertTracker> taken = List.copyOf(created);
+        created.clear();
+        return taken;
+    }
+
+    private void retire(String ruleId) {
+        AlertTracker tracker = trackersByRule.remove(ruleId);
+        if (tracker != null) {
+            tracker.retire();
+        }
+    }
+
+    /**
+     * Resumes the stored state of new trackers and rebuilds their windows from
+     * stored measurements. Runs without the engine lock, so evaluation and
+     * other changes proceed while the stores are read.
+     */
+    private void warmUp(List<AlertTracker> trackers) {
+        if (trackers.isEmpty()) {
+            return;
+        }
+        restore(trackers);
+        for (AlertTracker tracker : trackers) {
+            if (tracker.retired() || tracker.rule().window() == null || history == null) {
+                continue;
+            }
+            AlertRule rule = tracker.rule();
+            SlidingWindow window = new SlidingWindow(rule.window());
+            Instant from = Instant.now().minus(rule.window().length());
+            try (Stream<Measurement> recent = history.stream(
+                    new MeasurementFilter(rule.deviceId(), rule.type(), from, null))) {
+                recent.forEach(m -> window.add(m.timestamp().toEpochMilli(), m.value()));
+            } catch (RuntimeException ex) {
+                log.warn("Rebuilding the window of alert rule {} failed; starting empty", rule.id(), ex);
+                tracker.warmed(new SlidingWindow(rule.window()));
+                continue;
+            }
+            tracker.warmed(window);
+        }
+    }
+
+    private void restore(List<AlertTracker> trackers) {
+        Map<String, Alert> latest;
+        try {
+            latest = alertRepo.findLatestByRuleIds(trackers.stream().map(tracker -> tracker.rule().id()).toList());
+        } catch (RuntimeException ex) {
+            log.warn("Reading the stored state of {} alert rules failed; starting them OK", trackers.size(), ex);
+            return;
+        }
+        for (AlertTracker tracker : trackers) {
+            Alert alert = latest.get(tracker.rule().id());
+            if (alert == null || alert.timestamp() == null || tracker.retired()
+                    || !tracker.restore(alert.state(), alert.timestamp().toEpochMilli())) {
+                continue;
+            }
+            AlertRule rule = tracker.rule();
+            DeviceRules device = byDevice.get(rule.deviceId());
+            SeriesRules series = device != null ? device.byType[rule.type().ordinal()] : null;
+            if (rule.window() == null && series != null) {
+                series.engaged.add(tracker);
+            }
+        }
+    }
+
+    private void index(AlertRule rule) {
+        rulesByDevice.computeIfAbsent(rule.deviceId(), d -> new LinkedHashMap<>()).put(rule.id(), rule);
+        deviceByRule.put(rule.id(), rule.deviceId());
+    }
+
+    private void unindex(String ruleId) {
+        String deviceId = drop(ruleId);
+        if (deviceId != null) {
+            rebuild(deviceId);
+        }
+    }
+
+    /**
+     * Removes a rule from the index without rebuilding its device.
+     *
+     * @return device of the rule, or {@code null} if it was not indexed
+     */
+    private String drop(String ruleId) {
+        String deviceId = deviceByRule.remove(ruleId);
+        if (deviceId == null) {
+            return null;
+        }
+        Map<String, AlertRule> rules = rulesByDevice.get(deviceId);
+        rules.remove(ruleId);
+        if (rules.isEmpty()) {
+            rulesByDevice.remove(deviceId);
+        }
+        return deviceId;
+    }
+
+    private void rebuild(String deviceId) {
+        Map<String, AlertRule> rules = rulesByDevice.get(deviceId);
+        if (rules == null) {
+            byDevice.remove(deviceId);
+            return;
+        }
+        List<List<AlertRule>> perType = new ArrayList<>(TYPES);
+        for (int i = 0; i < TYPES; i++) {
+            perType.add(new ArrayList<>());
+        }
+        rules.values().forEach(rule -> perType.get(rule.type().ordinal()).add(rule));
+        DeviceRules previous = byDevice.get(deviceId);
+        SeriesRules[] byType = new SeriesRules[TYPES];
+        for (int i = 0; i < TYPES; i++) {
+            if (perType.get(i).isEmpty()) {
+                continue;
+            }
+            Set<AlertTracker> engaged = previous != null && previous.byType[i] != null
+                    ? previous.byType[i].engaged
+                    : ConcurrentHashMap.newKeySet();
+            byType[i] = new SeriesRules(perType.get(i), this::tracker, engaged);
+        }
+        byDevice.put(deviceId, new DeviceRules(byType));
+    }
+
+    /**
+     * Immutable rules of one device, one slot per measurement type ordinal.
+     */
+    private record DeviceRules(SeriesRules[] byType) {
+    }
+
+    /**
+     * Immutable rules of one series: per-value rules split by comparison,
+     * windowed rules, and the engaged trackers, which are shared by the
+     * rebuilt entries of the same series.
+     */
+    private static final class SeriesRules {
+        private final Band greater;
+        private final Band greaterOrEqual;
+        private final Band less;
+        private final Band lessOrEqual;
+        private final AlertTracker[] windowed;
+        /** Per-value trackers that are firing or pending. */
+        private final Set<AlertTracker> engaged;
+
+        private SeriesRules(List<AlertRule> rules, Function<AlertRule, AlertTracker> trackers,
+                Set<AlertTracker> engaged) {
+            List<AlertTracker> perValue = rules.stream()
+                    .filter(rule -> rule.window() == null)
+                    .map(trackers)
+                    .toList();
+            greater = Band.of(perValue, Comparison.GREATER_THAN);
+            greaterOrEqual = Band.of(perValue, Comparison.GREATER_OR_EQUAL);
+            less = Band.of(perValue, Comparison.LESS_THAN);
+            lessOrEqual = Band.of(perValue, Comparison.LESS_OR_EQUAL);
+            AlertTracker[] withWindow = rules.stream()
+                    .filter(rule -> rule.window() != null)
+                    .map(trackers)
+                    .toArray(AlertTracker[]::new);
+            windowed = withWindow.length > 0 ? withWindow : null;
+            this.engaged = engaged;
+        }
+
+        private void evaluate(Measurement measurement, long timestamp, AlertEngine engine) {
+            double value = measurement.value();
+            if (windowed != null) {
+                for (AlertTracker tracker : windowed) {
+                    double aggregate = tracker.slide(timestamp, value);
+                    if (!Double.isNaN(aggregate)) {
+                        engine.observe(tracker, aggregate, measurement, timestamp);
+                    }
+                }
+            }
+            if (!engaged.isEmpty()) {
+                for (AlertTracker tracker : engaged) {
+                    if (tracker.retired()) {
+                        engaged.remove(tracker);
+                        continue;
+                    }
+                    engine.observe(tracker, value, measurement, timestamp);
+                    if (!tracker.engaged()) {
+                        engaged.remove(tracker);
+                        // another reading may have engaged it again meanwhile
+                        if (tracker.engaged()) {
+                            engaged.add(tracker);
+                        }
+                    }
+                }
+            }
+            if (greater != null) {
+                greater.observe(0, greater.firstAtLeast(value), this, measurement, timestamp, engine);
+            }
+            if (greaterOrEqual != null) {
+                greaterOrEqual.observe(0, greaterOrEqual.firstAbove(value), this, measurement, timestamp, engine);
+            }
+            if (less != null) {
+                less.observe(less.firstAbove(value), less.size(), this, measurement, timestamp, engine);
+            }
+            if (lessOrEqual != null) {
+                lessOrEqual.observe(lessOrEqual.firstAtLeast(value), lessOrEqual.size(), this, measurement,
+                        timestamp, engine);
+            }
+        }
+    }
+
+    /**
+     * Trackers of one comparison ordered by threshold, with the thresholds
+     * unboxed for the search.
+     */
+    private record Band(double[] thresholds, AlertTracker[] trackers) {
+
+        static Band of(List<AlertTracker> all, Comparison comparison) {
+            AlertTracker[] trackers = all.stream()
+                    .filter(tracker -> tracker.rule().comparison() == comparison)
+                    .sorted(Comparator.comparingDouble(tracker -> tracker.rule().threshold()))
+                    .toArray(AlertTracker[]::new);
+            if (trackers.length == 0) {
+                return null;
+            }
+            return new Band(Arrays.stream(trackers).mapToDouble(tracker -> tracker.rule().threshold()).toArray(),
+                    trackers);
+        }
+
+        int size() {
+            return trackers.length;
+        }
+
+        /** Index of the first threshold {@code >= value}. */
+        int firstAtLeast(double value) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** Index of the first threshold {@code > value}. */
+        int firstAbove(double value) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** Observes the triggered range, skipping trackers the series already observed as engaged. */
+        void observe(int from, int to, SeriesRules series, Measurement measurement, long timestamp,
+                AlertEngine engine) {
+            for (int i = from; i < to; i++) {
+                AlertTracker tracker = trackers[i];
+                if (series.engaged.contains(tracker)) {
+                    continue;
+                }
+                engine.observe(tracker, measurement.value(), measurement, timestamp);
+                if (tracker.engaged()) {
+                    series.engaged.add(tracker);
+                }
+            }
+        }
+    }
+}
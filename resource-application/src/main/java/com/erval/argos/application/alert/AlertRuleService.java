@@ -0,0 +1,133 @@
+package com.erval.argos.application.alert;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import com.erval.argos.core.application.port.in.commands.AlertRuleCommandUseCase;
+import com.erval.argos.core.application.port.in.queries.AlertRuleQueryUseCase;
+import com.erval.argos.core.application.port.out.AlertRuleRepositoryPort;
+import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.domain.alert.AlertPolicy;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.core.domain.alert.AlertWindow;
+
+/**
+ * Application service managing alert rules.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ * <li>validating rules and the devices they watch</li>
+ * <li>persisting rules through the repository port</li>
+ * <li>applying every change to the local {@link AlertEngine} right away;
+ * other nodes pick it up with their next reload</li>
+ * </ul>
+ */
+public record AlertRuleService(AlertRuleRepositoryPort repo, DeviceRepositoryPort deviceRepo, AlertEngine engine)
+        implements AlertRuleCommandUseCase, AlertRuleQueryUseCase {
+
+    /** Longest window of a windowed rule, bounding the data replayed on restart. */
+    public static final Duration MAX_WINDOW = Duration.ofDays(1);
+
+    /**
+     * Creates an active rule with a generated id.
+     *
+     * @param cmd command payload
+     * @return persisted rule
+     * @throws IllegalArgumentException if the command is invalid or the device
+     *                                  doesn't exist
+     */
+    @Override
+    public AlertRule createAlertRule(CreateAlertRuleCommand cmd) {
+        if (cmd == null || cmd.deviceId() == null || cmd.deviceId().isBlank()) {
+            throw new IllegalArgumentException("Device id is required");
+        }
+        if (cmd.type() == null) {
+            throw new IllegalArgumentException("Measurement type is required");
+        }
+        if (cmd.comparison() == null) {
+            throw new IllegalArgumentException("Comparison is required");
+        }
+        if (!Double.isFinite(cmd.threshold())) {
+            throw new IllegalArgumentException("Threshold must be a finite number");
+        }
+        validateWindow(cmd.window());
+        validatePolicy(cmd.policy());
+        if (deviceRepo.findById(cmd.deviceId()).isEmpty()) {
+            throw new IllegalArgumentException("Device not found: " + cmd.deviceId());
+        }
+        AlertRule saved = repo.save(new AlertRule(UUID.randomUUID().toString(), cmd.deviceId(), cmd.type(),
+                cmd.threshold(), cmd.comparison(), true, cmd.window(), cmd.policy()));
+        engine.put(saved);
+        return saved;
+    }
+
+    /**
+     * Enables or disables a rule.
+     *
+     * @param id     rule identifier
+     * @param active whether the rule should be enforced
+     * @return updated rule
+     * @throws IllegalArgumentException if the rule doesn't exist
+     */
+    @Override
+    public AlertRule setAlertRuleActive(String id, boolean active) {
+        AlertRule existing = repo.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Alert rule not found: " + id));
+        AlertRule saved = repo.save(existing.withActive(active));
+        engine.put(saved);
+        return saved;
+    }
+
+    /**
+     * Deletes a rule by id. No-op if missing.
+     *
+     * @param id rule identifier
+     */
+    @Override
+    public void deleteAlertRule(String id) {
+        repo.deleteById(id);
+        engine.remove(id);
+    }
+
+    /**
+     * Finds the rules watching a device.
+     *
+     * @param deviceId device identifier
+     * @return rules of the device
+     */
+    @Override
+    public List<AlertRule> findAlertRules(String deviceId) {
+        return repo.findByDeviceId(deviceId);
+    }
+
+    private static void validateWindow(AlertWindow window) {
+        if (window == null) {
+            return;
+        }
+        if (window.aggregate() == null) {
+            throw new IllegalArgumentException("Window aggregate is required");
+        }
+        if (window.length() == null || window.length().isZero() || window.length().isNegative()
+                || window.length().compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("Window length must be positive and at most " + MAX_WINDOW);
+        }
+    }
+
+    private static void validatePolicy(AlertPolicy policy) {
+        if (policy == null) {
+            return;
+        }
+        if (!Double.isFinite(policy.hysteresis()) || policy.hysteresis() < 0) {
+            throw new IllegalArgumentException("Hysteresis must be a finite, non-negative number");
+        }
+        if (policy.minDuration() != null
+                && (policy.minDuration().isNegative() || policy.minDuration().compareTo(MAX_WINDOW) > 0)) {
+            throw new IllegalArgumentException("Minimum duration must be non-negative and at most " + MAX_WINDOW);
+        }
+        if (policy.renotifyInterval() != null
+                && (policy.renotifyInterval().isZero() || policy.renotifyInterval().isNegative())) {
+            throw new IllegalArgumentException("Re-notify interval must be positive");
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.erval.argos.application.alert;
+
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.core.domain.alert.AlertState;
+
+/**
+ * Alert state of one rule, or of one device's bounds, over its series.
+ * <p>
+ * Transitions, driven by measurement timestamps:
+ * <ul>
+ * <li>{@code OK -> FIRING}: the condition held on every reading for at least
+ * the minimum duration</li>
+ * <li>{@code FIRING -> RESOLVED}: the value cleared the hysteresis band on
+ * every reading for at least the minimum duration; a reading back inside the
+ * band restarts the wait. A resolved tracker behaves like an {@code OK}
+ * one.</li>
+ * <li>while firing, a reading meeting the condition reminds once the
+ * re-notify interval passed since the last notification</li>
+ * </ul>
+ * Windowed rules also keep their {@link SlidingWindow} here, so both survive
+ * rule reloads together. A new windowed tracker may start out warming: its
+ * window collects live readings but is not evaluated until
+ * {@link #warmed(SlidingWindow)} swaps in the window rebuilt from history.
+ * A new tracker may also {@link #restore} the firing state of its rule's
+ * newest stored alert, as long as it has not observed a reading yet.
+ * <p>
+ * State is guarded by the instance; the rule and the retired flag are
+ * volatile so they can be read without it.
+ */
+final class AlertTracker {
+
+    /**
+     * Outcome of a reading.
+     */
+    enum Transition {
+        NONE,
+        FIRED,
+        REMINDED,
+        RESOLVED
+    }
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private SlidingWindow window;
+    private boolean warming;
+    private volatile AlertRule rule;
+    private volatile boolean retired;
+    private AlertState state = AlertState.OK;
+    /** Start of the pending transition, or {@link #NEVER}. */
+    private long pendingSince = NEVER;
+    private long lastNotified;
+    private boolean observed;
+
+    /**
+     * Creates a tracker in the {@code OK} state.
+     *
+     * @param rule   tracked rule; {@code null} for device bounds
+     * @param window window of a windowed rule; {@code null} otherwise
+     */
+    AlertTracker(AlertRule rule, SlidingWindow window) {
+        this(rule, window, false);
+    }
+
+    /**
+     * Creates a tracker in the {@code OK} state.
+     *
+     * @param rule    tracked rule; {@code null} for device bounds
+     * @param window  window of a windowed rule; {@code null} otherwise
+     * @param warming whether the window still awaits its history
+     */
+    AlertTracker(AlertRule rule, SlidingWindow window, boolean warming) {
+        this.rule = rule;
+        this.window = window;
+        this.warming = warming;
+    }
+
+    AlertRule rule() {
+        return rule;
+    }
+
+    /**
+     * Points the tracker at a new version of its rule, keeping the state.
+     *
+     * @param updated rule with the same id, series and window
+     */
+    void update(AlertRule updated) {
+        this.rule = updated;
+    }
+
+    /**
+     * Marks the tracker as no longer evaluated, so series holding it drop it.
+     */
+    void retire() {
+        retired = true;
+    }
+
+    boolean retired() {
+        return retired;
+    }
+
+    /**
+     * Adds a reading to the window of a windowed rule.
+     *
+     * @param timestampMillis epoch millis of the reading
+     * @param value           measured value
+     * @return aggregate of the window ending at the reading, or NaN when the
+     *         reading was ignored, the tracker is warming or the aggregate is
+     *         undefined
+     */
+    synchronized double slide(long timestampMillis, double value) {
+        return window.add(timestampMillis, value) && !warming ? window.value() : Double.NaN;
+    }
+
+    /**
+     * Ends warming: replaces the window with one rebuilt from history, keeping
+     * the live readings newer than that history.
+     *
+     * @param rebuilt window filled from stored measurements
+     */
+    synchronized void warmed(SlidingWindow rebuilt) {
+        window.addNewerTo(rebuilt);
+        window = rebuilt;
+        warming = false;
+    }
+
+    /**
+     * Indicates whether the tracker is firing or waiting for a transition,
+     * i.e. needs to see readings that don't meet the condition.
+     *
+     * @return {@code true} unless idle in the {@code OK} state
+     */
+    synchronized boolean engaged() {
+        return state == AlertState.FIRING || pendingSince != NEVER;
+    }
+
+    synchronized AlertState state() {
+        return state;
+    }
+
+    /**
+     * Resumes firing from a stored alert, unless the tracker already observed
+     * a reading, whose outcome is more recent.
+     *
+     * @param stored         state of the rule's newest stored alert
+     * @param notifiedMillis epoch millis of that alert, the base for reminders
+     * @return {@code true} if the tracker now fires
+     */
+    synchronized boolean restore(AlertState stored, long notifiedMillis) {
+        if (observed || stored != AlertState.FIRING) {
+            return false;
+        }
+        state = AlertState.FIRING;
+        lastNotified = notifiedMillis;
+        return true;
+    }
+
+    /**
+     * Advances the state with a reading.
+     *
+     * @param breach          whether the reading meets the condition
+     * @param clear           whether the reading is beyond the hysteresis
+     *                        band; implies {@code !breach}
+     * @param timestampMillis epoch millis of the reading
+     * @param minMillis       how long a condition must hold
+     * @param renotifyMillis  delay between reminders; zero for none
+     * @return transition caused by the reading
+     */
+    synchronized Transition observe(boolean breach, boolean clear, long timestampMillis, long minMillis,
+            long renotifyMillis) {
+        observed = true;
+        if (state != AlertState.FIRING) {
+            if (!breach) {
+                pendingSince = NEVER;
+                return Transition.NONE;
+            }
+            if (!held(timestampMillis, minMillis)) {
+                return Transition.NONE;
+            }
+            state = AlertState.FIRING;
+            lastNotified = timestampMillis;
+            return Transition.FIRED;
+        }
+        if (clear) {
+            if (!held(timestampMillis, minMillis)) {
+                return Transition.NONE;
+            }
+            state = AlertState.RESOLVED;
+            return Transition.RESOLVED;
+        }
+        pendingSince = NEVER;
+        if (breach && renotifyMillis > 0 && timestampMillis - lastNotified >= renotifyMillis) {
+            lastNotified = timestampMillis;
+            return Transition.REMINDED;
+        }
+        return Transition.NONE;
+    }
+
+    /** Starts or continues the pending transition; clears it once it is due. */
+    private boolean held(long timestampMillis, long minMillis) {
+        if (pendingSince == NEVER) {
+            pendingSince = timestampMillis;
+        }
+        if (timestampMillis - pendingSince < minMillis) {
+            return false;
+        }
+        pendingSince = NEVER;
+        return true;
+    }
+}
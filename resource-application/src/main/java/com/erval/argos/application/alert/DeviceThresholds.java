@@ -0,0 +1,383 @@
+package com.erval.argos.application.alert;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.erval.argos.core.application.CountMode;
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.SortDirection;
+import com.erval.argos.core.application.port.out.DeviceChangeFeedPort;
+import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceConfig;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+/**
+ * In-memory table of the {@link DeviceConfig} bounds of devices that alert on
+ * thresholds, checked inline on every ingested measurement.
+ * <p>
+ * Layout:
+ * <ul>
+ * <li>one slot per device in a single {@code double[]}, packed as
+ * {@code min, max, type}; an absent bound is stored as {@code NaN}, the
+ * watched type as its {@link MeasurementType} ordinal or {@code -1} for all
+ * types</li>
+ * <li>a {@link ConcurrentHashMap} maps device ids to slots; freed slots are
+ * reused</li>
+ * <li>only devices with {@code alertOnThreshold} and at least one bound get
+ * a slot, so other measurements are rejected after one map lookup</li>
+ * </ul>
+ * Bounds apply to readings whose type matches the device type. The table is
+ * loaded from the device repository by {@link #start} and kept current by
+ * {@link DeviceChangeFeedPort} events and by {@link #changed}/{@link #removed}
+ * calls for local writes, so checking a reading never reads the store. An
+ * optional periodic reload catches changes the feed could not deliver, e.g.
+ * on a standalone MongoDB server.
+ * <p>
+ * Writes are serialized on the table; checks take no lock.
+ */
+public final class DeviceThresholds implements DeviceChangeFeedPort.Listener, AutoCloseable {
+
+    /** Rule id of alerts raised by device bounds rather than alert rules. */
+    public static final String RULE_ID = "device-config";
+
+    /** {@link #check} result: the device has no bounds. */
+    static final int NO_BOUNDS = 0;
+    /** {@link #check} result: the reading is of a type the bounds don't watch, or NaN. */
+    static final int OTHER_TYPE = 1;
+    /** {@link #check} result: the reading is within bounds. */
+    static final int WITHIN = 2;
+    /** {@link #check} result: the reading is below the minimum. */
+    static final int BELOW = 3;
+    /** {@link #check} result: the reading is above the maximum. */
+    static final int ABOVE = 4;
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceThresholds.class);
+    private static final int STRIDE = 3;
+    private static final int ANY_TYPE = -1;
+    private static final int INITIAL_SLOTS = 64;
+
+    private final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Object loadLock = new Object();
+    /** Rewritten after every change, see {@link #publish}. */
+    private volatile double[] table = new double[INITIAL_SLOTS * STRIDE];
+    private int usedSlots;
+    private Set<String> changedDuringLoad;
+    private DeviceRepositoryPort source;
+    private int loadBatchSize;
+    private DeviceChangeFeedPort.Subscription subscription;
+    private ScheduledExecutorService refresher;
+
+    /**
+     * Returns an empty table that is never loaded.
+     *
+     * @return table without bounds
+     */
+    public static DeviceThresholds disabled() {
+        return new DeviceThresholds();
+    }
+
+    /**
+     * Subscribes to the change feed and loads the bounds of all devices.
+     * Subscribing first means no change committed during the load is lost.
+     * An unavailable feed is skipped; bounds changed on other nodes then only
+     * apply after the next {@link #load}.
+     *
+     * @param repo          device repository to load from
+     * @param feed          feed of changes made by other nodes
+     * @param loadBatchSize devices read per page while loading
+     * @return this table
+     */
+    public DeviceThresholds start(DeviceRepositoryPort repo, DeviceChangeFeedPort feed, int loadBatchSize) {
+        return start(repo, feed, loadBatchSize, Duration.ZERO);
+    }
+
+    /**
+     * Subscribes to the change feed, loads the bounds of all devices and
+     * reloads them periodically.
+     *
+     * @param repo            device repository to load from
+     * @param feed            feed of changes made by other nodes
+     * @param loadBatchSize   devices read per page while loading
+     * @param refreshInterval delay between reloads; zero or negative disables
+     *                        them
+     * @return this table
+     */
+    public DeviceThresholds start(DeviceRepositoryPort repo, DeviceChangeFeedPort feed, int loadBatchSize,
+            Duration refreshInterval) {
+        if (loadBatchSize <= 0) {
+            throw new IllegalArgumentException("loadBatchSize must be positive: " + loadBatchSize);
+        }
+        synchronized (this) {
+            this.source = repo;
+            this.loadBatchSize = loadBatchSize;
+        }
+        if (feed.available()) {
+            subscription = feed.subscribe(this);
+        } else {
+            log.warn("Device change feed unavailable, bounds changed on other nodes apply after a reload");
+        }
+        load();
+        schedule(refreshInterval);
+        return this;
+    }
+
+    private synchronized void schedule(Duration interval) {
+        if (refresher == null && !interval.isZero() && !interval.isNegative()) {
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "device-thresholds-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = interval.toMillis();
+            refresher.scheduleWithFixedDelay(() -> {
+                try {
+                    load();
+                } catch (RuntimeException ex) {
+                    log.warn("Reloading threshold bounds failed", ex);
+                }
+            }, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops following the change feed and periodic reloading.
+     */
+    @Override
+    public void close() {
+        if (subscription != null) {
+            subscription.close();
+        }
+        synchronized (this) {
+            if (refresher != null) {
+                refresher.shutdownNow();
+                refresher = null;
+            }
+        }
+    }
+
+    /**
+     * Replaces the table with the bounds of the repository's current
+     * devices. Devices changed while the repository is read keep their newer
+     * bounds.
+     */
+    public void load() {
+        synchronized (loadLock) {
+            loadNow();
+        }
+    }
+
+    private void loadNow() {
+        DeviceRepositoryPort repo;
+        int batchSize;
+        synchronized (this) {
+            if (source == null) {
+                return;
+            }
+            repo = source;
+            batchSize = loadBatchSize;
+            changedDuringLoad = new HashSet<>();
+        }
+        List<Device> all;
+        try {
+            all = readAll(repo, batchSize);
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+            throw ex;
+        }
+        synchronized (this) {
+            Set<String> loaded = new HashSet<>();
+            for (Device device : all) {
+                loaded.add(device.id());
+                if (!changedDuringLoad.contains(device.id())) {
+                    put(device);
+                }
+            }
+            for (String id : List.copyOf(slots.keySet())) {
+                if (!loaded.contains(id) && !changedDuringLoad.contains(id)) {
+                    release(id);
+                }
+            }
+            changedDuringLoad = null;
+            publish();
+        }
+        log.info("Loaded threshold bounds of {} devices", slots.size());
+    }
+
+    @Override
+    public synchronized void changed(Device device) {
+        track(device.id());
+        put(device);
+        publish();
+    }
+
+    @Override
+    public synchronized void removed(String id) {
+        track(id);
+        release(id);
+        publish();
+    }
+
+    @Override
+    public void resync() {
+        load();
+    }
+
+    /**
+     * Returns the number of devices with bounds.
+     *
+     * @return device count
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Checks a reading against the bounds of its device.
+     *
+     * @param measurement stored measurement
+     * @return description of the violated bound, or {@code null} when the
+     *         reading is within bounds or the device has none
+     */
+    public String violation(Measurement measurement) {
+        return switch (check(measurement)) {
+            case BELOW -> measurement.type() + " " + measurement.value() + " below min " + bound(measurement, 0);
+            case ABOVE -> measurement.type() + " " + measurement.value() + " above max " + bound(measurement, 1);
+            default -> null;
+        };
+    }
+
+    /**
+     * Classifies a reading against the bounds of its device without
+     * allocating.
+     *
+     * @param measurement stored measurement
+     * @return one of {@link #NO_BOUNDS}, {@link #OTHER_TYPE},
+     *         {@link #WITHIN}, {@link #BELOW} or {@link #ABOVE}
+     */
+    int check(Measurement measurement) {
+        if (measurement.deviceId() == null || measurement.type() == null) {
+            return NO_BOUNDS;
+        }
+        Integer slot = slots.get(measurement.deviceId());
+        if (slot == null) {
+            return NO_BOUNDS;
+        }
+        double[] packed = table;
+        int base = slot * STRIDE;
+        double min = packed[base];
+        double max = packed[base + 1];
+        int type = (int) packed[base + 2];
+        double value = measurement.value();
+        if (type != ANY_TYPE && type != measurement.type().ordinal()) {
+            return OTHER_TYPE;
+        }
+        boolean below = value < min;
+        boolean above = value > max;
+        if (!below && !above) {
+            return Double.isNaN(value) ? OTHER_TYPE : WITHIN;
+        }
+        // the slot may have been reassigned between the lookup and the read
+        if (!slot.equals(slots.get(measurement.deviceId()))) {
+            return NO_BOUNDS;
+        }
+        return below ? BELOW : ABOVE;
+    }
+
+    private double bound(Measurement measurement, int offset) {
+        Integer slot = slots.get(measurement.deviceId());
+        return slot != null ? table[slot * STRIDE + offset] : Double.NaN;
+    }
+
+    /**
+     * Slots are updated in place; writing the volatile field afterwards makes
+     * those updates visible to checks that read it later.
+     */
+    private void publish() {
+        table = table;
+    }
+
+    private void track(String id) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(id);
+        }
+    }
+
+    private void put(Device device) {
+        DeviceConfig config = device.config();
+        if (device.deleted() || config == null || !Boolean.TRUE.equals(config.alertOnThreshold())
+                || (config.minValue() == null && config.maxValue() == null)) {
+            release(device.id());
+            return;
+        }
+        Integer slot = slots.get(device.id());
+        if (slot == null) {
+            slot = allocate();
+        }
+        int base = slot * STRIDE;
+        table[base] = config.minValue() != null ? config.minValue() : Double.NaN;
+        table[base + 1] = config.maxValue() != null ? config.maxValue() : Double.NaN;
+        table[base + 2] = watchedType(device);
+        slots.put(device.id(), slot);
+    }
+
+    private void release(String id) {
+        Integer slot = slots.remove(id);
+        if (slot != null) {
+            Arrays.fill(table, slot * STRIDE, slot * STRIDE + STRIDE, Double.NaN);
+            freeSlots.push(slot);
+        }
+    }
+
+    private int allocate() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if ((usedSlots + 1) * STRIDE > table.length) {
+            table = Arrays.copyOf(table, table.length * 2);
+        }
+        return usedSlots++;
+    }
+
+    private static int watchedType(Device device) {
+        if (device.type() == null) {
+            return ANY_TYPE;
+        }
+        for (MeasurementType type : MeasurementType.values()) {
+            if (type.name().equals(device.type().name())) {
+                return type.ordinal();
+            }
+        }
+        return ANY_TYPE;
+    }
+
+    private static List<Device> readAll(DeviceRepositoryPort repo, int batchSize) {
+        List<Device> all = new ArrayList<>();
+        String after = null;
+        do {
+            PageResult<Device> page = repo.findByFilter(null, new PageRequest(0, batchSize, "name",
+                    SortDirection.ASC, after, CountMode.NONE));
+            all.addAll(page.content());
+            after = page.nextCursor();
+        } while (after != null);
+        return all;
+    }
+}
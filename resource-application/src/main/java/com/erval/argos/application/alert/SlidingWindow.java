@@ -0,0 +1,257 @@
+package com.erval.argos.application.alert;
+
+import com.erval.argos.core.domain.alert.AlertWindow;
+import com.erval.argos.core.domain.alert.WindowAggregate;
+
+/**
+ * Incremental state of one windowed alert rule.
+ * <p>
+ * Layout:
+ * <ul>
+ * <li>points are folded into slots of {@code length / (MAX_POINTS - 1)}, at
+ * least one millisecond: a point joins the newest slot when it is less than
+ * a slot width newer than the slot's first point. A window therefore never
+ * holds more than {@link #MAX_POINTS} slots and always covers its whole
+ * length, at the price of expiring a slot's points together with its
+ * first one, up to a slot width early</li>
+ * <li>slot times and values live in primitive ring buffers that start small
+ * and grow up to {@link #MAX_POINTS}</li>
+ * <li>{@code AVG} keeps a running sum and point count, per slot and overall;
+ * {@code MIN} and {@code MAX} keep each slot's extreme and a monotonic deque
+ * of slots, so the extreme is always at its front; {@code RATE} only needs
+ * the first point of the oldest slot and the newest point</li>
+ * <li>slots leave the window when their first point is {@code length} older
+ * than the newest point</li>
+ * </ul>
+ * Every add and read is {@code O(1)} amortized. Points older than the newest
+ * one are ignored, as the window only slides forward.
+ * <p>
+ * Not thread-safe; the owning {@link AlertTracker} synchronizes access.
+ */
+final class SlidingWindow {
+
+    /** Most slots kept per window; bounds memory for dense series. */
+    static final int MAX_POINTS = 4096;
+
+    private static final int INITIAL_POINTS = 16;
+    private static final double MILLIS_PER_MINUTE = 60_000.0;
+
+    private final WindowAggregate aggregate;
+    private final long lengthMillis;
+    private final long slotMillis;
+    /** First point time of each slot. */
+    private long[] times = new long[INITIAL_POINTS];
+    /** Per slot: sum for AVG, extreme for MIN and MAX, first value for RATE. */
+    private double[] values = new double[INITIAL_POINTS];
+    /** Points per slot, for AVG. */
+    private int[] counts;
+    /** Ring position of the oldest slot. */
+    private int head;
+    private int size;
+    /** Sequence number of the oldest slot; numbers grow by one per slot. */
+    private long firstSequence;
+    private double sum;
+    private long points;
+    private long newestTime;
+    private double newestValue;
+    /** Monotonic deque of slot sequence numbers, for MIN and MAX. */
+    private long[] deque;
+    private int dequeHead;
+    private int dequeSize;
+
+    SlidingWindow(AlertWindow window) {
+        this.aggregate = window.aggregate();
+        this.lengthMillis = window.length().toMillis();
+        this.slotMillis = Math.max(1, (lengthMillis + MAX_POINTS - 2) / (MAX_POINTS - 1));
+        this.counts = aggregate == WindowAggregate.AVG ? new int[INITIAL_POINTS] : null;
+        this.deque = extremes() ? new long[INITIAL_POINTS] : null;
+    }
+
+    /**
+     * Adds a point, sliding the window to end at it.
+     *
+     * @param timestampMillis epoch millis of the point
+     * @param value           measured value; NaN is ignored
+     * @return {@code false} when the point was ignored
+     */
+    boolean add(long timestampMillis, double value) {
+        return add(timestampMillis, value, 1);
+    }
+
+    /**
+     * Computes the aggregate of the current window.
+     *
+     * @return aggregate value, or NaN when it is undefined
+     */
+    double value() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        return switch (aggregate) {
+            case AVG -> sum / points;
+            case MIN, MAX -> values[slot(dequeAt(0))];
+            case RATE -> {
+                long span = newestTime - times[head];
+                yield span > 0 ? (newestValue - values[head]) / (span / MILLIS_PER_MINUTE) : Double.NaN;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of slots in the window, which equals the number of
+     * points unless points were closer than a slot width.
+     *
+     * @return slot count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds this window's slots that start after the newest point of another
+     * window to it, oldest first, followed by this window's newest point.
+     *
+     * @param target window to extend
+     */
+    void addNewerTo(SlidingWindow target) {
+        for (int i = 0; i < size; i++) {
+            int position = ring(i);
+            if (target.size == 0 || times[position] > target.newestTime) {
+                target.add(times[position], values[position], counts != null ? counts[position] : 1);
+            }
+        }
+        if (size > 0 && aggregate == WindowAggregate.RATE && newestTime > target.newestTime) {
+            target.add(newestTime, newestValue);
+        }
+    }
+
+    /**
+     * Adds a point, or an AVG slot of {@code count} points summing to
+     * {@code value}.
+     */
+    private boolean add(long timestampMillis, double value, int count) {
+        if (Double.isNaN(value) || (size > 0 && timestampMillis < newestTime)) {
+            return false;
+        }
+        while (size > 0 && times[head] <= timestampMillis - lengthMillis) {
+            evictOldest();
+        }
+        if (size > 0 && timestampMillis - times[ring(size - 1)] < slotMillis) {
+            fold(ring(size - 1), value, count);
+        } else {
+            append(timestampMillis, value, count);
+        }
+        if (aggregate == WindowAggregate.AVG) {
+            sum += value;
+            points += count;
+        }
+        newestTime = timestampMillis;
+        newestValue = value;
+        return true;
+    }
+
+    private void append(long timestampMillis, double value, int count) {
+        // slots start at least a slot width apart within the window, so
+        // there are never more than MAX_POINTS of them
+        if (size == times.length) {
+            grow();
+        }
+        int position = ring(size);
+        times[position] = timestampMillis;
+        values[position] = value;
+        if (counts != null) {
+            counts[position] = count;
+        }
+        size++;
+        if (extremes()) {
+            pushExtreme(firstSequence + size - 1, value);
+        }
+    }
+
+    private void fold(int position, double value, int count) {
+        if (aggregate == WindowAggregate.AVG) {
+            values[position] += value;
+            counts[position] += count;
+        } else if (extremes() && dominates(value, values[position])) {
+            values[position] = value;
+            // the newest slot is always at the deque tail; re-push it so it
+            // drops the entries its new extreme dominates
+            dequeSize--;
+            pushExtreme(firstSequence + size - 1, value);
+        }
+    }
+
+    private void pushExtreme(long sequence, double value) {
+        while (dequeSize > 0 && dominates(value, values[slot(dequeAt(dequeSize - 1))])) {
+            dequeSize--;
+        }
+        deque[(dequeHead + dequeSize) % deque.length] = sequence;
+        dequeSize++;
+    }
+
+    private boolean extremes() {
+        return aggregate == WindowAggregate.MIN || aggregate == WindowAggregate.MAX;
+    }
+
+    /** Whether a new value makes an older deque entry irrelevant. */
+    private boolean dominates(double value, double older) {
+        return aggregate == WindowAggregate.MIN ? value <= older : value >= older;
+    }
+
+    private int ring(int offset) {
+        return (head + offset) % times.length;
+    }
+
+    private int slot(long sequence) {
+        return ring((int) (sequence - firstSequence));
+    }
+
+    private long dequeAt(int index) {
+        return deque[(dequeHead + index) % deque.length];
+    }
+
+    private void evictOldest() {
+        if (aggregate == WindowAggregate.AVG) {
+            sum -= values[head];
+            points -= counts[head];
+        } else if (extremes()) {
+            if (dequeSize > 0 && dequeAt(0) == firstSequence) {
+                dequeHead = (dequeHead + 1) % deque.length;
+                dequeSize--;
+            }
+        }
+        firstSequence++;
+        head = (head + 1) % times.length;
+        size--;
+        if (size == 0) {
+            // drop accumulated rounding error whenever the window empties
+            sum = 0;
+        }
+    }
+
+    private void grow() {
+        int capacity = Math.min(times.length * 2, MAX_POINTS);
+        long[] newTimes = new long[capacity];
+        double[] newValues = new double[capacity];
+        int[] newCounts = counts != null ? new int[capacity] : null;
+        for (int i = 0; i < size; i++) {
+            newTimes[i] = times[ring(i)];
+            newValues[i] = values[ring(i)];
+            if (newCounts != null) {
+                newCounts[i] = counts[ring(i)];
+            }
+        }
+        times = newTimes;
+        values = newValues;
+        counts = newCounts;
+        head = 0;
+        if (deque != null) {
+            long[] newDeque = new long[capacity];
+            for (int i = 0; i < dequeSize; i++) {
+                newDeque[i] = dequeAt(i);
+            }
+            deque = newDeque;
+            dequeHead = 0;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.erval.argos.application.device;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import com.erval.argos.core.application.port.out.DeviceChangeFeedPort;
+import com.erval.argos.core.domain.device.Device;
+
+/**
+ * In-process, size-bounded cache of device ids known to be live.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>only positive lookups are cached; unknown ids always hit the loader</li>
+ * <li>entries expire after {@code ttl} and are dropped when the cache is full</li>
+ * <li>{@link #evict(String)} removes an id immediately, e.g. after delete</li>
+ * <li>once {@link #start started} on a {@link DeviceChangeFeedPort}, devices
+ * changed or deleted by other nodes are evicted as well, and a feed resync
+ * clears the cache; without a feed other nodes' deletes show after the
+ * ttl</li>
+ * <li>a {@code maxSize} of 0 disables caching entirely</li>
+ * </ul>
+ * The ttl is fixed, so load order is expiry order: a FIFO queue of
+ * (id, expiry) entries lets stores drop expired ids and evict the oldest ones
+ * from its head, in {@code O(1)} amortized time instead of a scan of the map.
+ * Queue entries for ids that were evicted or reloaded since are skipped.
+ * <p>
+ * Thread-safe; lookups do not take locks.
+ */
+public final class DeviceExistenceCache implements DeviceChangeFeedPort.Listener, AutoCloseable {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Long> expiries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private DeviceChangeFeedPort.Subscription subscription;
+
+    /**
+     * Creates a cache using the system nano clock.
+     *
+     * @param maxSize maximum number of cached ids; 0 disables caching
+     * @param ttl     time an id stays cached after it was loaded
+     */
+    public DeviceExistenceCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    DeviceExistenceCache(int maxSize, Duration ttl, LongSupplier clock) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a cache that never stores anything and always calls the loader.
+     *
+     * @return pass-through cache
+     */
+    public static DeviceExistenceCache disabled() {
+        return new DeviceExistenceCache(0, Duration.ZERO);
+    }
+
+    /**
+     * Follows a change feed so changes made by other nodes evict their ids.
+     * Does nothing when the feed is not available.
+     *
+     * @param feed feed of changes made by other nodes
+     * @return this cache
+     */
+    public DeviceExistenceCache start(DeviceChangeFeedPort feed) {
+        if (maxSize > 0 && feed.available()) {
+            subscription = feed.subscribe(this);
+        }
+        return this;
+    }
+
+    /**
+     * Stops following the change feed.
+     */
+    @Override
+    public void close() {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    /**
+     * Checks whether a device exists, consulting the loader only on a miss.
+     *
+     * @param deviceId device identifier
+     * @param loader   authoritative existence check, e.g. a repository read
+     * @return {@code true} if the device is known to exist
+     */
+    public boolean exists(String deviceId, Predicate<String> loader) {
+        long now = clock.getAsLong();
+        Long expiry = expiries.get(deviceId);
+        if (expiry != null && expiry - now > 0) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+
+        long gen = generation.get();
+        boolean exists = loader.test(deviceId);
+        if (exists && maxSize > 0) {
+            store(deviceId, now + ttlNanos, gen);
+        } else if (expiry != null) {
+            expiries.remove(deviceId, expiry);
+        }
+        return exists;
+    }
+
+    /**
+     * Removes a device id so the next lookup goes to the loader.
+     *
+     * @param deviceId device identifier
+     */
+    public void evict(String deviceId) {
+        generation.incrementAndGet();
+        expiries.remove(deviceId);
+    }
+
+    /**
+     * Removes all cached ids.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        expiries.clear();
+        order.clear();
+    }
+
+    @Override
+    public void changed(Device device) {
+        evict(device.id());
+    }
+
+    @Override
+    public void removed(String id) {
+        evict(id);
+    }
+
+    @Override
+    public void resync() {
+        clear();
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return hit, miss and eviction counts plus the current size
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expiries.size());
+    }
+
+    private void store(String deviceId, long expiry, long loadedAtGeneration) {
+        dropExpired(expiry - ttlNanos);
+        if (expiries.size() >= maxSize && !expiries.containsKey(deviceId)) {
+            makeRoom();
+        }
+        expiries.put(deviceId, expiry);
+        order.offer(new Entry(deviceId, expiry));
+        // An eviction raced with the load; the loaded answer may already be stale.
+        if (generation.get() != loadedAtGeneration) {
+            expiries.remove(deviceId, expiry);
+        }
+    }
+
+    /** Pops queue entries that expired or no longer match the map. */
+    private void dropExpired(long now) {
+        Entry head;
+        while ((head = order.peek()) != null && (head.expiry() - now <= 0 || !isCurrent(head))) {
+            if (order.remove(head)) {
+                expiries.remove(head.deviceId(), head.expiry());
+            }
+        }
+    }
+
+    /** Evicts the oldest live ids until there is room for one more. */
+    private void makeRoom() {
+        Entry head;
+        while (expiries.size() >= maxSize && (head = order.poll()) != null) {
+            if (expiries.remove(head.deviceId(), head.expiry())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private boolean isCurrent(Entry entry) {
+        Long expiry = expiries.get(entry.deviceId());
+        return expiry != null && expiry == entry.expiry();
+    }
+
+    private record Entry(String deviceId, long expiry) {
+    }
+
+    /**
+     * Counters describing cache effectiveness.
+     *
+     * @param hits      lookups answered from memory
+     * @param misses    lookups that went to the loader
+     * @param evictions entries dropped to respect the size bound
+     * @param size      number of ids currently cached
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+
+        /**
+         * Calculates the fraction of lookups served from memory.
+         *
+         * @return hit ratio between 0 and 1, or 0 when nothing was looked up
+         */
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package com.erval.argos.application.device;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.erval.argos.core.application.CountMode;
+import com.erval.argos.core.application.PageCursor;
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.SortDirection;
+import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase.DeviceFilter;
+import com.erval.argos.core.application.port.out.DeviceChangeFeedPort;
+import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceType;
+
+/**
+ * {@link DeviceRepositoryPort} decorator holding a full in-memory replica of
+ * the live devices.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>{@link #findById}, {@link #findAllByIds} and {@link #findByFilter} are
+ * answered from memory once {@link #start} has loaded the replica; before
+ * that every call goes to the delegate</li>
+ * <li>filters use hash indexes on building, room, type and active and a
+ * {@link TagIndex} for tags; unfiltered listings by name walk a sorted name
+ * index</li>
+ * <li>paging, cursors and totals follow the delegate's contract, so cursors
+ * stay valid whichever side answers</li>
+ * <li>ids missing from the replica are looked up in the delegate, covering
+ * devices created on another node the feed has not reported yet</li>
+ * <li>writes go to the delegate first and are then applied to the replica;
+ * changes made by other nodes arrive through a
+ * {@link DeviceChangeFeedPort}</li>
+ * <li>when the feed is not {@link DeviceChangeFeedPort#available()
+ * available}, nothing is loaded and every call goes to the delegate, as a
+ * replica would miss other nodes' writes</li>
+ * </ul>
+ * Thread-safe; lookups by id do not take locks.
+ */
+public final class DeviceRegistry implements DeviceRepositoryPort, DeviceChangeFeedPort.Listener, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceRegistry.class);
+    private static final String DEFAULT_SORT = "name";
+    private static final Set<String> SORTABLE_FIELDS = Set.of("name", "building", "room", "type");
+    private static final long COUNT_CAP = 10_000;
+    private static final Comparator<String> VALUE_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<Device> NAME_ORDER = Comparator.comparing(Device::name, VALUE_ORDER)
+            .thenComparing(Device::id);
+
+    private final DeviceRepositoryPort delegate;
+    private final int loadBatchSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ConcurrentHashMap<String, Device> byId = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byBuilding = new HashMap<>();
+    private final Map<String, Set<String>> byRoom = new HashMap<>();
+    private final Map<DeviceType, Set<String>> byType = new EnumMap<>(DeviceType.class);
+    private final Map<Boolean, Set<String>> byActive = new HashMap<>();
+    private final NavigableSet<Device> byName = new TreeSet<>(NAME_ORDER);
+    private final TagIndex byTag = new TagIndex();
+    private final List<Runnable> pending = new ArrayList<>();
+    private boolean loading;
+    private volatile boolean ready;
+    private volatile boolean passThrough;
+    private DeviceChangeFeedPort.Subscription subscription;
+
+    /**
+     * Creates a registry that delegates until {@link #start} is called.
+     *
+     * @param delegate      authoritative device repository
+     * @param loadBatchSize devices read per page while loading
+     */
+    public DeviceRegistry(DeviceRepositoryPort delegate, int loadBatchSize) {
+        if (loadBatchSize <= 0) {
+            throw new IllegalArgumentException("loadBatchSize must be positive: " + loadBatchSize);
+        }
+        this.delegate = delegate;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    /**
+     * Subscribes to the change feed and loads the replica. Subscribing first
+     * means no change committed during the load is lost. Without an available
+     * feed the registry stays a pass-through to the delegate.
+     *
+     * @param feed feed of changes made by other nodes
+     */
+    public void start(DeviceChangeFeedPort feed) {
+        if (!feed.available()) {
+            passThrough = true;
+            log.warn("Device change feed unavailable, device lookups read through to the store");
+            return;
+        }
+        subscription = feed.subscribe(this);
+        load();
+    }
+
+    /**
+     * Stops following the change feed.
+     */
+    @Override
+    public void close() {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    /**
+     * Replaces the replica with the delegate's current devices. Changes
+     * arriving while the devices are read are applied afterwards.
+     */
+    public synchronized void load() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Device> all;
+        try {
+            all = readAll();
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                pending.forEach(Runnable::run);
+                pending.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+        lock.writeLock().lock();
+        try {
+            clearIndexes();
+            all.forEach(this::put);
+            pending.forEach(Runnable::run);
+            pending.clear();
+            loading = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of devices held in memory.
+     *
+     * @return replica size
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    @Override
+    public void changed(Device device) {
+        if (!passThrough) {
+            apply(() -> put(device));
+        }
+    }
+
+    @Override
+    public void removed(String id) {
+        if (!passThrough) {
+            apply(() -> remove(id));
+        }
+    }
+
+    @Override
+    public void resync() {
+        load();
+    }
+
+    /**
+     * Saves through the delegate, then updates the replica.
+     *
+     * @param device device to save
+     * @return saved device
+     */
+    @Override
+    public Device save(Device device) {
+        Device saved = delegate.save(device);
+        changed(saved);
+        return saved;
+    }
+
+    /**
+     * Answers from memory, falling back to the delegate for unknown ids.
+     *
+     * @param id device identifier
+     * @return optional containing the live device
+     */
+    @Override
+    public Optional<Device> findById(String id) {
+        Device device = ready ? byId.get(id) : null;
+        return device != null ? Optional.of(device) : delegate.findById(id);
+    }
+
+    /**
+     * Answers from memory; ids missing from the replica are read from the
+     * delegate in one call.
+     *
+     * @param ids device identifiers
+     * @return found devices in no particular order
+     */
+    @Override
+    public List<Device> findAllByIds(Collection<String> ids) {
+        if (!ready) {
+            return delegate.findAllByIds(ids);
+        }
+        List<Device> found = new ArrayList<>(ids.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : new HashSet<>(ids)) {
+            Device device = byId.get(id);
+            if (device != null) {
+                found.add(device);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            found.addAll(delegate.findAllByIds(missing));
+        }
+        return found;
+    }
+
+    /**
+     * Delegates, as unfiltered offset listings keep the store's sorting
+     * rules for arbitrary fields.
+     *
+     * @param pageRequest paging and sorting information
+     * @return paged devices
+     */
+    @Override
+    public PageResult<Device> findAll(PageRequest pageRequest) {
+        return delegate.findAll(pageRequest);
+    }
+
+    /**
+     * Filters, sorts and pages the replica. Sort defaults to {@code name}
+     * when no or an unsupported field is provided; ties are broken by id.
+     *
+     * @param filter      constraints such as building or activation status
+     * @param pageRequest paging and sorting information
+     * @return page result with content, total and next cursor
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    @Override
+    public PageResult<Device> findByFilter(DeviceFilter filter, PageRequest pageRequest) {
+        if (!ready) {
+            return delegate.findByFilter(filter, pageRequest);
+        }
+        String sortBy = pageRequest.sortBy() != null && SORTABLE_FIELDS.contains(pageRequest.sortBy())
+                ? pageRequest.sortBy()
+                : DEFAULT_SORT;
+        SortDirection direction = pageRequest.direction() == SortDirection.ASC
+                ? SortDirection.ASC
+                : SortDirection.DESC;
+        Comparator<Device> order = order(sortBy, direction);
+        Predicate<Device> matches = matches(filter);
+
+        List<Device> fetched;
+        long total;
+        lock.readLock().lock();
+        try {
+            Collection<String> candidates = candidates(filter);
+            PageCursor cursor = pageRequest.isKeyset()
+                    ? PageCursor.decodeFor(pageRequest.after(), sortBy, direction)
+                    : null;
+            Stream<Device> sorted;
+            if (candidates == null && sortBy.equals(DEFAULT_SORT)) {
+                sorted = byNameAfter(cursor, direction).stream();
+            } else {
+                sorted = ids(candidates).filter(matches).sorted(order);
+                if (cursor != null) {
+                    sorted = sorted.dropWhile(d -> compareToCursor(d, sortBy, direction, cursor) <= 0);
+                }
+            }
+            if (cursor == null) {
+                sorted = sorted.skip((long) pageRequest.page() * pageRequest.size());
+            }
+            fetched = sorted.limit(pageRequest.size() + 1L).toList();
+            total = pageRequest.countMode() == CountMode.NONE
+                    ? PageResult.UNKNOWN_TOTAL
+                    : ids(candidates).filter(matches).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        boolean capped = pageRequest.countMode() == CountMode.CAPPED && total > COUNT_CAP;
+        boolean hasNext = fetched.size() > pageRequest.size();
+        List<Device> content = hasNext ? fetched.subList(0, pageRequest.size()) : fetched;
+        String nextCursor = null;
+        if (hasNext) {
+            Device last = content.get(content.size() - 1);
+            nextCursor = new PageCursor(sortBy, direction, sortValue(last, sortBy), last.id()).encode();
+        }
+        return new PageResult<>(List.copyOf(content), capped ? COUNT_CAP : total, pageRequest.page(),
+                pageRequest.size(), nextCursor, capped);
+    }
+
+    /**
+     * Deletes through the delegate, then drops the device from the replica.
+     *
+     * @param id identifier of the device to delete
+     */
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+        removed(id);
+    }
+
+    /**
+     * Deletes all devices through the delegate and empties the replica.
+     */
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+        apply(this::clearIndexes);
+    }
+
+    private List<Device> readAll() {
+        List<Device> all = new ArrayList<>();
+        String after = null;
+        do {
+            PageResult<Device> page = delegate.findByFilter(null, new PageRequest(0, loadBatchSize, DEFAULT_SORT,
+                    SortDirection.ASC, after, CountMode.NONE));
+            all.addAll(page.content());
+            after = page.nextCursor();
+        } while (after != null);
+        return all;
+    }
+
+    /**
+     * Runs a change under the write lock, or queues it while a load is
+     * reading the delegate so the load cannot overwrite it.
+     */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                pending.add(change);
+            } else {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Device device) {
+        remove(device.id());
+        if (device.deleted()) {
+            return;
+        }
+        byId.put(device.id(), device);
+        index(byBuilding, device.building(), device.id());
+        index(byRoom, device.room(), device.id());
+        index(byType, device.type(), device.id());
+        index(byActive, device.active(), device.id());
+        byName.add(device);
+        byTag.add(device.id(), tags(device));
+    }
+
+    private void remove(String id) {
+        Device old = byId.remove(id);
+        if (old == null) {
+            return;
+        }
+        unindex(byBuilding, old.building(), id);
+        unindex(byRoom, old.room(), id);
+        unindex(byType, old.type(), id);
+        unindex(byActive, old.active(), id);
+        byName.remove(old);
+        byTag.remove(id);
+    }
+
+    private void clearIndexes() {
+        byId.clear();
+        byBuilding.clear();
+        byRoom.clear();
+        byType.clear();
+        byActive.clear();
+        byName.clear();
+        byTag.clear();
+    }
+
+    private static <K> void index(Map<K, Set<String>> index, K key, String id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static <K> void unindex(Map<K, Set<String>> index, K key, String id) {
+        Set<String> ids = key != null ? index.get(key) : null;
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Picks the smallest candidate set among the indexes matching the
+     * filter's criteria, or {@code null} when the filter constrains no
+     * indexed field. Tag criteria are resolved as a whole by the tag index.
+     */
+    private Collection<String> candidates(DeviceFilter filter) {
+        if (filter == null) {
+            return null;
+        }
+        List<Set<String>> hits = new ArrayList<>();
+        if (filter.building() != null && !filter.building().isBlank()) {
+            hits.add(byBuilding.getOrDefault(filter.building(), Set.of()));
+        }
+        if (filter.room() != null && !filter.room().isBlank()) {
+            hits.add(byRoom.getOrDefault(filter.room(), Set.of()));
+        }
+        if (filter.type() != null) {
+            hits.add(byType.getOrDefault(filter.type(), Set.of()));
+        }
+        if (filter.active() != null) {
+            hits.add(byActive.getOrDefault(filter.active(), Set.of()));
+        }
+        Collection<String> best = hits.stream().min(Comparator.comparingInt(Set::size)).orElse(null);
+        if (filter.hasTagCriteria()) {
+            List<String> tagged = byTag.match(filter.anyTags(), filter.allTags());
+            if (best == null || tagged.size() < best.size()) {
+                best = tagged;
+            }
+        }
+        return best;
+    }
+
+    private Stream<Device> ids(Collection<String> candidates) {
+        return candidates == null ? byId.values().stream() : candidates.stream().map(byId::get);
+    }
+
+    private static Predicate<Device> matches(DeviceFilter filter) {
+        if (filter == null) {
+            return d -> true;
+        }
+        return d -> (filter.building() == null || filter.building().isBlank()
+                || filter.building().equals(d.building()))
+                && (filter.room() == null || filter.room().isBlank() || filter.room().equals(d.room()))
+                && (filter.type() == null || filter.type() == d.type())
+                && (filter.active() == null || filter.active() == d.active())
+                && filter.matchesTags(tags(d));
+    }
+
+    private static List<String> tags(Device device) {
+        return device.config() != null ? device.config().tags() : null;
+    }
+
+    private static Comparator<Device> order(String sortBy, SortDirection direction) {
+        Comparator<Device> order = Comparator.<Device, String>comparing(d -> sortValue(d, sortBy), VALUE_ORDER)
+                .thenComparing(Device::id);
+        return direction == SortDirection.ASC ? order : order.reversed();
+    }
+
+    /**
+     * Returns the devices in name order that follow a cursor, seeking in
+     * {@code byName} instead of skipping the preceding devices.
+     */
+    private NavigableSet<Device> byNameAfter(PageCursor cursor, SortDirection direction) {
+        if (cursor == null) {
+            return direction == SortDirection.ASC ? byName : byName.descendingSet();
+        }
+        Device position = new Device(cursor.id(), cursor.value(), null, null, null, false, false, null);
+        return direction == SortDirection.ASC
+                ? byName.tailSet(position, false)
+                : byName.headSet(position, false).descendingSet();
+    }
+
+    private static int compareToCursor(Device device, String sortBy, SortDirection direction, PageCursor cursor) {
+        int c = VALUE_ORDER.compare(sortValue(device, sortBy), cursor.value());
+        if (c == 0) {
+            c = device.id().compareTo(cursor.id());
+        }
+        return direction == SortDirection.ASC ? c : -c;
+    }
+
+    private static String sortValue(Device device, String field) {
+        return switch (field) {
+            case "name" -> device.name();
+            case "building" -> device.building();
+            case "room" -> device.room();
+            case "type" -> device.type() != null ? device.type().name() : null;
+            default -> throw new IllegalArgumentException("Unsupported device sort field: " + field);
+        };
+    }
+}
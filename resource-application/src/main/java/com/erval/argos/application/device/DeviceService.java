@@ -1,14 +1,21 @@
 package com.erval.argos.application.device;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import com.erval.argos.application.alert.DeviceThresholds;
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
 import com.erval.argos.core.application.port.in.commands.DeviceCommandUseCase;
 import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase;
 import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
 import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceConfig;
 import com.erval.argos.core.domain.device.DeviceType;
 
 /**
@@ -19,9 +26,32 @@ import com.erval.argos.core.domain.device.DeviceType;
  * <li>validating and persisting device aggregates</li>
  * <li>translating query filters into repository calls</li>
  * <li>managing default values such as generated identifiers</li>
+ * <li>evicting changed devices from the shared {@link DeviceExistenceCache}</li>
+ * <li>applying local writes to the {@link DeviceThresholds} checked on
+ * ingest</li>
  * </ul>
  */
-public record DeviceService(DeviceRepositoryPort repo) implements DeviceCommandUseCase, DeviceQueryUseCase {
+public record DeviceService(DeviceRepositoryPort repo, DeviceExistenceCache deviceCache,
+        DeviceThresholds thresholds) implements DeviceCommandUseCase, DeviceQueryUseCase {
+
+    /**
+     * Creates a service without a shared device existence cache.
+     *
+     * @param repo device repository port
+     */
+    public DeviceService(DeviceRepositoryPort repo) {
+        this(repo, DeviceExistenceCache.disabled());
+    }
+
+    /**
+     * Creates a service without a threshold table.
+     *
+     * @param repo        device repository port
+     * @param deviceCache shared device existence cache
+     */
+    public DeviceService(DeviceRepositoryPort repo, DeviceExistenceCache deviceCache) {
+        this(repo, deviceCache, DeviceThresholds.disabled());
+    }
 
     /**
      * Finds a device by its identifier.
@@ -34,6 +64,21 @@ public record DeviceService(DeviceRepositoryPort repo) implements DeviceCommandU
         return repo.findById(id);
     }
 
+    /**
+     * Finds several devices by their identifiers with one repository call.
+     *
+     * @param ids device identifiers; duplicates are ignored
+     * @return found devices keyed by id; unknown ids are absent
+     */
+    @Override
+    public Map<String, Device> findByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return repo.findAllByIds(Set.copyOf(ids)).stream()
+                .collect(Collectors.toMap(Device::id, Function.identity()));
+    }
+
     /**
      * Creates a new device using the provided command data.
      * <p>
@@ -41,13 +86,16 @@ public record DeviceService(DeviceRepositoryPort repo) implements DeviceCommandU
      * <ul>
      * <li>generates a random UUID for the device id</li>
      * <li>marks the device as active by default</li>
+     * <li>stores the optional configuration after validating its bounds</li>
      * </ul>
      *
      * @param cmd incoming device data
      * @return the persisted device
+     * @throws IllegalArgumentException if the configured bounds are invalid
      */
     @Override
     public Device createDevice(CreateDeviceCommand cmd) {
+        validateConfig(cmd.config());
         String id = UUID.randomUUID().toString();
 
         Device device = new Device(
@@ -58,9 +106,44 @@ public record DeviceService(DeviceRepositoryPort repo) implements DeviceCommandU
                 cmd.room(),
                 true,
                 false,
-                null);
+                cmd.config());
 
-        return repo.save(device);
+        Device saved = repo.save(device);
+        thresholds.changed(saved);
+        return saved;
+    }
+
+    /**
+     * Replaces the configuration of a device.
+     * <p>
+     * Validation rules:
+     * <ul>
+     * <li>bounds must be finite numbers when set</li>
+     * <li>{@code minValue} must not exceed {@code maxValue}</li>
+     * </ul>
+     *
+     * @param id     identifier of the device to configure
+     * @param config new configuration; {@code null} clears it
+     * @return the updated device
+     * @throws IllegalArgumentException if the device does not exist or the
+     *                                  bounds are invalid
+     */
+    @Override
+    public Device setDeviceConfig(String id, DeviceConfig config) {
+        validateConfig(config);
+        Device existing = repo.findById(id).orElseThrow(() -> new IllegalArgumentException("Device not found: " + id));
+
+        Device saved = repo.save(new Device(
+                existing.id(),
+                existing.name(),
+                existing.type(),
+                existing.building(),
+                existing.room(),
+                existing.active(),
+                existing.deleted(),
+                config));
+        thresholds.changed(saved);
+        return saved;
     }
 
     /**
@@ -68,6 +151,7 @@ public record DeviceService(DeviceRepositoryPort repo) implements DeviceCommandU
      * <p>
      * <ul>
      * <li>silently succeeds if the id does not exist</li>
+     * <li>evicts the id from the existence cache so writes stop immediately</li>
      * </ul>
      *
      * @param id identifier of the device to delete
@@ -75,6 +159,8 @@ public record DeviceService(DeviceRepositoryPort repo) implements DeviceCommandU
     @Override
     public void deleteDevice(String id) {
         repo.deleteById(id);
+        deviceCache.evict(id);
+        thresholds.removed(id);
     }
 
     /**
@@ -113,7 +199,10 @@ public record DeviceService(DeviceRepositoryPort repo) implements DeviceCommandU
                 deleted,
                 existing.config());
 
-        return repo.save(updated);
+        Device saved = repo.save(updated);
+        deviceCache.evict(id);
+        thresholds.changed(saved);
+        return saved;
     }
 
     /**
@@ -135,4 +224,19 @@ public record DeviceService(DeviceRepositoryPort repo) implements DeviceCommandU
         return repo.findByFilter(filter, pageRequest);
     }
 
+    private static void validateConfig(DeviceConfig config) {
+        if (config == null) {
+            return;
+        }
+        if (config.minValue() != null && !Double.isFinite(config.minValue())) {
+            throw new IllegalArgumentException("minValue must be a finite number");
+        }
+        if (config.maxValue() != null && !Double.isFinite(config.maxValue())) {
+            throw new IllegalArgumentException("maxValue must be a finite number");
+        }
+        if (config.minValue() != null && config.maxValue() != null && config.minValue() > config.maxValue()) {
+            throw new IllegalArgumentException("minValue must not exceed maxValue");
+        }
+    }
+
 }
@@ -0,0 +1,130 @@
+package com.erval.argos.application.device;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from device tag to the devices carrying it.
+ * <p>
+ * Each tagged device gets a small integer slot, reused after removal, and
+ * every tag maps to a bitmap of slots. Any-of queries OR bitmaps and all-of
+ * queries AND them, touching one machine word per 64 devices.
+ * <p>
+ * Not thread-safe; {@link DeviceRegistry} guards it with its lock.
+ */
+final class TagIndex {
+
+    private final Map<String, BitSet> byTag = new HashMap<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final List<Set<String>> tagsBySlot = new ArrayList<>();
+    private final BitSet free = new BitSet();
+
+    /**
+     * Indexes the tags of a device that is not indexed yet.
+     *
+     * @param id   device identifier
+     * @param tags tags of the device; may be {@code null}
+     */
+    void add(String id, Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return;
+        }
+        Set<String> unique = new HashSet<>(tags);
+        unique.remove(null);
+        int slot = free.nextSetBit(0);
+        if (slot < 0) {
+            slot = ids.size();
+            ids.add(id);
+            tagsBySlot.add(unique);
+        } else {
+            free.clear(slot);
+            ids.set(slot, id);
+            tagsBySlot.set(slot, unique);
+        }
+        slots.put(id, slot);
+        for (String tag : unique) {
+            byTag.computeIfAbsent(tag, t -> new BitSet()).set(slot);
+        }
+    }
+
+    /**
+     * Removes a device from the index, ignoring unknown ids.
+     *
+     * @param id device identifier
+     */
+    void remove(String id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (String tag : tagsBySlot.get(slot)) {
+            BitSet bits = byTag.get(tag);
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                byTag.remove(tag);
+            }
+        }
+        ids.set(slot, null);
+        tagsBySlot.set(slot, null);
+        free.set(slot);
+    }
+
+    /**
+     * Removes all devices.
+     */
+    void clear() {
+        byTag.clear();
+        slots.clear();
+        ids.clear();
+        tagsBySlot.clear();
+        free.clear();
+    }
+
+    /**
+     * Finds the devices satisfying both tag criteria.
+     *
+     * @param anyTags tags of which a device needs at least one; empty for no
+     *                constraint
+     * @param allTags tags a device needs all of; empty for no constraint
+     * @return matching device ids; all tagged devices when both are empty
+     */
+    List<String> match(Set<String> anyTags, Set<String> allTags) {
+        BitSet result = null;
+        for (String tag : allTags) {
+            BitSet bits = byTag.get(tag);
+            if (bits == null) {
+                return List.of();
+            }
+            if (result == null) {
+                result = (BitSet) bits.clone();
+            } else {
+                result.and(bits);
+            }
+        }
+        if (!anyTags.isEmpty()) {
+            BitSet union = new BitSet();
+            for (String tag : anyTags) {
+                BitSet bits = byTag.get(tag);
+                if (bits != null) {
+                    union.or(bits);
+                }
+            }
+            if (result == null) {
+                result = union;
+            } else {
+                result.and(union);
+            }
+        }
+        if (result == null) {
+            return List.copyOf(slots.keySet());
+        }
+        return result.stream().mapToObj(ids::get).toList();
+    }
+}
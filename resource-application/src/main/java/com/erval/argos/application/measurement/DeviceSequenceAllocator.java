@@ -0,0 +1,67 @@
+package com.erval.argos.application.measurement;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Assigns monotonically increasing per-device measurement sequence numbers.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>each device has its own in-memory atomic counter</li>
+ * <li>a counter is seeded lazily from the highest stored sequence number the
+ * first time the device is seen</li>
+ * <li>after seeding, allocation is a single lock-free {@code getAndAdd}</li>
+ * <li>batches reserve a contiguous block per device in one step</li>
+ * </ul>
+ * Numbers are unique within one process; a device must be written by a
+ * single service instance for them to stay unique across nodes. Numbers of
+ * writes that fail after allocation are not handed out again, so sequences
+ * can have gaps. A deleted device keeps its counter, as its measurements are
+ * kept too.
+ */
+public final class DeviceSequenceAllocator {
+
+    private final ToIntFunction<String> seedLoader;
+    private final ConcurrentHashMap<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an allocator.
+     *
+     * @param seedLoader returns the highest stored sequence number for a device,
+     *                   or 0 when it has none
+     */
+    public DeviceSequenceAllocator(ToIntFunction<String> seedLoader) {
+        this.seedLoader = seedLoader;
+    }
+
+    /**
+     * Allocates the next sequence number for a device.
+     *
+     * @param deviceId device identifier
+     * @return allocated sequence number
+     */
+    public int next(String deviceId) {
+        return reserve(deviceId, 1);
+    }
+
+    /**
+     * Reserves a contiguous block of sequence numbers for a device.
+     *
+     * @param deviceId device identifier
+     * @param count    number of sequence numbers to reserve
+     * @return first number of the block; the block ends at
+     *         {@code first + count - 1}
+     */
+    public int reserve(String deviceId, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        AtomicInteger counter = counters.get(deviceId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(deviceId, id -> new AtomicInteger(seedLoader.applyAsInt(id)));
+        }
+        return counter.getAndAdd(count) + 1;
+    }
+}
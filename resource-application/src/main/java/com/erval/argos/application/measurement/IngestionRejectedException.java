@@ -0,0 +1,20 @@
+package com.erval.argos.application.measurement;
+
+/**
+ * Signals that a measurement was refused because the ingestion pipeline is at
+ * capacity.
+ * <p>
+ * Callers should treat this as retryable backpressure rather than a validation
+ * error.
+ */
+public class IngestionRejectedException extends RuntimeException {
+
+    /**
+     * Creates the exception with a human-readable reason.
+     *
+     * @param message rejection reason
+     */
+    public IngestionRejectedException(String message) {
+        super(message);
+    }
+}
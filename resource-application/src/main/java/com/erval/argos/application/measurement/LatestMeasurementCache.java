@@ -0,0 +1,497 @@
+package com.erval.argos.application.measurement;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+/**
+ * In-process cache of the newest {@code depth} measurements of each device.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>a device is warmed lazily by its first read, loading its newest
+ * {@code depth} measurements from the loader</li>
+ * <li>measurements of warmed devices are added on ingest, so later reads of
+ * up to {@code depth} items never reach the loader</li>
+ * <li>reads with an explicit {@code to}, or beyond {@code depth}, always go
+ * to the loader</li>
+ * <li>at most {@code maxDevices} devices are held; the least recently read
+ * device is dropped to make room. Each cached measurement costs about 40
+ * bytes of columns, 60 for its ObjectId string and 50 for its entry in the
+ * id index, so memory stays around {@code maxDevices * depth * 150} bytes
+ * plus the tag lists, which are shared with the ingested measurements</li>
+ * <li>a device is reloaded once it was loaded {@code ttl} ago, bounding how
+ * stale it gets</li>
+ * <li>a {@code depth} or {@code maxDevices} of 0 disables caching entirely</li>
+ * </ul>
+ * Only writes through this node reach a warmed device. Readings ingested by
+ * other nodes, or written or deleted directly in the store, show up only
+ * after the device's {@code ttl} expires, so a long {@code ttl} is only safe
+ * for a single node.
+ * Each device is kept in column-wise primitive arrays ordered by timestamp.
+ * <p>
+ * Bookkeeping avoids scans of all devices:
+ * <ul>
+ * <li>every read appends a (device, tick) entry to an access-ordered FIFO
+ * queue; making room polls it and evicts the first device whose newest read
+ * is the polled one, skipping entries superseded by a later read. Once the
+ * queue holds twice as many entries as devices, superseded ones are purged,
+ * so both steps are {@code O(1)} amortized</li>
+ * <li>an index from measurement id to its buffer lets a delete drop only
+ * the device holding the measurement</li>
+ * </ul>
+ * Thread-safe; operations on one device are serialized on its buffer.
+ */
+public final class LatestMeasurementCache {
+
+    private static final MeasurementType[] TYPES = MeasurementType.values();
+
+    private final int depth;
+    private final int maxDevices;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+    /** Buffer holding each cached measurement id. */
+    private final ConcurrentHashMap<String, Ring> ringsByMeasurement = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Access> accesses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedAccesses = new AtomicInteger();
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final AtomicLong ticks = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache filtering reads against the system clock.
+     *
+     * @param depth      measurements kept per device; 0 disables caching
+     * @param maxDevices maximum number of cached devices; 0 disables caching
+     * @param ttl        how long a loaded device is served before it is
+     *                   reloaded; zero or {@code null} never reloads
+     */
+    public LatestMeasurementCache(int depth, int maxDevices, Duration ttl) {
+        this(depth, maxDevices, ttl, Clock.systemUTC());
+    }
+
+    LatestMeasurementCache(int depth, int maxDevices, Duration ttl, Clock clock) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("depth must not be negative: " + depth);
+        }
+        if (maxDevices < 0) {
+            throw new IllegalArgumentException("maxDevices must not be negative: " + maxDevices);
+        }
+        this.depth = depth;
+        this.maxDevices = maxDevices;
+        this.ttlMillis = ttl == null || ttl.isZero() || ttl.isNegative() ? Long.MAX_VALUE : ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a cache that never stores anything and always calls the loader.
+     *
+     * @return pass-through cache
+     */
+    public static LatestMeasurementCache disabled() {
+        return new LatestMeasurementCache(0, 0, null);
+    }
+
+    /**
+     * Returns the newest measurements of a device, newest first.
+     *
+     * @param deviceId device identifier
+     * @param to       inclusive upper timestamp bound; {@code null} means now
+     * @param limit    maximum number of measurements
+     * @param loader   authoritative read, e.g. a sorted repository query
+     * @return up to {@code limit} measurements ordered by timestamp descending
+     */
+    public List<Measurement> latest(String deviceId, Instant to, int limit, Loader loader) {
+        Instant now = clock.instant();
+        if (to != null || limit > depth || maxDevices == 0) {
+            misses.increment();
+            return loader.load(deviceId, to != null ? to : now, limit);
+        }
+
+        Ring ring = fresh(deviceId);
+        if (ring == null) {
+            ring = warm(deviceId, loader);
+        }
+        List<Measurement> cached = read(ring, now, limit);
+        if (cached == null) {
+            misses.increment();
+            return loader.load(deviceId, now, limit);
+        }
+        hits.increment();
+        return cached;
+    }
+
+    /**
+     * Returns the newest measurements of a device only if it is already
+     * cached and holds enough of them; never calls a loader.
+     *
+     * @param deviceId device identifier
+     * @param limit    maximum number of measurements
+     * @return measurements ordered by timestamp descending, or {@code null}
+     *         when the caller has to read the store
+     */
+    public List<Measurement> cached(String deviceId, int limit) {
+        Ring ring = limit <= depth ? fresh(deviceId) : null;
+        List<Measurement> cached = ring == null ? null : read(ring, clock.instant(), limit);
+        if (cached == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * Adds persisted measurements to the devices that are already cached.
+     *
+     * @param measurements saved measurements carrying their ids
+     */
+    public void add(List<Measurement> measurements) {
+        if (rings.isEmpty()) {
+            return;
+        }
+        for (Measurement m : measurements) {
+            Ring ring = rings.get(m.deviceId());
+            if (ring != null) {
+                ring.add(m);
+            }
+        }
+    }
+
+    /**
+     * Drops the device holding a measurement so its next read reloads it.
+     *
+     * @param measurementId identifier of a deleted measurement
+     */
+    public void evictMeasurement(String measurementId) {
+        Ring ring = ringsByMeasurement.get(measurementId);
+        if (ring != null) {
+            discard(ring);
+        }
+    }
+
+    /**
+     * Removes all cached devices.
+     */
+    public void clear() {
+        rings.values().forEach(this::discard);
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return hit, miss, load and eviction counts plus the number of devices
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), loads.sum(), evictions.sum(), rings.size());
+    }
+
+    /**
+     * Returns the buffer of a device unless it expired; an expired one is
+     * dropped so the next read reloads it.
+     */
+    private Ring fresh(String deviceId) {
+        Ring ring = rings.get(deviceId);
+        if (ring != null && clock.millis() - ring.loadedAt >= ttlMillis) {
+            discard(ring);
+            return null;
+        }
+        return ring;
+    }
+
+    /** Reads a buffer and records the access for eviction. */
+    private List<Measurement> read(Ring ring, Instant now, int limit) {
+        long tick = ticks.incrementAndGet();
+        List<Measurement> newest = ring.newest(now, limit, tick);
+        accesses.offer(new Access(ring, tick));
+        if (queuedAccesses.incrementAndGet() > 2 * Math.max(rings.size(), 16)) {
+            purgeAccesses();
+        }
+        return newest;
+    }
+
+    /** Drops queued accesses superseded by a later read or of dropped devices. */
+    private void purgeAccesses() {
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            accesses.removeIf(access -> !access.isCurrent(rings));
+            queuedAccesses.set(accesses.size());
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    /** Removes a buffer and forgets its measurement ids. */
+    private void discard(Ring ring) {
+        if (rings.remove(ring.deviceId, ring)) {
+            ring.retire();
+        }
+    }
+
+    /**
+     * Registers an empty buffer before loading, so measurements ingested
+     * while the load runs are captured; the load is merged in by id.
+     */
+    private Ring warm(String deviceId, Loader loader) {
+        Ring ring = new Ring(deviceId, depth, clock.millis(), ringsByMeasurement);
+        Ring existing = rings.putIfAbsent(deviceId, ring);
+        if (existing != null) {
+            return existing;
+        }
+        makeRoom(deviceId);
+        loads.increment();
+        try {
+            ring.merge(loader.load(deviceId, null, depth));
+        } catch (RuntimeException ex) {
+            discard(ring);
+            throw ex;
+        }
+        return ring;
+    }
+
+    /**
+     * Evicts least recently read devices until the bound holds again. A
+     * device that was never read yet has no queued access and is kept.
+     */
+    private void makeRoom(String keep) {
+        while (rings.size() > maxDevices) {
+            Access coldest = accesses.poll();
+            if (coldest == null) {
+                return;
+            }
+            queuedAccesses.decrementAndGet();
+            Ring ring = coldest.ring();
+            if (coldest.isCurrent(rings) && !ring.deviceId.equals(keep) && rings.remove(ring.deviceId, ring)) {
+                ring.retire();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Read of a buffer at a tick; current while it is the buffer's newest
+     * read and the buffer is still cached.
+     */
+    private record Access(Ring ring, long tick) {
+
+        boolean isCurrent(Map<String, Ring> rings) {
+            return ring.lastAccess == tick && rings.get(ring.deviceId) == ring;
+        }
+    }
+
+    /**
+     * Authoritative read used on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * Loads the newest measurements of a device.
+         *
+         * @param deviceId device identifier
+         * @param to       inclusive upper timestamp bound; {@code null} for none
+         * @param limit    maximum number of measurements
+         * @return measurements ordered by timestamp descending
+         */
+        List<Measurement> load(String deviceId, Instant to, int limit);
+    }
+
+    /**
+     * Counters describing cache effectiveness.
+     *
+     * @param hits      reads answered from memory
+     * @param misses    reads that went to the loader
+     * @param loads     devices warmed from the loader
+     * @param evictions devices dropped to respect the size bound
+     * @param devices   number of devices currently cached
+     */
+    public record Stats(long hits, long misses, long loads, long evictions, int devices) {
+
+        /**
+         * Calculates the fraction of reads served from memory.
+         *
+         * @return hit ratio between 0 and 1, or 0 when nothing was read
+         */
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * Fixed-size buffer of one device's newest measurements, ordered by
+     * timestamp from {@code head} (oldest) onwards.
+     */
+    private static final class Ring {
+        private final String deviceId;
+        private final Map<String, Ring> index;
+        private final long[] seconds;
+        private final int[] nanos;
+        private final double[] values;
+        private final int[] sequences;
+        private final byte[] types;
+        private final String[] ids;
+        private final Object[] tags;
+        private int head;
+        private int size;
+        private boolean ready;
+        /** Whether the buffer holds every measurement of the device. */
+        private boolean complete;
+        private boolean dropped;
+        private boolean retired;
+        private volatile long lastAccess;
+        /** Clock millis when the buffer was registered, before its load. */
+        private final long loadedAt;
+
+        private Ring(String deviceId, int capacity, long loadedAt, Map<String, Ring> index) {
+            this.deviceId = deviceId;
+            this.index = index;
+            this.loadedAt = loadedAt;
+            seconds = new long[capacity];
+            nanos = new int[capacity];
+            values = new double[capacity];
+            sequences = new int[capacity];
+            types = new byte[capacity];
+            ids = new String[capacity];
+            tags = new Object[capacity];
+        }
+
+        synchronized void merge(List<Measurement> loaded) {
+            // Loaded newest first; adding oldest first avoids shifting on insert.
+            for (int i = loaded.size() - 1; i >= 0; i--) {
+                Measurement m = loaded.get(i);
+                if (size == 0 || m.id() == null || !contains(m.id())) {
+                    add(m);
+                }
+            }
+            complete = loaded.size() < ids.length && !dropped;
+            ready = true;
+        }
+
+        synchronized void add(Measurement m) {
+            if (retired) {
+                return;
+            }
+            long sec = m.timestamp().getEpochSecond();
+            int nano = m.timestamp().getNano();
+            if (size == ids.length) {
+                dropped = true;
+                complete = false;
+                if (compare(0, sec, nano) > 0) {
+                    return;
+                }
+                clear(head);
+                head = slot(1);
+                size--;
+            }
+            int pos = size;
+            while (pos > 0 && compare(pos - 1, sec, nano) > 0) {
+                copy(slot(pos - 1), slot(pos));
+                pos--;
+            }
+            int s = slot(pos);
+            seconds[s] = sec;
+            nanos[s] = nano;
+            values[s] = m.value();
+            sequences[s] = m.sequenceNumber();
+            types[s] = (byte) m.type().ordinal();
+            ids[s] = m.id();
+            tags[s] = m.tags();
+            size++;
+            if (m.id() != null) {
+                index.put(m.id(), this);
+            }
+        }
+
+        /** Stops taking measurements and removes this buffer's ids from the index. */
+        synchronized void retire() {
+            retired = true;
+            for (int i = 0; i < size; i++) {
+                String id = ids[slot(i)];
+                if (id != null) {
+                    index.remove(id, this);
+                }
+            }
+        }
+
+        synchronized boolean contains(String id) {
+            for (int i = 0; i < size; i++) {
+                if (id.equals(ids[slot(i)])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the newest measurements at or before {@code now}, or
+         * {@code null} when the buffer cannot prove it holds enough of them.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized List<Measurement> newest(Instant now, int limit, long tick) {
+            if (tick > lastAccess) {
+                lastAccess = tick;
+            }
+            if (!ready) {
+                return null;
+            }
+            List<Measurement> result = new ArrayList<>(Math.min(limit, size));
+            for (int i = size - 1; i >= 0 && result.size() < limit; i--) {
+                int s = slot(i);
+                Instant ts = Instant.ofEpochSecond(seconds[s], nanos[s]);
+                if (ts.isAfter(now)) {
+                    continue;
+                }
+                result.add(new Measurement(ids[s], deviceId, TYPES[types[s]], values[s], sequences[s], ts,
+                        (List<String>) tags[s]));
+            }
+            return result.size() < limit && !complete ? null : result;
+        }
+
+        private int compare(int index, long sec, int nano) {
+            int s = slot(index);
+            int c = Long.compare(seconds[s], sec);
+            return c != 0 ? c : Integer.compare(nanos[s], nano);
+        }
+
+        private int slot(int index) {
+            return (head + index) % ids.length;
+        }
+
+        private void copy(int from, int to) {
+            seconds[to] = seconds[from];
+            nanos[to] = nanos[from];
+            values[to] = values[from];
+            sequences[to] = sequences[from];
+            types[to] = types[from];
+            ids[to] = ids[from];
+            tags[to] = tags[from];
+        }
+
+        private void clear(int s) {
+            if (ids[s] != null) {
+                index.remove(ids[s], this);
+            }
+            ids[s] = null;
+            tags[s] = null;
+        }
+    }
+}
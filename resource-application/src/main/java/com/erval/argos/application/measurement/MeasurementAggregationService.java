@@ -0,0 +1,79 @@
+package com.erval.argos.application.measurement;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase;
+import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+
+/**
+ * Application service for time-bucketed measurement statistics.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ * <li>rejecting incomplete queries before they reach the store</li>
+ * <li>bounding the number of buckets a single query may produce</li>
+ * <li>delegating the aggregation itself to the repository port</li>
+ * </ul>
+ *
+ * @param measurementRepo measurement repository port
+ * @param maxBuckets      largest number of buckets a query may span
+ */
+public record MeasurementAggregationService(MeasurementRepositoryPort measurementRepo, int maxBuckets)
+        implements MeasurementAggregationUseCase {
+
+    /**
+     * Default bucket limit per query.
+     */
+    public static final int DEFAULT_MAX_BUCKETS = 10_000;
+
+    /**
+     * Creates a service with {@link #DEFAULT_MAX_BUCKETS}.
+     *
+     * @param measurementRepo measurement repository port
+     */
+    public MeasurementAggregationService(MeasurementRepositoryPort measurementRepo) {
+        this(measurementRepo, DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * Validates the query and aggregates it in the repository.
+     *
+     * @param query series, time window and bucket size
+     * @return non-empty buckets ordered by start time
+     * @throws IllegalArgumentException if a field is missing, the window is
+     *                                  empty, the interval is shorter than a
+     *                                  second or the window spans more than
+     *                                  {@code maxBuckets} intervals
+     */
+    @Override
+    public List<MeasurementBucket> aggregate(AggregationQuery query) {
+        validate(query);
+        return measurementRepo.aggregate(query);
+    }
+
+    private void validate(AggregationQuery query) {
+        if (query.deviceId() == null || query.deviceId().isBlank()) {
+            throw new IllegalArgumentException("Device id is required");
+        }
+        if (query.type() == null) {
+            throw new IllegalArgumentException("Measurement type is required");
+        }
+        if (query.from() == null || query.to() == null || !query.from().isBefore(query.to())) {
+            throw new IllegalArgumentException("A time window with from before to is required");
+        }
+        if (query.interval() == null || query.interval().compareTo(Duration.ofSeconds(1)) < 0) {
+            throw new IllegalArgumentException("Interval must be at least one second");
+        }
+        if (query.interval().getNano() != 0) {
+            throw new IllegalArgumentException("Interval must be a whole number of seconds");
+        }
+        long buckets = Duration.between(query.from(), query.to()).getSeconds() / query.interval().getSeconds() + 1;
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException(
+                    "Interval too small for the time window: " + buckets + " buckets exceed the limit of "
+                            + maxBuckets);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.erval.argos.application.measurement;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementRollupUseCase;
+import com.erval.argos.core.application.port.out.MeasurementRollupPort;
+import com.erval.argos.core.domain.measurement.RollupResolution;
+
+/**
+ * Application service reading pre-aggregated measurement rollups.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ * <li>rejecting incomplete queries</li>
+ * <li>picking the finest resolution whose bucket count fits the caller's
+ * point budget</li>
+ * <li>delegating the read to {@link MeasurementRollupPort}</li>
+ * </ul>
+ *
+ * @param rollups rollup persistence port
+ */
+public record MeasurementRollupService(MeasurementRollupPort rollups) implements MeasurementRollupUseCase {
+
+    /**
+     * Validates the query, chooses a resolution and reads its buckets.
+     *
+     * @param query series, time window and point budget
+     * @return chosen resolution and its buckets
+     * @throws IllegalArgumentException if a field is missing, the window is
+     *                                  empty or the point budget is not
+     *                                  positive
+     */
+    @Override
+    public RollupSeries findRollups(RollupQuery query) {
+        validate(query);
+        RollupResolution resolution = resolutionFor(query);
+        return new RollupSeries(resolution,
+                rollups.find(query.deviceId(), query.type(), query.from(), query.to(), resolution));
+    }
+
+    /**
+     * Returns the finest resolution that yields at most {@code maxPoints}
+     * buckets for the window, or {@link RollupResolution#DAY} when none does.
+     *
+     * @param query validated rollup query
+     * @return resolution to read
+     */
+    static RollupResolution resolutionFor(RollupQuery query) {
+        for (RollupResolution resolution : RollupResolution.values()) {
+            if (resolution.bucketsBetween(query.from(), query.to()) <= query.maxPoints()) {
+                return resolution;
+            }
+        }
+        return RollupResolution.DAY;
+    }
+
+    private static void validate(RollupQuery query) {
+        if (query.deviceId() == null || query.deviceId().isBlank()) {
+            throw new IllegalArgumentException("Device id is required");
+        }
+        if (query.type() == null) {
+            throw new IllegalArgumentException("Measurement type is required");
+        }
+        if (query.from() == null || query.to() == null || !query.from().isBefore(query.to())) {
+            throw new IllegalArgumentException("A time window with from before to is required");
+        }
+        if (query.maxPoints() <= 0) {
+            throw new IllegalArgumentException("maxPoints must be positive");
+        }
+    }
+}
@@ -1,28 +1,97 @@
 package com.erval.argos.application.measurement;
 
+import com.erval.argos.application.alert.AlertEngine;
+import com.erval.argos.application.device.DeviceExistenceCache;
+import com.erval.argos.core.application.BatchItemResult;
+import com.erval.argos.core.application.CountMode;
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.SortDirection;
 import com.erval.argos.core.application.port.in.commands.MeasurementCommandUseCase;
 import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase;
 import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.application.port.out.MeasurementPublisherPort;
 import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.application.port.out.MeasurementRollupPort;
 import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Application service coordinating measurement commands and queries.
  * <p>
  * Responsibilities:
  * <ul>
- * <li>verifying referenced devices exist</li>
+ * <li>verifying referenced devices exist, backed by a {@link DeviceExistenceCache}</li>
  * <li>defaulting timestamps when the caller omits them</li>
+ * <li>assigning per-device sequence numbers via {@link DeviceSequenceAllocator}</li>
+ * <li>feeding persisted measurements into the {@link MeasurementRollupPort},
+ * marking them stale in the {@link RollupRebuilder} when that fails, and into
+ * the {@link LatestMeasurementCache}, the {@link AlertEngine} and the
+ * {@link MeasurementPublisherPort}</li>
  * <li>delegating filtering and paging to the repository port</li>
  * </ul>
  */
-public record MeasurementService(MeasurementRepositoryPort measurementRepo, DeviceRepositoryPort deviceRepo)
+public record MeasurementService(MeasurementRepositoryPort measurementRepo, DeviceRepositoryPort deviceRepo,
+        DeviceExistenceCache deviceCache, DeviceSequenceAllocator sequences, MeasurementRollupPort rollups,
+        RollupRebuilder rollupRebuilder, LatestMeasurementCache latest, AlertEngine alerts, MeasurementPublisherPort publisher)
         implements MeasurementCommandUseCase, MeasurementQueryUseCase {
 
+    private static final Logger log = LoggerFactory.getLogger(MeasurementService.class);
+
+    /**
+     * Creates a service that checks device existence against the repository on
+     * every write and seeds sequence numbers from the measurement repository.
+     *
+     * @param measurementRepo measurement repository port
+     * @param deviceRepo      device repository port
+     */
+    public MeasurementService(MeasurementRepositoryPort measurementRepo, DeviceRepositoryPort deviceRepo) {
+        this(builder(measurementRepo, deviceRepo));
+    }
+
+    private MeasurementService(Builder builder) {
+        this(builder.measurementRepo, builder.deviceRepo, builder.deviceCache,
+                builder.sequences != null ? builder.sequences : sequenceAllocator(builder.measurementRepo),
+                builder.rollups, builder.rollupRebuilder, builder.latest, builder.alerts, builder.publisher);
+    }
+
+    /**
+     * Starts a service whose optional collaborators are all disabled until
+     * set on the builder.
+     *
+     * @param measurementRepo measurement repository port
+     * @param deviceRepo      device repository port
+     * @return builder for the service
+     */
+    public static Builder builder(MeasurementRepositoryPort measurementRepo, DeviceRepositoryPort deviceRepo) {
+        return new Builder(measurementRepo, deviceRepo);
+    }
+
+    /**
+     * Creates a sequence allocator seeded from the highest stored sequence
+     * number of each device.
+     *
+     * @param measurementRepo measurement repository port
+     * @return allocator backed by the repository
+     */
+    public static DeviceSequenceAllocator sequenceAllocator(MeasurementRepositoryPort measurementRepo) {
+        return new DeviceSequenceAllocator(id -> measurementRepo.findMaxSequenceNumber(id).orElse(0));
+    }
+
     /**
      * Creates a measurement for a device, defaulting timestamp to now when absent.
      * <ul>
@@ -37,23 +106,134 @@ public record MeasurementService(MeasurementRepositoryPort measurementRepo, Devi
      */
     @Override
     public Measurement createMeasurement(CreateMeasurementCommand cmd) {
-        deviceRepo().findById(cmd.deviceId())
-                .orElseThrow(() -> new IllegalArgumentException("Device not found: " + cmd.deviceId()));
+        return persist(prepare(cmd));
+    }
 
-        Instant timestamp = cmd.timestamp() != null
-                ? cmd.timestamp()
-                : Instant.now();
+    /**
+     * Creates a batch of measurements with a single repository write.
+     * <ul>
+     * <li>Each referenced device is checked once per batch.</li>
+     * <li>Items with a missing device or type are rejected individually.</li>
+     * <li>Valid items are handed to {@link MeasurementRepositoryPort#saveAll}.</li>
+     * </ul>
+     *
+     * @param commands incoming measurement data
+     * @return one result per command, in request order
+     */
+    @Override
+    public List<BatchItemResult<Measurement>> createMeasurements(List<CreateMeasurementCommand> commands) {
+        List<BatchItemResult<Measurement>> results = new ArrayList<>(prepareAll(commands));
+        List<Measurement> accepted = new ArrayList<>(results.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(results.size());
+        for (BatchItemResult<Measurement> prepared : results) {
+            if (prepared.succeeded()) {
+                accepted.add(prepared.value());
+                acceptedIndexes.add(prepared.index());
+            }
+        }
 
-        Measurement measurement = new Measurement(
-                null,
-                cmd.deviceId(),
-                cmd.type(),
-                cmd.value(),
-                0,
-                timestamp,
-                null);
+        if (!accepted.isEmpty()) {
+            for (BatchItemResult<Measurement> saved : persistAll(accepted)) {
+                int index = acceptedIndexes.get(saved.index());
+                results.set(index, new BatchItemResult<>(index, saved.value(), saved.error()));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Validates a command and maps it into a measurement ready to be persisted,
+     * allocating its sequence number.
+     *
+     * @param cmd incoming measurement data
+     * @return unsaved measurement
+     * @throws IllegalArgumentException if the command is invalid or the device
+     *                                  doesn't exist
+     */
+    Measurement prepare(CreateMeasurementCommand cmd) {
+        String error = validate(cmd, this::deviceExists);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        return toMeasurement(cmd, Instant.now(), sequences.next(cmd.deviceId()));
+    }
+
+    /**
+     * Validates a batch of commands, checking each referenced device once.
+     * <p>
+     * Valid items of the same device receive consecutive sequence numbers in
+     * request order, reserved as one block per device.
+     *
+     * @param commands incoming measurement data
+     * @return one result per command holding either the unsaved measurement or
+     *         the rejection reason
+     */
+    List<BatchItemResult<Measurement>> prepareAll(List<CreateMeasurementCommand> commands) {
+        Map<String, Boolean> knownDevices = new HashMap<>();
+        Predicate<String> deviceCheck = id -> knownDevices.computeIfAbsent(id, this::deviceExists);
+        Instant now = Instant.now();
+
+        String[] errors = new String[commands.size()];
+        Map<String, Integer> validPerDevice = new HashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            CreateMeasurementCommand cmd = commands.get(i);
+            errors[i] = validate(cmd, deviceCheck);
+            if (errors[i] == null) {
+                validPerDevice.merge(cmd.deviceId(), 1, Integer::sum);
+            }
+        }
+
+        Map<String, Integer> nextSequence = new HashMap<>(validPerDevice.size());
+        validPerDevice.forEach((deviceId, count) -> nextSequence.put(deviceId, sequences.reserve(deviceId, count)));
+
+        List<BatchItemResult<Measurement>> results = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            if (errors[i] != null) {
+                results.add(BatchItemResult.failure(i, errors[i]));
+                continue;
+            }
+            CreateMeasurementCommand cmd = commands.get(i);
+            int sequenceNumber = nextSequence.merge(cmd.deviceId(), 1, Integer::sum) - 1;
+            results.add(BatchItemResult.success(i, toMeasurement(cmd, now, sequenceNumber)));
+        }
+        return results;
+    }
+
+    /**
+     * Persists a single prepared measurement.
+     *
+     * @param measurement measurement produced by {@link #prepare}
+     * @return saved measurement
+     */
+    Measurement persist(Measurement measurement) {
+        Measurement saved = measurementRepo.save(measurement);
+        latest.add(List.of(saved));
+        updateRollups(List.of(saved));
+        alerts.evaluate(saved);
+        publish(List.of(saved));
+        return saved;
+    }
 
-        return measurementRepo().save(measurement);
+    /**
+     * Persists prepared measurements with one bulk write.
+     *
+     * @param measurements measurements produced by {@link #prepareAll}
+     * @return one result per measurement, indexed by its position in the input
+     */
+    List<BatchItemResult<Measurement>> persistAll(List<Measurement> measurements) {
+        List<BatchItemResult<Measurement>> results = measurementRepo.saveAll(measurements);
+        List<Measurement> saved = new ArrayList<>(results.size());
+        for (BatchItemResult<Measurement> result : results) {
+            if (result.succeeded()) {
+                saved.add(result.value());
+            }
+        }
+        latest.add(saved);
+        updateRollups(saved);
+        alerts.evaluate(saved);
+        publish(saved);
+        return results;
     }
 
     /**
@@ -64,6 +244,7 @@ public record MeasurementService(MeasurementRepositoryPort measurementRepo, Devi
     @Override
     public void deleteMeasurement(String id) {
         measurementRepo().deleteById(id);
+        latest.evictMeasurement(id);
     }
 
     /**
@@ -85,4 +266,242 @@ public record MeasurementService(MeasurementRepositoryPort measurementRepo, Devi
         return measurementRepo().findByFilter(filter, pageRequest);
     }
 
+    /**
+     * Finds the newest measurements of a device, answered from the
+     * {@link LatestMeasurementCache} when the request has no {@code to} bound
+     * and fits its depth.
+     *
+     * @param deviceId device identifier
+     * @param to       inclusive upper timestamp bound; {@code null} means now
+     * @param limit    maximum number of measurements
+     * @return measurements ordered by timestamp descending
+     */
+    @Override
+    public List<Measurement> findLatestMeasurements(String deviceId, Instant to, int limit) {
+        return latest.latest(deviceId, to, limit, (id, upTo, max) -> measurementRepo
+                .findByFilter(new MeasurementFilter(id, null, null, upTo),
+                        new PageRequest(0, max, "timestamp", SortDirection.DESC, null, CountMode.NONE))
+                .content());
+    }
+
+    /**
+     * Finds the newest measurements of several devices. Devices answered by
+     * the {@link LatestMeasurementCache} are served from memory; all others
+     * are read with one repository query.
+     *
+     * @param deviceIds device identifiers; duplicates are ignored
+     * @param type      measurement type to match; {@code null} for all types
+     * @param limit     maximum number of measurements per device
+     * @return measurements per requested device, newest first, in request
+     *         order
+     * @throws IllegalArgumentException if no device id is given or the limit
+     *                                  is not positive
+     */
+    @Override
+    public Map<String, List<Measurement>> findLatestMeasurements(Collection<String> deviceIds, MeasurementType type,
+            int limit) {
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one device id is required");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        Map<String, List<Measurement>> result = new LinkedHashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String deviceId : new LinkedHashSet<>(deviceIds)) {
+            List<Measurement> cached = type == null ? latest.cached(deviceId, limit) : null;
+            if (cached != null) {
+                result.put(deviceId, cached);
+            } else {
+                result.put(deviceId, List.of());
+                uncached.add(deviceId);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            result.putAll(measurementRepo.findLatestByDevices(uncached, type, Instant.now(), limit));
+        }
+        return result;
+    }
+
+    /**
+     * Streams measurements matching a filter straight from the repository.
+     *
+     * @param filter filter criteria; may be {@code null}
+     * @return lazily populated stream that must be closed
+     */
+    @Override
+    public Stream<Measurement> streamMeasurements(MeasurementFilter filter) {
+        return measurementRepo.stream(filter);
+    }
+
+    /**
+     * Adds saved measurements to the rollups. A failure is logged rather than
+     * propagated, so an already stored measurement is never reported as failed,
+     * and their buckets are left to the {@link RollupRebuilder}.
+     */
+    private void updateRollups(List<Measurement> saved) {
+        if (saved.isEmpty()) {
+            return;
+        }
+        try {
+            rollups.apply(saved);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to update rollups for {} measurements, marking them for rebuild", saved.size(), ex);
+            rollupRebuilder.markStale(saved);
+        }
+    }
+
+    /**
+     * Hands saved measurements to the publisher. Like rollups, a failure is
+     * logged rather than propagated.
+     */
+    private void publish(List<Measurement> saved) {
+        if (saved.isEmpty()) {
+            return;
+        }
+        try {
+            publisher.publish(saved);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to publish {} measurements", saved.size(), ex);
+        }
+    }
+
+    private boolean deviceExists(String deviceId) {
+        return deviceCache.exists(deviceId, id -> deviceRepo.findById(id).isPresent());
+    }
+
+    private String validate(CreateMeasurementCommand cmd, Predicate<String> deviceCheck) {
+        if (cmd == null || cmd.deviceId() == null || cmd.deviceId().isBlank()) {
+            return "Device id is required";
+        }
+        if (cmd.type() == null) {
+            return "Measurement type is required";
+        }
+        if (!deviceCheck.test(cmd.deviceId())) {
+            return "Device not found: " + cmd.deviceId();
+        }
+        return null;
+    }
+
+    private static Measurement toMeasurement(CreateMeasurementCommand cmd, Instant now, int sequenceNumber) {
+        return new Measurement(
+                null,
+                cmd.deviceId(),
+                cmd.type(),
+                cmd.value(),
+                sequenceNumber,
+                cmd.timestamp() != null ? cmd.timestamp() : now,
+                null);
+    }
+
+    /**
+     * Assembles a {@link MeasurementService}. Defaults:
+     * <ul>
+     * <li>device existence is checked against the repository on every write</li>
+     * <li>sequence numbers are seeded from the measurement repository</li>
+     * <li>no rollups, latest-measurement cache, alert rules or publishing</li>
+     * </ul>
+     */
+    public static final class Builder {
+        private final MeasurementRepositoryPort measurementRepo;
+        private final DeviceRepositoryPort deviceRepo;
+        private DeviceExistenceCache deviceCache = DeviceExistenceCache.disabled();
+        private DeviceSequenceAllocator sequences;
+        private MeasurementRollupPort rollups = MeasurementRollupPort.disabled();
+        private RollupRebuilder rollupRebuilder = RollupRebuilder.disabled();
+        private LatestMeasurementCache latest = LatestMeasurementCache.disabled();
+        private AlertEngine alerts = AlertEngine.disabled();
+        private MeasurementPublisherPort publisher = MeasurementPublisherPort.none();
+
+        private Builder(MeasurementRepositoryPort measurementRepo, DeviceRepositoryPort deviceRepo) {
+            this.measurementRepo = measurementRepo;
+            this.deviceRepo = deviceRepo;
+        }
+
+        /**
+         * Sets the device existence cache.
+         *
+         * @param deviceCache device existence cache
+         * @return this builder
+         */
+        public Builder deviceCache(DeviceExistenceCache deviceCache) {
+            this.deviceCache = deviceCache;
+            return this;
+        }
+
+        /**
+         * Sets the sequence allocator.
+         *
+         * @param sequences per-device sequence allocator
+         * @return this builder
+         */
+        public Builder sequences(DeviceSequenceAllocator sequences) {
+            this.sequences = sequences;
+            return this;
+        }
+
+        /**
+         * Sets the rollup port.
+         *
+         * @param rollups rollup port fed on every write
+         * @return this builder
+         */
+        public Builder rollups(MeasurementRollupPort rollups) {
+            this.rollups = rollups;
+            return this;
+        }
+
+        /**
+         * Sets the rebuilder repairing rollups whose update failed.
+         *
+         * @param rollupRebuilder rebuilder of the rollup port
+         * @return this builder
+         */
+        public Builder rollupRebuilder(RollupRebuilder rollupRebuilder) {
+            this.rollupRebuilder = rollupRebuilder;
+            return this;
+        }
+
+        /**
+         * Sets the latest-measurement cache.
+         *
+         * @param latest cache of the newest measurements per device
+         * @return this builder
+         */
+        public Builder latest(LatestMeasurementCache latest) {
+            this.latest = latest;
+            return this;
+        }
+
+        /**
+         * Sets the alert engine.
+         *
+         * @param alerts engine evaluating alert rules on every write
+         * @return this builder
+         */
+        public Builder alerts(AlertEngine alerts) {
+            this.alerts = alerts;
+            return this;
+        }
+
+        /**
+         * Sets the measurement publisher.
+         *
+         * @param publisher receives every stored batch
+         * @return this builder
+         */
+        public Builder publisher(MeasurementPublisherPort publisher) {
+            this.publisher = publisher;
+            return this;
+        }
+
+        /**
+         * Creates the service.
+         *
+         * @return configured service
+         */
+        public MeasurementService build() {
+            return new MeasurementService(this);
+        }
+    }
 }
@@ -0,0 +1,460 @@
+package com.erval.argos.application.measurement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.erval.argos.core.application.BatchItemResult;
+import com.erval.argos.core.application.port.in.commands.MeasurementCommandUseCase;
+import com.erval.argos.core.domain.measurement.Measurement;
+
+/**
+ * Write-behind front for {@link MeasurementService} that group-commits
+ * measurements.
+ * <p>
+ * Flow:
+ * <ul>
+ * <li>commands reserve buffer capacity first, then are validated
+ * synchronously and given an id and sequence number, so a rejected write
+ * never consumes a sequence number</li>
+ * <li>accepted measurements go into a bounded, lock-free queue</li>
+ * <li>a single flusher thread drains the queue into
+ * {@code saveAll} batches once {@code maxBatchSize} items are queued or
+ * {@code maxDelay} has passed</li>
+ * <li>callers return on acceptance or after the batch is persisted, depending
+ * on {@link AckLevel}; a persisted ack waits at most {@code ackTimeout}</li>
+ * <li>a full buffer rejects or blocks callers according to
+ * {@link OverflowPolicy}</li>
+ * </ul>
+ * <p>
+ * Writers enqueue under the read side of an admission lock; {@link #close()}
+ * takes the write side to stop admissions, so nothing is queued after the
+ * flusher's final drain. Whatever is still queued once the flusher stopped,
+ * or when it dies, is failed rather than left waiting.
+ */
+public final class MeasurementWriteBuffer implements MeasurementCommandUseCase, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MeasurementWriteBuffer.class);
+
+    private final MeasurementService service;
+    private final Options options;
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore capacity;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final ReadWriteLock admission = new ReentrantReadWriteLock();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    /**
+     * Creates the buffer and starts its flusher thread.
+     *
+     * @param service service used for validation and persistence
+     * @param options buffer sizing, flush and acknowledgement settings
+     */
+    public MeasurementWriteBuffer(MeasurementService service, Options options) {
+        this.service = service;
+        this.options = options;
+        this.capacity = new Semaphore(options.capacity());
+        this.flusher = new Thread(this::runFlusher, "measurement-write-buffer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Validates and enqueues a single measurement.
+     *
+     * @param cmd incoming measurement data
+     * @return the measurement with its pre-assigned id
+     * @throws IllegalArgumentException   if the command is invalid
+     * @throws IngestionRejectedException if the buffer is full
+     * @throws IllegalStateException      if persistence fails or does not
+     *                                    finish within {@code ackTimeout} while
+     *                                    waiting for {@link AckLevel#PERSISTED}
+     */
+    @Override
+    public Measurement createMeasurement(CreateMeasurementCommand cmd) {
+        reserve(1);
+        Measurement measurement;
+        try {
+            measurement = withId(service.prepare(cmd));
+        } catch (RuntimeException ex) {
+            capacity.release(1);
+            throw ex;
+        }
+        Pending pending = enqueue(List.of(measurement)).get(0);
+        if (options.ackLevel() == AckLevel.ACCEPTED) {
+            return measurement;
+        }
+        return await(pending, System.nanoTime() + options.ackTimeout().toNanos());
+    }
+
+    /**
+     * Validates and enqueues a batch of measurements.
+     * <p>
+     * The batch is reserved as a whole before validation, so backpressure
+     * either admits or rejects the entire batch. Invalid items are reported
+     * individually and give their capacity back.
+     * Items not persisted within {@code ackTimeout} are reported as failed,
+     * although they may still be written later.
+     *
+     * @param commands incoming measurement data
+     * @return one result per command, in request order
+     * @throws IngestionRejectedException if the buffer cannot take the batch
+     */
+    @Override
+    public List<BatchItemResult<Measurement>> createMeasurements(List<CreateMeasurementCommand> commands) {
+        reserve(commands.size());
+        List<BatchItemResult<Measurement>> results;
+        try {
+            results = new ArrayList<>(service.prepareAll(commands));
+        } catch (RuntimeException ex) {
+            capacity.release(commands.size());
+            throw ex;
+        }
+        List<Integer> acceptedIndexes = new ArrayList<>(results.size());
+        for (BatchItemResult<Measurement> prepared : results) {
+            if (prepared.succeeded()) {
+                acceptedIndexes.add(prepared.index());
+            }
+        }
+        capacity.release(commands.size() - acceptedIndexes.size());
+        if (acceptedIndexes.isEmpty()) {
+            return results;
+        }
+
+        List<Measurement> measurements = new ArrayList<>(acceptedIndexes.size());
+        for (int index : acceptedIndexes) {
+            Measurement measurement = withId(results.get(index).value());
+            results.set(index, BatchItemResult.success(index, measurement));
+            measurements.add(measurement);
+        }
+        List<Pending> pending = enqueue(measurements);
+        if (options.ackLevel() == AckLevel.ACCEPTED) {
+            return results;
+        }
+
+        long deadline = System.nanoTime() + options.ackTimeout().toNanos();
+        for (int i = 0; i < pending.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            try {
+                await(pending.get(i), deadline);
+            } catch (IllegalStateException ex) {
+                results.set(index, BatchItemResult.failure(index, ex.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Deletes a measurement directly through the service.
+     *
+     * @param id measurement identifier
+     */
+    @Override
+    public void deleteMeasurement(String id) {
+        service.deleteMeasurement(id);
+    }
+
+    /**
+     * Returns a snapshot of the buffer counters.
+     *
+     * @return queue depth and throughput counters
+     */
+    public Stats stats() {
+        return new Stats(queued.get(), accepted.sum(), rejected.sum(), persisted.sum(), failed.sum(), batches.sum());
+    }
+
+    /**
+     * Stops accepting work and waits for the flusher to write everything still
+     * queued.
+     * <p>
+     * Measurements the flusher did not reach before the wait ran out are failed
+     * with {@link IngestionRejectedException}; the caller thread never flushes
+     * itself, so a slow flusher is not joined by a second writer.
+     */
+    @Override
+    public void close() {
+        stopAdmissions();
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(options.maxDelay().multipliedBy(10).toMillis() + options.ackTimeout().toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.warn("Measurement buffer flusher did not finish in time, failing {} queued measurements",
+                    queued.get());
+        }
+        failQueued(new IngestionRejectedException("Measurement buffer is shut down"));
+    }
+
+    private void stopAdmissions() {
+        admission.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            admission.writeLock().unlock();
+        }
+    }
+
+    private void reserve(int permits) {
+        if (!running) {
+            throw new IngestionRejectedException("Measurement buffer is shut down");
+        }
+        boolean acquired;
+        if (options.overflowPolicy() == OverflowPolicy.REJECT) {
+            acquired = capacity.tryAcquire(permits);
+        } else {
+            try {
+                acquired = capacity.tryAcquire(permits, options.offerTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+        }
+        if (!acquired) {
+            rejected.add(permits);
+            throw new IngestionRejectedException(
+                    "Measurement buffer is full (capacity " + options.capacity() + "), retry later");
+        }
+    }
+
+    /**
+     * Queues measurements whose capacity is already reserved, releasing it
+     * again if the buffer was closed in the meantime.
+     */
+    private List<Pending> enqueue(List<Measurement> measurements) {
+        List<Pending> pending = new ArrayList<>(measurements.size());
+        admission.readLock().lock();
+        try {
+            if (!running) {
+                capacity.release(measurements.size());
+                throw new IngestionRejectedException("Measurement buffer is shut down");
+            }
+            for (Measurement measurement : measurements) {
+                Pending p = new Pending(measurement, new CompletableFuture<>());
+                queue.offer(p);
+                pending.add(p);
+            }
+            accepted.add(measurements.size());
+            if (queued.addAndGet(measurements.size()) >= options.maxBatchSize()) {
+                LockSupport.unpark(flusher);
+            }
+        } finally {
+            admission.readLock().unlock();
+        }
+        return pending;
+    }
+
+    private Measurement await(Pending pending, long deadlineNanos) {
+        try {
+            return pending.result().get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to persist measurement: " + ex.getCause().getMessage(),
+                    ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException(
+                    "Measurement not persisted within " + options.ackTimeout() + ", it may still be written");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for measurement to persist");
+        }
+    }
+
+    private Measurement withId(Measurement m) {
+        return new Measurement(service.measurementRepo().nextId(), m.deviceId(), m.type(), m.value(),
+                m.sequenceNumber(), m.timestamp(), m.tags());
+    }
+
+    private void runFlusher() {
+        long maxDelayNanos = options.maxDelay().toNanos();
+        long deadline = System.nanoTime() + maxDelayNanos;
+        try {
+            while (running || !queue.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                if (running && queued.get() < options.maxBatchSize() && remaining > 0) {
+                    LockSupport.parkNanos(this, remaining);
+                    continue;
+                }
+                drainOnce();
+                deadline = System.nanoTime() + maxDelayNanos;
+            }
+        } catch (Error ex) {
+            log.error("Measurement buffer flusher stopped", ex);
+            throw ex;
+        } finally {
+            // Normally a no-op; after a crash, stop admissions so nothing waits on a dead flusher.
+            stopAdmissions();
+            failQueued(new IllegalStateException("Measurement buffer flusher stopped"));
+        }
+    }
+
+    private void failQueued(Exception cause) {
+        Pending next;
+        while ((next = queue.poll()) != null) {
+            queued.decrementAndGet();
+            capacity.release();
+            if (next.result().completeExceptionally(cause)) {
+                failed.increment();
+            }
+        }
+    }
+
+    private void drainOnce() {
+        List<Pending> batch = new ArrayList<>(Math.min(queued.get(), options.maxBatchSize()));
+        Pending next;
+        while (batch.size() < options.maxBatchSize() && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        queued.addAndGet(-batch.size());
+        try {
+            flush(batch);
+        } finally {
+            capacity.release(batch.size());
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<Measurement> measurements = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            measurements.add(p.measurement());
+        }
+        batches.increment();
+        try {
+            for (BatchItemResult<Measurement> saved : service.persistAll(measurements)) {
+                Pending p = batch.get(saved.index());
+                if (saved.succeeded()) {
+                    persisted.increment();
+                    p.result().complete(saved.value());
+                } else {
+                    failed.increment();
+                    p.result().completeExceptionally(new IllegalStateException(saved.error()));
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush {} buffered measurements", batch.size(), ex);
+            failAll(batch, ex);
+        } catch (Error ex) {
+            failAll(batch, new IllegalStateException("Measurement buffer flusher stopped", ex));
+            throw ex;
+        }
+    }
+
+    private void failAll(List<Pending> batch, Throwable cause) {
+        for (Pending p : batch) {
+            if (p.result().completeExceptionally(cause)) {
+                failed.increment();
+            }
+        }
+    }
+
+    private record Pending(Measurement measurement, CompletableFuture<Measurement> result) {
+    }
+
+    /**
+     * Point at which a write call returns to the caller.
+     */
+    public enum AckLevel {
+        /**
+         * Return once the measurement is validated and queued.
+         */
+        ACCEPTED,
+        /**
+         * Return once the batch containing the measurement has been written.
+         */
+        PERSISTED
+    }
+
+    /**
+     * Behavior when the buffer has no free capacity.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Fail immediately with {@link IngestionRejectedException}.
+         */
+        REJECT,
+        /**
+         * Wait up to {@code offerTimeout} for capacity, then fail.
+         */
+        BLOCK
+    }
+
+    /**
+     * Buffer configuration.
+     *
+     * @param capacity       maximum number of queued measurements
+     * @param maxBatchSize   number of queued measurements that triggers a flush
+     * @param maxDelay       longest time a measurement waits before a flush
+     * @param ackLevel       when write calls return
+     * @param overflowPolicy behavior when the buffer is full
+     * @param offerTimeout   how long {@link OverflowPolicy#BLOCK} waits for
+     *                       capacity
+     * @param ackTimeout     how long a {@link AckLevel#PERSISTED} write waits
+     *                       for its batch; defaults to 30 seconds
+     */
+    public record Options(
+            int capacity,
+            int maxBatchSize,
+            Duration maxDelay,
+            AckLevel ackLevel,
+            OverflowPolicy overflowPolicy,
+            Duration offerTimeout,
+            Duration ackTimeout) {
+
+        /**
+         * Validates the option values.
+         */
+        public Options {
+            if (capacity <= 0 || maxBatchSize <= 0) {
+                throw new IllegalArgumentException("capacity and maxBatchSize must be positive");
+            }
+            if (maxDelay == null || maxDelay.isNegative() || maxDelay.isZero()) {
+                throw new IllegalArgumentException("maxDelay must be positive");
+            }
+            if (ackLevel == null || overflowPolicy == null) {
+                throw new IllegalArgumentException("ackLevel and overflowPolicy are required");
+            }
+            if (offerTimeout == null) {
+                offerTimeout = Duration.ZERO;
+            }
+            if (ackTimeout == null || ackTimeout.isNegative() || ackTimeout.isZero()) {
+                ackTimeout = Duration.ofSeconds(30);
+            }
+        }
+    }
+
+    /**
+     * Counters describing buffer behavior.
+     *
+     * @param queued    measurements currently waiting for a flush
+     * @param accepted  measurements admitted into the buffer
+     * @param rejected  measurements refused because the buffer was full
+     * @param persisted measurements written successfully
+     * @param failed    measurements whose write failed
+     * @param batches   number of group commits executed
+     */
+    public record Stats(int queued, long accepted, long rejected, long persisted, long failed, long batches) {
+    }
+}
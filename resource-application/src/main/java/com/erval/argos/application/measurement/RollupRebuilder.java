@@ -0,0 +1,186 @@
+package com.erval.argos.application.measurement;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.erval.argos.core.application.port.out.MeasurementRollupPort;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.RollupResolution;
+
+/**
+ * Repairs rollups by rebuilding stale windows from the stored measurements.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>windows are marked stale when a rollup update fails, see
+ * {@link MeasurementService}, or explicitly, e.g. to backfill history stored
+ * before rollups were enabled</li>
+ * <li>stale windows are merged into one window per
+ * {@link RollupResolution}, so repeated failures cost one rebuild</li>
+ * <li>only closed buckets, those ending before now, are rebuilt; the rest of
+ * a window stays stale until its buckets close, since a bucket still
+ * receiving writes would race the rebuild</li>
+ * <li>a failed rebuild keeps its window stale for the next run</li>
+ * </ul>
+ * Rebuilds run on a single daemon thread started by {@link #start}, or on
+ * the caller of {@link #rebuildClosed}.
+ */
+public final class RollupRebuilder implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupRebuilder.class);
+
+    private final MeasurementRollupPort rollups;
+    private final Clock clock;
+    private final Map<RollupResolution, Window> stale = new EnumMap<>(RollupResolution.class);
+    private ScheduledExecutorService worker;
+
+    /**
+     * Creates a rebuilder of the given rollups.
+     *
+     * @param rollups rollup port to rebuild
+     */
+    public RollupRebuilder(MeasurementRollupPort rollups) {
+        this(rollups, Clock.systemUTC());
+    }
+
+    RollupRebuilder(MeasurementRollupPort rollups, Clock clock) {
+        this.rollups = rollups;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a rebuilder of {@link MeasurementRollupPort#disabled()} that is
+     * never started.
+     *
+     * @return rebuilder doing nothing
+     */
+    public static RollupRebuilder disabled() {
+        return new RollupRebuilder(MeasurementRollupPort.disabled());
+    }
+
+    /**
+     * Rebuilds closed stale buckets periodically.
+     *
+     * @param interval delay between runs; zero or negative disables them
+     * @return this rebuilder
+     */
+    public synchronized RollupRebuilder start(Duration interval) {
+        if (worker == null && !interval.isZero() && !interval.isNegative()) {
+            worker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "rollup-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = interval.toMillis();
+            worker.scheduleWithFixedDelay(this::rebuildClosed, millis, millis, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Stops periodic rebuilds. Windows still stale are not rebuilt.
+     */
+    @Override
+    public synchronized void close() {
+        if (worker != null) {
+            worker.shutdownNow();
+            worker = null;
+        }
+    }
+
+    /**
+     * Marks the buckets of every resolution holding the given measurements
+     * stale.
+     *
+     * @param measurements stored measurements whose rollups may be wrong
+     */
+    public void markStale(List<Measurement> measurements) {
+        if (measurements.isEmpty()) {
+            return;
+        }
+        Instant from = measurements.get(0).timestamp();
+        Instant to = from;
+        for (Measurement m : measurements) {
+            from = m.timestamp().isBefore(from) ? m.timestamp() : from;
+            to = m.timestamp().isAfter(to) ? m.timestamp() : to;
+        }
+        markStale(from, to.plusNanos(1));
+    }
+
+    /**
+     * Marks the buckets of every resolution overlapping a window stale.
+     *
+     * @param from inclusive window start
+     * @param to   exclusive window end
+     */
+    public void markStale(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        for (RollupResolution resolution : RollupResolution.values()) {
+            markStale(resolution, from, to);
+        }
+    }
+
+    private synchronized void markStale(RollupResolution resolution, Instant from, Instant to) {
+        stale.merge(resolution, new Window(from, to), Window::span);
+    }
+
+    /**
+     * Rebuilds the closed buckets of every stale window, keeping the open
+     * part and failed rebuilds stale.
+     */
+    public void rebuildClosed() {
+        Instant now = clock.instant();
+        for (RollupResolution resolution : RollupResolution.values()) {
+            Window rebuild = takeClosed(resolution, resolution.truncate(now));
+            if (rebuild == null) {
+                continue;
+            }
+            try {
+                rollups.rebuild(rebuild.from(), rebuild.to(), resolution);
+                log.info("Rebuilt {} rollups between {} and {}", resolution, rebuild.from(), rebuild.to());
+            } catch (RuntimeException ex) {
+                log.warn("Rebuilding {} rollups between {} and {} failed", resolution, rebuild.from(),
+                        rebuild.to(), ex);
+                markStale(resolution, rebuild.from(), rebuild.to());
+            }
+        }
+    }
+
+    /**
+     * Removes the part of a resolution's stale window before {@code closedEnd}.
+     */
+    private synchronized Window takeClosed(RollupResolution resolution, Instant closedEnd) {
+        Window window = stale.get(resolution);
+        if (window == null || !window.from().isBefore(closedEnd)) {
+            return null;
+        }
+        if (window.to().isAfter(closedEnd)) {
+            stale.put(resolution, new Window(closedEnd, window.to()));
+            return new Window(window.from(), closedEnd);
+        }
+        stale.remove(resolution);
+        return window;
+    }
+
+    /**
+     * Half-open stale window.
+     */
+    private record Window(Instant from, Instant to) {
+
+        private Window span(Window other) {
+            return new Window(from.isBefore(other.from) ? from : other.from, to.isAfter(other.to) ? to : other.to);
+        }
+    }
+}
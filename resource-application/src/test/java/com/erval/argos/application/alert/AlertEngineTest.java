@@ -0,0 +1,421 @@
+package com.erval.argos.application.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.BatchItemResult;
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.core.domain.alert.AlertPolicy;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.core.domain.alert.AlertState;
+import com.erval.argos.core.domain.alert.AlertWindow;
+import com.erval.argos.core.domain.alert.Comparison;
+import com.erval.argos.core.domain.alert.WindowAggregate;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceConfig;
+import com.erval.argos.core.domain.device.DeviceType;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+class AlertEngineTest {
+
+    private static final Instant TS = Instant.parse("2026-01-01T00:00:00Z");
+
+    private List<Alert> raised;
+    private AlertEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        raised = new ArrayList<>();
+        engine = new AlertEngine(raised::add);
+    }
+
+    @Test
+    void raisesEveryTriggeredRuleOfTheSeries() {
+        engine.replaceAll(List.of(
+                rule("gt10", "d1", MeasurementType.TEMP, 10, Comparison.GREATER_THAN),
+                rule("gt20", "d1", MeasurementType.TEMP, 20, Comparison.GREATER_THAN),
+                rule("ge20", "d1", MeasurementType.TEMP, 20, Comparison.GREATER_OR_EQUAL),
+                rule("lt25", "d1", MeasurementType.TEMP, 25, Comparison.LESS_THAN),
+                rule("le20", "d1", MeasurementType.TEMP, 20, Comparison.LESS_OR_EQUAL),
+                rule("other-type", "d1", MeasurementType.CO2, 0, Comparison.GREATER_THAN),
+                rule("other-device", "d2", MeasurementType.TEMP, 0, Comparison.GREATER_THAN)));
+
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 20));
+
+        assertEquals(List.of("gt10", "ge20", "lt25", "le20"), ruleIds());
+        assertEquals("TEMP 20.0 > 10.0", raised.get(0).description());
+        assertEquals(TS, raised.get(0).timestamp());
+    }
+
+    @Test
+    void ignoresInactiveRulesAndUnknownSeries() {
+        engine.replaceAll(List.of(new AlertRule("r1", "d1", MeasurementType.TEMP, 0, Comparison.GREATER_THAN,
+                false)));
+
+        engine.evaluate(List.of(
+                measurement("d1", MeasurementType.TEMP, 5),
+                measurement("d9", MeasurementType.TEMP, 5),
+                measurement("d1", MeasurementType.TEMP, Double.NaN)));
+
+        assertTrue(raised.isEmpty());
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    void putAndRemoveUpdateTheIndex() {
+        engine.put(rule("r1", "d1", MeasurementType.TEMP, 10, Comparison.GREATER_THAN));
+        engine.put(rule("r1", "d1", MeasurementType.TEMP, 30, Comparison.GREATER_THAN));
+        engine.put(rule("r2", "d1", MeasurementType.TEMP, 5, Comparison.GREATER_THAN));
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 20));
+
+        engine.remove("r2");
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 20));
+        engine.put(new AlertRule("r1", "d1", MeasurementType.TEMP, 30, Comparison.GREATER_THAN, false));
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 40));
+
+        assertEquals(List.of("r2"), ruleIds());
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    void replaceAllDropsRulesMissingFromTheNewSet() {
+        engine.replaceAll(List.of(rule("r1", "d1", MeasurementType.TEMP, 0, Comparison.GREATER_THAN)));
+        engine.replaceAll(List.of(rule("r2", "d2", MeasurementType.TEMP, 0, Comparison.GREATER_THAN)));
+
+        engine.evaluate(List.of(measurement("d1", MeasurementType.TEMP, 1), measurement("d2", MeasurementType.TEMP, 1)));
+
+        assertEquals(List.of("r2"), ruleIds());
+    }
+
+    @Test
+    void publisherFailureDoesNotStopEvaluation() {
+        engine = new AlertEngine(alert -> {
+            throw new IllegalStateException("down");
+        });
+        engine.put(rule("r1", "d1", MeasurementType.TEMP, 0, Comparison.GREATER_THAN));
+        engine.put(rule("r2", "d1", MeasurementType.TEMP, 1, Comparison.GREATER_THAN));
+
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 5));
+
+        assertEquals(2, engine.raisedCount());
+    }
+
+    @Test
+    void startLoadsRulesFromSource() {
+        AtomicReference<List<AlertRule>> source = new AtomicReference<>(
+                List.of(rule("r1", "d1", MeasurementType.TEMP, 0, Comparison.GREATER_THAN)));
+
+        try (AlertEngine started = engine.start(source::get, Duration.ZERO)) {
+            started.evaluate(measurement("d1", MeasurementType.TEMP, 1));
+        }
+
+        assertEquals(List.of("r1"), ruleIds());
+    }
+
+    @Test
+    void raisesDeviceBoundViolationsBeforeRules() {
+        DeviceThresholds thresholds = new DeviceThresholds();
+        thresholds.changed(new Device("d1", "Sensor", DeviceType.TEMP, "A", "101", true, false,
+                new DeviceConfig(null, 30.0, true, null)));
+        engine = new AlertEngine(raised::add, thresholds);
+        engine.put(rule("r1", "d1", MeasurementType.TEMP, 25, Comparison.GREATER_THAN));
+
+        engine.evaluate(List.of(
+                measurement("d1", MeasurementType.TEMP, 31),
+                measurement("d1", MeasurementType.TEMP, 20)));
+
+        assertEquals(List.of(DeviceThresholds.RULE_ID, "r1", DeviceThresholds.RULE_ID, "r1"), ruleIds());
+        assertEquals("TEMP 31.0 above max 30.0", raised.get(0).description());
+        assertEquals(AlertState.RESOLVED, raised.get(2).state());
+        assertEquals("TEMP 20.0 back within bounds", raised.get(2).description());
+        assertEquals("TEMP 20.0 no longer > 25.0", raised.get(3).description());
+    }
+
+    @Test
+    void windowedRulesCompareTheAggregateOfRecentValues() {
+        engine.put(new AlertRule("avg", "d1", MeasurementType.CO2, 1000, Comparison.GREATER_THAN, true,
+                new AlertWindow(WindowAggregate.AVG, Duration.ofMinutes(5))));
+
+        engine.evaluate(List.of(
+                measurement("d1", MeasurementType.CO2, 1500, TS),
+                measurement("d1", MeasurementType.CO2, 400, TS.plusSeconds(60)),
+                measurement("d1", MeasurementType.CO2, 900, TS.plusSeconds(600)),
+                measurement("d1", MeasurementType.CO2, 1200, TS.plusSeconds(660))));
+
+        assertEquals(List.of(AlertState.FIRING, AlertState.RESOLVED, AlertState.FIRING), states());
+        assertEquals("CO2 AVG over PT5M 950.0 no longer > 1000.0", raised.get(1).description());
+        assertEquals("CO2 AVG over PT5M 1050.0 > 1000.0", raised.get(2).description());
+    }
+
+    @Test
+    void windowStateSurvivesReloadsAndIsRebuiltFromHistory() {
+        AlertRule rate = new AlertRule("rate", "d1", MeasurementType.TEMP, 1, Comparison.GREATER_THAN, true,
+                new AlertWindow(WindowAggregate.RATE, Duration.ofMinutes(10)));
+        Instant now = Instant.now();
+        engine = new AlertEngine(raised::add, DeviceThresholds.disabled(),
+                new HistoryRepo(List.of(measurement("d1", MeasurementType.TEMP, 20, now.minusSeconds(120)))));
+
+        engine.replaceAll(List.of(rate));
+        engine.replaceAll(List.of(rate, rule("other", "d1", MeasurementType.TEMP, 100, Comparison.GREATER_THAN)));
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 24, now));
+
+        assertEquals(List.of("rate"), ruleIds());
+        assertTrue(raised.get(0).description().startsWith("TEMP RATE over PT10M 2.0"));
+    }
+
+    @Test
+    void warmUpReadsHistoryOutsideTheEngineLockAndKeepsLiveReadings() {
+        AlertRule rate = new AlertRule("rate", "d1", MeasurementType.TEMP, 1, Comparison.GREATER_THAN, true,
+                new AlertWindow(WindowAggregate.RATE, Duration.ofMinutes(10)));
+        Instant now = Instant.now();
+        HistoryRepo history = new HistoryRepo(List.of(measurement("d1", MeasurementType.TEMP, 20,
+                now.minusSeconds(120))));
+        engine = new AlertEngine(raised::add, DeviceThresholds.disabled(), history);
+        AtomicReference<Integer> sizeDuringWarmUp = new AtomicReference<>();
+        history.onStream = () -> {
+            Thread other = new Thread(() -> {
+                sizeDuringWarmUp.set(engine.size());
+                engine.evaluate(measurement("d1", MeasurementType.TEMP, 22, now.minusSeconds(60)));
+            });
+            other.start();
+            try {
+                other.join(5_000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        engine.put(rate);
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 24, now));
+
+        assertEquals(Integer.valueOf(1), sizeDuringWarmUp.get());
+        assertEquals(List.of("rate"), ruleIds());
+        assertTrue(raised.get(0).description().startsWith("TEMP RATE over PT10M 2.0"));
+    }
+
+    @Test
+    void valuesHoveringAtTheThresholdPublishOnlyTransitions() {
+        engine.put(policyRule("gt25", 25, Comparison.GREATER_THAN, new AlertPolicy(2, null, null)));
+        engine.put(policyRule("lt10", 10, Comparison.LESS_THAN, new AlertPolicy(2, null, null)));
+
+        engine.evaluate(List.of(
+                measurement("d1", MeasurementType.TEMP, 26, TS),
+                measurement("d1", MeasurementType.TEMP, 26, TS.plusSeconds(1)),
+                measurement("d1", MeasurementType.TEMP, 24, TS.plusSeconds(2)),
+                measurement("d1", MeasurementType.TEMP, 26, TS.plusSeconds(3)),
+                measurement("d1", MeasurementType.TEMP, 9, TS.plusSeconds(4)),
+                measurement("d1", MeasurementType.TEMP, 11, TS.plusSeconds(5)),
+                measurement("d1", MeasurementType.TEMP, 12, TS.plusSeconds(6))));
+
+        assertEquals(List.of("gt25", "gt25", "lt10", "lt10"), ruleIds());
+        assertEquals(List.of(AlertState.FIRING, AlertState.RESOLVED, AlertState.FIRING, AlertState.RESOLVED),
+                states());
+        assertEquals(TS.plusSeconds(4), raised.get(1).timestamp());
+        assertEquals(TS.plusSeconds(6), raised.get(3).timestamp());
+    }
+
+    @Test
+    void minDurationDelaysFiringAndResolving() {
+        engine.put(policyRule("r1", 25, Comparison.GREATER_THAN, new AlertPolicy(0, Duration.ofMinutes(1), null)));
+
+        engine.evaluate(List.of(
+                measurement("d1", MeasurementType.TEMP, 26, TS),
+                measurement("d1", MeasurementType.TEMP, 20, TS.plusSeconds(30)),
+                measurement("d1", MeasurementType.TEMP, 26, TS.plusSeconds(40)),
+                measurement("d1", MeasurementType.TEMP, 26, TS.plusSeconds(100)),
+                measurement("d1", MeasurementType.TEMP, 20, TS.plusSeconds(110))));
+
+        assertEquals(List.of(AlertState.FIRING), states());
+        assertEquals(TS.plusSeconds(100), raised.get(0).timestamp());
+
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 20, TS.plusSeconds(170)));
+
+        assertEquals(List.of(AlertState.FIRING, AlertState.RESOLVED), states());
+        assertEquals(AlertState.RESOLVED, engine.state("r1"));
+    }
+
+    @Test
+    void firingRulesRemindAfterTheRenotifyInterval() {
+        engine.put(policyRule("r1", 25, Comparison.GREATER_THAN, new AlertPolicy(0, null, Duration.ofMinutes(10))));
+
+        engine.evaluate(List.of(
+                measurement("d1", MeasurementType.TEMP, 26, TS),
+                measurement("d1", MeasurementType.TEMP, 27, TS.plusSeconds(300)),
+                measurement("d1", MeasurementType.TEMP, 28, TS.plusSeconds(600)),
+                measurement("d1", MeasurementType.TEMP, 29, TS.plusSeconds(900))));
+
+        assertEquals(List.of(AlertState.FIRING, AlertState.FIRING), states());
+        assertEquals(TS.plusSeconds(600), raised.get(1).timestamp());
+        assertEquals(2, engine.raisedCount());
+    }
+
+    @Test
+    void alertStateSurvivesReloads() {
+        AlertRule rule = rule("r1", "d1", MeasurementType.TEMP, 25, Comparison.GREATER_THAN);
+        engine.replaceAll(List.of(rule));
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 30));
+
+        engine.replaceAll(List.of(rule, rule("r2", "d1", MeasurementType.TEMP, 100, Comparison.GREATER_THAN)));
+        engine.put(rule);
+        engine.evaluate(List.of(
+                measurement("d1", MeasurementType.TEMP, 30),
+                measurement("d1", MeasurementType.TEMP, 20)));
+
+        assertEquals(List.of(AlertState.FIRING, AlertState.RESOLVED), states());
+
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 30));
+        engine.remove("r1");
+        engine.evaluate(measurement("d1", MeasurementType.TEMP, 20));
+
+        assertEquals(3, raised.size());
+        assertEquals(AlertState.OK, engine.state("r1"));
+    }
+
+    @Test
+    void newRulesResumeTheStateOfTheirNewestStoredAlert() {
+        engine = new AlertEngine(raised::add, DeviceThresholds.disabled(), null, ruleIds -> Map.of(
+                "r1", new Alert("a1", "r1", "d1", "TEMP above 25", TS, AlertState.FIRING),
+                "r2", new Alert("a2", "r2", "d1", "TEMP back", TS, AlertState.RESOLVED)));
+        engine.replaceAll(List.of(
+                rule("r1", "d1", MeasurementType.TEMP, 25, Comparison.GREATER_THAN),
+                rule("r2", "d1", MeasurementType.TEMP, 40, Comparison.GREATER_THAN)));
+
+        assertEquals(AlertState.FIRING, engine.state("r1"));
+        assertEquals(AlertState.OK, engine.state("r2"));
+
+        engine.evaluate(List.of(
+                measurement("d1", MeasurementType.TEMP, 30, TS.plusSeconds(60)),
+                measurement("d1", MeasurementType.TEMP, 20, TS.plusSeconds(120))));
+
+        assertEquals(List.of("r1"), ruleIds());
+        assertEquals(List.of(AlertState.RESOLVED), states());
+    }
+
+    private List<String> ruleIds() {
+        return raised.stream().map(Alert::ruleId).toList();
+    }
+
+    private List<AlertState> states() {
+        return raised.stream().map(Alert::state).toList();
+    }
+
+    private static AlertRule policyRule(String id, double threshold, Comparison comparison, AlertPolicy policy) {
+        return new AlertRule(id, "d1", MeasurementType.TEMP, threshold, comparison, true, null, policy);
+    }
+
+    private static AlertRule rule(String id, String deviceId, MeasurementType type, double threshold,
+            Comparison comparison) {
+        return new AlertRule(id, deviceId, type, threshold, comparison, true);
+    }
+
+    private static Measurement measurement(String deviceId, MeasurementType type, double value) {
+        return measurement(deviceId, type, value, TS);
+    }
+
+    private static Measurement measurement(String deviceId, MeasurementType type, double value, Instant at) {
+        return new Measurement("m", deviceId, type, value, 1, at, null);
+    }
+
+    /**
+     * Repository serving a fixed history through {@code stream}.
+     */
+    private static class HistoryRepo implements MeasurementRepositoryPort {
+        private final List<Measurement> history;
+        private Runnable onStream = () -> {
+        };
+
+        HistoryRepo(List<Measurement> history) {
+            this.history = history;
+        }
+
+        @Override
+        public Stream<Measurement> stream(MeasurementFilter filter) {
+            onStream.run();
+            return history.stream()
+                    .filter(m -> m.deviceId().equals(filter.deviceId()) && m.type() == filter.type())
+                    .filter(m -> !m.timestamp().isBefore(filter.from()));
+        }
+
+        @Override
+        public Measurement save(Measurement measurement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BatchItemResult<Measurement>> saveAll(List<Measurement> measurements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String nextId() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OptionalInt findMaxSequenceNumber(String deviceId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PageResult<Measurement> findByFilter(MeasurementFilter filter, PageRequest pageRequest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, List<Measurement>> findLatestByDevices(Collection<String> deviceIds,
+                MeasurementType type, Instant to, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<MeasurementBucket> aggregate(AggregationQuery query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Measurement> findById(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PageResult<Measurement> findAll(PageRequest pageRequest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteById(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteByDeviceId(String deviceId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteAll() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
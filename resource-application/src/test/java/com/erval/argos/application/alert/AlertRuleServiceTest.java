@@ -0,0 +1,185 @@
+package com.erval.argos.application.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.port.in.commands.AlertRuleCommandUseCase.CreateAlertRuleCommand;
+import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase.DeviceFilter;
+import com.erval.argos.core.application.port.out.AlertRuleRepositoryPort;
+import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.core.domain.alert.AlertPolicy;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.core.domain.alert.AlertWindow;
+import com.erval.argos.core.domain.alert.Comparison;
+import com.erval.argos.core.domain.alert.WindowAggregate;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceType;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+class AlertRuleServiceTest {
+
+    private InMemoryRuleRepo rules;
+    private List<Alert> raised;
+    private AlertEngine engine;
+    private AlertRuleService service;
+
+    @BeforeEach
+    void setUp() {
+        rules = new InMemoryRuleRepo();
+        raised = new ArrayList<>();
+        engine = new AlertEngine(raised::add);
+        service = new AlertRuleService(rules, new SingleDeviceRepo(), engine);
+    }
+
+    @Test
+    void createdRulesAreStoredAndEnforced() {
+        AlertRule rule = service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.CO2, 1000, Comparison.GREATER_THAN));
+
+        engine.evaluate(new Measurement("m1", "d1", MeasurementType.CO2, 1200, 1, Instant.now(), null));
+
+        assertNotNull(rule.id());
+        assertTrue(rule.active());
+        assertEquals(List.of(rule), service.findAlertRules("d1"));
+        assertEquals(1, raised.size());
+    }
+
+    @Test
+    void rejectsInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> service.createAlertRule(
+                new CreateAlertRuleCommand("missing", MeasurementType.CO2, 1, Comparison.GREATER_THAN)));
+        assertThrows(IllegalArgumentException.class, () -> service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.CO2, Double.NaN, Comparison.GREATER_THAN)));
+        assertThrows(IllegalArgumentException.class, () -> service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.CO2, 1, null)));
+        assertThrows(IllegalArgumentException.class, () -> service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.CO2, 1, Comparison.GREATER_THAN,
+                        new AlertWindow(WindowAggregate.AVG, Duration.ofDays(2)))));
+        assertThrows(IllegalArgumentException.class, () -> service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.CO2, 1, Comparison.GREATER_THAN,
+                        new AlertWindow(null, Duration.ofMinutes(5)))));
+        assertThrows(IllegalArgumentException.class, () -> service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.CO2, 1, Comparison.GREATER_THAN, null,
+                        new AlertPolicy(-1, null, null))));
+        assertThrows(IllegalArgumentException.class, () -> service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.CO2, 1, Comparison.GREATER_THAN, null,
+                        new AlertPolicy(0, null, Duration.ZERO))));
+        assertThrows(IllegalArgumentException.class, () -> service.setAlertRuleActive("missing", true));
+    }
+
+    @Test
+    void windowAndPolicyAreStoredAndKeptWhenToggled() {
+        AlertWindow window = new AlertWindow(WindowAggregate.RATE, Duration.ofMinutes(1));
+        AlertPolicy policy = new AlertPolicy(0.5, Duration.ofMinutes(2), null);
+        AlertRule rule = service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.TEMP, 2, Comparison.GREATER_THAN, window, policy));
+
+        AlertRule toggled = service.setAlertRuleActive(service.setAlertRuleActive(rule.id(), false).id(), true);
+
+        assertEquals(window, toggled.window());
+        assertEquals(policy, toggled.policy());
+        assertEquals(1, engine.size());
+    }
+
+    @Test
+    void deactivatingAndDeletingStopEnforcement() {
+        AlertRule first = service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.CO2, 0, Comparison.GREATER_THAN));
+        AlertRule second = service.createAlertRule(
+                new CreateAlertRuleCommand("d1", MeasurementType.CO2, 0, Comparison.GREATER_THAN));
+
+        assertFalse(service.setAlertRuleActive(first.id(), false).active());
+        service.deleteAlertRule(second.id());
+
+        assertEquals(0, engine.size());
+        assertEquals(List.of(first.id()), service.findAlertRules("d1").stream().map(AlertRule::id).toList());
+    }
+
+    private static class InMemoryRuleRepo implements AlertRuleRepositoryPort {
+        private final Map<String, AlertRule> rules = new LinkedHashMap<>();
+
+        @Override
+        public AlertRule save(AlertRule rule) {
+            rules.put(rule.id(), rule);
+            return rule;
+        }
+
+        @Override
+        public Optional<AlertRule> findById(String id) {
+            return Optional.ofNullable(rules.get(id));
+        }
+
+        @Override
+        public List<AlertRule> findByDeviceId(String deviceId) {
+            return rules.values().stream().filter(r -> r.deviceId().equals(deviceId)).toList();
+        }
+
+        @Override
+        public List<AlertRule> findAllActive() {
+            return rules.values().stream().filter(AlertRule::active).toList();
+        }
+
+        @Override
+        public void deleteById(String id) {
+            rules.remove(id);
+        }
+    }
+
+    private static class SingleDeviceRepo implements DeviceRepositoryPort {
+        private final Device device = new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null);
+
+        @Override
+        public Device save(Device device) {
+            return device;
+        }
+
+        @Override
+        public Optional<Device> findById(String id) {
+            return Optional.of(device).filter(d -> d.id().equals(id));
+        }
+
+        @Override
+        public List<Device> findAllByIds(Collection<String> ids) {
+            return ids.contains(device.id()) ? List.of(device) : List.of();
+        }
+
+        @Override
+        public PageResult<Device> findAll(PageRequest pageRequest) {
+            return new PageResult<>(List.of(device), 1, 0, 1);
+        }
+
+        @Override
+        public void deleteById(String id) {
+            // not used
+        }
+
+        @Override
+        public void deleteAll() {
+            // not used
+        }
+
+        @Override
+        public PageResult<Device> findByFilter(DeviceFilter filter, PageRequest pageRequest) {
+            return findAll(pageRequest);
+        }
+    }
+}
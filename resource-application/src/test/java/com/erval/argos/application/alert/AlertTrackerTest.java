@@ -0,0 +1,37 @@
+package com.erval.argos.application.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.domain.alert.AlertState;
+
+class AlertTrackerTest {
+
+    @Test
+    void readingsInsideTheHysteresisBandKeepFiringAndRestartTheResolveWait() {
+        AlertTracker tracker = new AlertTracker(null, null);
+
+        assertEquals(AlertTracker.Transition.FIRED, tracker.observe(true, false, 0, 0, 0));
+        assertEquals(AlertTracker.Transition.NONE, tracker.observe(false, true, 10, 20, 0));
+        assertEquals(AlertTracker.Transition.NONE, tracker.observe(false, false, 20, 20, 0));
+        assertEquals(AlertTracker.Transition.NONE, tracker.observe(false, true, 30, 20, 0));
+        assertEquals(AlertState.FIRING, tracker.state());
+        assertEquals(AlertTracker.Transition.RESOLVED, tracker.observe(false, true, 50, 20, 0));
+        assertEquals(AlertState.RESOLVED, tracker.state());
+        assertFalse(tracker.engaged());
+    }
+
+    @Test
+    void pendingTrackersAreEngagedUntilTheConditionBreaks() {
+        AlertTracker tracker = new AlertTracker(null, null);
+
+        assertEquals(AlertTracker.Transition.NONE, tracker.observe(true, false, 0, 100, 0));
+        assertTrue(tracker.engaged());
+        assertEquals(AlertTracker.Transition.NONE, tracker.observe(false, true, 50, 100, 0));
+        assertFalse(tracker.engaged());
+        assertEquals(AlertState.OK, tracker.state());
+    }
+}
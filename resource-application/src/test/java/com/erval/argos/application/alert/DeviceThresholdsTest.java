@@ -0,0 +1,174 @@
+package com.erval.argos.application.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase.DeviceFilter;
+import com.erval.argos.core.application.port.out.DeviceChangeFeedPort;
+import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceConfig;
+import com.erval.argos.core.domain.device.DeviceType;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+class DeviceThresholdsTest {
+
+    private StoreRepo store;
+    private DeviceThresholds thresholds;
+
+    @BeforeEach
+    void setUp() {
+        store = new StoreRepo();
+        store.save(device("d1", DeviceType.TEMP, new DeviceConfig(10.0, 30.0, true, null)));
+        store.save(device("d2", DeviceType.CO2, new DeviceConfig(null, 1000.0, true, null)));
+        store.save(device("d3", DeviceType.TEMP, new DeviceConfig(10.0, 30.0, false, null)));
+        store.save(device("d4", DeviceType.TEMP, null));
+        thresholds = new DeviceThresholds().start(store, DeviceChangeFeedPort.none(), 2);
+    }
+
+    @Test
+    void loadsOnlyDevicesAlertingOnBounds() {
+        assertEquals(2, thresholds.size());
+        assertEquals("TEMP 35.0 above max 30.0", thresholds.violation(reading("d1", MeasurementType.TEMP, 35)));
+        assertEquals("TEMP 5.0 below min 10.0", thresholds.violation(reading("d1", MeasurementType.TEMP, 5)));
+        assertNull(thresholds.violation(reading("d1", MeasurementType.TEMP, 20)));
+        assertNull(thresholds.violation(reading("d2", MeasurementType.CO2, -5)));
+        assertNull(thresholds.violation(reading("d3", MeasurementType.TEMP, 50)));
+        assertNull(thresholds.violation(reading("d4", MeasurementType.TEMP, 50)));
+    }
+
+    @Test
+    void checksOnlyReadingsOfTheDeviceType() {
+        assertNull(thresholds.violation(reading("d1", MeasurementType.HUMIDITY, 90)));
+        assertNull(thresholds.violation(reading("d1", MeasurementType.TEMP, Double.NaN)));
+    }
+
+    @Test
+    void appliesChangesAndReusesFreedSlots() {
+        thresholds.removed("d1");
+        thresholds.changed(device("d5", DeviceType.TEMP, new DeviceConfig(0.0, null, true, null)));
+        thresholds.changed(device("d2", DeviceType.CO2, new DeviceConfig(null, 800.0, true, null)));
+        thresholds.changed(device("d3", DeviceType.TEMP, new DeviceConfig(10.0, 30.0, true, null)));
+
+        assertNull(thresholds.violation(reading("d1", MeasurementType.TEMP, 35)));
+        assertEquals("TEMP -1.0 below min 0.0", thresholds.violation(reading("d5", MeasurementType.TEMP, -1)));
+        assertEquals("CO2 900.0 above max 800.0", thresholds.violation(reading("d2", MeasurementType.CO2, 900)));
+        assertEquals(3, thresholds.size());
+    }
+
+    @Test
+    void reloadKeepsChangesMadeWhileReading() {
+        store.duringRead = () -> thresholds.changed(device("d1", DeviceType.TEMP, null));
+        store.devices.remove("d2");
+
+        thresholds.load();
+
+        assertEquals(0, thresholds.size());
+    }
+
+    @Test
+    void periodicReloadPicksUpChangesTheFeedMissed() throws InterruptedException {
+        try (DeviceThresholds refreshed = new DeviceThresholds()
+                .start(store, DeviceChangeFeedPort.none(), 2, Duration.ofMillis(20))) {
+            synchronized (store) {
+                store.devices.remove("d1");
+            }
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (refreshed.size() != 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(1, refreshed.size());
+            assertNull(refreshed.violation(reading("d1", MeasurementType.TEMP, 35)));
+        }
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        for (int i = 0; i < 200; i++) {
+            thresholds.changed(device("g" + i, DeviceType.TEMP, new DeviceConfig(null, (double) i, true, null)));
+        }
+
+        assertEquals("TEMP 200.0 above max 199.0", thresholds.violation(reading("g199", MeasurementType.TEMP, 200)));
+        assertNull(thresholds.violation(reading("g199", MeasurementType.TEMP, 199)));
+    }
+
+    private static Device device(String id, DeviceType type, DeviceConfig config) {
+        return new Device(id, "Device " + id, type, "A", "101", true, false, config);
+    }
+
+    private static Measurement reading(String deviceId, MeasurementType type, double value) {
+        return new Measurement("m", deviceId, type, value, 1, Instant.EPOCH, null);
+    }
+
+    /**
+     * Store returning pages with a cursor-like token holding the next offset.
+     */
+    private static class StoreRepo implements DeviceRepositoryPort {
+        private final Map<String, Device> devices = new LinkedHashMap<>();
+        private Runnable duringRead;
+
+        @Override
+        public Device save(Device device) {
+            devices.put(device.id(), device);
+            return device;
+        }
+
+        @Override
+        public Optional<Device> findById(String id) {
+            return Optional.ofNullable(devices.get(id));
+        }
+
+        @Override
+        public List<Device> findAllByIds(Collection<String> ids) {
+            return ids.stream().map(devices::get).filter(d -> d != null).toList();
+        }
+
+        @Override
+        public PageResult<Device> findAll(PageRequest pageRequest) {
+            return new PageResult<>(List.copyOf(devices.values()), devices.size(), 0, devices.size());
+        }
+
+        @Override
+        public void deleteById(String id) {
+            devices.remove(id);
+        }
+
+        @Override
+        public void deleteAll() {
+            devices.clear();
+        }
+
+        @Override
+        public PageResult<Device> findByFilter(DeviceFilter filter, PageRequest pageRequest) {
+            if (duringRead != null) {
+                duringRead.run();
+                duringRead = null;
+            }
+            int offset = pageRequest.after() != null ? Integer.parseInt(pageRequest.after()) : 0;
+            List<Device> all;
+            synchronized (this) {
+                all = new ArrayList<>(devices.values());
+            }
+            int end = Math.min(offset + pageRequest.size(), all.size());
+            String next = end < all.size() ? Integer.toString(end) : null;
+            return new PageResult<>(all.subList(offset, end), PageResult.UNKNOWN_TOTAL, 0, pageRequest.size(), next);
+        }
+    }
+}
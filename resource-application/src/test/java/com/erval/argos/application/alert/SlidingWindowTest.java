@@ -0,0 +1,106 @@
+package com.erval.argos.application.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.domain.alert.AlertWindow;
+import com.erval.argos.core.domain.alert.WindowAggregate;
+
+class SlidingWindowTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void averageSlidesWithNewestPoint() {
+        SlidingWindow window = window(WindowAggregate.AVG, 5);
+
+        window.add(0, 10);
+        window.add(MINUTE, 20);
+        assertEquals(15.0, window.value());
+
+        window.add(5 * MINUTE, 30);
+
+        assertEquals(25.0, window.value());
+        assertEquals(2, window.size());
+    }
+
+    @Test
+    void minAndMaxFollowEvictions() {
+        SlidingWindow min = window(WindowAggregate.MIN, 3);
+        SlidingWindow max = window(WindowAggregate.MAX, 3);
+        double[] values = {5, 1, 4, 3, 8, 2};
+
+        double[] expectedMin = {5, 1, 1, 1, 3, 2};
+        double[] expectedMax = {5, 5, 5, 4, 8, 8};
+        for (int i = 0; i < values.length; i++) {
+            min.add(i * MINUTE, values[i]);
+            max.add(i * MINUTE, values[i]);
+            assertEquals(expectedMin[i], min.value(), "min at " + i);
+            assertEquals(expectedMax[i], max.value(), "max at " + i);
+        }
+    }
+
+    @Test
+    void rateIsChangePerMinuteAcrossTheWindow() {
+        SlidingWindow window = window(WindowAggregate.RATE, 10);
+
+        window.add(0, 400);
+        assertTrue(Double.isNaN(window.value()));
+        window.add(2 * MINUTE, 500);
+
+        assertEquals(50.0, window.value());
+    }
+
+    @Test
+    void ignoresOlderPointsAndNaN() {
+        SlidingWindow window = window(WindowAggregate.AVG, 5);
+        window.add(2 * MINUTE, 10);
+
+        assertFalse(window.add(MINUTE, 100));
+        assertFalse(window.add(3 * MINUTE, Double.NaN));
+        assertEquals(10.0, window.value());
+    }
+
+    @Test
+    void foldsDenseSeriesIntoSlotsCoveringTheWholeLength() {
+        SlidingWindow max = window(WindowAggregate.MAX, 60 * 24);
+        SlidingWindow avg = window(WindowAggregate.AVG, 60 * 24);
+        long step = 5_000;
+        int count = 17_280;
+
+        max.add(0, 1_000);
+        for (int i = 1; i < count; i++) {
+            max.add(i * step, i % 100);
+            avg.add(i * step, i % 2);
+        }
+
+        assertTrue(max.size() <= SlidingWindow.MAX_POINTS);
+        assertEquals(1_000.0, max.value());
+        assertEquals((count / 2) / (double) (count - 1), avg.value(), 1e-9);
+
+        max.add(24 * 60 * MINUTE + MINUTE, 7);
+
+        assertEquals(99.0, max.value());
+    }
+
+    @Test
+    void foldedSlotsKeepTheNewestPointForRate() {
+        SlidingWindow window = window(WindowAggregate.RATE, 60 * 24);
+
+        window.add(0, 100);
+        window.add(1_000, 200);
+        window.add(MINUTE, 160);
+
+        assertEquals(2, window.size());
+        assertEquals(60.0, window.value());
+    }
+
+    private static SlidingWindow window(WindowAggregate aggregate, long minutes) {
+        return new SlidingWindow(new AlertWindow(aggregate, Duration.ofMinutes(minutes)));
+    }
+}
@@ -0,0 +1,171 @@
+package com.erval.argos.application.device;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.port.out.DeviceChangeFeedPort;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceType;
+
+class DeviceExistenceCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void cachesPositiveLookups() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(10, Duration.ofMinutes(1), clock::get);
+
+        assertTrue(cache.exists("d1", this::alwaysExists));
+        assertTrue(cache.exists("d1", this::alwaysExists));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void doesNotCacheMissingDevices() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(10, Duration.ofMinutes(1), clock::get);
+
+        assertFalse(cache.exists("d1", id -> {
+            loads.incrementAndGet();
+            return false;
+        }));
+        assertTrue(cache.exists("d1", this::alwaysExists));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(10, Duration.ofSeconds(5), clock::get);
+        cache.exists("d1", this::alwaysExists);
+
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        cache.exists("d1", this::alwaysExists);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictForcesReload() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(10, Duration.ofMinutes(1), clock::get);
+        cache.exists("d1", this::alwaysExists);
+
+        cache.evict("d1");
+
+        assertFalse(cache.exists("d1", id -> false));
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void evictionDuringLoadIsNotOverwritten() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(10, Duration.ofMinutes(1), clock::get);
+
+        cache.exists("d1", id -> {
+            cache.evict("d1");
+            return true;
+        });
+
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(3, Duration.ofMinutes(1), clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            cache.exists("d" + i, this::alwaysExists);
+        }
+
+        assertTrue(cache.stats().size() <= 3);
+        assertEquals(7, cache.stats().evictions());
+    }
+
+    @Test
+    void fullCacheDropsExpiredIdsBeforeEvictingLiveOnes() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(3, Duration.ofSeconds(10), clock::get);
+        cache.exists("old", this::alwaysExists);
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        cache.exists("d1", this::alwaysExists);
+        cache.exists("d2", this::alwaysExists);
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        cache.exists("d3", this::alwaysExists);
+        cache.exists("d4", this::alwaysExists);
+
+        assertEquals(3, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+        loads.set(0);
+        cache.exists("d2", this::alwaysExists);
+        cache.exists("d3", this::alwaysExists);
+        cache.exists("d4", this::alwaysExists);
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void reloadedIdsAreEvictedByTheirLatestLoad() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(2, Duration.ofSeconds(10), clock::get);
+        cache.exists("d1", this::alwaysExists);
+        cache.evict("d1");
+        cache.exists("d2", this::alwaysExists);
+        cache.exists("d1", this::alwaysExists);
+
+        cache.exists("d3", this::alwaysExists);
+
+        loads.set(0);
+        cache.exists("d1", this::alwaysExists);
+        cache.exists("d3", this::alwaysExists);
+        assertEquals(0, loads.get());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void changesFromOtherNodesEvictIdsAndResyncClears() {
+        AtomicReference<DeviceChangeFeedPort.Listener> listener = new AtomicReference<>();
+        DeviceExistenceCache cache = new DeviceExistenceCache(10, Duration.ofMinutes(1), clock::get)
+                .start(l -> {
+                    listener.set(l);
+                    return () -> listener.set(null);
+                });
+        cache.exists("d1", this::alwaysExists);
+        cache.exists("d2", this::alwaysExists);
+        cache.exists("d3", this::alwaysExists);
+
+        listener.get().removed("d1");
+        listener.get().changed(new Device("d2", "Sensor", DeviceType.TEMP, "A", "101", false, false, null));
+        assertEquals(1, cache.stats().size());
+
+        listener.get().resync();
+        assertEquals(0, cache.stats().size());
+
+        cache.close();
+        assertNull(listener.get());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        DeviceExistenceCache cache = DeviceExistenceCache.disabled();
+
+        cache.exists("d1", this::alwaysExists);
+        cache.exists("d1", this::alwaysExists);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().size());
+    }
+
+    private boolean alwaysExists(String id) {
+        loads.incrementAndGet();
+        return true;
+    }
+}
@@ -0,0 +1,287 @@
+package com.erval.argos.application.device;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.CountMode;
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.SortDirection;
+import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase.DeviceFilter;
+import com.erval.argos.core.application.port.out.DeviceChangeFeedPort;
+import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceConfig;
+import com.erval.argos.core.domain.device.DeviceType;
+
+class DeviceRegistryTest {
+
+    private StoreRepo store;
+    private DeviceRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        store = new StoreRepo();
+        store.put(device("d1", "Gamma", DeviceType.TEMP, "A", true));
+        store.put(device("d2", "Alpha", DeviceType.CO2, "A", true));
+        store.put(device("d3", "Beta", DeviceType.TEMP, "B", false));
+        registry = new DeviceRegistry(store, 2);
+    }
+
+    @Test
+    void delegatesUntilStarted() {
+        registry.findById("d1");
+
+        assertEquals(1, store.findByIdCalls);
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void loadsAllPagesAndServesLookupsFromMemory() {
+        registry.start(DeviceChangeFeedPort.none());
+        int loadCalls = store.findByFilterCalls;
+
+        assertEquals("Gamma", registry.findById("d1").orElseThrow().name());
+        assertEquals(2, registry.findAllByIds(List.of("d1", "d2", "d1")).size());
+
+        assertEquals(3, registry.size());
+        assertEquals(2, loadCalls);
+        assertEquals(0, store.findByIdCalls);
+    }
+
+    @Test
+    void unknownIdsFallBackToDelegate() {
+        registry.start(DeviceChangeFeedPort.none());
+        store.put(device("d4", "Delta", DeviceType.TEMP, "C", true));
+
+        assertTrue(registry.findById("d4").isPresent());
+        assertEquals(1, store.findByIdCalls);
+    }
+
+    @Test
+    void filtersSortsAndPagesWithCursor() {
+        registry.start(DeviceChangeFeedPort.none());
+        store.findByFilterCalls = 0;
+
+        PageResult<Device> first = registry.findByFilter(new DeviceFilter(null, null, DeviceType.TEMP, null),
+                new PageRequest(0, 1, "name", SortDirection.ASC, null, CountMode.EXACT));
+        PageResult<Device> second = registry.findByFilter(new DeviceFilter(null, null, DeviceType.TEMP, null),
+                new PageRequest(0, 1, "name", SortDirection.ASC, first.nextCursor(), CountMode.EXACT));
+
+        assertEquals(List.of("d3"), ids(first));
+        assertEquals(2, first.totalElements());
+        assertEquals(List.of("d1"), ids(second));
+        assertFalse(second.hasNext());
+        assertEquals(0, store.findByFilterCalls);
+    }
+
+    @Test
+    void seeksUnfilteredNamePagesFromTheCursorInBothDirections() {
+        store.put(device("d4", "Beta", DeviceType.CO2, "C", true));
+        registry.start(DeviceChangeFeedPort.none());
+
+        PageResult<Device> ascFirst = registry.findByFilter(null,
+                new PageRequest(0, 2, "name", SortDirection.ASC, null, CountMode.NONE));
+        PageResult<Device> ascSecond = registry.findByFilter(null,
+                new PageRequest(0, 2, "name", SortDirection.ASC, ascFirst.nextCursor(), CountMode.NONE));
+        PageResult<Device> descFirst = registry.findByFilter(null,
+                new PageRequest(0, 2, "name", SortDirection.DESC, null, CountMode.NONE));
+        PageResult<Device> descSecond = registry.findByFilter(null,
+                new PageRequest(0, 2, "name", SortDirection.DESC, descFirst.nextCursor(), CountMode.NONE));
+
+        assertEquals(List.of("d2", "d3"), ids(ascFirst));
+        assertEquals(List.of("d4", "d1"), ids(ascSecond));
+        assertFalse(ascSecond.hasNext());
+        assertEquals(List.of("d1", "d4"), ids(descFirst));
+        assertEquals(List.of("d3", "d2"), ids(descSecond));
+        assertFalse(descSecond.hasNext());
+    }
+
+    @Test
+    void listsByNameIndexAndOtherSortFields() {
+        registry.start(DeviceChangeFeedPort.none());
+
+        PageResult<Device> byName = registry.findByFilter(null,
+                new PageRequest(0, 10, null, SortDirection.DESC, null, CountMode.NONE));
+        PageResult<Device> byBuilding = registry.findByFilter(new DeviceFilter(null, null, null, true),
+                new PageRequest(0, 10, "building", SortDirection.ASC, null, CountMode.EXACT));
+
+        assertEquals(List.of("d1", "d3", "d2"), ids(byName));
+        assertEquals(PageResult.UNKNOWN_TOTAL, byName.totalElements());
+        assertEquals(List.of("d1", "d2"), ids(byBuilding));
+    }
+
+    @Test
+    void writesThroughAndReindexes() {
+        registry.start(DeviceChangeFeedPort.none());
+
+        registry.save(device("d1", "Gamma", DeviceType.TEMP, "B", true));
+        registry.deleteById("d2");
+
+        assertEquals(List.of("d3", "d1"), ids(registry.findByFilter(new DeviceFilter("B", null, null, null),
+                new PageRequest(0, 10, "name", SortDirection.ASC))));
+        assertTrue(registry.findByFilter(new DeviceFilter("A", null, null, null),
+                new PageRequest(0, 10, "name", SortDirection.ASC)).content().isEmpty());
+        assertEquals("B", store.devices.get("d1").building());
+    }
+
+    @Test
+    void filtersByTagsAndReindexesChangedTags() {
+        store.put(tagged("d4", "Delta", "floor-1", "hvac"));
+        store.put(tagged("d5", "Epsilon", "floor-1"));
+        registry.start(DeviceChangeFeedPort.none());
+
+        DeviceFilter allOf = new DeviceFilter(null, null, null, true, null, Set.of("floor-1", "hvac"));
+        DeviceFilter anyOf = new DeviceFilter(null, null, null, null, Set.of("hvac", "lighting"), null);
+        PageRequest request = new PageRequest(0, 10, "name", SortDirection.ASC);
+
+        assertEquals(List.of("d4"), ids(registry.findByFilter(allOf, request)));
+        registry.save(tagged("d4", "Delta", "lighting"));
+        registry.save(tagged("d5", "Epsilon", "floor-1", "hvac"));
+
+        assertEquals(List.of("d5"), ids(registry.findByFilter(allOf, request)));
+        assertEquals(List.of("d4", "d5"), ids(registry.findByFilter(anyOf, request)));
+    }
+
+    @Test
+    void appliesChangesFromFeed() {
+        RecordingFeed feed = new RecordingFeed();
+        registry.start(feed);
+
+        feed.listener.changed(device("d9", "Omega", DeviceType.CO2, "A", true));
+        feed.listener.removed("d1");
+        feed.listener.changed(new Device("d3", "Beta", DeviceType.TEMP, "B", "101", false, true, null));
+
+        assertEquals(List.of("d2", "d9"), ids(registry.findByFilter(null,
+                new PageRequest(0, 10, "name", SortDirection.ASC))));
+    }
+
+    @Test
+    void changesDuringLoadAreNotOverwritten() {
+        RecordingFeed feed = new RecordingFeed();
+        store.duringRead = () -> feed.listener.changed(device("d1", "Renamed", DeviceType.TEMP, "A", true));
+
+        registry.start(feed);
+
+        assertEquals("Renamed", registry.findById("d1").orElseThrow().name());
+        assertEquals(1, feed.subscriptions);
+    }
+
+    @Test
+    void readsThroughWhenTheFeedIsUnavailable() {
+        RecordingFeed feed = new RecordingFeed();
+        feed.available = false;
+
+        registry.start(feed);
+        registry.save(device("d9", "Omega", DeviceType.CO2, "A", true));
+        registry.findById("d1");
+
+        assertEquals(0, feed.subscriptions);
+        assertEquals(0, store.findByFilterCalls);
+        assertEquals(0, registry.size());
+        assertEquals(1, store.findByIdCalls);
+    }
+
+    private static List<String> ids(PageResult<Device> page) {
+        return page.content().stream().map(Device::id).toList();
+    }
+
+    private static Device device(String id, String name, DeviceType type, String building, boolean active) {
+        return new Device(id, name, type, building, "101", active, false, null);
+    }
+
+    private static Device tagged(String id, String name, String... tags) {
+        return new Device(id, name, DeviceType.TEMP, "C", "101", true, false,
+                new DeviceConfig(null, null, null, List.of(tags)));
+    }
+
+    private static class RecordingFeed implements DeviceChangeFeedPort {
+        private Listener listener;
+        private int subscriptions;
+        private boolean available = true;
+
+        @Override
+        public boolean available() {
+            return available;
+        }
+
+        @Override
+        public Subscription subscribe(Listener listener) {
+            this.listener = listener;
+            subscriptions++;
+            return () -> this.listener = null;
+        }
+    }
+
+    /**
+     * Store returning pages with a cursor-like token holding the next offset.
+     */
+    private static class StoreRepo implements DeviceRepositoryPort {
+        private final Map<String, Device> devices = new LinkedHashMap<>();
+        private int findByIdCalls;
+        private int findByFilterCalls;
+        private Runnable duringRead;
+
+        void put(Device device) {
+            devices.put(device.id(), device);
+        }
+
+        @Override
+        public Device save(Device device) {
+            put(device);
+            return device;
+        }
+
+        @Override
+        public Optional<Device> findById(String id) {
+            findByIdCalls++;
+            return Optional.ofNullable(devices.get(id));
+        }
+
+        @Override
+        public List<Device> findAllByIds(Collection<String> ids) {
+            return ids.stream().map(devices::get).filter(d -> d != null).toList();
+        }
+
+        @Override
+        public PageResult<Device> findAll(PageRequest pageRequest) {
+            return new PageResult<>(List.copyOf(devices.values()), devices.size(), 0, devices.size());
+        }
+
+        @Override
+        public void deleteById(String id) {
+            devices.remove(id);
+        }
+
+        @Override
+        public void deleteAll() {
+            devices.clear();
+        }
+
+        @Override
+        public PageResult<Device> findByFilter(DeviceFilter filter, PageRequest pageRequest) {
+            findByFilterCalls++;
+            if (duringRead != null) {
+                duringRead.run();
+                duringRead = null;
+            }
+            int offset = pageRequest.after() != null ? Integer.parseInt(pageRequest.after()) : 0;
+            List<Device> all = new ArrayList<>(devices.values());
+            int end = Math.min(offset + pageRequest.size(), all.size());
+            String next = end < all.size() ? Integer.toString(end) : null;
+            return new PageResult<>(all.subList(offset, end), PageResult.UNKNOWN_TOTAL, 0, pageRequest.size(), next);
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.erval.argos.application.device;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.erval.argos.application.alert.DeviceThresholds;
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
 import com.erval.argos.core.application.SortDirection;
@@ -16,6 +20,7 @@ import com.erval.argos.core.application.port.in.commands.DeviceCommandUseCase.Up
 import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase.DeviceFilter;
 import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
 import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceConfig;
 import com.erval.argos.core.domain.device.DeviceType;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -65,6 +70,72 @@ class DeviceServiceTest {
         assertTrue(ex.getMessage().contains("missing"));
     }
 
+    @Test
+    void deleteDeviceEvictsFromExistenceCache() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(10, Duration.ofMinutes(5));
+        service = new DeviceService(repo, cache);
+        repo.save(new Device("id-1", "Old", DeviceType.TEMP, "A", "100", true, false, null));
+        cache.exists("id-1", id -> true);
+
+        service.deleteDevice("id-1");
+
+        assertEquals(0, cache.stats().size());
+        assertTrue(repo.findById("id-1").isEmpty());
+    }
+
+    @Test
+    void updateDeviceEvictsFromExistenceCache() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(10, Duration.ofMinutes(5));
+        service = new DeviceService(repo, cache);
+        repo.save(new Device("id-1", "Old", DeviceType.TEMP, "A", "100", true, false, null));
+        cache.exists("id-1", id -> true);
+
+        service.updateDevice("id-1", new UpdateDeviceCommand(null, null, null, null, false));
+
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void createDeviceStoresConfigAndRegistersBounds() {
+        DeviceThresholds thresholds = new DeviceThresholds();
+        service = new DeviceService(repo, DeviceExistenceCache.disabled(), thresholds);
+        DeviceConfig config = new DeviceConfig(10.0, 30.0, true, List.of("hvac"));
+
+        Device created = service.createDevice(new CreateDeviceCommand("Sensor", DeviceType.TEMP, "A", "101", config));
+
+        assertEquals(config, created.config());
+        assertEquals(1, thresholds.size());
+    }
+
+    @Test
+    void setDeviceConfigReplacesConfigAndUpdatesBounds() {
+        DeviceThresholds thresholds = new DeviceThresholds();
+        service = new DeviceService(repo, DeviceExistenceCache.disabled(), thresholds);
+        repo.save(new Device("id-1", "Old", DeviceType.TEMP, "A", "100", true, false, null));
+
+        Device configured = service.setDeviceConfig("id-1", new DeviceConfig(null, 30.0, true, null));
+        assertEquals(1, thresholds.size());
+        Device cleared = service.setDeviceConfig("id-1", null);
+
+        assertEquals(Double.valueOf(30.0), configured.config().maxValue());
+        assertEquals("Old", configured.name());
+        assertNull(cleared.config());
+        assertEquals(0, thresholds.size());
+    }
+
+    @Test
+    void setDeviceConfigRejectsInvalidBounds() {
+        repo.save(new Device("id-1", "Old", DeviceType.TEMP, "A", "100", true, false, null));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.setDeviceConfig("id-1", new DeviceConfig(30.0, 10.0, true, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.setDeviceConfig("id-1", new DeviceConfig(Double.NaN, null, true, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.setDeviceConfig("missing", new DeviceConfig(null, null, false, null)));
+        assertEquals(1, repo.savedDevices.size());
+    }
+
     @Test
     void findDevicesDelegatesToRepository() {
         PageResult<Device> page = new PageResult<>(List.of(), 0, 0, 10);
@@ -77,10 +148,24 @@ class DeviceServiceTest {
         assertEquals(request, repo.lastPageRequest);
     }
 
+    @Test
+    void findByIdsReadsAllDevicesInOneCall() {
+        Device a = service.createDevice(new CreateDeviceCommand("A", DeviceType.CO2, "A", "101"));
+        Device b = service.createDevice(new CreateDeviceCommand("B", DeviceType.TEMP, "A", "102"));
+
+        Map<String, Device> found = service.findByIds(List.of(a.id(), b.id(), a.id(), "missing"));
+
+        assertEquals(Map.of(a.id(), a, b.id(), b), found);
+        assertEquals(1, repo.findAllByIdsCalls);
+        assertEquals(Map.of(), service.findByIds(List.of()));
+        assertEquals(1, repo.findAllByIdsCalls);
+    }
+
     private static class InMemoryDeviceRepo implements DeviceRepositoryPort {
         private final List<Device> savedDevices = new ArrayList<>();
         private final AtomicReference<PageResult<Device>> nextPage = new AtomicReference<>();
         private PageRequest lastPageRequest;
+        private int findAllByIdsCalls;
 
         @Override
         public Device save(Device device) {
@@ -93,6 +178,12 @@ class DeviceServiceTest {
             return savedDevices.stream().filter(d -> d.id().equals(id)).findFirst();
         }
 
+        @Override
+        public List<Device> findAllByIds(Collection<String> ids) {
+            findAllByIdsCalls++;
+            return savedDevices.stream().filter(d -> ids.contains(d.id())).toList();
+        }
+
         @Override
         public PageResult<Device> findAll(PageRequest pageRequest) {
             lastPageRequest = pageRequest;
@@ -0,0 +1,54 @@
+package com.erval.argos.application.device;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TagIndexTest {
+
+    private TagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TagIndex();
+        index.add("d1", List.of("floor-1", "hvac"));
+        index.add("d2", List.of("floor-1", "lighting"));
+        index.add("d3", List.of("floor-2", "hvac", "hvac"));
+        index.add("d4", List.of());
+    }
+
+    @Test
+    void matchesAnyOfTags() {
+        assertEquals(Set.of("d1", "d2", "d3"), match(Set.of("floor-1", "floor-2"), Set.of()));
+    }
+
+    @Test
+    void matchesAllOfTags() {
+        assertEquals(Set.of("d1"), match(Set.of(), Set.of("floor-1", "hvac")));
+        assertEquals(Set.of(), match(Set.of(), Set.of("floor-1", "unknown")));
+    }
+
+    @Test
+    void combinesAnyOfAndAllOf() {
+        assertEquals(Set.of("d3"), match(Set.of("floor-2", "lighting"), Set.of("hvac")));
+    }
+
+    @Test
+    void reusesSlotsOfRemovedDevices() {
+        index.remove("d1");
+        index.add("d5", List.of("lighting"));
+
+        assertEquals(Set.of("d2", "d5"), match(Set.of("lighting"), Set.of()));
+        assertEquals(Set.of("d3"), match(Set.of("hvac"), Set.of()));
+        assertEquals(Set.of("d2", "d3", "d5"), match(Set.of(), Set.of()));
+    }
+
+    private Set<String> match(Set<String> anyTags, Set<String> allTags) {
+        return new HashSet<>(index.match(anyTags, allTags));
+    }
+}
@@ -0,0 +1,68 @@
+package com.erval.argos.application.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class DeviceSequenceAllocatorTest {
+
+    @Test
+    void seedsLazilyOncePerDevice() {
+        AtomicInteger seedCalls = new AtomicInteger();
+        DeviceSequenceAllocator allocator = new DeviceSequenceAllocator(id -> {
+            seedCalls.incrementAndGet();
+            return 10;
+        });
+
+        assertEquals(11, allocator.next("d1"));
+        assertEquals(12, allocator.next("d1"));
+        assertEquals(1, seedCalls.get());
+    }
+
+    @Test
+    void keepsIndependentCountersPerDevice() {
+        DeviceSequenceAllocator allocator = new DeviceSequenceAllocator(id -> 0);
+
+        assertEquals(1, allocator.next("d1"));
+        assertEquals(1, allocator.next("d2"));
+        assertEquals(2, allocator.next("d1"));
+    }
+
+    @Test
+    void reservesContiguousBlocks() {
+        DeviceSequenceAllocator allocator = new DeviceSequenceAllocator(id -> 0);
+
+        assertEquals(1, allocator.reserve("d1", 5));
+        assertEquals(6, allocator.next("d1"));
+        assertThrows(IllegalArgumentException.class, () -> allocator.reserve("d1", 0));
+    }
+
+    @Test
+    void allocatesUniqueNumbersUnderConcurrency() throws InterruptedException {
+        DeviceSequenceAllocator allocator = new DeviceSequenceAllocator(id -> 0);
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    seen.add(allocator.next("d1"));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, seen.size());
+        assertEquals(80_001, allocator.next("d1"));
+    }
+}
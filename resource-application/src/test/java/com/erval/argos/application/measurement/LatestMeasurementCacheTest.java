@@ -0,0 +1,209 @@
+package com.erval.argos.application.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+class LatestMeasurementCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private final List<Measurement> stored = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void answersRepeatedReadsFromMemory() {
+        LatestMeasurementCache cache = new LatestMeasurementCache(5, 10, null, clock);
+        store(measurement("m1", "d1", 1), measurement("m2", "d1", 2), measurement("m3", "d1", 3));
+
+        assertEquals(List.of("m3", "m2"), ids(cache.latest("d1", null, 2, this::load)));
+        assertEquals(List.of("m3", "m2", "m1"), ids(cache.latest("d1", null, 5, this::load)));
+
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.stats().hits());
+    }
+
+    @Test
+    void addsIngestedMeasurementsInTimestampOrder() {
+        LatestMeasurementCache cache = new LatestMeasurementCache(3, 10, null, clock);
+        store(measurement("m1", "d1", 10), measurement("m2", "d1", 20), measurement("m3", "d1", 30));
+        cache.latest("d1", null, 1, this::load);
+
+        Measurement late = measurement("m4", "d1", 25);
+        store(late);
+        cache.add(List.of(late));
+
+        assertEquals(List.of("m3", "m4", "m2"), ids(cache.latest("d1", null, 3, this::load)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void ignoresDevicesThatWereNeverRead() {
+        LatestMeasurementCache cache = new LatestMeasurementCache(3, 10, null, clock);
+
+        cache.add(List.of(measurement("m1", "d1", 1)));
+
+        assertEquals(0, cache.stats().devices());
+    }
+
+    @Test
+    void skipsFutureMeasurementsAndFallsBackWhenShort() {
+        LatestMeasurementCache cache = new LatestMeasurementCache(2, 10, null, clock);
+        store(measurement("m1", "d1", 1), measurement("m2", "d1", 2), measurement("m3", "d1", 3600 * 24));
+
+        List<Measurement> latest = cache.latest("d1", null, 2, this::load);
+
+        assertEquals(List.of("m2", "m1"), ids(latest));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void explicitUpperBoundAndLargeLimitsBypassTheCache() {
+        LatestMeasurementCache cache = new LatestMeasurementCache(2, 10, null, clock);
+        store(measurement("m1", "d1", 1), measurement("m2", "d1", 2), measurement("m3", "d1", 3));
+
+        assertEquals(List.of("m2", "m1"), ids(cache.latest("d1", NOW.minusSeconds(1000 - 2), 5, this::load)));
+        assertEquals(3, cache.latest("d1", null, 3, this::load).size());
+
+        assertEquals(0, cache.stats().devices());
+        assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    void deleteForcesReload() {
+        LatestMeasurementCache cache = new LatestMeasurementCache(3, 10, null, clock);
+        store(measurement("m1", "d1", 1), measurement("m2", "d1", 2));
+        cache.latest("d1", null, 2, this::load);
+
+        stored.removeIf(m -> m.id().equals("m2"));
+        cache.evictMeasurement("m2");
+
+        assertEquals(List.of("m1"), ids(cache.latest("d1", null, 2, this::load)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void deleteDropsOnlyTheDeviceHoldingTheMeasurement() {
+        LatestMeasurementCache cache = new LatestMeasurementCache(2, 10, null, clock);
+        store(measurement("m1", "d1", 1), measurement("m2", "d2", 1));
+        cache.latest("d1", null, 1, this::load);
+        cache.latest("d2", null, 1, this::load);
+        cache.add(List.of(measurement("m3", "d1", 2), measurement("m4", "d1", 3)));
+
+        cache.evictMeasurement("m1");
+        cache.evictMeasurement("m4");
+        cache.latest("d2", null, 1, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().devices());
+    }
+
+    @Test
+    void dropsLeastRecentlyReadDevice() {
+        LatestMeasurementCache cache = new LatestMeasurementCache(3, 2, null, clock);
+        store(measurement("a", "d1", 1), measurement("b", "d2", 1), measurement("c", "d3", 1));
+
+        cache.latest("d1", null, 1, this::load);
+        cache.latest("d2", null, 1, this::load);
+        cache.latest("d1", null, 1, this::load);
+        cache.latest("d3", null, 1, this::load);
+        cache.latest("d1", null, 1, this::load);
+
+        assertEquals(2, cache.stats().devices());
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void reloadsDevicesOnceTheirTtlExpired() {
+        MutableClock ticking = new MutableClock(NOW);
+        LatestMeasurementCache cache = new LatestMeasurementCache(3, 10, Duration.ofSeconds(5), ticking);
+        store(measurement("m1", "d1", 1));
+        cache.latest("d1", null, 1, this::load);
+
+        // written by another node, never added to this cache
+        store(measurement("m2", "d1", 2));
+        ticking.now = NOW.plusSeconds(4);
+        assertEquals(List.of("m1"), ids(cache.latest("d1", null, 1, this::load)));
+        ticking.now = NOW.plusSeconds(5);
+        assertEquals(List.of("m2"), ids(cache.latest("d1", null, 1, this::load)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        LatestMeasurementCache cache = LatestMeasurementCache.disabled();
+        store(measurement("m1", "d1", 1));
+
+        cache.latest("d1", null, 1, this::load);
+        cache.latest("d1", null, 1, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().devices());
+    }
+
+    private void store(Measurement... measurements) {
+        stored.addAll(List.of(measurements));
+    }
+
+    private List<Measurement> load(String deviceId, Instant to, int limit) {
+        loads.incrementAndGet();
+        return stored.stream()
+                .filter(m -> m.deviceId().equals(deviceId))
+                .filter(m -> to == null || !m.timestamp().isAfter(to))
+                .sorted(Comparator.comparing(Measurement::timestamp).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static Measurement measurement(String id, String deviceId, int secondsAfterEarlier) {
+        Instant timestamp = NOW.minusSeconds(1000).plusSeconds(secondsAfterEarlier);
+        return new Measurement(id, deviceId, MeasurementType.TEMP, secondsAfterEarlier, secondsAfterEarlier,
+                timestamp, null);
+    }
+
+    /**
+     * Clock whose instant tests move by hand.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static List<String> ids(List<Measurement> measurements) {
+        return measurements.stream().map(Measurement::id).toList();
+    }
+}
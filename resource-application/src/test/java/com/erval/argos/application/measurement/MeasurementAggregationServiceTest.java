@@ -0,0 +1,161 @@
+package com.erval.argos.application.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.BatchItemResult;
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+class MeasurementAggregationServiceTest {
+
+    private static final Instant FROM = Instant.parse("2026-01-01T00:00:00Z");
+
+    private AggregatingRepo repo;
+    private MeasurementAggregationService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = new AggregatingRepo();
+        service = new MeasurementAggregationService(repo, 100);
+    }
+
+    @Test
+    void delegatesValidQueryToRepository() {
+        AggregationQuery query = new AggregationQuery("d1", MeasurementType.TEMP, FROM,
+                FROM.plus(Duration.ofHours(1)), Duration.ofMinutes(1));
+
+        List<MeasurementBucket> buckets = service.aggregate(query);
+
+        assertSame(repo.buckets, buckets);
+        assertSame(query, repo.lastQuery);
+    }
+
+    @Test
+    void rejectsEmptyWindow() {
+        AggregationQuery query = new AggregationQuery("d1", MeasurementType.TEMP, FROM, FROM, Duration.ofMinutes(1));
+
+        assertThrows(IllegalArgumentException.class, () -> service.aggregate(query));
+        assertNull(repo.lastQuery);
+    }
+
+    @Test
+    void rejectsSubSecondInterval() {
+        AggregationQuery query = new AggregationQuery("d1", MeasurementType.TEMP, FROM, FROM.plusSeconds(10),
+                Duration.ofMillis(500));
+
+        assertThrows(IllegalArgumentException.class, () -> service.aggregate(query));
+    }
+
+    @Test
+    void rejectsIntervalWithFractionalSeconds() {
+        AggregationQuery query = new AggregationQuery("d1", MeasurementType.TEMP, FROM, FROM.plusSeconds(10),
+                Duration.ofMillis(1500));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.aggregate(query));
+        assertEquals("Interval must be a whole number of seconds", ex.getMessage());
+        assertNull(repo.lastQuery);
+    }
+
+    @Test
+    void rejectsQueriesSpanningTooManyBuckets() {
+        AggregationQuery query = new AggregationQuery("d1", MeasurementType.TEMP, FROM,
+                FROM.plus(Duration.ofHours(2)), Duration.ofMinutes(1));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.aggregate(query));
+        assertEquals("Interval too small for the time window: 121 buckets exceed the limit of 100", ex.getMessage());
+    }
+
+    private static class AggregatingRepo implements MeasurementRepositoryPort {
+        private final List<MeasurementBucket> buckets = List.of(
+                new MeasurementBucket(FROM, 2, 1.0, 3.0, 2.0, 1.0, 3.0));
+        private AggregationQuery lastQuery;
+
+        @Override
+        public List<MeasurementBucket> aggregate(AggregationQuery query) {
+            lastQuery = query;
+            return buckets;
+        }
+
+        @Override
+        public Map<String, List<Measurement>> findLatestByDevices(Collection<String> deviceIds, MeasurementType type,
+                Instant to, int limit) {
+            return Map.of();
+        }
+
+        @Override
+        public Stream<Measurement> stream(MeasurementFilter filter) {
+            return Stream.empty();
+        }
+
+        @Override
+        public Measurement save(Measurement measurement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BatchItemResult<Measurement>> saveAll(List<Measurement> measurements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String nextId() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OptionalInt findMaxSequenceNumber(String deviceId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PageResult<Measurement> findByFilter(MeasurementFilter filter, PageRequest pageRequest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Measurement> findById(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PageResult<Measurement> findAll(PageRequest pageRequest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteById(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteByDeviceId(String deviceId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteAll() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.erval.argos.application.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementRollupUseCase.RollupQuery;
+import com.erval.argos.core.application.port.in.queries.MeasurementRollupUseCase.RollupSeries;
+import com.erval.argos.core.application.port.out.MeasurementRollupPort;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.core.domain.measurement.RollupBucket;
+import com.erval.argos.core.domain.measurement.RollupResolution;
+
+class MeasurementRollupServiceTest {
+
+    private static final Instant FROM = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void picksMinuteResolutionWhenItFitsTheBudget() {
+        assertEquals(RollupResolution.MINUTE, resolution(Duration.ofHours(2), 120));
+    }
+
+    @Test
+    void picksHourResolutionForAWeekOfData() {
+        assertEquals(RollupResolution.HOUR, resolution(Duration.ofDays(7), 500));
+    }
+
+    @Test
+    void fallsBackToDayResolutionWhenNothingFits() {
+        assertEquals(RollupResolution.DAY, resolution(Duration.ofDays(365), 100));
+    }
+
+    @Test
+    void readsBucketsAtTheChosenResolution() {
+        RollupBucket bucket = new RollupBucket(FROM, 2, 3.0, 1.0, 2.0, 5.0);
+        MeasurementRollupService service = new MeasurementRollupService(new MeasurementRollupPort() {
+            @Override
+            public void apply(List<Measurement> measurements) {
+            }
+
+            @Override
+            public void rebuild(Instant from, Instant to, RollupResolution resolution) {
+            }
+
+            @Override
+            public List<RollupBucket> find(String deviceId, MeasurementType type, Instant from, Instant to,
+                    RollupResolution resolution) {
+                return resolution == RollupResolution.HOUR ? List.of(bucket) : List.of();
+            }
+        });
+
+        RollupSeries series = service.findRollups(
+                new RollupQuery("d1", MeasurementType.TEMP, FROM, FROM.plus(Duration.ofDays(2)), 100));
+
+        assertEquals(RollupResolution.HOUR, series.resolution());
+        assertEquals(List.of(bucket), series.buckets());
+        assertEquals(1.5, bucket.avg());
+        assertEquals(0.5, bucket.stddev());
+    }
+
+    @Test
+    void rejectsNonPositivePointBudget() {
+        MeasurementRollupService service = new MeasurementRollupService(MeasurementRollupPort.disabled());
+
+        assertThrows(IllegalArgumentException.class, () -> service.findRollups(
+                new RollupQuery("d1", MeasurementType.TEMP, FROM, FROM.plusSeconds(60), 0)));
+    }
+
+    private static RollupResolution resolution(Duration window, int maxPoints) {
+        return MeasurementRollupService.resolutionFor(
+                new RollupQuery("d1", MeasurementType.TEMP, FROM, FROM.plus(window), maxPoints));
+    }
+}
@@ -1,28 +1,54 @@
 package com.erval.argos.application.measurement;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.erval.argos.application.alert.AlertEngine;
+import com.erval.argos.application.device.DeviceExistenceCache;
+import com.erval.argos.core.application.BatchItemResult;
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
 import com.erval.argos.core.application.SortDirection;
 import com.erval.argos.core.application.port.in.commands.MeasurementCommandUseCase.CreateMeasurementCommand;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
 import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
 import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
 import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.application.port.out.MeasurementRollupPort;
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.core.domain.alert.AlertState;
+import com.erval.argos.core.domain.alert.Comparison;
 import com.erval.argos.core.domain.device.Device;
 import com.erval.argos.core.domain.device.DeviceType;
 import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
 import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.core.domain.measurement.RollupBucket;
+import com.erval.argos.core.domain.measurement.RollupResolution;
 
 class MeasurementServiceTest {
 
@@ -66,6 +92,182 @@ class MeasurementServiceTest {
                 .createMeasurement(new CreateMeasurementCommand("missing", MeasurementType.CO2, 1.0, null)));
     }
 
+    @Test
+    void createMeasurementUsesDeviceCacheAfterFirstLookup() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(100, Duration.ofMinutes(5));
+        service = MeasurementService.builder(measurementRepo, deviceRepo).deviceCache(cache).build();
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+
+        for (int i = 0; i < 5; i++) {
+            service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, i, null));
+        }
+
+        assertEquals(1, deviceRepo.findByIdCalls);
+        assertEquals(4, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void createMeasurementRejectsDeviceEvictedFromCache() {
+        DeviceExistenceCache cache = new DeviceExistenceCache(100, Duration.ofMinutes(5));
+        service = MeasurementService.builder(measurementRepo, deviceRepo).deviceCache(cache).build();
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+        service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, null));
+
+        deviceRepo.deleteById("d1");
+        cache.evict("d1");
+
+        assertThrows(IllegalArgumentException.class, () -> service
+                .createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 2.0, null)));
+    }
+
+    @Test
+    void createMeasurementsSavesValidItemsInOneBatch() {
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+        Instant fixed = Instant.parse("2024-01-01T00:00:00Z");
+
+        List<BatchItemResult<Measurement>> results = service.createMeasurements(List.of(
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, fixed),
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 2.0, null)));
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).succeeded());
+        assertTrue(results.get(1).succeeded());
+        assertEquals(fixed, results.get(0).value().timestamp());
+        assertEquals(1, measurementRepo.saveAllCalls);
+        assertEquals(2, measurementRepo.batchSaved.size());
+    }
+
+    @Test
+    void createMeasurementsReportsInvalidItemsWithoutFailingBatch() {
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+
+        List<BatchItemResult<Measurement>> results = service.createMeasurements(List.of(
+                new CreateMeasurementCommand("missing", MeasurementType.CO2, 1.0, null),
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 2.0, null),
+                new CreateMeasurementCommand("d1", null, 3.0, null)));
+
+        assertFalse(results.get(0).succeeded());
+        assertTrue(results.get(0).error().contains("missing"));
+        assertTrue(results.get(1).succeeded());
+        assertEquals(1, results.get(1).index());
+        assertEquals(2.0, results.get(1).value().value());
+        assertFalse(results.get(2).succeeded());
+        assertEquals(1, measurementRepo.batchSaved.size());
+    }
+
+    @Test
+    void createMeasurementAssignsIncreasingSequenceNumbersSeededFromStore() {
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+        measurementRepo.maxSequence = OptionalInt.of(41);
+
+        Measurement first = service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, null));
+        Measurement second = service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 2.0, null));
+
+        assertEquals(42, first.sequenceNumber());
+        assertEquals(43, second.sequenceNumber());
+    }
+
+    @Test
+    void createMeasurementsAssignsConsecutiveSequenceNumbersToValidItems() {
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+
+        List<BatchItemResult<Measurement>> results = service.createMeasurements(List.of(
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, null),
+                new CreateMeasurementCommand("missing", MeasurementType.CO2, 2.0, null),
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 3.0, null)));
+        Measurement next = service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 4.0, null));
+
+        assertEquals(1, results.get(0).value().sequenceNumber());
+        assertEquals(2, results.get(2).value().sequenceNumber());
+        assertEquals(3, next.sequenceNumber());
+    }
+
+    @Test
+    void persistedMeasurementsFeedRollups() {
+        List<Measurement> rolledUp = new ArrayList<>();
+        service = MeasurementService.builder(measurementRepo, deviceRepo)
+                .rollups(new RecordingRollups(rolledUp, new ArrayList<>()))
+                .build();
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+
+        service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, null));
+        service.createMeasurements(List.of(
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 2.0, null),
+                new CreateMeasurementCommand("missing", MeasurementType.CO2, 3.0, null)));
+
+        assertEquals(List.of(1.0, 2.0), rolledUp.stream().map(Measurement::value).toList());
+    }
+
+    @Test
+    void persistedMeasurementsAreEvaluatedAgainstAlertRules() {
+        List<Alert> raised = new ArrayList<>();
+        AlertEngine alerts = new AlertEngine(raised::add);
+        alerts.put(new AlertRule("r1", "d1", MeasurementType.CO2, 1.5, Comparison.GREATER_THAN, true));
+        service = MeasurementService.builder(measurementRepo, deviceRepo).alerts(alerts).build();
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+
+        service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, null));
+        service.createMeasurements(List.of(
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 2.0, null),
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, null)));
+
+        assertEquals(2, raised.size());
+        assertEquals("r1", raised.get(0).ruleId());
+        assertEquals("CO2 2.0 > 1.5", raised.get(0).description());
+        assertEquals(AlertState.RESOLVED, raised.get(1).state());
+    }
+
+    @Test
+    void persistedMeasurementsArePublished() {
+        List<Measurement> published = new ArrayList<>();
+        service = MeasurementService.builder(measurementRepo, deviceRepo).publisher(published::addAll).build();
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+
+        Measurement created = service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, null));
+        service.createMeasurements(List.of(
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 2.0, null),
+                new CreateMeasurementCommand("missing", MeasurementType.CO2, 3.0, null)));
+
+        assertEquals(2, published.size());
+        assertSame(created, published.get(0));
+        assertEquals(2.0, published.get(1).value());
+    }
+
+    @Test
+    void publisherFailureDoesNotFailTheWrite() {
+        service = MeasurementService.builder(measurementRepo, deviceRepo)
+                .publisher(measurements -> {
+                    throw new IllegalStateException("down");
+                })
+                .build();
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+
+        Measurement created = service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, null));
+
+        assertSame(created, measurementRepo.lastSaved);
+    }
+
+    @Test
+    void rollupFailureDoesNotFailTheWriteAndMarksItsBucketsForRebuild() {
+        RecordingRollups rollups = new RecordingRollups(null, new ArrayList<>());
+        Instant timestamp = Instant.parse("2026-01-01T10:00:30Z");
+        RollupRebuilder rebuilder = new RollupRebuilder(rollups,
+                Clock.fixed(timestamp.plus(Duration.ofDays(1)), ZoneOffset.UTC));
+        service = MeasurementService.builder(measurementRepo, deviceRepo)
+                .rollups(rollups)
+                .rollupRebuilder(rebuilder)
+                .build();
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+
+        Measurement created = service.createMeasurement(
+                new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, timestamp));
+        rebuilder.rebuildClosed();
+
+        assertSame(created, measurementRepo.lastSaved);
+        assertEquals(List.of(RollupResolution.values()), rollups.rebuilt());
+    }
+
     @Test
     void findMeasurementsDelegatesToRepository() {
         PageResult<Measurement> page = new PageResult<>(List.of(), 0, 0, 10);
@@ -81,6 +283,75 @@ class MeasurementServiceTest {
         assertEquals(request, measurementRepo.lastRequest);
     }
 
+    @Test
+    void latestMeasurementsAreServedFromCacheOnceWarm() {
+        service = MeasurementService.builder(measurementRepo, deviceRepo)
+                .latest(new LatestMeasurementCache(10, 10, null))
+                .build();
+        deviceRepo.save(new Device("d1", "Sensor", DeviceType.CO2, "A", "101", true, false, null));
+        measurementRepo.nextPage = new PageResult<>(List.of(), 0, 0, 10);
+
+        assertEquals(List.of(), service.findLatestMeasurements("d1", null, 5));
+        assertEquals(SortDirection.DESC, measurementRepo.lastRequest.direction());
+
+        service.createMeasurement(new CreateMeasurementCommand("d1", MeasurementType.CO2, 1.0, null));
+        measurementRepo.lastRequest = null;
+
+        assertEquals(List.of(1.0),
+                service.findLatestMeasurements("d1", null, 5).stream().map(Measurement::value).toList());
+        assertNull(measurementRepo.lastRequest);
+    }
+
+    @Test
+    void findsLatestMeasurementsOfSeveralDevicesWithOneQuery() {
+        Instant now = Instant.now();
+        measurementRepo.stored.addAll(List.of(
+                new Measurement("a1", "d1", MeasurementType.CO2, 1.0, 1, now.minusSeconds(30), null),
+                new Measurement("a2", "d1", MeasurementType.CO2, 2.0, 2, now.minusSeconds(20), null),
+                new Measurement("a3", "d1", MeasurementType.CO2, 3.0, 3, now.minusSeconds(10), null),
+                new Measurement("b1", "d2", MeasurementType.CO2, 4.0, 1, now.minusSeconds(10), null)));
+
+        Map<String, List<Measurement>> latest = service.findLatestMeasurements(List.of("d2", "d1", "d3", "d1"),
+                null, 2);
+
+        assertEquals(List.of("d2", "d1", "d3"), List.copyOf(latest.keySet()));
+        assertEquals(List.of("a3", "a2"), latest.get("d1").stream().map(Measurement::id).toList());
+        assertEquals(List.of("b1"), latest.get("d2").stream().map(Measurement::id).toList());
+        assertEquals(List.of(), latest.get("d3"));
+        assertEquals(List.of(List.of("d2", "d1", "d3")), measurementRepo.latestQueries);
+    }
+
+    @Test
+    void findsLatestMeasurementsOfCachedDevicesWithoutQuery() {
+        service = MeasurementService.builder(measurementRepo, deviceRepo)
+                .latest(new LatestMeasurementCache(10, 10, null))
+                .build();
+        measurementRepo.nextPage = new PageResult<>(List.of(), 0, 0, 10);
+        service.findLatestMeasurements("d1", null, 5);
+
+        Map<String, List<Measurement>> latest = service.findLatestMeasurements(List.of("d1", "d2"), null, 5);
+
+        assertEquals(List.of(), latest.get("d1"));
+        assertEquals(List.of(List.of("d2")), measurementRepo.latestQueries);
+    }
+
+    @Test
+    void findLatestMeasurementsRequiresDevices() {
+        assertThrows(IllegalArgumentException.class, () -> service.findLatestMeasurements(List.of(), null, 5));
+    }
+
+    @Test
+    void streamMeasurementsDelegatesToRepository() {
+        Measurement stored = new Measurement("m1", "d1", MeasurementType.CO2, 1.0, 1, Instant.now(), null);
+        measurementRepo.stored.add(stored);
+        MeasurementFilter filter = new MeasurementFilter("d1", null, null, null);
+
+        try (var stream = service.streamMeasurements(filter)) {
+            assertEquals(List.of(stored), stream.toList());
+        }
+        assertEquals(filter, measurementRepo.lastFilter);
+    }
+
     @Test
     void deleteMeasurementDelegatesToRepository() {
         service.deleteMeasurement("m1");
@@ -93,6 +364,11 @@ class MeasurementServiceTest {
         private MeasurementFilter lastFilter;
         private PageRequest lastRequest;
         private String lastDeletedId;
+        private final List<Measurement> batchSaved = new ArrayList<>();
+        private final List<Measurement> stored = new ArrayList<>();
+        private final List<List<String>> latestQueries = new ArrayList<>();
+        private int saveAllCalls;
+        private OptionalInt maxSequence = OptionalInt.empty();
 
         @Override
         public Measurement save(Measurement measurement) {
@@ -100,6 +376,27 @@ class MeasurementServiceTest {
             return measurement;
         }
 
+        @Override
+        public String nextId() {
+            return UUID.randomUUID().toString();
+        }
+
+        @Override
+        public OptionalInt findMaxSequenceNumber(String deviceId) {
+            return maxSequence;
+        }
+
+        @Override
+        public List<BatchItemResult<Measurement>> saveAll(List<Measurement> measurements) {
+            saveAllCalls++;
+            batchSaved.addAll(measurements);
+            List<BatchItemResult<Measurement>> results = new ArrayList<>();
+            for (int i = 0; i < measurements.size(); i++) {
+                results.add(BatchItemResult.success(i, measurements.get(i)));
+            }
+            return results;
+        }
+
         @Override
         public PageResult<Measurement> findByFilter(MeasurementFilter filter, PageRequest pageRequest) {
             lastFilter = filter;
@@ -107,6 +404,34 @@ class MeasurementServiceTest {
             return nextPage;
         }
 
+        @Override
+        public List<MeasurementBucket> aggregate(AggregationQuery query) {
+            return List.of();
+        }
+
+        @Override
+        public Map<String, List<Measurement>> findLatestByDevices(Collection<String> deviceIds, MeasurementType type,
+                Instant to, int limit) {
+            latestQueries.add(List.copyOf(deviceIds));
+            Map<String, List<Measurement>> latest = new HashMap<>();
+            stored.stream()
+                    .filter(m -> deviceIds.contains(m.deviceId()) && (type == null || m.type() == type))
+                    .sorted(Comparator.comparing(Measurement::timestamp).reversed())
+                    .forEach(m -> {
+                        List<Measurement> forDevice = latest.computeIfAbsent(m.deviceId(), id -> new ArrayList<>());
+                        if (forDevice.size() < limit) {
+                            forDevice.add(m);
+                        }
+                    });
+            return latest;
+        }
+
+        @Override
+        public Stream<Measurement> stream(MeasurementFilter filter) {
+            lastFilter = filter;
+            return stored.stream();
+        }
+
         @Override
         public Optional<Measurement> findById(String id) {
             return Optional.empty();
@@ -134,8 +459,32 @@ class MeasurementServiceTest {
         }
     }
 
+    private record RecordingRollups(List<Measurement> applied, List<RollupResolution> rebuilt)
+            implements MeasurementRollupPort {
+
+        @Override
+        public void apply(List<Measurement> measurements) {
+            if (applied == null) {
+                throw new IllegalStateException("rollup store unavailable");
+            }
+            applied.addAll(measurements);
+        }
+
+        @Override
+        public void rebuild(Instant from, Instant to, RollupResolution resolution) {
+            rebuilt.add(resolution);
+        }
+
+        @Override
+        public List<RollupBucket> find(String deviceId, MeasurementType type, Instant from, Instant to,
+                RollupResolution resolution) {
+            return List.of();
+        }
+    }
+
     private static class FakeDeviceRepo implements DeviceRepositoryPort {
         private Device saved;
+        private int findByIdCalls;
 
         @Override
         public Device save(Device device) {
@@ -145,9 +494,15 @@ class MeasurementServiceTest {
 
         @Override
         public Optional<Device> findById(String id) {
+            findByIdCalls++;
             return Optional.ofNullable(saved).filter(d -> d.id().equals(id));
         }
 
+        @Override
+        public List<Device> findAllByIds(Collection<String> ids) {
+            return Optional.ofNullable(saved).filter(d -> ids.contains(d.id())).stream().toList();
+        }
+
         @Override
         public PageResult<Device> findAll(PageRequest pageRequest) {
             return new PageResult<>(List.of(), 0, 0, 0);
@@ -0,0 +1,312 @@
+package com.erval.argos.application.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.application.measurement.MeasurementWriteBuffer.AckLevel;
+import com.erval.argos.application.measurement.MeasurementWriteBuffer.Options;
+import com.erval.argos.application.measurement.MeasurementWriteBuffer.OverflowPolicy;
+import com.erval.argos.core.application.BatchItemResult;
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.port.in.commands.MeasurementCommandUseCase.CreateMeasurementCommand;
+import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase.DeviceFilter;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceType;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+class MeasurementWriteBufferTest {
+
+    private BatchRecordingRepo measurementRepo;
+    private MeasurementService service;
+    private MeasurementWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        measurementRepo = new BatchRecordingRepo();
+        service = new MeasurementService(measurementRepo, new SingleDeviceRepo());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (measurementRepo.gate != null) {
+            measurementRepo.gate.countDown();
+        }
+        if (buffer != null) {
+            buffer.close();
+        }
+    }
+
+    @Test
+    void persistedAckReturnsStoredMeasurementWithId() {
+        buffer = new MeasurementWriteBuffer(service, options(100, 10, AckLevel.PERSISTED, OverflowPolicy.REJECT));
+
+        Measurement created = buffer.createMeasurement(command(1.0));
+
+        assertNotNull(created.id());
+        assertEquals(1, measurementRepo.saved.size());
+        assertEquals(created.id(), measurementRepo.saved.getFirst().id());
+    }
+
+    @Test
+    void groupsQueuedMeasurementsIntoBatches() {
+        buffer = new MeasurementWriteBuffer(service, options(100, 5, AckLevel.ACCEPTED, OverflowPolicy.REJECT));
+
+        for (int i = 0; i < 10; i++) {
+            buffer.createMeasurement(command(i));
+        }
+        buffer.close();
+
+        assertEquals(10, measurementRepo.saved.size());
+        assertTrue(measurementRepo.batchSizes.stream().allMatch(size -> size <= 5));
+        assertEquals(10, buffer.stats().persisted());
+    }
+
+    @Test
+    void rejectsWhenBufferIsFull() {
+        measurementRepo.gate = new CountDownLatch(1);
+        buffer = new MeasurementWriteBuffer(service, options(2, 1, AckLevel.ACCEPTED, OverflowPolicy.REJECT));
+
+        buffer.createMeasurement(command(1.0));
+        buffer.createMeasurement(command(2.0));
+
+        assertThrows(IngestionRejectedException.class, () -> buffer.createMeasurement(command(3.0)));
+        assertEquals(1, buffer.stats().rejected());
+    }
+
+    @Test
+    void rejectedWritesDoNotConsumeSequenceNumbers() throws InterruptedException {
+        measurementRepo.gate = new CountDownLatch(1);
+        buffer = new MeasurementWriteBuffer(service, options(2, 1, AckLevel.ACCEPTED, OverflowPolicy.REJECT));
+        buffer.createMeasurement(command(1.0));
+        buffer.createMeasurement(command(2.0));
+
+        assertThrows(IngestionRejectedException.class, () -> buffer.createMeasurement(command(3.0)));
+        assertThrows(IngestionRejectedException.class, () -> buffer.createMeasurements(List.of(command(4.0))));
+        measurementRepo.gate.countDown();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (buffer.stats().persisted() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(3, buffer.createMeasurement(command(5.0)).sequenceNumber());
+    }
+
+    @Test
+    void blockingPolicyTimesOutWhenBufferStaysFull() {
+        measurementRepo.gate = new CountDownLatch(1);
+        buffer = new MeasurementWriteBuffer(service, new Options(1, 1, Duration.ofMillis(5),
+                AckLevel.ACCEPTED, OverflowPolicy.BLOCK, Duration.ofMillis(20), null));
+
+        buffer.createMeasurement(command(1.0));
+
+        assertThrows(IngestionRejectedException.class, () -> buffer.createMeasurement(command(2.0)));
+    }
+
+    @Test
+    void persistedAckTimesOutWhenFlushStalls() {
+        measurementRepo.gate = new CountDownLatch(1);
+        buffer = new MeasurementWriteBuffer(service, new Options(10, 1, Duration.ofMillis(5),
+                AckLevel.PERSISTED, OverflowPolicy.REJECT, Duration.ZERO, Duration.ofMillis(50)));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> buffer.createMeasurement(command(1.0)));
+        assertTrue(ex.getMessage().contains("not persisted"));
+    }
+
+    @Test
+    void closeRejectsLaterWritesAndFailsWhatTheFlusherCannotReach() {
+        measurementRepo.gate = new CountDownLatch(1);
+        buffer = new MeasurementWriteBuffer(service, new Options(10, 1, Duration.ofMillis(5),
+                AckLevel.ACCEPTED, OverflowPolicy.REJECT, Duration.ZERO, Duration.ofMillis(50)));
+        buffer.createMeasurement(command(1.0));
+        buffer.createMeasurement(command(2.0));
+        buffer.createMeasurement(command(3.0));
+
+        buffer.close();
+
+        assertThrows(IngestionRejectedException.class, () -> buffer.createMeasurement(command(4.0)));
+        assertEquals(0, buffer.stats().queued());
+        assertTrue(buffer.stats().failed() >= 1);
+    }
+
+    @Test
+    void batchReportsInvalidItemsAndPersistsTheRest() {
+        buffer = new MeasurementWriteBuffer(service, options(100, 10, AckLevel.PERSISTED, OverflowPolicy.REJECT));
+
+        List<BatchItemResult<Measurement>> results = buffer.createMeasurements(List.of(
+                command(1.0),
+                new CreateMeasurementCommand("missing", MeasurementType.TEMP, 2.0, null)));
+
+        assertTrue(results.get(0).succeeded());
+        assertTrue(!results.get(1).succeeded());
+        assertEquals(1, measurementRepo.saved.size());
+    }
+
+    @Test
+    void invalidCommandIsRejectedBeforeQueueing() {
+        buffer = new MeasurementWriteBuffer(service, options(100, 10, AckLevel.ACCEPTED, OverflowPolicy.REJECT));
+
+        assertThrows(IllegalArgumentException.class, () -> buffer
+                .createMeasurement(new CreateMeasurementCommand("missing", MeasurementType.TEMP, 1.0, null)));
+        assertEquals(0, buffer.stats().accepted());
+    }
+
+    private static Options options(int capacity, int batch, AckLevel ack, OverflowPolicy overflow) {
+        return new Options(capacity, batch, Duration.ofMillis(5), ack, overflow, Duration.ZERO, null);
+    }
+
+    private static CreateMeasurementCommand command(double value) {
+        return new CreateMeasurementCommand("d1", MeasurementType.TEMP, value, null);
+    }
+
+    private static class BatchRecordingRepo implements MeasurementRepositoryPort {
+        private final List<Measurement> saved = new CopyOnWriteArrayList<>();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch gate;
+
+        @Override
+        public Measurement save(Measurement measurement) {
+            saved.add(measurement);
+            return measurement;
+        }
+
+        @Override
+        public List<BatchItemResult<Measurement>> saveAll(List<Measurement> measurements) {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batchSizes.add(measurements.size());
+            saved.addAll(measurements);
+            List<BatchItemResult<Measurement>> results = new ArrayList<>();
+            for (int i = 0; i < measurements.size(); i++) {
+                results.add(BatchItemResult.success(i, measurements.get(i)));
+            }
+            return results;
+        }
+
+        @Override
+        public String nextId() {
+            return UUID.randomUUID().toString();
+        }
+
+        @Override
+        public OptionalInt findMaxSequenceNumber(String deviceId) {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public PageResult<Measurement> findByFilter(MeasurementFilter filter, PageRequest pageRequest) {
+            return new PageResult<>(List.of(), 0, 0, 0);
+        }
+
+        @Override
+        public List<MeasurementBucket> aggregate(AggregationQuery query) {
+            return List.of();
+        }
+
+        @Override
+        public Map<String, List<Measurement>> findLatestByDevices(Collection<String> deviceIds, MeasurementType type,
+                Instant to, int limit) {
+            return Map.of();
+        }
+
+        @Override
+        public Stream<Measurement> stream(MeasurementFilter filter) {
+            return Stream.empty();
+        }
+
+        @Override
+        public Optional<Measurement> findById(String id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public PageResult<Measurement> findAll(PageRequest pageRequest) {
+            return new PageResult<>(List.of(), 0, 0, 0);
+        }
+
+        @Override
+        public void deleteById(String id) {
+            // no-op for test stub
+        }
+
+        @Override
+        public void deleteByDeviceId(String deviceId) {
+            // no-op for test stub
+        }
+
+        @Override
+        public void deleteAll() {
+            // no-op for test stub
+        }
+    }
+
+    private static class SingleDeviceRepo implements DeviceRepositoryPort {
+        private final Device device = new Device("d1", "Sensor", DeviceType.TEMP, "A", "101", true, false, null);
+
+        @Override
+        public Device save(Device device) {
+            return device;
+        }
+
+        @Override
+        public Optional<Device> findById(String id) {
+            return Optional.of(device).filter(d -> d.id().equals(id));
+        }
+
+        @Override
+        public List<Device> findAllByIds(Collection<String> ids) {
+            return ids.contains(device.id()) ? List.of(device) : List.of();
+        }
+
+        @Override
+        public PageResult<Device> findAll(PageRequest pageRequest) {
+            return new PageResult<>(List.of(), 0, 0, 0);
+        }
+
+        @Override
+        public void deleteById(String id) {
+            // no-op for test stub
+        }
+
+        @Override
+        public void deleteAll() {
+            // no-op for test stub
+        }
+
+        @Override
+        public PageResult<Device> findByFilter(DeviceFilter filter, PageRequest pageRequest) {
+            return new PageResult<>(List.of(), 0, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.erval.argos.application.measurement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.application.port.out.MeasurementRollupPort;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.core.domain.measurement.RollupBucket;
+import com.erval.argos.core.domain.measurement.RollupResolution;
+
+class RollupRebuilderTest {
+
+    private static final Instant HOUR = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final RecordingRollups rollups = new RecordingRollups();
+    private final MutableClock clock = new MutableClock(HOUR.plusSeconds(30 * 60 + 30));
+    private final RollupRebuilder rebuilder = new RollupRebuilder(rollups, clock);
+
+    @Test
+    void rebuildsClosedBucketsAndKeepsOpenOnesStaleUntilTheyClose() {
+        rebuilder.markStale(HOUR.plusSeconds(10), HOUR.plusSeconds(30 * 60 + 20));
+
+        rebuilder.rebuildClosed();
+        assertEquals(List.of("MINUTE " + HOUR.plusSeconds(10) + " " + HOUR.plusSeconds(30 * 60)), rollups.rebuilt);
+
+        rollups.rebuilt.clear();
+        clock.now = HOUR.plusSeconds(3600);
+        rebuilder.rebuildClosed();
+        assertEquals(List.of(
+                "MINUTE " + HOUR.plusSeconds(30 * 60) + " " + HOUR.plusSeconds(30 * 60 + 20),
+                "HOUR " + HOUR.plusSeconds(10) + " " + HOUR.plusSeconds(30 * 60 + 20)), rollups.rebuilt);
+
+        rollups.rebuilt.clear();
+        rebuilder.rebuildClosed();
+        assertEquals(List.of(), rollups.rebuilt);
+    }
+
+    @Test
+    void mergesStaleBatchesIntoOneWindowPerResolution() {
+        clock.now = HOUR.plusSeconds(3600);
+        rebuilder.markStale(List.of(measurement(HOUR.plusSeconds(600)), measurement(HOUR.plusSeconds(60))));
+        rebuilder.markStale(List.of(measurement(HOUR.plusSeconds(1200))));
+
+        rebuilder.rebuildClosed();
+
+        assertEquals(List.of(
+                "MINUTE " + HOUR.plusSeconds(60) + " " + HOUR.plusSeconds(1200).plusNanos(1),
+                "HOUR " + HOUR.plusSeconds(60) + " " + HOUR.plusSeconds(1200).plusNanos(1)), rollups.rebuilt);
+    }
+
+    @Test
+    void keepsAFailedRebuildStaleForTheNextRun() {
+        clock.now = HOUR.plusSeconds(3600);
+        rebuilder.markStale(HOUR, HOUR.plusSeconds(60));
+        rollups.failures = 1;
+
+        rebuilder.rebuildClosed();
+        rebuilder.rebuildClosed();
+
+        assertEquals(List.of(
+                "MINUTE " + HOUR + " " + HOUR.plusSeconds(60),
+                "HOUR " + HOUR + " " + HOUR.plusSeconds(60),
+                "MINUTE " + HOUR + " " + HOUR.plusSeconds(60)), rollups.rebuilt);
+    }
+
+    private static Measurement measurement(Instant timestamp) {
+        return new Measurement("m", "d1", MeasurementType.TEMP, 1.0, 1, timestamp, null);
+    }
+
+    /**
+     * Rollup port recording rebuilds, failing the first {@code failures} of
+     * them after recording.
+     */
+    private static final class RecordingRollups implements MeasurementRollupPort {
+        private final List<String> rebuilt = new ArrayList<>();
+        private int failures;
+
+        @Override
+        public void apply(List<Measurement> measurements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void rebuild(Instant from, Instant to, RollupResolution resolution) {
+            rebuilt.add(resolution + " " + from + " " + to);
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("rollup store unavailable");
+            }
+        }
+
+        @Override
+        public List<RollupBucket> find(String deviceId, MeasurementType type, Instant from, Instant to,
+                RollupResolution resolution) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Clock whose instant tests move by hand.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
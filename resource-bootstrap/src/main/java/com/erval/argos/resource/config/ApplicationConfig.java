@@ -1,12 +1,36 @@
 package com.erval.argos.resource.config;
 
+import java.time.Duration;
+import java.time.Instant;
+
+import com.erval.argos.application.alert.AlertEngine;
+import com.erval.argos.application.alert.AlertRuleService;
+import com.erval.argos.application.alert.DeviceThresholds;
+import com.erval.argos.application.device.DeviceExistenceCache;
+import com.erval.argos.application.device.DeviceRegistry;
 import com.erval.argos.application.device.DeviceService;
+import com.erval.argos.application.measurement.LatestMeasurementCache;
+import com.erval.argos.application.measurement.MeasurementAggregationService;
+import com.erval.argos.application.measurement.MeasurementRollupService;
 import com.erval.argos.application.measurement.MeasurementService;
+import com.erval.argos.application.measurement.MeasurementWriteBuffer;
+import com.erval.argos.application.measurement.RollupRebuilder;
+import com.erval.argos.core.application.port.out.AlertPublisherPort;
+import com.erval.argos.core.application.port.out.AlertRepositoryPort;
+import com.erval.argos.core.application.port.out.AlertRuleRepositoryPort;
+import com.erval.argos.core.application.port.out.DeviceChangeFeedPort;
 import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.application.port.out.MeasurementPublisherPort;
 import com.erval.argos.core.application.port.out.MeasurementRepositoryPort;
+import com.erval.argos.core.application.port.out.MeasurementRollupPort;
+import com.erval.argos.mongo.MongoDeviceRepositoryAdapter;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 /**
  * Wires application-layer services with their required ports.
@@ -14,14 +38,122 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class ApplicationConfig {
 
+    @Bean(destroyMethod = "close")
+    public DeviceExistenceCache deviceExistenceCache(ObjectProvider<DeviceChangeFeedPort> deviceChangeFeed,
+            @Value("${argos.resource.device-cache.max-size:50000}") int maxSize,
+            @Value("${argos.resource.device-cache.ttl:5m}") Duration ttl) {
+        return new DeviceExistenceCache(maxSize, ttl)
+                .start(deviceChangeFeed.getIfAvailable(DeviceChangeFeedPort::none));
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "argos.resource.device-registry.enabled", havingValue = "true",
+            matchIfMissing = true)
+    public DeviceRegistry deviceRegistry(MongoDeviceRepositoryAdapter mongoDeviceRepositoryAdapter,
+            ObjectProvider<DeviceChangeFeedPort> deviceChangeFeed,
+            @Value("${argos.resource.device-registry.load-batch-size:1000}") int loadBatchSize) {
+        DeviceRegistry registry = new DeviceRegistry(mongoDeviceRepositoryAdapter, loadBatchSize);
+        registry.start(deviceChangeFeed.getIfAvailable(DeviceChangeFeedPort::none));
+        return registry;
+    }
+
+    @Bean(destroyMethod = "close")
+    public DeviceThresholds deviceThresholds(DeviceRepositoryPort deviceRepositoryPort,
+            ObjectProvider<DeviceChangeFeedPort> deviceChangeFeed,
+            @Value("${argos.resource.device-registry.load-batch-size:1000}") int loadBatchSize,
+            @Value("${argos.resource.alerts.thresholds-refresh-interval:1m}") Duration refreshInterval) {
+        return new DeviceThresholds().start(deviceRepositoryPort,
+                deviceChangeFeed.getIfAvailable(DeviceChangeFeedPort::none), loadBatchSize, refreshInterval);
+    }
+
     @Bean
-    public DeviceService deviceService(DeviceRepositoryPort deviceRepositoryPort) {
-        return new DeviceService(deviceRepositoryPort);
+    public DeviceService deviceService(DeviceRepositoryPort deviceRepositoryPort,
+            DeviceExistenceCache deviceExistenceCache, DeviceThresholds deviceThresholds) {
+        return new DeviceService(deviceRepositoryPort, deviceExistenceCache, deviceThresholds);
+    }
+
+    @Bean
+    public LatestMeasurementCache latestMeasurementCache(
+            @Value("${argos.resource.latest-cache.depth:0}") int depth,
+            @Value("${argos.resource.latest-cache.max-devices:10000}") int maxDevices,
+            @Value("${argos.resource.latest-cache.ttl:5s}") Duration ttl) {
+        return new LatestMeasurementCache(depth, maxDevices, ttl);
+    }
+
+    @Bean(destroyMethod = "close")
+    public AlertEngine alertEngine(AlertRuleRepositoryPort alertRuleRepositoryPort,
+            ObjectProvider<AlertPublisherPort> alertPublisherPort,
+            ObjectProvider<AlertRepositoryPort> alertRepositoryPort, DeviceThresholds deviceThresholds, MeasurementRepositoryPort measurementRepositoryPort,
+            @Value("${argos.resource.alerts.refresh-interval:1m}") Duration refreshInterval) {
+        return new AlertEngine(alertPublisherPort.getIfAvailable(AlertPublisherPort::none), deviceThresholds,
+                measurementRepositoryPort, alertRepositoryPort.getIfAvailable(AlertRepositoryPort::none))
+                .start(alertRuleRepositoryPort::findAllActive, refreshInterval);
+    }
+
+    @Bean
+    public AlertRuleService alertRuleService(AlertRuleRepositoryPort alertRuleRepositoryPort,
+            DeviceRepositoryPort deviceRepositoryPort, AlertEngine alertEngine) {
+        return new AlertRuleService(alertRuleRepositoryPort, deviceRepositoryPort, alertEngine);
+    }
+
+    @Bean(destroyMethod = "close")
+    public RollupRebuilder rollupRebuilder(ObjectProvider<MeasurementRollupPort> measurementRollupPort,
+            @Value("${argos.resource.rollups.rebuild-interval:1m}") Duration rebuildInterval,
+            @Value("${argos.resource.rollups.backfill:0s}") Duration backfill) {
+        MeasurementRollupPort rollups = measurementRollupPort.getIfAvailable();
+        if (rollups == null) {
+            return RollupRebuilder.disabled();
+        }
+        RollupRebuilder rebuilder = new RollupRebuilder(rollups);
+        if (!backfill.isZero() && !backfill.isNegative()) {
+            Instant now = Instant.now();
+            rebuilder.markStale(now.minus(backfill), now);
+        }
+        return rebuilder.start(rebuildInterval);
     }
 
     @Bean
     public MeasurementService measurementService(MeasurementRepositoryPort measurementRepositoryPort,
-            DeviceRepositoryPort deviceRepositoryPort) {
-        return new MeasurementService(measurementRepositoryPort, deviceRepositoryPort);
+            DeviceRepositoryPort deviceRepositoryPort, DeviceExistenceCache deviceExistenceCache,
+            ObjectProvider<MeasurementRollupPort> measurementRollupPort, RollupRebuilder rollupRebuilder,
+            LatestMeasurementCache latestMeasurementCache, AlertEngine alertEngine,
+            ObjectProvider<MeasurementPublisherPort> measurementPublisherPort) {
+        MeasurementService.Builder builder = MeasurementService.builder(measurementRepositoryPort, deviceRepositoryPort)
+                .deviceCache(deviceExistenceCache)
+                .rollupRebuilder(rollupRebuilder)
+                .latest(latestMeasurementCache)
+                .alerts(alertEngine);
+        measurementRollupPort.ifAvailable(builder::rollups);
+        measurementPublisherPort.ifAvailable(builder::publisher);
+        return builder.build();
+    }
+
+    @Bean
+    public MeasurementRollupService measurementRollupService(
+            ObjectProvider<MeasurementRollupPort> measurementRollupPort) {
+        return new MeasurementRollupService(measurementRollupPort.getIfAvailable(MeasurementRollupPort::disabled));
+    }
+
+    @Bean
+    public MeasurementAggregationService measurementAggregationService(
+            MeasurementRepositoryPort measurementRepositoryPort,
+            @Value("${argos.resource.aggregation.max-buckets:10000}") int maxBuckets) {
+        return new MeasurementAggregationService(measurementRepositoryPort, maxBuckets);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "argos.resource.ingestion.mode", havingValue = "buffered")
+    public MeasurementWriteBuffer measurementWriteBuffer(MeasurementService measurementService,
+            @Value("${argos.resource.ingestion.capacity:100000}") int capacity,
+            @Value("${argos.resource.ingestion.max-batch-size:1000}") int maxBatchSize,
+            @Value("${argos.resource.ingestion.max-delay:50ms}") Duration maxDelay,
+            @Value("${argos.resource.ingestion.ack:PERSISTED}") MeasurementWriteBuffer.AckLevel ackLevel,
+            @Value("${argos.resource.ingestion.overflow:REJECT}") MeasurementWriteBuffer.OverflowPolicy overflow,
+            @Value("${argos.resource.ingestion.offer-timeout:100ms}") Duration offerTimeout,
+            @Value("${argos.resource.ingestion.ack-timeout:30s}") Duration ackTimeout) {
+        return new MeasurementWriteBuffer(measurementService, new MeasurementWriteBuffer.Options(
+                capacity, maxBatchSize, maxDelay, ackLevel, overflow, offerTimeout, ackTimeout));
     }
 }
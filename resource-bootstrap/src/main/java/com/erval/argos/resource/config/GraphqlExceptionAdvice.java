@@ -2,6 +2,8 @@ package com.erval.argos.resource.config;
 
 import java.util.NoSuchElementException;
 
+import com.erval.argos.application.measurement.IngestionRejectedException;
+
 import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -35,6 +37,15 @@ public class GraphqlExceptionAdvice {
                 .build();
     }
 
+    @GraphQlExceptionHandler
+    @org.springframework.web.bind.annotation.ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public GraphQLError handleIngestionRejected(IngestionRejectedException ex) {
+        return GraphqlErrorBuilder.newError()
+                .message(ex.getMessage())
+                .errorType(ErrorType.DataFetchingException)
+                .build();
+    }
+
     @GraphQlExceptionHandler
     public GraphQLError handleResponseStatus(ResponseStatusException ex) {
         HttpStatus status = ex.getStatusCode() instanceof HttpStatus http ? http : HttpStatus.BAD_REQUEST;
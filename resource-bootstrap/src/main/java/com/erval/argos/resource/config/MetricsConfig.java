@@ -0,0 +1,112 @@
+package com.erval.argos.resource.config;
+
+import java.util.function.ToDoubleFunction;
+
+import com.erval.argos.application.alert.AlertEngine;
+import com.erval.argos.application.device.DeviceExistenceCache;
+import com.erval.argos.application.measurement.LatestMeasurementCache;
+import com.erval.argos.application.measurement.MeasurementWriteBuffer;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.resource.live.LiveAlert;
+import com.erval.argos.resource.live.LiveFeed;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes the counters of in-memory caches, the write buffer, the alert
+ * engine and the live feeds as Micrometer meters.
+ * <p>
+ * Meters read the components' own counters when scraped, so nothing is
+ * recorded on the hot paths twice. Cache meters follow Micrometer's
+ * {@code cache.*} names, tagged with the cache name.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder deviceExistenceCacheMetrics(DeviceExistenceCache deviceExistenceCache) {
+        return registry -> {
+            String name = "device-existence";
+            cacheGets(registry, name, "hit", deviceExistenceCache, cache -> cache.stats().hits());
+            cacheGets(registry, name, "miss", deviceExistenceCache, cache -> cache.stats().misses());
+            counter(registry, "cache.evictions", "cache", name, deviceExistenceCache,
+                    cache -> cache.stats().evictions());
+            gauge(registry, "cache.size", "cache", name, deviceExistenceCache, cache -> cache.stats().size());
+        };
+    }
+
+    @Bean
+    public MeterBinder latestMeasurementCacheMetrics(LatestMeasurementCache latestMeasurementCache) {
+        return registry -> {
+            String name = "latest-measurements";
+            cacheGets(registry, name, "hit", latestMeasurementCache, cache -> cache.stats().hits());
+            cacheGets(registry, name, "miss", latestMeasurementCache, cache -> cache.stats().misses());
+            counter(registry, "cache.loads", "cache", name, latestMeasurementCache, cache -> cache.stats().loads());
+            counter(registry, "cache.evictions", "cache", name, latestMeasurementCache,
+                    cache -> cache.stats().evictions());
+            gauge(registry, "cache.size", "cache", name, latestMeasurementCache, cache -> cache.stats().devices());
+        };
+    }
+
+    @Bean
+    public MeterBinder measurementWriteBufferMetrics(MeasurementWriteBuffer measurementWriteBuffer) {
+        return registry -> {
+            gauge(registry, "argos.ingestion.queued", "buffer", "measurements", measurementWriteBuffer,
+                    buffer -> buffer.stats().queued());
+            ingestion(registry, "accepted", measurementWriteBuffer, buffer -> buffer.stats().accepted());
+            ingestion(registry, "rejected", measurementWriteBuffer, buffer -> buffer.stats().rejected());
+            ingestion(registry, "persisted", measurementWriteBuffer, buffer -> buffer.stats().persisted());
+            ingestion(registry, "failed", measurementWriteBuffer, buffer -> buffer.stats().failed());
+            counter(registry, "argos.ingestion.batches", "buffer", "measurements", measurementWriteBuffer,
+                    buffer -> buffer.stats().batches());
+        };
+    }
+
+    @Bean
+    public MeterBinder alertEngineMetrics(AlertEngine alertEngine) {
+        return registry -> counter(registry, "argos.alerts.raised", "source", "engine", alertEngine,
+                AlertEngine::raisedCount);
+    }
+
+    @Bean
+    public MeterBinder liveFeedMetrics(LiveFeed<Measurement> measurementFeed, LiveFeed<LiveAlert> alertFeed) {
+        return registry -> {
+            counter(registry, "argos.live.dropped", "feed", "measurements", measurementFeed, LiveFeed::droppedCount);
+            counter(registry, "argos.live.dropped", "feed", "alerts", alertFeed, LiveFeed::droppedCount);
+        };
+    }
+
+    private static <T> void cacheGets(MeterRegistry registry, String cache, String result, T source,
+            ToDoubleFunction<T> count) {
+        FunctionCounter.builder("cache.gets", source, count)
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static <T> void ingestion(MeterRegistry registry, String outcome, T source, ToDoubleFunction<T> count) {
+        FunctionCounter.builder("argos.ingestion.measurements", source, count)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, String tagKey, String tagValue, T source,
+            ToDoubleFunction<T> count) {
+        FunctionCounter.builder(name, source, count)
+                .tag(tagKey, tagValue)
+                .register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, String tagKey, String tagValue, T source,
+            ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value)
+                .tag(tagKey, tagValue)
+                .register(registry);
+    }
+}
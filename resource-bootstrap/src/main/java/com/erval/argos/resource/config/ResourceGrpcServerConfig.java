@@ -1,5 +1,9 @@
 package com.erval.argos.resource.config;
 
+import com.erval.argos.resource.adapters.grpc.LatestMeasurementsGrpcService;
+import com.erval.argos.resource.adapters.grpc.MeasurementAggregationGrpcService;
+import com.erval.argos.resource.adapters.grpc.MeasurementExportGrpcService;
+import com.erval.argos.resource.adapters.grpc.MeasurementIngestionGrpcService;
 import com.erval.argos.resource.adapters.grpc.ResourceQueryGrpcService;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -21,6 +25,10 @@ import lombok.extern.slf4j.Slf4j;
 public class ResourceGrpcServerConfig {
 
     private final ResourceQueryGrpcService resourceQueryGrpcService;
+    private final MeasurementIngestionGrpcService measurementIngestionGrpcService;
+    private final MeasurementAggregationGrpcService measurementAggregationGrpcService;
+    private final MeasurementExportGrpcService measurementExportGrpcService;
+    private final LatestMeasurementsGrpcService latestMeasurementsGrpcService;
 
     private Server server;
 
@@ -29,6 +37,10 @@ public class ResourceGrpcServerConfig {
             @Value("${argos.resource.grpc.port:9091}") int port) throws Exception {
         this.server = ServerBuilder.forPort(port)
                 .addService(resourceQueryGrpcService)
+                .addService(measurementIngestionGrpcService)
+                .addService(measurementAggregationGrpcService)
+                .addService(measurementExportGrpcService)
+                .addService(latestMeasurementsGrpcService)
                 .build()
                 .start();
 
@@ -0,0 +1,69 @@
+package com.erval.argos.resource.config;
+
+import java.util.UUID;
+
+import com.erval.argos.core.application.port.out.AlertPublisherPort;
+import com.erval.argos.core.application.port.out.DeviceRepositoryPort;
+import com.erval.argos.core.application.port.out.MeasurementPublisherPort;
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.mongo.MongoAlertAdapter;
+import com.erval.argos.resource.live.LiveAlert;
+import com.erval.argos.resource.live.LiveFeed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Wires the live feeds behind GraphQL subscriptions into the ingest path.
+ */
+@Configuration
+public class SubscriptionConfig {
+
+    @Bean(destroyMethod = "close")
+    public LiveFeed<Measurement> measurementFeed(
+            @Value("${argos.resource.subscriptions.buffer-size:256}") int bufferSize,
+            @Value("${argos.resource.subscriptions.measurements.overflow:DROP}") LiveFeed.OverflowPolicy overflow) {
+        return new LiveFeed<>("live-measurements", bufferSize, overflow);
+    }
+
+    @Bean(destroyMethod = "close")
+    public LiveFeed<LiveAlert> alertFeed(
+            @Value("${argos.resource.subscriptions.buffer-size:256}") int bufferSize,
+            @Value("${argos.resource.subscriptions.alerts.overflow:DROP}") LiveFeed.OverflowPolicy overflow) {
+        return new LiveFeed<>("live-alerts", bufferSize, overflow);
+    }
+
+    @Bean
+    public MeasurementPublisherPort measurementPublisherPort(LiveFeed<Measurement> measurementFeed) {
+        return measurements -> {
+            if (measurementFeed.hasSubscribers()) {
+                measurements.forEach(measurementFeed::publish);
+            }
+        };
+    }
+
+    /**
+     * Stores alerts and fans them out to live subscribers. Alerts get their
+     * id here, so the stored and the live copy share it.
+     */
+    @Bean
+    @Primary
+    public AlertPublisherPort liveAlertPublisher(MongoAlertAdapter mongoAlertAdapter,
+            LiveFeed<LiveAlert> alertFeed, DeviceRepositoryPort deviceRepositoryPort) {
+        return alert -> {
+            Alert identified = alert.id() != null ? alert : new Alert(UUID.randomUUID().toString(), alert.ruleId(),
+                    alert.deviceId(), alert.description(), alert.timestamp(), alert.state());
+            mongoAlertAdapter.publish(identified);
+            if (alertFeed.hasSubscribers()) {
+                String building = identified.deviceId() != null
+                        ? deviceRepositoryPort.findById(identified.deviceId()).map(Device::building).orElse(null)
+                        : null;
+                alertFeed.publish(new LiveAlert(identified, building));
+            }
+        };
+    }
+}
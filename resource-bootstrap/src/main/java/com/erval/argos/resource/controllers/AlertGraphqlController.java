@@ -0,0 +1,49 @@
+package com.erval.argos.resource.controllers;
+
+import java.util.List;
+
+import com.erval.argos.core.application.port.in.commands.AlertRuleCommandUseCase;
+import com.erval.argos.core.application.port.in.queries.AlertRuleQueryUseCase;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.resource.dto.CreateAlertRuleInput;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+
+@Controller
+@Validated
+@RequiredArgsConstructor
+public class AlertGraphqlController {
+
+    private final AlertRuleCommandUseCase alertRuleCommandUseCase;
+    private final AlertRuleQueryUseCase alertRuleQueryUseCase;
+
+    @QueryMapping
+    public List<AlertRule> alertRules(@Argument("deviceId") String deviceId) {
+        return alertRuleQueryUseCase.findAlertRules(deviceId);
+    }
+
+    @MutationMapping
+//    @PreAuthorize("isAuthenticated()")
+    public AlertRule createAlertRule(@Argument("input") @Valid CreateAlertRuleInput input) {
+        return alertRuleCommandUseCase.createAlertRule(GraphqlMapper.toCreateAlertRuleCommand(input));
+    }
+
+    @MutationMapping
+//    @PreAuthorize("isAuthenticated()")
+    public AlertRule setAlertRuleActive(@Argument("id") String id, @Argument("active") boolean active) {
+        return alertRuleCommandUseCase.setAlertRuleActive(id, active);
+    }
+
+    @MutationMapping
+//    @PreAuthorize("isAuthenticated()")
+    public Boolean deleteAlertRule(@Argument("id") String id) {
+        alertRuleCommandUseCase.deleteAlertRule(id);
+        return true;
+    }
+}
@@ -1,24 +1,35 @@
 package com.erval.argos.resource.controllers;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase;
 import com.erval.argos.core.domain.device.Device;
 import com.erval.argos.resource.dto.*;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 
+import com.erval.argos.core.application.BatchItemResult;
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
 import com.erval.argos.core.application.port.in.commands.DeviceCommandUseCase;
 import com.erval.argos.core.application.port.in.commands.MeasurementCommandUseCase;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase;
 import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase;
+import com.erval.argos.core.application.port.in.queries.MeasurementRollupUseCase;
+import com.erval.argos.core.application.port.in.queries.MeasurementRollupUseCase.RollupSeries;
 import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
 
+import graphql.schema.DataFetchingEnvironment;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 
@@ -29,28 +40,90 @@ public class DeviceGraphqlController {
 
     private static final String DEFAULT_DEVICE_SORT = "name";
     private static final String DEFAULT_MEASUREMENT_SORT = "timestamp";
+    private static final String TOTAL_ELEMENTS = "totalElements";
+    private static final String TOTAL_COUNT = "totalCount";
+    private static final String PAGE_ITEMS = "content";
+    private static final String CONNECTION_ITEMS = "nodes";
 
     private final DeviceCommandUseCase deviceCommandUseCase;
     private final DeviceQueryUseCase deviceQueryUseCase;
     private final MeasurementCommandUseCase measurementCommandUseCase;
     private final MeasurementQueryUseCase measurementQueryUseCase;
+    private final MeasurementAggregationUseCase measurementAggregationUseCase;
+    private final MeasurementRollupUseCase measurementRollupUseCase;
 
     @QueryMapping
     public PageResult<Device> devices(
             @Argument("filter") @Valid DeviceFilterInput filter,
-            @Argument("page") @Valid PageRequestInput pageInput) {
-        PageRequest pageRequest = GraphqlMapper.toPageRequest(pageInput, DEFAULT_DEVICE_SORT);
+            @Argument("page") @Valid PageRequestInput pageInput,
+            DataFetchingEnvironment env) {
+        PageRequest pageRequest = GraphqlMapper.toPageRequest(pageInput, DEFAULT_DEVICE_SORT,
+                env.getSelectionSet().contains(TOTAL_ELEMENTS))
+                .withFields(GraphqlMapper.selectedFields(env.getSelectionSet(), PAGE_ITEMS));
         return deviceQueryUseCase.findDevices(GraphqlMapper.toDeviceFilter(filter), pageRequest);
     }
 
     @QueryMapping
     public PageResult<Measurement> measurements(
             @Argument("filter") @Valid MeasurementFilterInput filter,
-            @Argument("page") @Valid PageRequestInput pageInput) {
-        PageRequest pageRequest = normalizeMeasurementSort(GraphqlMapper.toPageRequest(pageInput, DEFAULT_MEASUREMENT_SORT));
+            @Argument("page") @Valid PageRequestInput pageInput,
+            DataFetchingEnvironment env) {
+        PageRequest pageRequest = normalizeMeasurementSort(GraphqlMapper.toPageRequest(pageInput,
+                DEFAULT_MEASUREMENT_SORT, env.getSelectionSet().contains(TOTAL_ELEMENTS)))
+                .withFields(GraphqlMapper.selectedMeasurementFields(env.getSelectionSet(), PAGE_ITEMS));
         return measurementQueryUseCase.findMeasurements(GraphqlMapper.toMeasurementFilter(filter), pageRequest);
     }
 
+    @QueryMapping
+    public Connection<Device> devicesConnection(
+            @Argument("filter") @Valid DeviceFilterInput filter,
+            @Argument("page") @Valid CursorPageInput pageInput,
+            DataFetchingEnvironment env) {
+        PageRequest pageRequest = GraphqlMapper.toPageRequest(pageInput, DEFAULT_DEVICE_SORT,
+                env.getSelectionSet().contains(TOTAL_COUNT))
+                .withFields(GraphqlMapper.selectedFields(env.getSelectionSet(), CONNECTION_ITEMS));
+        return GraphqlMapper.toConnection(
+                deviceQueryUseCase.findDevices(GraphqlMapper.toDeviceFilter(filter), pageRequest));
+    }
+
+    @QueryMapping
+    public Connection<Measurement> measurementsConnection(
+            @Argument("filter") @Valid MeasurementFilterInput filter,
+            @Argument("page") @Valid CursorPageInput pageInput,
+            DataFetchingEnvironment env) {
+        PageRequest pageRequest = normalizeMeasurementSort(GraphqlMapper.toPageRequest(pageInput,
+                DEFAULT_MEASUREMENT_SORT, env.getSelectionSet().contains(TOTAL_COUNT)))
+                .withFields(GraphqlMapper.selectedMeasurementFields(env.getSelectionSet(), CONNECTION_ITEMS));
+        return GraphqlMapper.toConnection(
+                measurementQueryUseCase.findMeasurements(GraphqlMapper.toMeasurementFilter(filter), pageRequest));
+    }
+
+    @QueryMapping
+    public List<MeasurementBucket> measurementAggregates(
+            @Argument("input") @Valid MeasurementAggregationInput input) {
+        return measurementAggregationUseCase.aggregate(GraphqlMapper.toAggregationQuery(input));
+    }
+
+    @QueryMapping
+    public RollupSeries measurementRollups(@Argument("input") @Valid MeasurementRollupInput input) {
+        return measurementRollupUseCase.findRollups(GraphqlMapper.toRollupQuery(input));
+    }
+
+    @BatchMapping(typeName = "Measurement")
+    public Map<Measurement, Device> device(List<Measurement> measurements) {
+        Map<String, Device> devices = deviceQueryUseCase.findByIds(measurements.stream()
+                .map(Measurement::deviceId)
+                .toList());
+        Map<Measurement, Device> result = new HashMap<>();
+        for (Measurement measurement : measurements) {
+            Device device = devices.get(measurement.deviceId());
+            if (device != null) {
+                result.put(measurement, device);
+            }
+        }
+        return result;
+    }
+
     @MutationMapping
 //    @PreAuthorize("isAuthenticated()")
     public Device createDevice(@Argument("input") @Valid CreateDeviceInput input) {
@@ -63,6 +136,12 @@ public class DeviceGraphqlController {
         return deviceCommandUseCase.updateDevice(id, GraphqlMapper.toUpdateDeviceCommand(input));
     }
 
+    @MutationMapping
+//    @PreAuthorize("isAuthenticated()")
+    public Device setDeviceConfig(@Argument("id") String id, @Argument("config") @Valid DeviceConfigInput config) {
+        return deviceCommandUseCase.setDeviceConfig(id, GraphqlMapper.toDeviceConfig(config));
+    }
+
     @MutationMapping
 //    @PreAuthorize("isAuthenticated()")
     public Boolean deleteDevice(@Argument("id") String id) {
@@ -76,6 +155,15 @@ public class DeviceGraphqlController {
         return measurementCommandUseCase.createMeasurement(GraphqlMapper.toCreateMeasurementCommand(input));
     }
 
+    @MutationMapping
+//    @PreAuthorize("isAuthenticated()")
+    public List<BatchItemResult<Measurement>> createMeasurements(
+            @Argument("input") @Size(max = 1000) List<CreateMeasurementInput> input) {
+        return measurementCommandUseCase.createMeasurements(input.stream()
+                .map(GraphqlMapper::toCreateMeasurementCommand)
+                .toList());
+    }
+
     @MutationMapping
 //    @PreAuthorize("isAuthenticated()")
     public Boolean deleteMeasurement(@Argument("id") @Valid String id) {
@@ -84,10 +172,11 @@ public class DeviceGraphqlController {
     }
 
     private PageRequest normalizeMeasurementSort(PageRequest pageRequest) {
-        Set<String> allowed = Set.of("timestamp", "value", "type", "deviceId");
+        Set<String> allowed = Set.of("timestamp", "value", "type", "deviceId", "sequenceNumber");
         if (pageRequest.sortBy() != null && allowed.contains(pageRequest.sortBy())) {
             return pageRequest;
         }
-        return new PageRequest(pageRequest.page(), pageRequest.size(), DEFAULT_MEASUREMENT_SORT, pageRequest.direction());
+        return new PageRequest(pageRequest.page(), pageRequest.size(), DEFAULT_MEASUREMENT_SORT, pageRequest.direction(),
+                pageRequest.after(), pageRequest.countMode(), pageRequest.fields());
     }
 }
@@ -1,23 +1,41 @@
 package com.erval.argos.resource.controllers;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import com.erval.argos.core.application.CountMode;
 import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
 import com.erval.argos.core.application.SortDirection;
+import com.erval.argos.core.application.port.in.commands.AlertRuleCommandUseCase.CreateAlertRuleCommand;
 import com.erval.argos.core.application.port.in.commands.DeviceCommandUseCase.CreateDeviceCommand;
 import com.erval.argos.core.application.port.in.commands.DeviceCommandUseCase.UpdateDeviceCommand;
 import com.erval.argos.core.application.port.in.commands.MeasurementCommandUseCase.CreateMeasurementCommand;
 import com.erval.argos.core.application.port.in.queries.DeviceQueryUseCase.DeviceFilter;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
 import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.application.port.in.queries.MeasurementRollupUseCase.RollupQuery;
+import com.erval.argos.core.domain.alert.AlertPolicy;
+import com.erval.argos.core.domain.alert.AlertWindow;
+import com.erval.argos.core.domain.device.DeviceConfig;
 import com.erval.argos.resource.dto.*;
 
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+
 final class GraphqlMapper {
 
+    private static final int DEFAULT_ROLLUP_POINTS = 500;
+
     private GraphqlMapper() {
     }
 
-    static PageRequest toPageRequest(PageRequestInput input, String defaultSortBy) {
+    static PageRequest toPageRequest(PageRequestInput input, String defaultSortBy, boolean totalSelected) {
         int page = input != null && input.page() != null ? input.page() : 0;
         int size = input != null && input.size() != null ? input.size() : 20;
         String sortBy = input != null && input.sortBy() != null && !input.sortBy().isBlank()
@@ -26,14 +44,71 @@ final class GraphqlMapper {
         SortDirection direction = input != null && input.sortDirection() != null
                 ? input.sortDirection()
                 : SortDirection.ASC;
-        return new PageRequest(page, size, sortBy, direction);
+        CountMode countMode = countMode(input != null ? input.countMode() : null, totalSelected);
+        return new PageRequest(page, size, sortBy, direction, null, countMode);
+    }
+
+    static PageRequest toPageRequest(CursorPageInput input, String defaultSortBy, boolean totalSelected) {
+        int size = input != null && input.first() != null ? input.first() : 20;
+        String sortBy = input != null && input.sortBy() != null && !input.sortBy().isBlank()
+                ? input.sortBy()
+                : defaultSortBy;
+        SortDirection direction = input != null && input.sortDirection() != null
+                ? input.sortDirection()
+                : SortDirection.ASC;
+        String after = input != null && input.after() != null && !input.after().isBlank() ? input.after() : null;
+        CountMode countMode = countMode(input != null ? input.countMode() : null, totalSelected);
+        return new PageRequest(0, size, sortBy, direction, after, countMode);
+    }
+
+    static <T> Connection<T> toConnection(PageResult<T> page) {
+        return new Connection<>(
+                page.content(),
+                new Connection.PageInfo(page.nextCursor(), page.hasNext()),
+                page.totalElements(),
+                page.totalCapped());
+    }
+
+    /**
+     * Collects the fields requested on the items of a page, used as a
+     * projection hint for the repository.
+     *
+     * @param selection selection set of the paged query
+     * @param itemField field holding the items, e.g. {@code content}
+     * @return names of the selected item fields
+     */
+    static Set<String> selectedFields(DataFetchingFieldSelectionSet selection, String itemField) {
+        return selection.getFields(itemField + "/*").stream()
+                .map(SelectedField::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Collects the fields requested on measurement items. Selecting the
+     * resolved {@code device} also loads {@code deviceId}, which it is
+     * fetched by.
+     *
+     * @param selection selection set of the paged query
+     * @param itemField field holding the items, e.g. {@code content}
+     * @return names of the selected measurement fields
+     */
+    static Set<String> selectedMeasurementFields(DataFetchingFieldSelectionSet selection, String itemField) {
+        Set<String> fields = selectedFields(selection, itemField);
+        if (!fields.contains("device") || fields.contains("deviceId")) {
+            return fields;
+        }
+        Set<String> withDeviceId = new HashSet<>(fields);
+        withDeviceId.add("deviceId");
+        return withDeviceId;
     }
 
     static DeviceFilter toDeviceFilter(DeviceFilterInput input) {
         if (input == null) {
             return null;
         }
-        return new DeviceFilter(input.building(), input.room(), input.type(), input.active());
+        return new DeviceFilter(input.building(), input.room(), input.type(), input.active(),
+                input.anyTags() != null ? Set.copyOf(input.anyTags()) : null,
+                input.allTags() != null ? Set.copyOf(input.allTags()) : null);
     }
 
     static MeasurementFilter toMeasurementFilter(MeasurementFilterInput input) {
@@ -45,8 +120,56 @@ final class GraphqlMapper {
         return new MeasurementFilter(input.deviceId(), input.type(), from, to);
     }
 
+    static AggregationQuery toAggregationQuery(MeasurementAggregationInput input) {
+        Duration interval = parseDuration(input.interval(), "interval");
+        return new AggregationQuery(
+                input.deviceId(),
+                input.type(),
+                parseInstant(input.from()),
+                parseInstant(input.to()),
+                interval);
+    }
+
+    static RollupQuery toRollupQuery(MeasurementRollupInput input) {
+        return new RollupQuery(
+                input.deviceId(),
+                input.type(),
+                parseInstant(input.from()),
+                parseInstant(input.to()),
+                input.maxPoints() != null ? input.maxPoints() : DEFAULT_ROLLUP_POINTS);
+    }
+
+    static CreateAlertRuleCommand toCreateAlertRuleCommand(CreateAlertRuleInput input) {
+        AlertWindow window = input.window() != null
+                ? new AlertWindow(input.window().aggregate(), parseDuration(input.window().length(), "window length"))
+                : null;
+        return new CreateAlertRuleCommand(input.deviceId(), input.type(), input.threshold(), input.comparison(),
+                window, toAlertPolicy(input.policy()));
+    }
+
+    static AlertPolicy toAlertPolicy(AlertPolicyInput input) {
+        if (input == null) {
+            return null;
+        }
+        return new AlertPolicy(
+                input.hysteresis() != null ? input.hysteresis() : 0,
+                input.minDuration() != null ? parseDuration(input.minDuration(), "minimum duration") : null,
+                input.renotifyInterval() != null
+                        ? parseDuration(input.renotifyInterval(), "re-notify interval")
+                        : null);
+    }
+
     static CreateDeviceCommand toCreateDeviceCommand(CreateDeviceInput input) {
-        return new CreateDeviceCommand(input.name(), input.type(), input.building(), input.room());
+        return new CreateDeviceCommand(input.name(), input.type(), input.building(), input.room(),
+                toDeviceConfig(input.config()));
+    }
+
+    static DeviceConfig toDeviceConfig(DeviceConfigInput input) {
+        if (input == null) {
+            return null;
+        }
+        return new DeviceConfig(input.minValue(), input.maxValue(), input.alertOnThreshold(),
+                input.tags() != null ? List.copyOf(input.tags()) : null);
     }
 
     static UpdateDeviceCommand toUpdateDeviceCommand(UpdateDeviceInput input) {
@@ -67,6 +190,22 @@ final class GraphqlMapper {
                 timestamp);
     }
 
+    private static CountMode countMode(CountMode requested, boolean totalSelected) {
+        if (!totalSelected) {
+            return CountMode.NONE;
+        }
+        return requested != null ? requested : CountMode.EXACT;
+    }
+
+    private static Duration parseDuration(String value, String field) {
+        try {
+            return Duration.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid " + field + " format, expected ISO-8601 duration: "
+                    + value, ex);
+        }
+    }
+
     private static Instant parseInstant(String value) {
         if (value == null || value.isBlank()) {
             return null;
@@ -0,0 +1,73 @@
+package com.erval.argos.resource.controllers;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.resource.dto.MeasurementFilterInput;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * HTTP endpoint exporting measurement ranges as newline-delimited JSON.
+ * <p>
+ * Measurements are read from a storage cursor and written one per line.
+ * Writes block while the client is not reading, which in turn pauses the
+ * cursor, so memory use stays constant regardless of the range size.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MeasurementExportController {
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final MeasurementQueryUseCase measurementQuery;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Streams all measurements matching the optional query parameters
+     * {@code deviceId}, {@code type}, {@code from} and {@code to}, ordered by
+     * timestamp ascending.
+     *
+     * @param input filter taken from the query parameters
+     * @return streaming NDJSON response
+     */
+    @GetMapping(value = "/measurements/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@Valid MeasurementFilterInput input) {
+        MeasurementFilter filter;
+        try {
+            filter = GraphqlMapper.toMeasurementFilter(input);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+        StreamingResponseBody body = out -> write(filter, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void write(MeasurementFilter filter, OutputStream out) throws IOException {
+        try (Stream<Measurement> measurements = measurementQuery.streamMeasurements(filter)) {
+            OutputStream buffered = new BufferedOutputStream(out, WRITE_BUFFER_BYTES);
+            Iterator<Measurement> it = measurements.iterator();
+            while (it.hasNext()) {
+                buffered.write(jsonMapper.writeValueAsBytes(it.next()));
+                buffered.write('\n');
+            }
+            buffered.flush();
+        }
+    }
+}
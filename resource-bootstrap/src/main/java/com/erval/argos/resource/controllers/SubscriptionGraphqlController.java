@@ -0,0 +1,34 @@
+package com.erval.argos.resource.controllers;
+
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.resource.live.LiveAlert;
+import com.erval.argos.resource.live.LiveFeed;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@Controller
+@RequiredArgsConstructor
+public class SubscriptionGraphqlController {
+
+    private final LiveFeed<Measurement> measurementFeed;
+    private final LiveFeed<LiveAlert> alertFeed;
+
+    @SubscriptionMapping
+    public Flux<Measurement> measurementAdded(@Argument("deviceId") String deviceId,
+            @Argument("type") MeasurementType type) {
+        return measurementFeed.subscribe(measurement -> deviceId.equals(measurement.deviceId())
+                && (type == null || type == measurement.type()));
+    }
+
+    @SubscriptionMapping
+    public Flux<Alert> alertRaised(@Argument("building") String building) {
+        return alertFeed.subscribe(live -> building == null || building.equals(live.building()))
+                .map(LiveAlert::alert);
+    }
+}
@@ -0,0 +1,18 @@
+package com.erval.argos.resource.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * GraphQL input for the notification policy of an alert rule.
+ *
+ * @param hysteresis       margin the value must clear before the rule
+ *                         resolves
+ * @param minDuration      ISO-8601 duration a condition must hold, e.g.
+ *                         {@code PT1M}
+ * @param renotifyInterval ISO-8601 delay between reminders while firing
+ */
+public record AlertPolicyInput(
+        @PositiveOrZero Double hysteresis,
+        String minDuration,
+        String renotifyInterval) {
+}
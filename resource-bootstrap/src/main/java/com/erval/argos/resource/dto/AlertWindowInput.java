@@ -0,0 +1,17 @@
+package com.erval.argos.resource.dto;
+
+import com.erval.argos.core.domain.alert.WindowAggregate;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * GraphQL input for the sliding window of an alert rule.
+ *
+ * @param aggregate statistic computed over the window
+ * @param length    ISO-8601 window length, e.g. {@code PT5M}
+ */
+public record AlertWindowInput(
+        @NotNull WindowAggregate aggregate,
+        @NotBlank String length) {
+}
@@ -0,0 +1,25 @@
+package com.erval.argos.resource.dto;
+
+import java.util.List;
+
+/**
+ * GraphQL connection returned by cursor-paged queries.
+ *
+ * @param nodes       items of the current page
+ * @param pageInfo    cursor of the last item and whether more items follow
+ * @param totalCount  number of items matching the filter across all pages
+ * @param totalCapped whether {@code totalCount} is a lower bound
+ * @param <T>         item type
+ */
+public record Connection<T>(List<T> nodes, PageInfo pageInfo, long totalCount, boolean totalCapped) {
+
+    /**
+     * Paging state of a connection.
+     *
+     * @param endCursor   cursor to pass as {@code after} for the next page;
+     *                    {@code null} on the last page
+     * @param hasNextPage whether another page exists
+     */
+    public record PageInfo(String endCursor, boolean hasNextPage) {
+    }
+}
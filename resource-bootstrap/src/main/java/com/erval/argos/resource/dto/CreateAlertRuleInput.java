@@ -0,0 +1,27 @@
+package com.erval.argos.resource.dto;
+
+import com.erval.argos.core.domain.alert.Comparison;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * GraphQL input for creating alert rules.
+ *
+ * @param deviceId   watched device
+ * @param type       watched measurement type
+ * @param threshold  value compared against
+ * @param comparison operator applied as {@code value <op> threshold}
+ * @param window     optional sliding window to aggregate over
+ * @param policy     optional hysteresis, minimum duration and reminders
+ */
+public record CreateAlertRuleInput(
+        @NotBlank String deviceId,
+        @NotNull MeasurementType type,
+        @NotNull Double threshold,
+        @NotNull Comparison comparison,
+        @Valid AlertWindowInput window,
+        @Valid AlertPolicyInput policy) {
+}
@@ -2,6 +2,7 @@ package com.erval.argos.resource.dto;
 
 import com.erval.argos.core.domain.device.DeviceType;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -13,10 +14,12 @@ import jakarta.validation.constraints.Size;
  * @param type     device type
  * @param building building identifier
  * @param room     room identifier
+ * @param config   optional thresholds and tags
  */
 public record CreateDeviceInput(
         @NotBlank @Size(min = 3, max = 120) String name,
         @NotNull DeviceType type,
         @NotBlank @Size(min = 1, max = 60) String building,
-        @NotBlank @Size(min = 1, max = 60) String room) {
+        @NotBlank @Size(min = 1, max = 60) String room,
+        @Valid DeviceConfigInput config) {
 }
@@ -0,0 +1,26 @@
+package com.erval.argos.resource.dto;
+
+import com.erval.argos.core.application.CountMode;
+import com.erval.argos.core.application.SortDirection;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+/**
+ * GraphQL input for cursor-based paging of connection queries.
+ *
+ * @param first         number of items to return
+ * @param after         cursor from {@code pageInfo.endCursor} of the previous
+ *                      page; omit for the first page
+ * @param sortBy        field name to sort by
+ * @param sortDirection sort direction
+ * @param countMode     how {@code totalCount} is computed when selected
+ */
+public record CursorPageInput(
+        @Min(1) @Max(500) Integer first,
+        @Size(max = 1024) String after,
+        String sortBy,
+        SortDirection sortDirection,
+        CountMode countMode) {
+}
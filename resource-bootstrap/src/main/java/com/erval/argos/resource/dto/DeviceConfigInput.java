@@ -0,0 +1,20 @@
+package com.erval.argos.resource.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.Size;
+
+/**
+ * GraphQL input for device thresholds and tags.
+ *
+ * @param minValue         lower bound for readings
+ * @param maxValue         upper bound for readings
+ * @param alertOnThreshold whether readings outside the bounds raise alerts
+ * @param tags             labels for grouping or search
+ */
+public record DeviceConfigInput(
+        Double minValue,
+        Double maxValue,
+        Boolean alertOnThreshold,
+        @Size(max = 50) List<@Size(min = 1, max = 60) String> tags) {
+}
@@ -1,5 +1,7 @@
 package com.erval.argos.resource.dto;
 
+import java.util.List;
+
 import com.erval.argos.core.domain.device.DeviceType;
 
 import jakarta.validation.constraints.Size;
@@ -11,10 +13,14 @@ import jakarta.validation.constraints.Size;
  * @param room     room identifier to match
  * @param type     device type to match
  * @param active   active flag to match
+ * @param anyTags  tags of which a device needs at least one
+ * @param allTags  tags a device needs all of
  */
 public record DeviceFilterInput(
         @Size(max = 60) String building,
         @Size(max = 60) String room,
         DeviceType type,
-        Boolean active) {
+        Boolean active,
+        @Size(max = 50) List<@Size(max = 60) String> anyTags,
+        @Size(max = 50) List<@Size(max = 60) String> allTags) {
 }
@@ -0,0 +1,24 @@
+package com.erval.argos.resource.dto;
+
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * GraphQL input for time-bucketed measurement statistics.
+ *
+ * @param deviceId device identifier
+ * @param type     measurement type
+ * @param from     inclusive ISO-8601 window start
+ * @param to       exclusive ISO-8601 window end
+ * @param interval ISO-8601 bucket duration, e.g. {@code PT5M}
+ */
+public record MeasurementAggregationInput(
+        @NotBlank @Size(max = 120) String deviceId,
+        @NotNull MeasurementType type,
+        @NotBlank String from,
+        @NotBlank String to,
+        @NotBlank String interval) {
+}
@@ -0,0 +1,26 @@
+package com.erval.argos.resource.dto;
+
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * GraphQL input for reading pre-aggregated measurement rollups.
+ *
+ * @param deviceId  device identifier
+ * @param type      measurement type
+ * @param from      inclusive ISO-8601 window start
+ * @param to        exclusive ISO-8601 window end
+ * @param maxPoints largest number of buckets to return, defaults to 500
+ */
+public record MeasurementRollupInput(
+        @NotBlank @Size(max = 120) String deviceId,
+        @NotNull MeasurementType type,
+        @NotBlank String from,
+        @NotBlank String to,
+        @Min(1) @Max(10000) Integer maxPoints) {
+}
@@ -1,5 +1,6 @@
 package com.erval.argos.resource.dto;
 
+import com.erval.argos.core.application.CountMode;
 import com.erval.argos.core.application.SortDirection;
 
 import jakarta.validation.constraints.Max;
@@ -12,10 +13,12 @@ import jakarta.validation.constraints.Min;
  * @param size          page size
  * @param sortBy        field name to sort by
  * @param sortDirection sort direction
+ * @param countMode     how {@code totalElements} is computed when selected
  */
 public record PageRequestInput(
         @Min(0) Integer page,
         @Min(1) @Max(500) Integer size,
         String sortBy,
-        SortDirection sortDirection) {
+        SortDirection sortDirection,
+        CountMode countMode) {
 }
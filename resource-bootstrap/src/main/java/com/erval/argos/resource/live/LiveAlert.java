@@ -0,0 +1,13 @@
+package com.erval.argos.resource.live;
+
+import com.erval.argos.core.domain.alert.Alert;
+
+/**
+ * Alert published to live subscribers, with the building of its device
+ * resolved once so subscribers can filter on it.
+ *
+ * @param alert    published alert
+ * @param building building of the alert's device; {@code null} when unknown
+ */
+public record LiveAlert(Alert alert, String building) {
+}
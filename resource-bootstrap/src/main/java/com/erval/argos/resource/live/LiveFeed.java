@@ -0,0 +1,208 @@
+package com.erval.argos.resource.live;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * In-process pub/sub feeding GraphQL subscriptions from the ingest path.
+ * <p>
+ * Delivery:
+ * <ul>
+ * <li>{@link #publish} runs every subscriber's filter on the publishing
+ * thread and appends accepted events to that subscriber's queue; it takes no
+ * lock, so concurrent publishers never wait for each other, and it is a
+ * no-op while nobody is subscribed</li>
+ * <li>each subscriber's queue is bounded and drained on a separate scheduler
+ * as the client requests events, so a slow client never stalls the
+ * publishing thread</li>
+ * <li>when a queue is full, {@link OverflowPolicy#DROP} discards the
+ * subscriber's oldest queued event, {@link OverflowPolicy#CONFLATE} keeps
+ * only its newest one</li>
+ * </ul>
+ * Events are not stored; a subscriber only sees events published after it
+ * subscribed. Events of one publishing thread reach a subscriber in order;
+ * events published concurrently may be delivered in either order.
+ *
+ * @param <T> event type
+ */
+public class LiveFeed<T> implements AutoCloseable {
+
+    /**
+     * What a full subscriber queue does with further events.
+     */
+    public enum OverflowPolicy {
+        /** Drop the oldest queued event to make room. */
+        DROP,
+        /** Replace whatever is queued with the newest event. */
+        CONFLATE
+    }
+
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final int bufferSize;
+    private final OverflowPolicy overflow;
+    private final Scheduler scheduler;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Creates a feed without subscribers.
+     *
+     * @param name       name of the delivery threads
+     * @param bufferSize events queued per subscriber under {@code DROP}
+     * @param overflow   policy of full subscriber queues
+     */
+    public LiveFeed(String name, int bufferSize, OverflowPolicy overflow) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.overflow = overflow;
+        this.scheduler = Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, name);
+    }
+
+    /**
+     * Indicates whether anyone is subscribed, letting publishers skip
+     * preparing events nobody receives.
+     *
+     * @return {@code true} with at least one subscriber
+     */
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    /**
+     * Offers an event to the current subscribers without blocking on them.
+     *
+     * @param event event to deliver
+     */
+    public void publish(T event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter.test(event)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Subscribes to the events accepted by a filter. The filter runs on the
+     * publishing thread and must be cheap.
+     *
+     * @param filter selects the events of this subscriber
+     * @return events published from now on, delivered on the feed's
+     *         scheduler
+     */
+    public Flux<T> subscribe(Predicate<? super T> filter) {
+        return Flux.create(emitter -> {
+            Subscriber subscriber = new Subscriber(filter, emitter);
+            emitter.onDispose(() -> subscribers.remove(subscriber));
+            subscribers.add(subscriber);
+            if (closed.get()) {
+                emitter.complete();
+                return;
+            }
+            emitter.onRequest(n -> subscriber.schedule());
+        });
+    }
+
+    /**
+     * Returns the number of events dropped from full subscriber queues since
+     * creation; conflated events are not counted.
+     *
+     * @return dropped event count
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Completes all subscriptions and stops the delivery threads.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            subscribers.forEach(subscriber -> subscriber.emitter.complete());
+            subscribers.clear();
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * Bounded queue of one subscription. Producers append from any thread;
+     * a work-in-progress counter ensures a single drain at a time, which
+     * only emits as many events as the client has requested.
+     */
+    private final class Subscriber {
+        private final Predicate<? super T> filter;
+        private final FluxSink<T> emitter;
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicReference<T> latest = new AtomicReference<>();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private Subscriber(Predicate<? super T> filter, FluxSink<T> emitter) {
+            this.filter = filter;
+            this.emitter = emitter;
+        }
+
+        private void offer(T event) {
+            if (overflow == OverflowPolicy.CONFLATE) {
+                latest.set(event);
+            } else {
+                queue.add(event);
+                if (queued.incrementAndGet() > bufferSize && queue.poll() != null) {
+                    queued.decrementAndGet();
+                    dropped.increment();
+                }
+            }
+            schedule();
+        }
+
+        private T poll() {
+            if (overflow == OverflowPolicy.CONFLATE) {
+                return latest.getAndSet(null);
+            }
+            T event = queue.poll();
+            if (event != null) {
+                queued.decrementAndGet();
+            }
+            return event;
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    scheduler.schedule(this::drain);
+                } catch (RuntimeException ex) {
+                    // the scheduler is disposed once the feed is closed
+                    wip.set(0);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                while (emitter.requestedFromDownstream() > 0 && !emitter.isCancelled()) {
+                    T event = poll();
+                    if (event == null) {
+                        break;
+                    }
+                    emitter.next(event);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.erval.argos.resource.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.erval.argos.core.application.PageRequest;
+import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase;
+import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class MeasurementExportControllerTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final StreamingQueries queries = new StreamingQueries();
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new MeasurementExportController(queries, jsonMapper))
+            .build();
+
+    @Test
+    void streamsMatchingMeasurementsAsNdjsonAndClosesTheCursor() throws Exception {
+        queries.size = 3;
+
+        MvcResult started = mvc.perform(get("/measurements/export")
+                        .param("deviceId", "d1")
+                        .param("type", "TEMP")
+                        .param("from", "2026-01-01T00:00:00Z")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(ndjson(queries.measurements(3))));
+
+        assertEquals(List.of(new MeasurementFilter("d1", MeasurementType.TEMP,
+                Instant.parse("2026-01-01T00:00:00Z"), null)), queries.filters);
+        assertTrue(queries.closed.get());
+    }
+
+    @Test
+    void closesTheCursorWhenItFailsMidStream() throws Exception {
+        queries.size = 10;
+        queries.failAt = 3;
+
+        MvcResult started = mvc.perform(get("/measurements/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        IllegalStateException failure = assertInstanceOf(IllegalStateException.class, started.getAsyncResult(5000));
+        assertEquals("cursor lost", failure.getMessage());
+        assertTrue(queries.closed.get());
+    }
+
+    @Test
+    void rejectsInvalidTimestampsWithoutOpeningACursor() throws Exception {
+        mvc.perform(get("/measurements/export").param("from", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(List.of(), queries.filters);
+    }
+
+    private String ndjson(List<Measurement> measurements) {
+        StringBuilder body = new StringBuilder();
+        for (Measurement m : measurements) {
+            body.append(jsonMapper.writeValueAsString(m)).append('\n');
+        }
+        return body.toString();
+    }
+
+    /**
+     * Query use case streaming {@code size} readings, recording whether the
+     * stream was closed and failing at {@code failAt} when set.
+     */
+    private static class StreamingQueries implements MeasurementQueryUseCase {
+        private final List<MeasurementFilter> filters = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile int size;
+        private volatile int failAt = -1;
+
+        @Override
+        public Stream<Measurement> streamMeasurements(MeasurementFilter filter) {
+            filters.add(filter);
+            return measurements(size).stream()
+                    .peek(m -> {
+                        if (m.sequenceNumber() == failAt) {
+                            throw new IllegalStateException("cursor lost");
+                        }
+                    })
+                    .onClose(() -> closed.set(true));
+        }
+
+        private List<Measurement> measurements(int count) {
+            return IntStream.range(0, count)
+                    .mapToObj(i -> new Measurement("m" + i, "d1", MeasurementType.TEMP, i, i,
+                            Instant.parse("2026-01-01T00:00:00Z").plusSeconds(i), List.of()))
+                    .toList();
+        }
+
+        @Override
+        public PageResult<Measurement> findMeasurements(MeasurementFilter filter, PageRequest pageRequest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Measurement> findLatestMeasurements(String deviceId, Instant to, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, List<Measurement>> findLatestMeasurements(Collection<String> deviceIds,
+                MeasurementType type, int limit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.erval.argos.resource.controllers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.erval.argos.core.domain.alert.Alert;
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.resource.live.LiveAlert;
+import com.erval.argos.resource.live.LiveFeed;
+
+import reactor.test.StepVerifier;
+
+class SubscriptionGraphqlControllerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final LiveFeed<Measurement> measurements = new LiveFeed<>("test-measurements", 16,
+            LiveFeed.OverflowPolicy.DROP);
+    private final LiveFeed<LiveAlert> alerts = new LiveFeed<>("test-alerts", 16, LiveFeed.OverflowPolicy.DROP);
+    private final SubscriptionGraphqlController controller = new SubscriptionGraphqlController(measurements, alerts);
+
+    @AfterEach
+    void tearDown() {
+        measurements.close();
+        alerts.close();
+    }
+
+    @Test
+    void measurementAddedFiltersByDeviceAndOptionalType() {
+        Measurement temp = measurement("m1", "d1", MeasurementType.TEMP);
+        Measurement humidity = measurement("m2", "d1", MeasurementType.HUMIDITY);
+        Measurement otherDevice = measurement("m3", "d2", MeasurementType.TEMP);
+
+        StepVerifier.create(controller.measurementAdded("d1", MeasurementType.TEMP))
+                .then(() -> List.of(temp, humidity, otherDevice).forEach(measurements::publish))
+                .expectNext(temp)
+                .thenCancel()
+                .verify(TIMEOUT);
+        StepVerifier.create(controller.measurementAdded("d1", null))
+                .then(() -> List.of(otherDevice, temp, humidity).forEach(measurements::publish))
+                .expectNext(temp, humidity)
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void alertRaisedFiltersByBuildingUnlessNoneIsGiven() {
+        Alert hq = alert("a1", "d1");
+        Alert lab = alert("a2", "d2");
+        Alert unknown = alert("a3", "d3");
+
+        StepVerifier.create(controller.alertRaised("HQ"))
+                .then(() -> publish(hq, lab, unknown))
+                .expectNext(hq)
+                .thenCancel()
+                .verify(TIMEOUT);
+        StepVerifier.create(controller.alertRaised(null))
+                .then(() -> publish(hq, lab, unknown))
+                .expectNext(hq, lab, unknown)
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    private void publish(Alert hq, Alert lab, Alert unknown) {
+        alerts.publish(new LiveAlert(hq, "HQ"));
+        alerts.publish(new LiveAlert(lab, "Lab"));
+        alerts.publish(new LiveAlert(unknown, null));
+    }
+
+    private static Measurement measurement(String id, String deviceId, MeasurementType type) {
+        return new Measurement(id, deviceId, type, 21.5, 1, Instant.EPOCH, List.of());
+    }
+
+    private static Alert alert(String id, String deviceId) {
+        return new Alert(id, "r1", deviceId, "too hot", Instant.EPOCH);
+    }
+}
@@ -0,0 +1,114 @@
+package com.erval.argos.resource.live;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import reactor.core.publisher.BaseSubscriber;
+import reactor.test.StepVerifier;
+
+class LiveFeedTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private LiveFeed<Integer> feed;
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    @Test
+    void deliversToEachSubscriberTheEventsItsFilterAccepts() {
+        feed = new LiveFeed<>("test-feed", 16, LiveFeed.OverflowPolicy.DROP);
+        feed.publish(0);
+
+        StepVerifier.create(feed.subscribe(n -> n % 2 == 0))
+                .then(() -> {
+                    for (int i = 1; i <= 6; i++) {
+                        feed.publish(i);
+                    }
+                })
+                .expectNext(2, 4, 6)
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void dropDiscardsTheOldestEventsQueuedForASlowSubscriber() {
+        feed = new LiveFeed<>("test-feed", 2, LiveFeed.OverflowPolicy.DROP);
+
+        StepVerifier.create(feed.subscribe(n -> true), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 5; i++) {
+                        feed.publish(i);
+                    }
+                })
+                .thenRequest(10)
+                .expectNext(4, 5)
+                .thenCancel()
+                .verify(TIMEOUT);
+        assertEquals(3, feed.droppedCount());
+    }
+
+    @Test
+    void conflateKeepsOnlyTheNewestEventForASlowSubscriber() {
+        feed = new LiveFeed<>("test-feed", 2, LiveFeed.OverflowPolicy.CONFLATE);
+
+        StepVerifier.create(feed.subscribe(n -> true), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 5; i++) {
+                        feed.publish(i);
+                    }
+                })
+                .thenRequest(10)
+                .expectNext(5)
+                .then(() -> feed.publish(6))
+                .expectNext(6)
+                .thenCancel()
+                .verify(TIMEOUT);
+        assertEquals(0, feed.droppedCount());
+    }
+
+    @Test
+    void slowSubscriberDoesNotHoldBackOthers() {
+        feed = new LiveFeed<>("test-feed", 1, LiveFeed.OverflowPolicy.DROP);
+        BaseSubscriber<Integer> stalled = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // requests nothing
+            }
+        };
+        feed.subscribe(n -> true).subscribe(stalled);
+
+        StepVerifier.create(feed.subscribe(n -> true))
+                .then(() -> {
+                    feed.publish(1);
+                    feed.publish(2);
+                })
+                .expectNext(1, 2)
+                .thenCancel()
+                .verify(TIMEOUT);
+        stalled.dispose();
+        assertEquals(1, feed.droppedCount());
+    }
+
+    @Test
+    void tracksSubscribersAndCompletesThemOnClose() {
+        feed = new LiveFeed<>("test-feed", 16, LiveFeed.OverflowPolicy.DROP);
+        assertFalse(feed.hasSubscribers());
+
+        StepVerifier.create(feed.subscribe(n -> true))
+                .then(() -> assertTrue(feed.hasSubscribers()))
+                .then(feed::close)
+                .verifyComplete();
+        assertFalse(feed.hasSubscribers());
+        StepVerifier.create(feed.subscribe(n -> true)).expectComplete().verify(TIMEOUT);
+    }
+}
@@ -0,0 +1,52 @@
+package com.erval.argos.core.application;
+
+/**
+ * Outcome of a single item processed as part of a batch operation.
+ * <p>
+ * Semantics:
+ * <ul>
+ * <li>{@code index} points back at the item position in the submitted batch</li>
+ * <li>exactly one of {@code value} and {@code error} is non-null</li>
+ * <li>a failed item never fails the rest of the batch</li>
+ * </ul>
+ *
+ * @param index zero-based position of the item in the request
+ * @param value resulting value when the item succeeded
+ * @param error failure reason when the item was rejected
+ * @param <T>   item type
+ */
+public record BatchItemResult<T>(int index, T value, String error) {
+
+    /**
+     * Creates a successful item result.
+     *
+     * @param index zero-based position of the item in the request
+     * @param value resulting value
+     * @param <T>   item type
+     * @return successful result
+     */
+    public static <T> BatchItemResult<T> success(int index, T value) {
+        return new BatchItemResult<>(index, value, null);
+    }
+
+    /**
+     * Creates a failed item result.
+     *
+     * @param index zero-based position of the item in the request
+     * @param error failure reason
+     * @param <T>   item type
+     * @return failed result
+     */
+    public static <T> BatchItemResult<T> failure(int index, String error) {
+        return new BatchItemResult<>(index, null, error);
+    }
+
+    /**
+     * Indicates whether the item was processed successfully.
+     *
+     * @return {@code true} when no error was recorded
+     */
+    public boolean succeeded() {
+        return error == null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.erval.argos.core.application;
+
+/**
+ * How a paginated query computes {@link PageResult#totalElements()}.
+ * <p>
+ * Conventions:
+ * <ul>
+ * <li>{@link #EXACT} counts every match; the default</li>
+ * <li>{@link #CAPPED} stops counting at an adapter-defined cap and flags the
+ * result with {@link PageResult#totalCapped()}</li>
+ * <li>{@link #NONE} skips counting; the total is
+ * {@link PageResult#UNKNOWN_TOTAL}</li>
+ * </ul>
+ */
+public enum CountMode {
+    EXACT,
+    CAPPED,
+    NONE
+}
@@ -0,0 +1,76 @@
+package com.erval.argos.core.application;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last item of a page, used for keyset pagination.
+ * <p>
+ * Encoding:
+ * <ul>
+ * <li>the cursor carries the sort field, direction, the item's sort value and
+ * its id as the tie-breaker</li>
+ * <li>{@link #encode()} produces an opaque URL-safe token; clients must not
+ * interpret it</li>
+ * <li>adapters convert {@code value} back to the stored type of
+ * {@code sortBy}</li>
+ * </ul>
+ *
+ * @param sortBy    sort field the cursor was produced for
+ * @param direction sort direction the cursor was produced for
+ * @param value     string form of the last item's sort value
+ * @param id        id of the last item
+ */
+public record PageCursor(String sortBy, SortDirection direction, String value, String id) {
+
+    private static final String SEPARATOR = "\u001f";
+
+    /**
+     * Serializes the cursor into an opaque token.
+     *
+     * @return URL-safe cursor token
+     */
+    public String encode() {
+        String raw = sortBy + SEPARATOR + direction.name() + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}.
+     *
+     * @param token cursor token
+     * @return decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            return new PageCursor(parts[0], SortDirection.valueOf(parts[1]), parts[2], parts[3]);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid page cursor", ex);
+        }
+    }
+
+    /**
+     * Decodes the cursor of a keyset request and checks it matches the
+     * request's effective sort.
+     *
+     * @param token     cursor token
+     * @param sortBy    effective sort field of the request
+     * @param direction effective sort direction of the request
+     * @return decoded cursor
+     * @throws IllegalArgumentException if the token is malformed or was issued
+     *                                  for another sort
+     */
+    public static PageCursor decodeFor(String token, String sortBy, SortDirection direction) {
+        PageCursor cursor = decode(token);
+        if (!cursor.sortBy().equals(sortBy) || cursor.direction() != direction) {
+            throw new IllegalArgumentException("Page cursor does not match the requested sort");
+        }
+        return cursor;
+    }
+}
@@ -1,5 +1,7 @@
 package com.erval.argos.core.application;
 
+import java.util.Set;
+
 /**
  * Represents a request for a page of results from a query.
  * <p>
@@ -7,6 +9,12 @@ package com.erval.argos.core.application;
  * <ul>
  * <li>{@code page} is zero-based</li>
  * <li>{@code sortBy} may be {@code null} to use adapter defaults</li>
+ * <li>{@code after} switches to keyset paging: results continue right after
+ * the item the cursor points to and {@code page} is ignored</li>
+ * <li>{@code countMode} lets callers that do not display a total skip or cap
+ * the count query</li>
+ * <li>{@code fields} is a projection hint: adapters may leave unlisted
+ * fields of the returned items unset</li>
  * <li>Always pair with {@link PageResult} to communicate totals</li>
  * </ul>
  *
@@ -14,6 +22,103 @@ package com.erval.argos.core.application;
  * @param size      number of items per page
  * @param sortBy    field name to sort by (e.g. "timestamp", "name")
  * @param direction sort direction (ASC or DESC)
+ * @param after     opaque cursor from {@link PageResult#nextCursor()}; may be
+ *                  {@code null}
+ * @param countMode how the total is computed; {@code null} means
+ *                  {@link CountMode#EXACT}
+ * @param fields    item fields the caller reads; {@code null} means all
  */
-public record PageRequest(int page, int size, String sortBy, SortDirection direction) {
+public record PageRequest(int page, int size, String sortBy, SortDirection direction, String after,
+        CountMode countMode, Set<String> fields) {
+
+    /**
+     * Defaults a missing count mode to {@link CountMode#EXACT} and copies the
+     * field selection.
+     */
+    public PageRequest {
+        if (countMode == null) {
+            countMode = CountMode.EXACT;
+        }
+        if (fields != null) {
+            fields = Set.copyOf(fields);
+        }
+    }
+
+    /**
+     * Creates a page request returning all item fields.
+     *
+     * @param page      zero-based page index
+     * @param size      number of items per page
+     * @param sortBy    field name to sort by
+     * @param direction sort direction
+     * @param after     opaque cursor; may be {@code null}
+     * @param countMode how the total is computed
+     */
+    public PageRequest(int page, int size, String sortBy, SortDirection direction, String after,
+            CountMode countMode) {
+        this(page, size, sortBy, direction, after, countMode, null);
+    }
+
+    /**
+     * Creates an offset-based page request.
+     *
+     * @param page      zero-based page index
+     * @param size      number of items per page
+     * @param sortBy    field name to sort by
+     * @param direction sort direction
+     */
+    public PageRequest(int page, int size, String sortBy, SortDirection direction) {
+        this(page, size, sortBy, direction, null, CountMode.EXACT);
+    }
+
+    /**
+     * Creates a page request with an exact total.
+     *
+     * @param page      zero-based page index
+     * @param size      number of items per page
+     * @param sortBy    field name to sort by
+     * @param direction sort direction
+     * @param after     opaque cursor; may be {@code null}
+     */
+    public PageRequest(int page, int size, String sortBy, SortDirection direction, String after) {
+        this(page, size, sortBy, direction, after, CountMode.EXACT);
+    }
+
+    /**
+     * Returns a copy of this request with another count mode.
+     *
+     * @param mode count mode to use
+     * @return request with the given count mode
+     */
+    public PageRequest withCountMode(CountMode mode) {
+        return new PageRequest(page, size, sortBy, direction, after, mode, fields);
+    }
+
+    /**
+     * Returns a copy of this request with a field selection.
+     *
+     * @param selected item fields the caller reads; {@code null} means all
+     * @return request with the given field selection
+     */
+    public PageRequest withFields(Set<String> selected) {
+        return new PageRequest(page, size, sortBy, direction, after, countMode, selected);
+    }
+
+    /**
+     * Indicates whether the caller reads every item field.
+     *
+     * @return {@code true} when no field selection is set
+     */
+    public boolean selectsAllFields() {
+        return fields == null;
+    }
+
+    /**
+     * Indicates whether this request continues from a cursor.
+     *
+     * @return {@code true} when {@code after} is set
+     */
+    public boolean isKeyset() {
+        return after != null && !after.isBlank();
+    }
 }
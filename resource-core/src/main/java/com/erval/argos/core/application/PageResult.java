@@ -8,14 +8,21 @@ import java.util.List;
  * Structure:
  * <ul>
  * <li>{@code content} contains only the current slice of data</li>
- * <li>{@code totalElements} reflects the count across all pages</li>
+ * <li>{@code totalElements} reflects the count across all pages, a lower
+ * bound when {@code totalCapped} is set, or {@link #UNKNOWN_TOTAL} when
+ * counting was skipped</li>
  * <li>{@code page} is zero-based and pairs with {@code size}</li>
+ * <li>{@code nextCursor} is set only when more items follow</li>
  * </ul>
  *
  * @param content       list of items on the current page
  * @param totalElements total number of elements that match the query
  * @param page          zero-based page index
  * @param size          page size
+ * @param nextCursor    cursor to pass as {@link PageRequest#after()} for the
+ *                      next page; {@code null} on the last page
+ * @param totalCapped   whether counting stopped at a cap, making
+ *                      {@code totalElements} a lower bound
  * @param <T>           item type
  */
 
@@ -23,16 +30,68 @@ public record PageResult<T>(
         List<T> content,
         long totalElements,
         int page,
-        int size) {
+        int size,
+        String nextCursor,
+        boolean totalCapped) {
+
+    /**
+     * Total reported when the query ran with {@link CountMode#NONE}.
+     */
+    public static final long UNKNOWN_TOTAL = -1;
+
+    /**
+     * Creates a page result without a continuation cursor.
+     *
+     * @param content       list of items on the current page
+     * @param totalElements total number of elements that match the query
+     * @param page          zero-based page index
+     * @param size          page size
+     */
+    public PageResult(List<T> content, long totalElements, int page, int size) {
+        this(content, totalElements, page, size, null, false);
+    }
+
+    /**
+     * Creates an exactly counted page result.
+     *
+     * @param content       list of items on the current page
+     * @param totalElements total number of elements that match the query
+     * @param page          zero-based page index
+     * @param size          page size
+     * @param nextCursor    cursor for the next page; may be {@code null}
+     */
+    public PageResult(List<T> content, long totalElements, int page, int size, String nextCursor) {
+        this(content, totalElements, page, size, nextCursor, false);
+    }
+
+    /**
+     * Indicates whether a total was computed.
+     *
+     * @return {@code false} when counting was skipped
+     */
+    public boolean hasTotal() {
+        return totalElements != UNKNOWN_TOTAL;
+    }
+
     /**
      * Calculates the total number of pages for this result.
      *
-     * @return the total number of pages or 0 if page size is 0
+     * @return the total number of pages or 0 if page size is 0 or the total is
+     *         unknown
      */
     public int totalPages() {
-        if (size == 0) {
+        if (size == 0 || !hasTotal()) {
             return 0;
         }
         return (int) Math.ceil((double) totalElements / size);
     }
+
+    /**
+     * Indicates whether another page can be fetched with {@link #nextCursor()}.
+     *
+     * @return {@code true} when a next cursor is present
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
 }
@@ -0,0 +1,91 @@
+package com.erval.argos.core.application.port.in.commands;
+
+import com.erval.argos.core.domain.alert.AlertPolicy;
+import com.erval.argos.core.domain.alert.AlertRule;
+import com.erval.argos.core.domain.alert.AlertWindow;
+import com.erval.argos.core.domain.alert.Comparison;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+/**
+ * Use cases for managing alert rules.
+ * <p>
+ * Changes take effect for measurements ingested after the call returns.
+ */
+public interface AlertRuleCommandUseCase {
+
+    /**
+     * Creates an active rule.
+     *
+     * @param cmd command payload
+     * @return persisted rule
+     * @throws IllegalArgumentException if the command is invalid or the device
+     *                                  doesn't exist
+     */
+    AlertRule createAlertRule(CreateAlertRuleCommand cmd);
+
+    /**
+     * Enables or disables a rule.
+     *
+     * @param id     rule identifier
+     * @param active whether the rule should be enforced
+     * @return updated rule
+     * @throws IllegalArgumentException if the rule doesn't exist
+     */
+    AlertRule setAlertRuleActive(String id, boolean active);
+
+    /**
+     * Deletes a rule by id. No-op if missing.
+     *
+     * @param id rule identifier
+     */
+    void deleteAlertRule(String id);
+
+    /**
+     * Command used for rule creation.
+     *
+     * @param deviceId   watched device
+     * @param type       watched measurement type
+     * @param threshold  finite threshold value
+     * @param comparison operator applied as {@code value <op> threshold}
+     * @param window     sliding window to aggregate over; {@code null} for a
+     *                   per-value rule
+     * @param policy     hysteresis, minimum duration and reminders;
+     *                   {@code null} for {@link AlertPolicy#DEFAULT}
+     */
+    record CreateAlertRuleCommand(
+            String deviceId,
+            MeasurementType type,
+            double threshold,
+            Comparison comparison,
+            AlertWindow window,
+            AlertPolicy policy) {
+
+        /**
+         * Creates a command for a per-value rule.
+         *
+         * @param deviceId   watched device
+         * @param type       watched measurement type
+         * @param threshold  finite threshold value
+         * @param comparison operator applied as {@code value <op> threshold}
+         */
+        public CreateAlertRuleCommand(String deviceId, MeasurementType type, double threshold,
+                Comparison comparison) {
+            this(deviceId, type, threshold, comparison, null, null);
+        }
+
+        /**
+         * Creates a command with the default notification policy.
+         *
+         * @param deviceId   watched device
+         * @param type       watched measurement type
+         * @param threshold  finite threshold value
+         * @param comparison operator applied as {@code value <op> threshold}
+         * @param window     sliding window to aggregate over; {@code null}
+         *                   for a per-value rule
+         */
+        public CreateAlertRuleCommand(String deviceId, MeasurementType type, double threshold,
+                Comparison comparison, AlertWindow window) {
+            this(deviceId, type, threshold, comparison, window, null);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.erval.argos.core.application.port.in.commands;
 
 import com.erval.argos.core.domain.device.Device;
+import com.erval.argos.core.domain.device.DeviceConfig;
 import com.erval.argos.core.domain.device.DeviceType;
 
 /**
@@ -32,6 +33,17 @@ public interface DeviceCommandUseCase {
      */
     Device updateDevice(String id, UpdateDeviceCommand cmd);
 
+    /**
+     * Replaces the configuration of an existing device.
+     *
+     * @param id     target device id
+     * @param config new thresholds and tags; {@code null} clears them
+     * @return updated device
+     * @throws IllegalArgumentException if the device does not exist or the
+     *                                  bounds are invalid
+     */
+    Device setDeviceConfig(String id, DeviceConfig config);
+
     /**
      * Deletes a device by id.
      *
@@ -46,18 +58,33 @@ public interface DeviceCommandUseCase {
      * <ul>
      * <li>{@code name}: human-friendly label</li>
      * <li>{@code building}/{@code room}: physical location</li>
+     * <li>{@code config}: optional thresholds and tags</li>
      * </ul>
      *
      * @param name     device name
      * @param type     device type
      * @param building building where the device is located
      * @param room     room where the device is located
+     * @param config   initial configuration; may be {@code null}
      */
     record CreateDeviceCommand(
             String name,
             DeviceType type,
             String building,
-            String room) {
+            String room,
+            DeviceConfig config) {
+
+        /**
+         * Creates a command without configuration.
+         *
+         * @param name     device name
+         * @param type     device type
+         * @param building building where the device is located
+         * @param room     room where the device is located
+         */
+        public CreateDeviceCommand(String name, DeviceType type, String building, String room) {
+            this(name, type, building, room, null);
+        }
     }
 
     /**
@@ -1,7 +1,9 @@
 package com.erval.argos.core.application.port.in.commands;
 
 import java.time.Instant;
+import java.util.List;
 
+import com.erval.argos.core.application.BatchItemResult;
 import com.erval.argos.core.domain.measurement.Measurement;
 import com.erval.argos.core.domain.measurement.MeasurementType;
 
@@ -25,6 +27,17 @@ public interface MeasurementCommandUseCase {
      */
     Measurement createMeasurement(CreateMeasurementCommand command);
 
+    /**
+     * Stores a batch of measurements in a single write.
+     * <p>
+     * Items are validated and persisted independently; a rejected item is
+     * reported in its own result and does not fail the rest of the batch.
+     *
+     * @param commands commands describing the measurements
+     * @return one result per command, in request order
+     */
+    List<BatchItemResult<Measurement>> createMeasurements(List<CreateMeasurementCommand> commands);
+
     /**
      * Deletes a measurement by its identifier.
      *
@@ -0,0 +1,19 @@
+package com.erval.argos.core.application.port.in.queries;
+
+import java.util.List;
+
+import com.erval.argos.core.domain.alert.AlertRule;
+
+/**
+ * Use case for reading alert rules.
+ */
+public interface AlertRuleQueryUseCase {
+
+    /**
+     * Finds the rules watching a device, active or not.
+     *
+     * @param deviceId device identifier
+     * @return rules of the device
+     */
+    List<AlertRule> findAlertRules(String deviceId);
+}
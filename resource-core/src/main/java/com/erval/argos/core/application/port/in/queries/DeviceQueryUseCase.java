@@ -5,15 +5,20 @@ import com.erval.argos.core.application.PageResult;
 import com.erval.argos.core.domain.device.Device;
 import com.erval.argos.core.domain.device.DeviceType;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Use case for reading devices, used by REST / GraphQL layers.
  * <p>
  * Supports:
  * <ul>
- * <li>filtering by building, room, type, and active flag</li>
+ * <li>filtering by building, room, type, active flag and tags</li>
  * <li>pagination and sorting through {@link PageRequest}</li>
+ * <li>batched lookups by id, e.g. for resolving the devices of many
+ * measurements at once</li>
  * </ul>
  */
 public interface DeviceQueryUseCase {
@@ -35,6 +40,14 @@ public interface DeviceQueryUseCase {
      */
     Optional<Device> findById(String id);
 
+    /**
+     * Finds several devices by their identifiers with a single read.
+     *
+     * @param ids device identifiers; duplicates are ignored
+     * @return found devices keyed by id; unknown ids are absent
+     */
+    Map<String, Device> findByIds(Collection<String> ids);
+
     /**
      * Filter criteria for querying devices.
      * All fields are optional. Null means "no filter" for that field.
@@ -44,17 +57,65 @@ public interface DeviceQueryUseCase {
      * <li>Set {@code building} only to search a campus wing</li>
      * <li>Combine {@code type} and {@code active} to find live devices of a
      * kind</li>
+     * <li>Set {@code anyTags} to find devices carrying at least one of the
+     * tags, {@code allTags} to find devices carrying every tag</li>
      * </ul>
      *
      * @param building the building to filter by
      * @param room     the room to filter by
      * @param type     the device type to filter by
      * @param active   the active status to filter by
+     * @param anyTags  tags of which a device needs at least one; empty for
+     *                 no constraint
+     * @param allTags  tags a device needs all of; empty for no constraint
      */
     record DeviceFilter(
             String building,
             String room,
             DeviceType type,
-            Boolean active) {
+            Boolean active,
+            Set<String> anyTags,
+            Set<String> allTags) {
+
+        public DeviceFilter {
+            anyTags = anyTags == null ? Set.of() : Set.copyOf(anyTags);
+            allTags = allTags == null ? Set.of() : Set.copyOf(allTags);
+        }
+
+        /**
+         * Creates a filter without tag criteria.
+         *
+         * @param building the building to filter by
+         * @param room     the room to filter by
+         * @param type     the device type to filter by
+         * @param active   the active status to filter by
+         */
+        public DeviceFilter(String building, String room, DeviceType type, Boolean active) {
+            this(building, room, type, active, null, null);
+        }
+
+        /**
+         * Tells whether the filter constrains tags.
+         *
+         * @return {@code true} if any-of or all-of tags are set
+         */
+        public boolean hasTagCriteria() {
+            return !anyTags.isEmpty() || !allTags.isEmpty();
+        }
+
+        /**
+         * Checks a device's tags against the tag criteria.
+         *
+         * @param tags tags of the device; may be {@code null}
+         * @return {@code true} if both tag criteria are satisfied
+         */
+        public boolean matchesTags(Collection<String> tags) {
+            if (!hasTagCriteria()) {
+                return true;
+            }
+            Collection<String> present = tags == null ? Set.of() : tags;
+            return (anyTags.isEmpty() || anyTags.stream().anyMatch(present::contains))
+                    && present.containsAll(allTags);
+        }
     }
 }
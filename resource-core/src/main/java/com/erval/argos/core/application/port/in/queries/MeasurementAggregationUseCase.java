@@ -0,0 +1,57 @@
+package com.erval.argos.core.application.port.in.queries;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+
+/**
+ * Use case for server-side, time-bucketed measurement statistics, e.g. for
+ * charts.
+ * <p>
+ * Capabilities:
+ * <ul>
+ * <li>min/max/avg/count/first/last per interval for one device series</li>
+ * <li>aggregation runs in the store, so only one row per bucket is
+ * transferred</li>
+ * </ul>
+ */
+public interface MeasurementAggregationUseCase {
+
+    /**
+     * Aggregates the measurements of one device and type into fixed-size
+     * buckets.
+     *
+     * @param query series, time window and bucket size
+     * @return non-empty buckets ordered by start time
+     * @throws IllegalArgumentException if the query is incomplete or would
+     *                                  produce too many buckets
+     */
+    List<MeasurementBucket> aggregate(AggregationQuery query);
+
+    /**
+     * Aggregation request for a single series.
+     * <p>
+     * Examples:
+     * <ul>
+     * <li>one week with {@code interval} of one hour yields up to 168
+     * buckets</li>
+     * <li>buckets are aligned to the interval in UTC, not to {@code from}</li>
+     * </ul>
+     *
+     * @param deviceId device identifier
+     * @param type     measurement type
+     * @param from     inclusive window start
+     * @param to       exclusive window end
+     * @param interval bucket size, at least one second
+     */
+    record AggregationQuery(
+            String deviceId,
+            MeasurementType type,
+            Instant from,
+            Instant to,
+            Duration interval) {
+    }
+}
@@ -1,6 +1,10 @@
 package com.erval.argos.core.application.port.in.queries;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
@@ -14,6 +18,8 @@ import com.erval.argos.core.domain.measurement.MeasurementType;
  * <ul>
  *   <li>filtering by device, type, or time ranges</li>
  *   <li>pagination and sorting through {@link PageRequest}</li>
+ *   <li>latest readings of a single device or a batch of devices</li>
+ *   <li>streaming exports of arbitrarily large ranges</li>
  * </ul>
  */
 public interface MeasurementQueryUseCase {
@@ -27,6 +33,41 @@ public interface MeasurementQueryUseCase {
      */
     PageResult<Measurement> findMeasurements(MeasurementFilter filter, PageRequest pageRequest);
 
+    /**
+     * Finds the newest measurements of a device.
+     *
+     * @param deviceId device identifier
+     * @param to       inclusive upper timestamp bound; {@code null} means now
+     * @param limit    maximum number of measurements
+     * @return measurements ordered by timestamp descending
+     */
+    List<Measurement> findLatestMeasurements(String deviceId, Instant to, int limit);
+
+    /**
+     * Finds the newest measurements of several devices at once.
+     *
+     * @param deviceIds device identifiers; duplicates are ignored
+     * @param type      measurement type to match; {@code null} for all types
+     * @param limit     maximum number of measurements per device
+     * @return measurements per requested device, newest first, in request
+     *         order; devices without measurements map to an empty list
+     * @throws IllegalArgumentException if no device id is given or the limit
+     *                                  is not positive
+     */
+    Map<String, List<Measurement>> findLatestMeasurements(Collection<String> deviceIds, MeasurementType type,
+            int limit);
+
+    /**
+     * Streams all measurements matching a filter, ordered by timestamp
+     * ascending, without loading them into memory at once.
+     * <p>
+     * The stream must be closed, e.g. with try-with-resources.
+     *
+     * @param filter filter constraints; may be {@code null}
+     * @return lazily populated stream of measurements
+     */
+    Stream<Measurement> streamMeasurements(MeasurementFilter filter);
+
     /**
      * Filter criteria for querying measurements.
      * All fields are optional. Null means "no filter" for that field.
@@ -0,0 +1,63 @@
+package com.erval.argos.core.application.port.in.queries;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.core.domain.measurement.RollupBucket;
+import com.erval.argos.core.domain.measurement.RollupResolution;
+
+/**
+ * Use case for reading pre-aggregated series, e.g. for long-range charts.
+ * <p>
+ * Capabilities:
+ * <ul>
+ * <li>reads 1-minute, 1-hour or 1-day rollups instead of raw points</li>
+ * <li>chooses the resolution from the window and a point budget</li>
+ * </ul>
+ */
+public interface MeasurementRollupUseCase {
+
+    /**
+     * Reads the rollups of one series at the finest resolution whose bucket
+     * count fits into {@code maxPoints}, falling back to
+     * {@link RollupResolution#DAY}.
+     *
+     * @param query series, time window and point budget
+     * @return chosen resolution and its buckets
+     * @throws IllegalArgumentException if the query is incomplete
+     */
+    RollupSeries findRollups(RollupQuery query);
+
+    /**
+     * Rollup request for a single series.
+     *
+     * @param deviceId  device identifier
+     * @param type      measurement type
+     * @param from      inclusive window start
+     * @param to        exclusive window end
+     * @param maxPoints largest number of buckets the caller wants to render
+     */
+    record RollupQuery(
+            String deviceId,
+            MeasurementType type,
+            Instant from,
+            Instant to,
+            int maxPoints) {
+    }
+
+    /**
+     * Rollup buckets at the resolution chosen for a query.
+     * <p>
+     * Rollups cover measurements written while they are enabled. History
+     * stored before that is missing from the buckets, or only partly counted
+     * in the bucket open at enable time, until it is backfilled by a rebuild,
+     * so a window reaching back before enable time may come back empty or
+     * short.
+     *
+     * @param resolution resolution the buckets were read from
+     * @param buckets    non-empty buckets ordered by start time
+     */
+    record RollupSeries(RollupResolution resolution, List<RollupBucket> buckets) {
+    }
+}
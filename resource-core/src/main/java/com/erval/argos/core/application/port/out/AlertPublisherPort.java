@@ -0,0 +1,30 @@
+package com.erval.argos.core.application.port.out;
+
+import com.erval.argos.core.domain.alert.Alert;
+
+/**
+ * Output port receiving alerts raised by rule evaluation.
+ * <p>
+ * Called on the ingest path for every triggered rule, so implementations
+ * should return quickly.
+ */
+public interface AlertPublisherPort {
+
+    /**
+     * Publishes a raised alert.
+     *
+     * @param alert alert without an id; implementations assign one
+     */
+    void publish(Alert alert);
+
+    /**
+     * Returns a port that discards alerts.
+     *
+     * @return no-op publisher
+     */
+    static AlertPublisherPort none() {
+        return alert -> {
+            // alerts discarded
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.erval.argos.core.application.port.out;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.erval.argos.core.domain.alert.Alert;
+
+/**
+ * Read port over the alerts published through {@link AlertPublisherPort}.
+ */
+public interface AlertRepositoryPort {
+
+    /**
+     * Retrieves the newest stored alert of each rule.
+     *
+     * @param ruleIds rule identifiers
+     * @return newest alert per rule id; rules without alerts are absent
+     */
+    Map<String, Alert> findLatestByRuleIds(Collection<String> ruleIds);
+
+    /**
+     * Returns a port that holds no alerts.
+     *
+     * @return empty repository
+     */
+    static AlertRepositoryPort none() {
+        return ruleIds -> Map.of();
+    }
+}
@@ -0,0 +1,50 @@
+package com.erval.argos.core.application.port.out;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.erval.argos.core.domain.alert.AlertRule;
+
+/**
+ * Persistence port for alert rules.
+ */
+public interface AlertRuleRepositoryPort {
+
+    /**
+     * Persists or updates a rule.
+     *
+     * @param rule rule to save
+     * @return saved rule
+     */
+    AlertRule save(AlertRule rule);
+
+    /**
+     * Retrieves a rule by id.
+     *
+     * @param id rule identifier
+     * @return optional containing the rule when found
+     */
+    Optional<AlertRule> findById(String id);
+
+    /**
+     * Retrieves the rules watching a device, active or not.
+     *
+     * @param deviceId device identifier
+     * @return rules of the device
+     */
+    List<AlertRule> findByDeviceId(String deviceId);
+
+    /**
+     * Retrieves every active rule, used to build the in-memory rule index.
+     *
+     * @return active rules
+     */
+    List<AlertRule> findAllActive();
+
+    /**
+     * Deletes a rule by id. No-op if missing.
+     *
+     * @param id rule identifier
+     */
+    void deleteById(String id);
+}
@@ -0,0 +1,82 @@
+package com.erval.argos.core.application.port.out;
+
+import com.erval.argos.core.domain.device.Device;
+
+/**
+ * Feed of device changes committed by any node, used to keep in-memory
+ * replicas of the device set current.
+ */
+public interface DeviceChangeFeedPort {
+
+    /**
+     * Starts delivering changes to a listener on a background thread.
+     * <p>
+     * Every change committed after this method returns is delivered, unless
+     * the feed reports a gap through {@link Listener#resync()}.
+     *
+     * @param listener receives changes in commit order
+     * @return handle that stops delivery when closed
+     * @throws IllegalStateException if the feed is not {@link #available()}
+     */
+    Subscription subscribe(Listener listener);
+
+    /**
+     * Indicates whether the feed can deliver changes committed by other
+     * nodes. When it cannot, {@link #subscribe} fails and in-memory replicas
+     * must read through to the store instead.
+     *
+     * @return {@code true} if subscribing is possible
+     */
+    default boolean available() {
+        return true;
+    }
+
+    /**
+     * Returns a feed that never reports changes, for single-node setups.
+     *
+     * @return no-op feed
+     */
+    static DeviceChangeFeedPort none() {
+        return listener -> () -> {
+            // nothing to stop
+        };
+    }
+
+    /**
+     * Receiver of device changes.
+     */
+    interface Listener {
+
+        /**
+         * Called when a device was created or updated.
+         *
+         * @param device current state of the device; never deleted
+         */
+        void changed(Device device);
+
+        /**
+         * Called when a device was deleted.
+         *
+         * @param id identifier of the deleted device
+         */
+        void removed(String id);
+
+        /**
+         * Called when changes may have been missed, e.g. after the feed
+         * reconnected; the listener should reload its state.
+         */
+        void resync();
+    }
+
+    /**
+     * Handle of an active subscription.
+     */
+    interface Subscription extends AutoCloseable {
+
+        /**
+         * Stops delivering changes.
+         */
+        @Override
+        void close();
+    }
+}
@@ -1,5 +1,7 @@
 package com.erval.argos.core.application.port.out;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import com.erval.argos.core.application.PageRequest;
@@ -28,6 +30,15 @@ public interface DeviceRepositoryPort {
      */
     Optional<Device> findById(String id);
 
+    /**
+     * Retrieves all non-deleted devices with the given ids in one query.
+     * Unknown ids are skipped.
+     *
+     * @param ids device identifiers
+     * @return found devices in no particular order
+     */
+    List<Device> findAllByIds(Collection<String> ids);
+
     /**
      * Returns a page of devices without filtering.
      *
@@ -0,0 +1,33 @@
+package com.erval.argos.core.application.port.out;
+
+import java.util.List;
+
+import com.erval.argos.core.domain.measurement.Measurement;
+
+/**
+ * Output port receiving measurements as they are stored, e.g. to push them
+ * to live subscribers.
+ * <p>
+ * Called on the ingest path after every successful write, so implementations
+ * should return quickly and never wait for their consumers.
+ */
+public interface MeasurementPublisherPort {
+
+    /**
+     * Publishes stored measurements.
+     *
+     * @param measurements measurements that were persisted successfully
+     */
+    void publish(List<Measurement> measurements);
+
+    /**
+     * Returns a port that discards measurements.
+     *
+     * @return no-op publisher
+     */
+    static MeasurementPublisherPort none() {
+        return measurements -> {
+            // measurements discarded
+        };
+    }
+}
@@ -1,11 +1,21 @@
 package com.erval.argos.core.application.port.out;
 
+import com.erval.argos.core.application.BatchItemResult;
 import com.erval.argos.core.application.PageRequest;
 import com.erval.argos.core.application.PageResult;
+import com.erval.argos.core.application.port.in.queries.MeasurementAggregationUseCase.AggregationQuery;
 import com.erval.argos.core.application.port.in.queries.MeasurementQueryUseCase.MeasurementFilter;
 import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementBucket;
+import com.erval.argos.core.domain.measurement.MeasurementType;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.Stream;
 
 /**
  * Persistence port for measurements.
@@ -20,6 +30,35 @@ public interface MeasurementRepositoryPort {
      */
     Measurement save(Measurement measurement);
 
+    /**
+     * Persists a batch of measurements without ordering guarantees.
+     * <p>
+     * Implementations should write the batch in as few round trips as
+     * possible and keep going past individual failures.
+     *
+     * @param measurements measurements to save
+     * @return one result per measurement, indexed by its position in the input
+     */
+    List<BatchItemResult<Measurement>> saveAll(List<Measurement> measurements);
+
+    /**
+     * Generates an identifier for a measurement that has not been saved yet.
+     * <p>
+     * Lets callers acknowledge a measurement before it reaches the store.
+     *
+     * @return new unique measurement identifier
+     */
+    String nextId();
+
+    /**
+     * Returns the highest sequence number stored for a device.
+     *
+     * @param deviceId device identifier
+     * @return highest stored sequence number, or empty if the device has no
+     *         measurements
+     */
+    OptionalInt findMaxSequenceNumber(String deviceId);
+
     /**
      * Finds measurements using filter and paging.
      *
@@ -29,6 +68,40 @@ public interface MeasurementRepositoryPort {
      */
     PageResult<Measurement> findByFilter(MeasurementFilter filter, PageRequest pageRequest);
 
+    /**
+     * Finds the newest measurements of several devices in as few store round
+     * trips as possible, reading each device no deeper than {@code limit}.
+     *
+     * @param deviceIds device identifiers
+     * @param type      measurement type to match; {@code null} for all types
+     * @param to        inclusive upper timestamp bound
+     * @param limit     maximum number of measurements per device
+     * @return measurements per device ordered by timestamp descending; devices
+     *         without measurements may be absent
+     */
+    Map<String, List<Measurement>> findLatestByDevices(Collection<String> deviceIds, MeasurementType type,
+            Instant to, int limit);
+
+    /**
+     * Streams all measurements matching a filter, ordered by timestamp
+     * ascending, reading them lazily from the store.
+     * <p>
+     * The stream holds a store cursor and must be closed by the caller.
+     *
+     * @param filter constraints such as device, type, or time window; may be
+     *               {@code null}
+     * @return lazily populated stream of measurements
+     */
+    Stream<Measurement> stream(MeasurementFilter filter);
+
+    /**
+     * Aggregates a series into time buckets inside the store.
+     *
+     * @param query validated aggregation request
+     * @return non-empty buckets ordered by start time
+     */
+    List<MeasurementBucket> aggregate(AggregationQuery query);
+
     /**
      * Retrieves a measurement by id.
      *
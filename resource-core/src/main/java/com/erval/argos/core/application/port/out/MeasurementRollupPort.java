@@ -0,0 +1,83 @@
+package com.erval.argos.core.application.port.out;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.erval.argos.core.domain.measurement.Measurement;
+import com.erval.argos.core.domain.measurement.MeasurementType;
+import com.erval.argos.core.domain.measurement.RollupBucket;
+import com.erval.argos.core.domain.measurement.RollupResolution;
+
+/**
+ * Persistence port for pre-aggregated measurement rollups.
+ */
+public interface MeasurementRollupPort {
+
+    /**
+     * Adds freshly stored measurements to the rollups of every
+     * {@link RollupResolution}.
+     * <p>
+     * Implementations should combine measurements of the same bucket before
+     * writing and update each resolution with a single batched write.
+     *
+     * @param measurements measurements that were persisted successfully
+     */
+    void apply(List<Measurement> measurements);
+
+    /**
+     * Recomputes the buckets of one resolution overlapping a window from the
+     * stored measurements, replacing their statistics whole. This repairs
+     * buckets an {@link #apply} failed to update and backfills history
+     * stored before rollups were enabled.
+     * <p>
+     * A measurement stored while its bucket is rebuilt may be counted twice
+     * or not at all, so callers should rebuild buckets that no longer
+     * receive writes.
+     *
+     * @param from       inclusive window start; the bucket containing it is
+     *                   rebuilt whole
+     * @param to         exclusive window end; the bucket containing it is
+     *                   rebuilt whole
+     * @param resolution rollup resolution to rebuild
+     */
+    void rebuild(Instant from, Instant to, RollupResolution resolution);
+
+    /**
+     * Reads rollup buckets of one series.
+     *
+     * @param deviceId   device identifier
+     * @param type       measurement type
+     * @param from       inclusive window start; the bucket containing it is
+     *                   included
+     * @param to         exclusive window end
+     * @param resolution rollup resolution to read
+     * @return buckets ordered by start time
+     */
+    List<RollupBucket> find(String deviceId, MeasurementType type, Instant from, Instant to,
+            RollupResolution resolution);
+
+    /**
+     * Returns a port that keeps no rollups.
+     *
+     * @return no-op rollup port
+     */
+    static MeasurementRollupPort disabled() {
+        return new MeasurementRollupPort() {
+            @Override
+            public void apply(List<Measurement> measurements) {
+                // rollups disabled
+            }
+
+            @Override
+            public void rebuild(Instant from, Instant to, RollupResolution resolution) {
+                // rollups disabled
+            }
+
+            @Override
+            public List<RollupBucket> find(String deviceId, MeasurementType type, Instant from, Instant to,
+                    RollupResolution resolution) {
+                return List.of();
+            }
+        };
+    }
+}
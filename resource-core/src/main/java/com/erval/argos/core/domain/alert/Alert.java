@@ -3,13 +3,15 @@ package com.erval.argos.core.domain.alert;
 import java.time.Instant;
 
 /**
- * Alert raised when a rule triggers for a device.
+ * Alert raised when a rule changes state for a device.
  * <p>
  * Components:
  * <ul>
  * <li>{@code ruleId}: source rule that was matched</li>
  * <li>{@code deviceId}: device whose data triggered the alert</li>
  * <li>{@code description}: human-readable explanation</li>
+ * <li>{@code state}: {@link AlertState#FIRING} when the rule fired or is
+ * still firing, {@link AlertState#RESOLVED} when it cleared</li>
  * </ul>
  *
  * @param id          unique identifier
@@ -17,6 +19,21 @@ import java.time.Instant;
  * @param deviceId    device involved in the alert
  * @param description human-readable detail
  * @param timestamp   when the alert was produced
+ * @param state       rule state the alert reports
  */
-public record Alert(String id, String ruleId, String deviceId, String description, Instant timestamp) {
+public record Alert(String id, String ruleId, String deviceId, String description, Instant timestamp,
+        AlertState state) {
+
+    /**
+     * Creates an alert of a firing rule.
+     *
+     * @param id          unique identifier
+     * @param ruleId      originating rule id
+     * @param deviceId    device involved in the alert
+     * @param description human-readable detail
+     * @param timestamp   when the alert was produced
+     */
+    public Alert(String id, String ruleId, String deviceId, String description, Instant timestamp) {
+        this(id, ruleId, deviceId, description, timestamp, AlertState.FIRING);
+    }
 }
@@ -0,0 +1,30 @@
+package com.erval.argos.core.domain.alert;
+
+import java.time.Duration;
+
+/**
+ * Notification policy of an {@link AlertRule}.
+ * <p>
+ * Behavior:
+ * <ul>
+ * <li>{@code hysteresis}: a firing rule resolves only once the value is
+ * beyond the threshold by this margin, e.g. below {@code threshold -
+ * hysteresis} for {@code GREATER_THAN}, so values hovering at the threshold
+ * don't flap</li>
+ * <li>{@code minDuration}: the condition, and later the cleared condition,
+ * must hold for this long before the rule fires or resolves</li>
+ * <li>{@code renotifyInterval}: a firing rule raises a reminder at most this
+ * often while its condition holds; {@code null} raises none</li>
+ * </ul>
+ * Durations are measured between measurement timestamps.
+ *
+ * @param hysteresis       non-negative margin to clear before resolving
+ * @param minDuration      how long a condition must hold; {@code null} for
+ *                         none
+ * @param renotifyInterval delay between reminders; {@code null} for none
+ */
+public record AlertPolicy(double hysteresis, Duration minDuration, Duration renotifyInterval) {
+
+    /** Fires and resolves on the first reading crossing the threshold, without reminders. */
+    public static final AlertPolicy DEFAULT = new AlertPolicy(0, null, null);
+}
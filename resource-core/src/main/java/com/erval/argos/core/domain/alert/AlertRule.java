@@ -1,7 +1,6 @@
 package com.erval.argos.core.domain.alert;
 
 import com.erval.argos.core.domain.measurement.MeasurementType;
-import jdk.dynalink.linker.ConversionComparator;
 
 /**
  * Rule describing when to trigger an {@link Alert}.
@@ -9,9 +8,11 @@ import jdk.dynalink.linker.ConversionComparator;
  * Evaluation outline:
  * <ul>
  * <li>matches a specific {@code deviceId} and {@link MeasurementType}</li>
- * <li>compares incoming values against {@code threshold} using
- * {@code comparison}</li>
+ * <li>compares incoming values, or with a {@code window} an aggregate of
+ * the recent values, against {@code threshold} using {@code comparison}</li>
  * <li>only active when {@code active} is true</li>
+ * <li>fires, reminds and resolves as set by {@code policy}, see
+ * {@link AlertState}</li>
  * </ul>
  *
  * @param id         unique identifier
@@ -20,7 +21,53 @@ import jdk.dynalink.linker.ConversionComparator;
  * @param threshold  threshold value for comparison
  * @param comparison comparison operator to apply
  * @param active     whether the rule is currently enforced
+ * @param window     sliding window to aggregate over; {@code null} compares
+ *                   each value on its own
+ * @param policy     notification policy; {@code null} for
+ *                   {@link AlertPolicy#DEFAULT}
  */
 public record AlertRule(String id, String deviceId, MeasurementType type, double threshold,
-        ConversionComparator.Comparison comparison, boolean active) {
+        Comparison comparison, boolean active, AlertWindow window, AlertPolicy policy) {
+
+    /**
+     * Creates a rule comparing each value on its own.
+     *
+     * @param id         unique identifier
+     * @param deviceId   target device
+     * @param type       measurement type this rule watches
+     * @param threshold  threshold value for comparison
+     * @param comparison comparison operator to apply
+     * @param active     whether the rule is currently enforced
+     */
+    public AlertRule(String id, String deviceId, MeasurementType type, double threshold, Comparison comparison,
+            boolean active) {
+        this(id, deviceId, type, threshold, comparison, active, null, null);
+    }
+
+    /**
+     * Creates a rule with the default notification policy.
+     *
+     * @param id         unique identifier
+     * @param deviceId   target device
+     * @param type       measurement type this rule watches
+     * @param threshold  threshold value for comparison
+     * @param comparison comparison operator to apply
+     * @param active     whether the rule is currently enforced
+     * @param window     sliding window to aggregate over; {@code null}
+     *                   compares each value on its own
+     */
+    public AlertRule(String id, String deviceId, MeasurementType type, double threshold, Comparison comparison,
+            boolean active, AlertWindow window) {
+        this(id, deviceId, type, threshold, comparison, active, window, null);
+    }
+
+    /**
+     * Returns a copy with another active flag.
+     *
+     * @param active whether the copy is enforced
+     * @return updated rule
+     */
+    public AlertRule withActive(boolean active) {
+        return new AlertRule(id, deviceId, type, threshold, comparison, active, window, policy);
+    }
 }
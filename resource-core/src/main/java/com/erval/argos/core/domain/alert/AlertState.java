@@ -0,0 +1,15 @@
+package com.erval.argos.core.domain.alert;
+
+/**
+ * State of an alert rule for its series.
+ * <p>
+ * A rule starts {@code OK}, moves to {@code FIRING} once its condition held
+ * long enough and to {@code RESOLVED} once the value cleared the hysteresis
+ * band long enough; a resolved rule behaves like an {@code OK} one. Only
+ * transitions, and reminders while firing, produce an {@link Alert}.
+ */
+public enum AlertState {
+    OK,
+    FIRING,
+    RESOLVED
+}
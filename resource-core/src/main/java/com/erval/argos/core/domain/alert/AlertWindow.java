@@ -0,0 +1,16 @@
+package com.erval.argos.core.domain.alert;
+
+import java.time.Duration;
+
+/**
+ * Sliding window of a windowed {@link AlertRule}.
+ * <p>
+ * The window ending at a measurement holds the readings of the same series
+ * with a timestamp in {@code (timestamp - length, timestamp]}; the rule
+ * compares {@code aggregate} of those readings against its threshold.
+ *
+ * @param aggregate statistic computed over the window
+ * @param length    window length
+ */
+public record AlertWindow(WindowAggregate aggregate, Duration length) {
+}
@@ -0,0 +1,58 @@
+package com.erval.argos.core.domain.alert;
+
+/**
+ * Operator an {@link AlertRule} applies between a measured value and its
+ * threshold.
+ */
+public enum Comparison {
+    GREATER_THAN,
+    GREATER_OR_EQUAL,
+    LESS_THAN,
+    LESS_OR_EQUAL;
+
+    /**
+     * Applies the operator.
+     *
+     * @param value     measured value
+     * @param threshold rule threshold
+     * @return {@code true} when the value triggers the rule; never for NaN
+     */
+    public boolean matches(double value, double threshold) {
+        return switch (this) {
+            case GREATER_THAN -> value > threshold;
+            case GREATER_OR_EQUAL -> value >= threshold;
+            case LESS_THAN -> value < threshold;
+            case LESS_OR_EQUAL -> value <= threshold;
+        };
+    }
+
+    /**
+     * Moves a threshold away from the triggering side by a margin, giving
+     * the level a value must clear to resolve a firing rule.
+     *
+     * @param threshold  rule threshold
+     * @param hysteresis non-negative margin
+     * @return threshold lowered for {@code GREATER_*}, raised for
+     *         {@code LESS_*}
+     */
+    public double relaxed(double threshold, double hysteresis) {
+        return switch (this) {
+            case GREATER_THAN, GREATER_OR_EQUAL -> threshold - hysteresis;
+            case LESS_THAN, LESS_OR_EQUAL -> threshold + hysteresis;
+        };
+    }
+
+    /**
+     * Returns the operator symbol used in alert descriptions.
+     *
+     * @return symbol such as {@code >=}
+     */
+    public String symbol() {
+        return switch (this) {
+            case GREATER_THAN -> ">";
+            case GREATER_OR_EQUAL -> ">=";
+            case LESS_THAN -> "<";
+            case LESS_OR_EQUAL -> "<=";
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.erval.argos.core.domain.alert;
+
+/**
+ * Statistic a windowed {@link AlertRule} compares against its threshold.
+ */
+public enum WindowAggregate {
+    /** Mean of the values in the window. */
+    AVG,
+    /** Smallest value in the window. */
+    MIN,
+    /** Largest value in the window. */
+    MAX,
+    /**
+     * Change per minute between the oldest and newest value in the window;
+     * undefined until the window spans two distinct timestamps.
+     */
+    RATE
+}
@@ -10,6 +10,10 @@ import java.time.Instant;
  * <li>{@code deviceId}: source device identifier</li>
  * <li>{@code type}: metric category (e.g., {@link MeasurementType#TEMP})</li>
  * <li>{@code value}: numeric reading captured at {@code timestamp}</li>
+ * <li>{@code sequenceNumber}: per-device number increasing in acceptance
+ * order; numbers are assigned before the write and not reused when it fails
+ * or times out, so a gap does not by itself mean a stored reading was
+ * lost</li>
  * <li>{@code tags}: optional labels describing context or location</li>
  * </ul>
  */
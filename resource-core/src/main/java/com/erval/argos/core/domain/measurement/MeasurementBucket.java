@@ -0,0 +1,33 @@
+package com.erval.argos.core.domain.measurement;
+
+import java.time.Instant;
+
+/**
+ * Summary of all measurements of one device and type within a time bucket.
+ * <p>
+ * Semantics:
+ * <ul>
+ * <li>{@code start} is the inclusive bucket start, aligned to the requested
+ * interval</li>
+ * <li>{@code first}/{@code last} are the values with the earliest and latest
+ * timestamps in the bucket</li>
+ * <li>buckets without measurements are not returned</li>
+ * </ul>
+ *
+ * @param start inclusive bucket start
+ * @param count number of measurements in the bucket
+ * @param min   smallest value
+ * @param max   largest value
+ * @param avg   arithmetic mean of the values
+ * @param first earliest value
+ * @param last  latest value
+ */
+public record MeasurementBucket(
+        Instant start,
+        long count,
+        double min,
+        double max,
+        double avg,
+        double first,
+        double last) {
+}
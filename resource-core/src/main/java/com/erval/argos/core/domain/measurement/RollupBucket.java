@@ -0,0 +1,49 @@
+package com.erval.argos.core.domain.measurement;
+
+import java.time.Instant;
+
+/**
+ * Incrementally maintained statistics of one device series within a rollup
+ * bucket.
+ * <p>
+ * Only additive or idempotent fields are stored, so a bucket can be updated
+ * with {@code $inc}/{@code $min}/{@code $max} without reading it first.
+ * Mean and standard deviation are derived on read.
+ *
+ * @param start      inclusive bucket start
+ * @param count      number of measurements
+ * @param sum        sum of values
+ * @param min        smallest value
+ * @param max        largest value
+ * @param sumSquares sum of squared values
+ */
+public record RollupBucket(
+        Instant start,
+        long count,
+        double sum,
+        double min,
+        double max,
+        double sumSquares) {
+
+    /**
+     * Returns the arithmetic mean of the bucket.
+     *
+     * @return mean value, or {@code NaN} for an empty bucket
+     */
+    public double avg() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Returns the population standard deviation of the bucket.
+     *
+     * @return standard deviation, or {@code NaN} for an empty bucket
+     */
+    public double stddev() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double mean = sum / count;
+        return Math.sqrt(Math.max(0, sumSquares / count - mean * mean));
+    }
+}
@@ -0,0 +1,55 @@
+package com.erval.argos.core.domain.measurement;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Pre-aggregation resolutions maintained for every device series.
+ * <p>
+ * Buckets are aligned to the resolution in UTC, e.g. {@link #HOUR} buckets
+ * start on the full hour.
+ */
+public enum RollupResolution {
+    MINUTE(Duration.ofMinutes(1)),
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1));
+
+    private final Duration size;
+
+    RollupResolution(Duration size) {
+        this.size = size;
+    }
+
+    /**
+     * Returns the bucket length.
+     *
+     * @return bucket length
+     */
+    public Duration size() {
+        return size;
+    }
+
+    /**
+     * Returns the start of the bucket containing an instant.
+     *
+     * @param timestamp instant to align
+     * @return inclusive bucket start
+     */
+    public Instant truncate(Instant timestamp) {
+        long seconds = size.getSeconds();
+        return Instant.ofEpochSecond(Math.floorDiv(timestamp.getEpochSecond(), seconds) * seconds);
+    }
+
+    /**
+     * Counts the buckets touched by a half-open window.
+     *
+     * @param from inclusive window start
+     * @param to   exclusive window end
+     * @return number of buckets between the aligned start and end
+     */
+    public long bucketsBetween(Instant from, Instant to) {
+        long span = Math.max(0, Duration.between(truncate(from), to).getSeconds());
+        long seconds = size.getSeconds();
+        return (span + seconds - 1) / seconds;
+    }
+}
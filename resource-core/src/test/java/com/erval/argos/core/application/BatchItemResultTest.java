@@ -0,0 +1,31 @@
+package com.erval.argos.core.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BatchItemResultTest {
+
+    @Test
+    void successCarriesValueWithoutError() {
+        BatchItemResult<String> result = BatchItemResult.success(3, "ok");
+
+        assertEquals(3, result.index());
+        assertEquals("ok", result.value());
+        assertNull(result.error());
+        assertTrue(result.succeeded());
+    }
+
+    @Test
+    void failureCarriesErrorWithoutValue() {
+        BatchItemResult<String> result = BatchItemResult.failure(1, "boom");
+
+        assertEquals(1, result.index());
+        assertNull(result.value());
+        assertEquals("boom", result.error());
+        assertFalse(result.succeeded());
+    }
+}
@@ -0,0 +1,29 @@
+package com.erval.argos.core.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsThroughOpaqueToken() {
+        PageCursor cursor = new PageCursor("timestamp", SortDirection.DESC, "2026-01-01T00:00:00Z", "abc");
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor"));
+    }
+
+    @Test
+    void rejectsCursorIssuedForAnotherSort() {
+        String token = new PageCursor("name", SortDirection.ASC, "a", "1").encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> PageCursor.decodeFor(token, "name", SortDirection.DESC));
+    }
+}
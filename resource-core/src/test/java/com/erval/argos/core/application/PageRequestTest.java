@@ -1,6 +1,10 @@
 package com.erval.argos.core.application;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
@@ -15,4 +19,28 @@ class PageRequestTest {
         assertEquals("name", request.sortBy());
         assertEquals(SortDirection.DESC, request.direction());
     }
+
+    @Test
+    void treatsRequestWithCursorAsKeyset() {
+        assertFalse(new PageRequest(0, 10, "name", SortDirection.ASC).isKeyset());
+        assertTrue(new PageRequest(0, 10, "name", SortDirection.ASC, "cursor").isKeyset());
+    }
+
+    @Test
+    void defaultsToExactCount() {
+        PageRequest request = new PageRequest(0, 10, "name", SortDirection.ASC);
+
+        assertEquals(CountMode.EXACT, request.countMode());
+        assertEquals(CountMode.NONE, request.withCountMode(CountMode.NONE).countMode());
+    }
+
+    @Test
+    void carriesFieldSelectionAcrossCopies() {
+        PageRequest request = new PageRequest(0, 10, "name", SortDirection.ASC);
+
+        assertTrue(request.selectsAllFields());
+        PageRequest projected = request.withFields(Set.of("name")).withCountMode(CountMode.NONE);
+        assertFalse(projected.selectsAllFields());
+        assertEquals(Set.of("name"), projected.fields());
+    }
 }
@@ -1,6 +1,7 @@
 package com.erval.argos.core.application;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import java.util.List;
 
@@ -21,4 +22,12 @@ class PageResultTest {
 
         assertEquals(0, result.totalPages());
     }
+
+    @Test
+    void reportsNoPagesWhenTotalWasNotCounted() {
+        PageResult<String> result = new PageResult<>(List.of("a"), PageResult.UNKNOWN_TOTAL, 0, 10);
+
+        assertFalse(result.hasTotal());
+        assertEquals(0, result.totalPages());
+    }
 }
@@ -18,6 +18,7 @@ class DeviceCommandRecordsTest {
         assertEquals(DeviceType.CO2, cmd.type());
         assertEquals("A", cmd.building());
         assertEquals("101", cmd.room());
+        assertNull(cmd.config());
     }
 
     @Test
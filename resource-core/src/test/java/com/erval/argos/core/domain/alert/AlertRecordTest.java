@@ -18,5 +18,6 @@ class AlertRecordTest {
         assertEquals("device1", alert.deviceId());
         assertEquals("threshold exceeded", alert.description());
         assertEquals(ts, alert.timestamp());
+        assertEquals(AlertState.FIRING, alert.state());
     }
 }
@@ -1,19 +1,21 @@
 package com.erval.argos.core.domain.alert;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.Test;
 
 import com.erval.argos.core.domain.measurement.MeasurementType;
 
-import jdk.dynalink.linker.ConversionComparator;
-
 class AlertRuleRecordTest {
 
     @Test
     void storesRuleFields() {
-        ConversionComparator.Comparison comparison = ConversionComparator.Comparison.values()[0];
+        Comparison comparison = Comparison.GREATER_THAN;
         AlertRule rule = new AlertRule("r1", "device1", MeasurementType.CO2, 100.5, comparison, true);
 
         assertEquals("r1", rule.id());
@@ -22,5 +24,39 @@ class AlertRuleRecordTest {
         assertEquals(100.5, rule.threshold());
         assertEquals(comparison, rule.comparison());
         assertTrue(rule.active());
+        assertNull(rule.window());
+        assertNull(rule.policy());
+    }
+
+    @Test
+    void withActiveKeepsWindowAndPolicy() {
+        AlertWindow window = new AlertWindow(WindowAggregate.AVG, Duration.ofMinutes(5));
+        AlertPolicy policy = new AlertPolicy(50, Duration.ofMinutes(1), Duration.ofHours(1));
+        AlertRule rule = new AlertRule("r1", "device1", MeasurementType.CO2, 1000, Comparison.GREATER_THAN, true,
+                window, policy);
+
+        AlertRule inactive = rule.withActive(false);
+
+        assertFalse(inactive.active());
+        assertEquals(window, inactive.window());
+        assertEquals(policy, inactive.policy());
+    }
+
+    @Test
+    void comparisonsApplyTheirOperator() {
+        assertTrue(Comparison.GREATER_THAN.matches(2.0, 1.0));
+        assertFalse(Comparison.GREATER_THAN.matches(1.0, 1.0));
+        assertTrue(Comparison.GREATER_OR_EQUAL.matches(1.0, 1.0));
+        assertTrue(Comparison.LESS_THAN.matches(0.5, 1.0));
+        assertTrue(Comparison.LESS_OR_EQUAL.matches(1.0, 1.0));
+        assertFalse(Comparison.LESS_OR_EQUAL.matches(Double.NaN, 1.0));
+    }
+
+    @Test
+    void relaxedMovesThresholdAwayFromTheTriggeringSide() {
+        assertEquals(8.0, Comparison.GREATER_THAN.relaxed(10, 2));
+        assertEquals(8.0, Comparison.GREATER_OR_EQUAL.relaxed(10, 2));
+        assertEquals(12.0, Comparison.LESS_THAN.relaxed(10, 2));
+        assertEquals(12.0, Comparison.LESS_OR_EQUAL.relaxed(10, 2));
     }
 }